@@ -0,0 +1,337 @@
+import gzip
+import json
+import logging
+import zlib
+import numpy as np
+import pandas as pd
+from fastapi import FastAPI, HTTPException, Request
+from fastapi.responses import JSONResponse
+from fastapi.middleware.gzip import GZipMiddleware
+from pydantic import BaseModel, ValidationError
+from typing import Dict, List, Optional
+import uvicorn
+from fastapi.middleware.cors import CORSMiddleware
+
+logger = logging.getLogger(__name__)
+
+# ---------------- 요청(Request) 모델 ----------------
+class CustomerDataInput(BaseModel):
+    customer_id: str
+    amount: float
+    total_visits: int
+    days_since_last_visit: int
+    visits_8_week_ago: int
+    visits_7_week_ago: int
+    visits_6_week_ago: int
+    visits_5_week_ago: int
+    visits_4_week_ago: int
+    visits_3_week_ago: int
+    visits_2_week_ago: int
+    visits_1_week_ago: int
+
+class CustomerRequest(BaseModel):
+    data: List[CustomerDataInput]
+    # 매장 전체 정규화 범위 (청크/델타 요청), 키별 [min, max]
+    bounds: Optional[Dict[str, List[float]]] = None
+
+# ---------------- 응답(Response) 모델 ----------------
+class CustomerDataOutput(BaseModel):
+    customer_id: str
+    customer_segment: str
+    predicted_loyalty_score: float
+    churn_risk_score: float  # 디버깅 및 분석용
+
+class CustomerResponse(BaseModel):
+    result: List[CustomerDataOutput]
+
+# ---------- 2. FastAPI 앱 초기화 ----------
+app = FastAPI(
+    title="MOKI 고객 분석 AI API",
+    description="고객 데이터를 받아 충성도와 이탈 위험도를 분석합니다."
+)
+
+app.add_middleware(
+    CORSMiddleware,
+    allow_origins=["*"],
+    allow_credentials=True,
+    allow_methods=["*"],
+    allow_headers=["*"],
+)
+
+# Accept-Encoding: gzip 요청에 대해 응답 압축
+app.add_middleware(GZipMiddleware, minimum_size=1024)
+
+# 필드명을 columns 헤더에 한 번만 싣고 고객별 값만 배열로 주고받는 형식
+COMPACT_MEDIA_TYPE = "application/vnd.moki.compact+json"
+INPUT_COLUMNS = list(CustomerDataInput.model_fields.keys())
+OUTPUT_COLUMNS = list(CustomerDataOutput.model_fields.keys())
+
+# ---------- 3. 분석용 유틸 함수 ----------
+def minmax_series(s, bounds=None):
+    """
+    기본 Min-Max 정규화
+    - bounds([min, max])가 주어지면 요청 고객끼리가 아니라 그 범위(매장 전체)로 정규화하고 범위 밖 값은 0~1로 자름
+    """
+    if bounds is None:
+        mn, mx = s.min(), s.max()
+    else:
+        mn, mx = bounds
+    if mx == mn:
+        return s.apply(lambda _: 0.5)
+    normalized = (s - mn) / (mx - mn)
+    return normalized if bounds is None else normalized.clip(0.0, 1.0)
+
+def log_minmax_series(s, bounds=None):
+    """
+    [핵심] 로그 변환 후 정규화
+    - 데이터 쏠림 현상 방지
+    - bounds는 로그 변환 후 값 기준
+    """
+    s_log = np.log1p(s.astype(float))
+    return minmax_series(s_log, bounds)
+
+def bound_of(bounds, key):
+    """요청에 담긴 매장 정규화 범위 중 key 범위 (없으면 None → 요청 고객끼리 정규화)"""
+    if not bounds or key not in bounds:
+        return None
+    mn, mx = bounds[key]
+    return float(mn), float(mx)
+
+def compute_initial_loyalty_score(df, weights=None, bounds=None):
+    """
+    [충성도 점수 - Log Scale 적용]
+    - Recency(40), Visits(30), Spend(30)
+    """
+    if weights is None:
+        weights = {"total_visits": 0.3, "avg_spend": 0.3, "recency_inv": 0.4}
+    
+    df = df.copy()
+    
+    # 평균 지출 금액 계산
+    df["avg_spend"] = df.apply(lambda x: x["amount"] / x["total_visits"] if x["total_visits"] > 0 else 0, axis=1)
+
+    # 로그 변환 + 정규화
+    total_visits_n = log_minmax_series(df["total_visits"], bound_of(bounds, "total_visits"))
+    avg_spend_n = log_minmax_series(df["avg_spend"], bound_of(bounds, "avg_spend"))
+    
+    # Recency: 작을수록 좋음 -> 로그 변환 후 뒤집기 (1 - 값)
+    recency_log = np.log1p(df["days_since_last_visit"].astype(float))
+    recency_norm = minmax_series(recency_log, bound_of(bounds, "recency"))
+    recency_inv_n = 1.0 - recency_norm 
+    
+    # 가중 합산
+    weighted = (
+        total_visits_n * weights["total_visits"]
+        + avg_spend_n * weights["avg_spend"]
+        + recency_inv_n * weights["recency_inv"]
+    )
+    
+    return np.clip(weighted, 0.0, 1.0)
+
+def compute_churn_risk_score(df, weights=None, bounds=None):
+    """
+    [이탈 위험도 점수 - 로컬 분석 로직 동기화 완료]
+    - 가중치: Recency(0.4), Trend(0.3), Decline(0.3)
+    """
+    if weights is None:
+        # [핵심 변경] 로컬 스크립트와 동일한 가중치 적용
+        weights = {"recency_n": 0.3, "weighted_trend_inv_n": 0.3, "visit_decline_n": 0.4}
+        
+    df = df.copy()
+    # 결측치 채우기
+    for w in range(1, 9):
+        col = f"visits_{w}_week_ago"
+        if col not in df.columns:
+            df[col] = 0.0
+        df[col] = df[col].fillna(0.0)
+    df["days_since_last_visit"] = df["days_since_last_visit"].fillna(0.0)
+
+    # 1. Recency (60일 기준 Clipping + MinMax)
+    clipped_recency = df["days_since_last_visit"].clip(upper=60)
+    recency_n = minmax_series(clipped_recency.astype(float), bound_of(bounds, "churn_recency"))
+
+    # 2. Activity Trend
+    weights_recent = {
+        "visits_1_week_ago": 8.0, "visits_2_week_ago": 7.0,
+        "visits_3_week_ago": 6.0, "visits_4_week_ago": 5.0,
+        "visits_5_week_ago": 4.0, "visits_6_week_ago": 3.0,
+        "visits_7_week_ago": 2.0, "visits_8_week_ago": 1.0,
+    }
+    weighted_score = pd.Series(np.zeros(len(df)), index=df.index, dtype=float)
+    for col, weight in weights_recent.items():
+        weighted_score += df[col] * weight
+    
+    # Trend는 활동 적을수록 위험 -> 역수 변환
+    weighted_inv = 1.0 / (1.0 + weighted_score)
+    weighted_trend_inv_n = minmax_series(weighted_inv, bound_of(bounds, "trend_inverse"))
+
+    # 3. Visit Decline (로그 변환 적용)
+    recent_4w_sum = (df["visits_1_week_ago"] + df["visits_2_week_ago"] + 
+                     df["visits_3_week_ago"] + df["visits_4_week_ago"])
+    past_4w_sum = (df["visits_5_week_ago"] + df["visits_6_week_ago"] + 
+                   df["visits_7_week_ago"] + df["visits_8_week_ago"])
+    
+    decline_score = (past_4w_sum - recent_4w_sum).clip(lower=0)
+    visit_decline_n = log_minmax_series(decline_score, bound_of(bounds, "visit_decline")) # [핵심] 로그 적용
+
+    churn_scores = (
+        recency_n * weights["recency_n"]
+        + weighted_trend_inv_n * weights["weighted_trend_inv_n"]
+        + visit_decline_n * weights["visit_decline_n"]
+    )
+    return minmax_series(churn_scores, bound_of(bounds, "churn_score"))
+
+# ---------- 4. 고객 데이터 분석 (메인 로직) ----------
+def analyze_customer_data(df: pd.DataFrame, bounds: Optional[Dict[str, List[float]]] = None) -> pd.DataFrame:
+    """
+    bounds가 주어지면(매장 고객 일부만 담은 청크/델타 요청) 매장 전체 범위로 정규화
+    충성도는 bounds 유무와 관계없이 규칙 기반 점수를 사용하므로, 매장을 나누어 보낸 점수와 한 번에 보낸 점수가 같음
+    (요청마다 요청 고객만으로 모델을 학습하면 어떤 고객이 함께 왔는지에 따라 점수가 달라짐)
+    """
+    # -----------------------------------------------------------------
+    # [1] 활성/비활성 고객 분리 (Active vs Inactive)
+    # -----------------------------------------------------------------
+    # 60일 이상 미방문 고객은 분석 분포를 왜곡하므로 별도 처리
+    ACTIVE_THRESHOLD = 60
+    
+    if "days_since_last_visit" not in df.columns:
+        df["days_since_last_visit"] = 0
+    
+    mask_active = df["days_since_last_visit"] <= ACTIVE_THRESHOLD
+    
+    df_active = df[mask_active].copy()
+    df_inactive = df[~mask_active].copy()
+    
+    # -----------------------------------------------------------------
+    # [2] 활성 고객(Active) 분석 수행
+    # -----------------------------------------------------------------
+    if not df_active.empty:
+        # 1. 초기 충성도 점수 (로그 변환 + 규칙 기반)
+        df_active["initial_loyalty_score"] = compute_initial_loyalty_score(df_active, bounds=bounds)
+        
+        # 2. 최종 충성도 점수 (bounds 유무와 관계없이 규칙 기반 점수)
+        df_active["predicted_loyalty_score"] = df_active["initial_loyalty_score"].round(4)
+        
+        # 3. 이탈 위험도 점수
+        df_active["churn_risk_score"] = compute_churn_risk_score(df_active, bounds=bounds).round(4)
+        
+        # 4. 세그먼트 할당 (로컬 로직 임계값 적용)
+        LOYALTY_THRESHOLD = 0.60      # 충성도 기준 0.6
+        CHURN_RISK_THRESHOLD = 0.40   # [핵심 변경] 이탈 기준 0.6 (안정성 확보)
+
+        df_active["is_loyal"] = df_active["predicted_loyalty_score"] >= LOYALTY_THRESHOLD
+        df_active["is_high_risk"] = df_active["churn_risk_score"] >= CHURN_RISK_THRESHOLD
+
+        conditions = [
+            (df_active["is_loyal"] & df_active["is_high_risk"]),      # AT_RISK_LOYAL
+            (df_active["is_loyal"] & ~df_active["is_high_risk"]),     # LOYAL
+            (~df_active["is_loyal"] & df_active["is_high_risk"]),     # CHURN_RISK
+            (~df_active["is_loyal"] & ~df_active["is_high_risk"])     # GENERAL
+        ]
+        choices = ["AT_RISK_LOYAL", "LOYAL", "CHURN_RISK", "GENERAL"]
+        df_active["customer_segment"] = np.select(conditions, choices, default="GENERAL")
+
+    # -----------------------------------------------------------------
+    # [3] 비활성 고객(Inactive) 처리
+    # -----------------------------------------------------------------
+    if not df_inactive.empty:
+        # 장기 미방문자는 무조건 이탈 위험군으로 분류
+        df_inactive["predicted_loyalty_score"] = 0.0
+        df_inactive["churn_risk_score"] = 1.0
+        df_inactive["customer_segment"] = "CHURN_RISK"
+
+    # -----------------------------------------------------------------
+    # [4] 결과 병합
+    # -----------------------------------------------------------------
+    result_df = pd.concat([df_active, df_inactive])
+    
+    # 안전한 반환을 위해 NaN 처리
+    result_df["predicted_loyalty_score"] = result_df["predicted_loyalty_score"].fillna(0.0)
+    result_df["churn_risk_score"] = result_df["churn_risk_score"].fillna(0.0)
+    result_df["customer_segment"] = result_df["customer_segment"].fillna("GENERAL")
+    
+    return result_df
+
+# ---------- 5. 엔드포인트 ----------
+@app.get("/")
+async def root():
+    return {"status": "AI Server is running"}
+
+def decode_request_body(body: bytes, content_encoding: str) -> bytes:
+    """Content-Encoding(gzip/deflate)에 따라 요청 본문 압축 해제"""
+    encoding = (content_encoding or "identity").lower()
+    if encoding == "gzip":
+        return gzip.decompress(body)
+    if encoding == "deflate":
+        return zlib.decompress(body)
+    if encoding == "identity":
+        return body
+    raise HTTPException(status_code=415, detail=f"Unsupported Content-Encoding: {content_encoding}")
+
+def read_compact_request(body: bytes):
+    """{"columns": [...], "bounds": {...}, "data": [[...], ...]} 형식을 (DataFrame, bounds)로 변환"""
+    payload = json.loads(body)
+    columns = payload.get("columns")
+    rows = payload.get("data") or []
+    if not columns or any(column not in columns for column in INPUT_COLUMNS):
+        raise HTTPException(status_code=422, detail="columns header is missing required fields")
+    df = pd.DataFrame(rows, columns=columns)
+    df["customer_id"] = df["customer_id"].astype(str)
+    return df[INPUT_COLUMNS], payload.get("bounds")
+
+def analyze_or_raise(df: pd.DataFrame, bounds=None) -> pd.DataFrame:
+    try:
+        return analyze_customer_data(df, bounds)
+    except Exception as e:
+        logger.exception("Error during analysis")
+        raise HTTPException(status_code=500, detail=f"Analysis failed: {str(e)}")
+
+@app.post("/api/ai/customers", 
+          response_model=CustomerResponse,
+          response_model_exclude_unset=True)
+async def analyze_customers_endpoint(http_request: Request): 
+    """
+    고객 데이터 리스트(JSON)를 받아 분석 후,
+    결과(점수, 세그먼트)가 추가된 리스트(JSON)를 반환합니다.
+    Content-Type이 application/vnd.moki.compact+json이면 columns 헤더 + 값 배열 형식으로 주고받고,
+    Content-Encoding: gzip/deflate 요청 본문을 지원합니다.
+    bounds(매장 전체 정규화 범위)가 있으면 그 범위로 정규화한 규칙 기반 점수를 반환합니다.
+    """
+    body = decode_request_body(await http_request.body(),
+                               http_request.headers.get("content-encoding"))
+    content_type = http_request.headers.get("content-type", "application/json")
+
+    if content_type.startswith(COMPACT_MEDIA_TYPE):
+        df, bounds = read_compact_request(body)
+        if df.empty:
+            return JSONResponse({"columns": OUTPUT_COLUMNS, "result": []}, media_type=COMPACT_MEDIA_TYPE)
+
+        result_df = analyze_or_raise(df, bounds)
+        return JSONResponse({"columns": OUTPUT_COLUMNS, "result": result_df[OUTPUT_COLUMNS].values.tolist()},
+                            media_type=COMPACT_MEDIA_TYPE)
+
+    if not content_type.startswith("application/json"):
+        raise HTTPException(status_code=415, detail=f"Unsupported Content-Type: {content_type}")
+
+    try:
+        request = CustomerRequest.model_validate_json(body)
+    except ValidationError as e:
+        raise HTTPException(status_code=422, detail=json.loads(e.json()))
+
+    if not request.data:
+        return CustomerResponse(result=[])
+    
+    data_list = [customer.model_dump() for customer in request.data]
+    df = pd.DataFrame(data_list)
+    
+    result_df = analyze_or_raise(df, request.bounds)
+    
+    # DataFrame -> Dict List 변환
+    result_records = result_df.to_dict(orient="records")
+    
+    return CustomerResponse(result=result_records)
+
+# ---------- 6. 서버 실행 ----------
+if __name__ == "__main__":
+    print("AI 서버를 http://127.0.0.1:8000 에서 시작합니다.")
+    uvicorn.run(app, host="127.0.0.1", port=8000)
\ No newline at end of file
@@ -0,0 +1,102 @@
+"""
+매장 고객을 청크로 나누어 매장 전체 범위(bounds)와 함께 분석한 점수가
+매장 전체를 한 번에 분석한 점수와 같은지 확인
+
+실행: ai/server/AI 에서 python -m unittest discover tests
+"""
+import unittest
+
+import numpy as np
+import pandas as pd
+
+from app.main import INPUT_COLUMNS, analyze_customer_data
+
+CHURN_WEIGHTS = (0.3, 0.3, 0.4)
+TREND_WEIGHTS = {f"visits_{w}_week_ago": float(9 - w) for w in range(1, 9)}
+
+
+def make_store(n=37, seed=7):
+    """활성/비활성 고객이 섞인 매장 고객 목록"""
+    rng = np.random.default_rng(seed)
+    rows = []
+    for i in range(n):
+        weekly = rng.integers(0, 4, size=8)
+        total_visits = int(weekly.sum() + rng.integers(0, 20))
+        rows.append({
+            "customer_id": f"c{i}",
+            "amount": float(total_visits * rng.integers(3000, 30000)),
+            "total_visits": total_visits,
+            "days_since_last_visit": int(rng.integers(0, 90)),
+            **{f"visits_{w}_week_ago": int(weekly[w - 1]) for w in range(1, 9)},
+        })
+    return pd.DataFrame(rows)[INPUT_COLUMNS]
+
+
+def store_bounds(df):
+    """백엔드 ScoreBounds와 같은 방식으로 활성 고객 전체에서 정규화 범위 계산"""
+    active = df[df["days_since_last_visit"] <= 60]
+
+    def span(s):
+        return [float(s.min()), float(s.max())]
+
+    def normalize(s, bounds):
+        mn, mx = bounds
+        return s.apply(lambda _: 0.5) if mx == mn else (s - mn) / (mx - mn)
+
+    avg_spend = (active["amount"] / active["total_visits"]).where(active["total_visits"] > 0, 0.0)
+    churn_recency = active["days_since_last_visit"].clip(upper=60).astype(float)
+    trend_inverse = 1.0 / (1.0 + sum(active[col] * w for col, w in TREND_WEIGHTS.items()))
+    recent = sum(active[f"visits_{w}_week_ago"] for w in range(1, 5))
+    past = sum(active[f"visits_{w}_week_ago"] for w in range(5, 9))
+    visit_decline = np.log1p((past - recent).clip(lower=0).astype(float))
+
+    bounds = {
+        "total_visits": span(np.log1p(active["total_visits"].astype(float))),
+        "avg_spend": span(np.log1p(avg_spend.astype(float))),
+        "recency": span(np.log1p(active["days_since_last_visit"].astype(float))),
+        "churn_recency": span(churn_recency),
+        "trend_inverse": span(trend_inverse),
+        "visit_decline": span(visit_decline),
+    }
+    churn_score = (normalize(churn_recency, bounds["churn_recency"]) * CHURN_WEIGHTS[0]
+                   + normalize(trend_inverse, bounds["trend_inverse"]) * CHURN_WEIGHTS[1]
+                   + normalize(visit_decline, bounds["visit_decline"]) * CHURN_WEIGHTS[2])
+    bounds["churn_score"] = span(churn_score)
+    return bounds
+
+
+def scores_by_customer(result_df):
+    return result_df.set_index("customer_id")[
+        ["predicted_loyalty_score", "churn_risk_score", "customer_segment"]].sort_index()
+
+
+class ChunkedScoringTest(unittest.TestCase):
+
+    def test_매장_전체_범위로_청크를_나누어_분석하면_한_번에_분석한_점수와_같음(self):
+        # Given
+        store = make_store()
+        bounds = store_bounds(store)
+
+        # When
+        whole = scores_by_customer(analyze_customer_data(store.copy()))
+        chunked = scores_by_customer(pd.concat(
+            [analyze_customer_data(store.iloc[start:start + 10].copy(), bounds)
+             for start in range(0, len(store), 10)]))
+
+        # Then
+        pd.testing.assert_frame_equal(whole, chunked, atol=2e-4, rtol=0)
+
+    def test_매장_전체를_bounds와_함께_보내도_bounds_없이_보낸_점수와_같음(self):
+        # Given
+        store = make_store()
+
+        # When
+        without_bounds = scores_by_customer(analyze_customer_data(store.copy()))
+        with_bounds = scores_by_customer(analyze_customer_data(store.copy(), store_bounds(store)))
+
+        # Then
+        pd.testing.assert_frame_equal(without_bounds, with_bounds, atol=2e-4, rtol=0)
+
+
+if __name__ == "__main__":
+    unittest.main()
@@ -0,0 +1,62 @@
+package com.example.moki_campaign.domain.customer.controller;
+
+import com.example.moki_campaign.domain.customer.dto.response.AnalysisJobResponseDto;
+import com.example.moki_campaign.domain.customer.service.StoreAnalysisJobQueue;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.auth.CurrentStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "고객 분석", description = "매장 고객 AI 분석 요청/상태 조회 API")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/stores/analysis")
+@SecurityRequirement(name = "bearerAuth")
+public class CustomerAnalysisController {
+
+    private final StoreAnalysisJobQueue storeAnalysisJobQueue;
+
+    @Operation(
+            summary = "고객 분석 요청",
+            description = """
+                    현재 매장의 고객 분석을 작업 큐에 등록하고 작업 ID를 반환합니다.
+                    - 같은 매장의 분석이 이미 대기/실행 중이면 해당 작업을 반환합니다.
+                    - 대기열이 가득 차면 429를 반환합니다.
+                    """
+    )
+    @ApiResponse(responseCode = "202", description = "등록 성공")
+    @PostMapping
+    public ResponseEntity<AnalysisJobResponseDto> requestAnalysis(
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        AnalysisJobResponseDto response = AnalysisJobResponseDto.from(storeAnalysisJobQueue.submit(store));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(
+            summary = "고객 분석 작업 상태 조회",
+            description = "분석 요청으로 받은 작업의 상태를 조회합니다. 끝난 작업은 1시간 동안 조회할 수 있습니다."
+    )
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @Parameters({
+            @Parameter(name = "jobId", description = "분석 작업 ID", required = true)
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<AnalysisJobResponseDto> getAnalysisJob(
+            @PathVariable String jobId,
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        AnalysisJobResponseDto response = AnalysisJobResponseDto.from(storeAnalysisJobQueue.findJob(store, jobId));
+
+        return ResponseEntity.ok(response);
+    }
+}
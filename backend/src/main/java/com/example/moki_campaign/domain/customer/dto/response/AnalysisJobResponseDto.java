@@ -0,0 +1,50 @@
+package com.example.moki_campaign.domain.customer.dto.response;
+
+import com.example.moki_campaign.domain.customer.service.AnalysisJob;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+public record AnalysisJobResponseDto(
+        @Schema(description = "분석 작업 ID", example = "3f2b8c1e-5d4a-4f6b-9c2e-7a1d0e9b8c7f")
+        @JsonProperty("job_id")
+        String jobId,
+
+        @Schema(description = "작업 상태 [QUEUED, RUNNING, COMPLETED, FAILED]", example = "QUEUED")
+        @JsonProperty("status")
+        String status,
+
+        @Schema(description = "요청 시각", example = "2025-11-10T14:30:00")
+        @JsonProperty("requested_at")
+        LocalDateTime requestedAt,
+
+        @Schema(description = "분석 시작 시각", example = "2025-11-10T14:30:02")
+        @JsonProperty("started_at")
+        LocalDateTime startedAt,
+
+        @Schema(description = "분석 종료 시각", example = "2025-11-10T14:30:15")
+        @JsonProperty("finished_at")
+        LocalDateTime finishedAt,
+
+        @Schema(description = "분류/점수가 갱신된 고객 수 (완료 시)", example = "42")
+        @JsonProperty("updated_count")
+        Integer updatedCount,
+
+        @Schema(description = "실패 원인 (실패 시)", example = "AI 분석 서버 호출에 실패했습니다.")
+        @JsonProperty("error")
+        String error
+) {
+
+    public static AnalysisJobResponseDto from(AnalysisJob job) {
+        return new AnalysisJobResponseDto(
+                job.id(),
+                job.status().name(),
+                job.requestedAt(),
+                job.startedAt(),
+                job.finishedAt(),
+                job.result() != null ? job.result().updated() : null,
+                job.error()
+        );
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 적응형 분석의 구간별 고객 예산 사용량
+ * 모든 인스턴스가 같은 행에 조건부 UPDATE로 예약하므로 인스턴스 수와 관계없이 구간당 예산을 넘지 않음
+ */
+@Entity
+@Table(name = "analysis_budget_window")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AnalysisBudgetWindow {
+
+    @Id
+    @Column(name = "window_start")
+    private LocalDateTime windowStart;
+
+    @Column(name = "used_customers", nullable = false)
+    private long usedCustomers;
+
+    // now가 속한 구간의 시작 시각 (epoch 기준으로 window 단위로 나눔)
+    public static LocalDateTime windowStartOf(LocalDateTime now, Duration window) {
+        long windowSeconds = Math.max(1, window.toSeconds());
+        long epochSecond = now.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, windowSeconds) * windowSeconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+import com.example.moki_campaign.domain.baestime.AuditingEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 주간 전체 매장 AI 분석 실행 기록
+ * 주(월요일 기준)마다 하나씩 생성되며, 재시작 시 같은 주의 실행을 이어서 진행하는 기준이 됨
+ */
+@Entity
+@Table(name = "analysis_run", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_analysis_run_week_start", columnNames = "week_start")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AnalysisRun extends AuditingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    // 재개된 매장도 같은 기준일로 특성을 만들도록 처음 시작한 날짜를 유지
+    @Column(name = "analysis_date", nullable = false)
+    private LocalDate analysisDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AnalysisRunStatus status;
+
+    @Column(name = "total_stores", nullable = false)
+    private int totalStores;
+
+    @Column(name = "completed_stores", nullable = false)
+    private int completedStores;
+
+    @Column(name = "failed_stores", nullable = false)
+    private int failedStores;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    private AnalysisRun(LocalDate analysisDate) {
+        this.weekStart = weekStartOf(analysisDate);
+        this.analysisDate = analysisDate;
+        this.status = AnalysisRunStatus.RUNNING;
+    }
+
+    public static AnalysisRun start(LocalDate analysisDate) {
+        return new AnalysisRun(analysisDate);
+    }
+
+    public void resume() {
+        this.status = AnalysisRunStatus.RUNNING;
+        this.finishedAt = null;
+    }
+
+    // 매장별 진행 상태 집계로 실행 종료 (완료되지 않은 매장이 있으면 FAILED)
+    public void finish(int totalStores, int completedStores, int failedStores) {
+        this.totalStores = totalStores;
+        this.completedStores = completedStores;
+        this.failedStores = failedStores;
+        this.status = completedStores == totalStores ? AnalysisRunStatus.COMPLETED : AnalysisRunStatus.FAILED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public boolean isRunning() {
+        return status == AnalysisRunStatus.RUNNING;
+    }
+
+    public static LocalDate weekStartOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+public enum AnalysisRunStatus {
+
+    // 진행 중 (프로세스 재시작 후에도 이 상태로 남아 있으면 중단된 실행)
+    RUNNING,
+    // 모든 매장 분석 완료
+    COMPLETED,
+    // 일부 매장 분석 실패 또는 다음 주까지 마치지 못한 실행
+    FAILED
+}
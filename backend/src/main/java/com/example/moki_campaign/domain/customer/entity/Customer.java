@@ -2,6 +2,7 @@ package com.example.moki_campaign.domain.customer.entity;
 
 import com.example.moki_campaign.domain.baestime.AuditingEntity;
 import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.util.TableIdAllocator;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -12,14 +13,18 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "customer", indexes = {
-        @Index(name = "idx_customer_store_phone", columnList = "store_id, phone_number")
+        @Index(name = "idx_customer_store_phone", columnList = "store_id, phone_number", unique = true)
 })
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 public class Customer extends AuditingEntity {
 
+    // id를 id_sequence 테이블에서 구간 단위로 미리 할당 (IDENTITY는 INSERT마다 id를 돌려받아야 해서 JDBC 배치가 꺼짐)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_id_generator")
+    @TableGenerator(name = "customer_id_generator", table = TableIdAllocator.TABLE,
+            pkColumnName = TableIdAllocator.SEGMENT_COLUMN, valueColumnName = TableIdAllocator.VALUE_COLUMN,
+            pkColumnValue = TableIdAllocator.CUSTOMER, allocationSize = TableIdAllocator.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,29 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 고객별 마지막으로 AI 서버에 전송한 특성 벡터의 지문
+ * 델타 분석에서 특성이 바뀌지 않은 고객을 전송 대상에서 제외하는 기준 (쓰기는 JDBC 배치로 수행)
+ */
+@Entity
+@Table(name = "customer_analysis_fingerprint", indexes = {
+        @Index(name = "idx_analysis_fingerprint_store", columnList = "store_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CustomerAnalysisFingerprint {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "fingerprint", nullable = false)
+    private long fingerprint;
+}
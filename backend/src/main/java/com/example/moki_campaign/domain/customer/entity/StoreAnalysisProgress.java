@@ -0,0 +1,97 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+import com.example.moki_campaign.domain.baestime.AuditingEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주간 분석 실행 내 매장별 진행 상태
+ * lastCustomerId: 결과 반영까지 끝난 마지막 청크의 마지막 고객 id (청크 분석 재개 기준, 0이면 처음부터)
+ * owner/leaseUntil: 여러 인스턴스로 나누어 분석할 때 매장을 선점한 인스턴스와 임대 만료 시각 (완료/실패 시 해제)
+ */
+@Entity
+@Table(name = "store_analysis_progress", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_store_analysis_progress_run_store", columnNames = {"run_id", "store_id"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StoreAnalysisProgress extends AuditingEntity {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    public static final int MAX_OWNER_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StoreAnalysisStatus status;
+
+    @Column(name = "last_customer_id", nullable = false)
+    private long lastCustomerId;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "owner", length = MAX_OWNER_LENGTH)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    private StoreAnalysisProgress(Long runId, Long storeId) {
+        this.runId = runId;
+        this.storeId = storeId;
+        this.status = StoreAnalysisStatus.PENDING;
+    }
+
+    public static StoreAnalysisProgress pending(Long runId, Long storeId) {
+        return new StoreAnalysisProgress(runId, storeId);
+    }
+
+    // 분석 시작, 이어서 분석할 위치(마지막으로 반영된 고객 id)를 반환
+    public long start() {
+        this.status = StoreAnalysisStatus.IN_PROGRESS;
+        this.attempts++;
+        return lastCustomerId;
+    }
+
+    public void recordChunk(long lastCustomerId) {
+        this.lastCustomerId = Math.max(this.lastCustomerId, lastCustomerId);
+    }
+
+    public void complete() {
+        this.status = StoreAnalysisStatus.COMPLETED;
+        this.lastError = null;
+        releaseLease();
+    }
+
+    public void fail(String error) {
+        this.status = StoreAnalysisStatus.FAILED;
+        this.lastError = truncateError(error);
+        releaseLease();
+    }
+
+    public static String truncateError(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private void releaseLease() {
+        this.owner = null;
+        this.leaseUntil = null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 매장별 적응형 분석 일정
+ * 최근 방문량과 지난 분석에서 결과가 바뀐 고객 비율로 주기(cadenceHours)와 우선순위를 정하고 nextDueAt에 다시 분석
+ * owner / leaseUntil: 분석을 선점한 인스턴스와 임대 만료 시각 (여러 인스턴스가 같은 매장을 동시에 분석하지 않도록 함)
+ */
+@Entity
+@Table(name = "store_analysis_schedule", indexes = {
+        @Index(name = "idx_store_analysis_schedule_next_due", columnList = "next_due_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StoreAnalysisSchedule {
+
+    @Id
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(name = "next_due_at", nullable = false)
+    private LocalDateTime nextDueAt;
+
+    @Column(name = "owner", length = StoreAnalysisProgress.MAX_OWNER_LENGTH)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "cadence_hours", nullable = false)
+    private int cadenceHours;
+
+    @Column(name = "priority", nullable = false)
+    private double priority;
+
+    // 마지막 분석 시점의 최근 7일 방문 수
+    @Column(name = "recent_visits", nullable = false)
+    private int recentVisits;
+
+    // 마지막 분석에서 segment/점수가 바뀐 고객 비율 (아직 분석하지 않았으면 null)
+    @Column(name = "change_ratio")
+    private Double changeRatio;
+
+    @Column(name = "last_analyzed_at")
+    private LocalDateTime lastAnalyzedAt;
+
+    private StoreAnalysisSchedule(Long storeId, LocalDateTime nextDueAt) {
+        this.storeId = storeId;
+        this.nextDueAt = nextDueAt;
+        this.priority = 1.0;
+    }
+
+    // 새로 등록된 매장은 바로 분석 대상
+    public static StoreAnalysisSchedule dueNow(Long storeId, LocalDateTime now) {
+        return new StoreAnalysisSchedule(storeId, now);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.moki_campaign.domain.customer.entity;
+
+public enum StoreAnalysisStatus {
+
+    PENDING, IN_PROGRESS, COMPLETED, FAILED
+}
@@ -0,0 +1,50 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.customer.entity.AnalysisBudgetWindow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface AnalysisBudgetWindowRepository extends JpaRepository<AnalysisBudgetWindow, LocalDateTime> {
+
+    // 구간의 사용량 행이 없으면 0으로 생성 (다른 인스턴스가 먼저 만들었으면 건너뜀)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO analysis_budget_window (window_start, used_customers) VALUES (:windowStart, 0)",
+            nativeQuery = true)
+    int createIfAbsent(@Param("windowStart") LocalDateTime windowStart);
+
+    // 남은 예산 안이면 customers명 예약 (갱신된 행 수 1이면 성공)
+    // 구간에서 아직 아무것도 예약하지 않았으면 예산보다 큰 매장도 예약하여 큰 매장이 계속 밀리지 않도록 함
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE AnalysisBudgetWindow w
+               SET w.usedCustomers = w.usedCustomers + :customers
+             WHERE w.windowStart = :windowStart
+               AND (w.usedCustomers = 0 OR w.usedCustomers + :customers <= :budget)
+            """)
+    int reserve(@Param("windowStart") LocalDateTime windowStart,
+                @Param("customers") long customers,
+                @Param("budget") long budget);
+
+    // 예약했지만 매장을 선점하지 못한 경우 되돌림
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE AnalysisBudgetWindow w
+               SET w.usedCustomers = w.usedCustomers - :customers
+             WHERE w.windowStart = :windowStart AND w.usedCustomers >= :customers
+            """)
+    int refund(@Param("windowStart") LocalDateTime windowStart,
+               @Param("customers") long customers);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AnalysisBudgetWindow w WHERE w.windowStart < :before")
+    int deleteBefore(@Param("before") LocalDateTime before);
+}
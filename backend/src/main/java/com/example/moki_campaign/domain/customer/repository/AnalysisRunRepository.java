@@ -0,0 +1,29 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.customer.entity.AnalysisRun;
+import com.example.moki_campaign.domain.customer.entity.AnalysisRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface AnalysisRunRepository extends JpaRepository<AnalysisRun, Long> {
+
+    Optional<AnalysisRun> findByWeekStart(LocalDate weekStart);
+
+    // 지난 주까지 마치지 못한 실행을 종료 처리
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE AnalysisRun r
+               SET r.status = :closedStatus, r.finishedAt = :finishedAt
+             WHERE r.status = :runningStatus AND r.weekStart < :weekStart
+            """)
+    int closeRunsBefore(@Param("weekStart") LocalDate weekStart,
+                        @Param("runningStatus") AnalysisRunStatus runningStatus,
+                        @Param("closedStatus") AnalysisRunStatus closedStatus,
+                        @Param("finishedAt") LocalDateTime finishedAt);
+}
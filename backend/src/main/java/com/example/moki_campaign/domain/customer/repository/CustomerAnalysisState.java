@@ -0,0 +1,14 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
+
+/**
+ * AI 분석 결과 반영 전 고객의 현재 segment/점수와 방문 수
+ */
+public record CustomerAnalysisState(
+        Long customerId,
+        CustomerSegment segment,
+        Integer loyaltyScore,
+        Integer totalVisitCount
+) {
+}
@@ -0,0 +1,64 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 델타 분석용 고객 특성 지문 조회/저장
+ * 청크 단위로 IN 조회하고, 저장은 INSERT ... ON DUPLICATE KEY UPDATE 배치로 한 번에 전송
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerFingerprintJdbcRepository {
+
+    // IN 절 하나에 담을 최대 고객 수
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private static final String UPSERT_FINGERPRINT_SQL =
+            "INSERT INTO customer_analysis_fingerprint (customer_id, store_id, fingerprint) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE fingerprint = VALUES(fingerprint)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 고객 id → 마지막으로 전송한 특성 지문 (저장된 적 없는 고객은 포함되지 않음)
+    public Map<Long, Long> findFingerprints(List<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, Long> fingerprints = new HashMap<>(customerIds.size() * 2);
+        for (int from = 0; from < customerIds.size(); from += LOOKUP_BATCH_SIZE) {
+            List<Long> batch = customerIds.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, customerIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+
+            jdbcTemplate.query(
+                    "SELECT customer_id, fingerprint FROM customer_analysis_fingerprint " +
+                    "WHERE customer_id IN (" + placeholders + ")",
+                    rs -> {
+                        fingerprints.put(rs.getLong(1), rs.getLong(2));
+                    },
+                    batch.toArray());
+        }
+        return fingerprints;
+    }
+
+    // 고객별 특성 지문 저장 (customerIds[i]의 지문은 fingerprints[i])
+    public void saveFingerprints(Long storeId, List<Long> customerIds, long[] fingerprints) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(customerIds.size());
+        for (int i = 0; i < customerIds.size(); i++) {
+            batchArgs.add(new Object[]{customerIds.get(i), storeId, fingerprints[i]});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_FINGERPRINT_SQL, batchArgs);
+    }
+}
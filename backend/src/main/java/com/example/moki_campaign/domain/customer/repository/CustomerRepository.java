@@ -3,22 +3,189 @@ package com.example.moki_campaign.domain.customer.repository;
 import com.example.moki_campaign.domain.customer.entity.Customer;
 import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
 import com.example.moki_campaign.domain.store.entity.Store;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     // 특정 매장에 속한 모든 고객 조회
     List<Customer> findAllByStore(Store store);
 
+    // 고객 id 기준 키셋 페이지 조회 (청크 단위 분석)
+    List<Customer> findByStoreAndIdGreaterThanOrderByIdAsc(Store store, Long id, Limit limit);
+
+    // 고객 id 기준 키셋 페이지 조회 (id만)
+    @Query("SELECT c.id FROM Customer c WHERE c.store = :store AND c.id > :afterCustomerId ORDER BY c.id ASC")
+    List<Long> findIdsByStore(@Param("store") Store store,
+                              @Param("afterCustomerId") long afterCustomerId,
+                              Pageable pageable);
+
+    // AI 분석용 고객 특성 조회 (analysisDate가 속한 주와 그 이전 7주의 주간 방문 횟수 포함)
+    // 고객 id 순으로 afterCustomerId 다음 고객부터 조회
+    default List<CustomerVisitFeature> findVisitFeatures(Store store, LocalDate analysisDate,
+                                                         long afterCustomerId, Pageable pageable) {
+        LocalDate week8Start = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(7);
+
+        return findVisitFeaturesByWeeks(store, afterCustomerId,
+                week8Start,
+                week8Start.plusWeeks(1),
+                week8Start.plusWeeks(2),
+                week8Start.plusWeeks(3),
+                week8Start.plusWeeks(4),
+                week8Start.plusWeeks(5),
+                week8Start.plusWeeks(6),
+                week8Start.plusWeeks(7),
+                week8Start.plusWeeks(8),
+                pageable);
+    }
+
+    // 고객 id 범위(afterCustomerId 초과 toCustomerId 이하)의 고객 특성 조회 (카운터 재구성 시 잠근 고객만 집계)
+    default List<CustomerVisitFeature> findVisitFeaturesInRange(Store store, LocalDate analysisDate,
+                                                                long afterCustomerId, long toCustomerId) {
+        LocalDate week8Start = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(7);
+
+        return findVisitFeaturesInRangeByWeeks(store, afterCustomerId, toCustomerId,
+                week8Start,
+                week8Start.plusWeeks(1),
+                week8Start.plusWeeks(2),
+                week8Start.plusWeeks(3),
+                week8Start.plusWeeks(4),
+                week8Start.plusWeeks(5),
+                week8Start.plusWeeks(6),
+                week8Start.plusWeeks(7),
+                week8Start.plusWeeks(8));
+    }
+
+    // 고객별 주간 방문 횟수를 조건부 합계로 집계 (weekNStart 이상 다음 주 시작일 미만)
+    String VISIT_FEATURES_SELECT = "SELECT new com.example.moki_campaign.domain.customer.repository.CustomerVisitFeature(" +
+            "c.id, c.totalAmount, c.totalVisitCount, c.lastVisitDate, " +
+            "SUM(CASE WHEN dv.visitDate >= :week8Start AND dv.visitDate < :week7Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week7Start AND dv.visitDate < :week6Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week6Start AND dv.visitDate < :week5Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week5Start AND dv.visitDate < :week4Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week4Start AND dv.visitDate < :week3Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week3Start AND dv.visitDate < :week2Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week2Start AND dv.visitDate < :week1Start THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN dv.visitDate >= :week1Start AND dv.visitDate < :rangeEnd THEN 1 ELSE 0 END)) " +
+            "FROM Customer c " +
+            "LEFT JOIN DailyVisit dv ON dv.customer = c " +
+            "AND dv.visitDate >= :week8Start AND dv.visitDate < :rangeEnd ";
+
+    String VISIT_FEATURES_GROUP_BY = "GROUP BY c.id, c.totalAmount, c.totalVisitCount, c.lastVisitDate " +
+            "ORDER BY c.id ASC";
+
+    String VISIT_FEATURES_QUERY = VISIT_FEATURES_SELECT +
+            "WHERE c.store = :store AND c.id > :afterCustomerId " +
+            VISIT_FEATURES_GROUP_BY;
+
+    String VISIT_FEATURES_RANGE_QUERY = VISIT_FEATURES_SELECT +
+            "WHERE c.store = :store AND c.id > :afterCustomerId AND c.id <= :toCustomerId " +
+            VISIT_FEATURES_GROUP_BY;
+
+    // 고객 정보와 주간 방문 카운터를 함께 조회 (방문 기록을 스캔하지 않음)
+    String VISIT_COUNTER_ROWS_QUERY = "SELECT new com.example.moki_campaign.domain.customer.repository.CustomerVisitCounterRow(" +
+            "c.id, c.totalAmount, c.totalVisitCount, c.lastVisitDate, " +
+            "vc.weekStart, vc.week1, vc.week2, vc.week3, vc.week4, vc.week5, vc.week6, vc.week7, vc.week8) " +
+            "FROM Customer c " +
+            "LEFT JOIN CustomerVisitCounter vc ON vc.customerId = c.id " +
+            "WHERE c.store = :store AND c.id > :afterCustomerId " +
+            "ORDER BY c.id ASC";
+
+    // 스트리밍 조회 시 한 번에 가져오는 행 수
+    String STREAM_FETCH_SIZE = "1000";
+
+    @Query(VISIT_FEATURES_QUERY)
+    List<CustomerVisitFeature> findVisitFeaturesByWeeks(@Param("store") Store store,
+                                                        @Param("afterCustomerId") long afterCustomerId,
+                                                        @Param("week8Start") LocalDate week8Start,
+                                                        @Param("week7Start") LocalDate week7Start,
+                                                        @Param("week6Start") LocalDate week6Start,
+                                                        @Param("week5Start") LocalDate week5Start,
+                                                        @Param("week4Start") LocalDate week4Start,
+                                                        @Param("week3Start") LocalDate week3Start,
+                                                        @Param("week2Start") LocalDate week2Start,
+                                                        @Param("week1Start") LocalDate week1Start,
+                                                        @Param("rangeEnd") LocalDate rangeEnd,
+                                                        Pageable pageable);
+
+    @Query(VISIT_FEATURES_RANGE_QUERY)
+    List<CustomerVisitFeature> findVisitFeaturesInRangeByWeeks(@Param("store") Store store,
+                                                               @Param("afterCustomerId") long afterCustomerId,
+                                                               @Param("toCustomerId") long toCustomerId,
+                                                               @Param("week8Start") LocalDate week8Start,
+                                                               @Param("week7Start") LocalDate week7Start,
+                                                               @Param("week6Start") LocalDate week6Start,
+                                                               @Param("week5Start") LocalDate week5Start,
+                                                               @Param("week4Start") LocalDate week4Start,
+                                                               @Param("week3Start") LocalDate week3Start,
+                                                               @Param("week2Start") LocalDate week2Start,
+                                                               @Param("week1Start") LocalDate week1Start,
+                                                               @Param("rangeEnd") LocalDate rangeEnd);
+
+    // 매장 전체 고객 특성을 커서로 순차 조회 (트랜잭션 안에서 사용 후 닫아야 함)
+    default Stream<CustomerVisitFeature> streamVisitFeatures(Store store, LocalDate analysisDate) {
+        LocalDate week8Start = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(7);
+
+        return streamVisitFeaturesByWeeks(store, 0L,
+                week8Start,
+                week8Start.plusWeeks(1),
+                week8Start.plusWeeks(2),
+                week8Start.plusWeeks(3),
+                week8Start.plusWeeks(4),
+                week8Start.plusWeeks(5),
+                week8Start.plusWeeks(6),
+                week8Start.plusWeeks(7),
+                week8Start.plusWeeks(8));
+    }
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VISIT_FEATURES_QUERY)
+    Stream<CustomerVisitFeature> streamVisitFeaturesByWeeks(@Param("store") Store store,
+                                                            @Param("afterCustomerId") long afterCustomerId,
+                                                            @Param("week8Start") LocalDate week8Start,
+                                                            @Param("week7Start") LocalDate week7Start,
+                                                            @Param("week6Start") LocalDate week6Start,
+                                                            @Param("week5Start") LocalDate week5Start,
+                                                            @Param("week4Start") LocalDate week4Start,
+                                                            @Param("week3Start") LocalDate week3Start,
+                                                            @Param("week2Start") LocalDate week2Start,
+                                                            @Param("week1Start") LocalDate week1Start,
+                                                            @Param("rangeEnd") LocalDate rangeEnd);
+
+    // 고객 id 순으로 afterCustomerId 다음 고객부터 조회
+    @Query(VISIT_COUNTER_ROWS_QUERY)
+    List<CustomerVisitCounterRow> findVisitCounterRows(@Param("store") Store store,
+                                                       @Param("afterCustomerId") long afterCustomerId,
+                                                       Pageable pageable);
+
+    // 매장 전체 고객의 카운터를 커서로 순차 조회 (트랜잭션 안에서 사용 후 닫아야 함)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VISIT_COUNTER_ROWS_QUERY)
+    Stream<CustomerVisitCounterRow> streamVisitCounterRows(@Param("store") Store store,
+                                                           @Param("afterCustomerId") long afterCustomerId);
+
+    boolean existsByStore(Store store);
+
     Optional<Customer> findByStoreAndId(Store store, Long customerId);
 
     Page<Customer> findByStore(Store store, Pageable pageable);
@@ -31,24 +198,12 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     long countByStoreAndSegmentIn(Store store, List<CustomerSegment> segments);
 
-    // AI 분석 결과 업데이트
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Customer c SET " +
-            "c.segment = :segment, " +
-            "c.loyaltyScore = :loyaltyScore " +
-            "WHERE c.id = :id")
-    void updateSegmentAndLoyaltyScore(@Param("id") Long id,
-                                      @Param("segment") CustomerSegment segment,
-                                      @Param("loyaltyScore") int loyaltyScore);
-
-    // 방문 고객 정보 최신화
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Customer c SET " +
-            "c.totalVisitCount = c.totalVisitCount + 1, " +
-            "c.totalAmount = c.totalAmount + :amount, " +
-            "c.lastVisitDate = :visitDate " +
-            "WHERE c.id IN :customerIds")
-    void batchUpdateCustomerVisitStats(@Param("customerIds") List<Long> customerIds,
-                                       @Param("visitDate") LocalDate visitDate,
-                                       @Param("amount") Integer amount);
+    // 매장 고객 수 (적응형 분석의 실행당 고객 예산 계산)
+    long countByStoreId(Long storeId);
+
+    // AI 분석 결과 반영 전 현재 segment/점수와 방문 수 조회
+    @Query("SELECT new com.example.moki_campaign.domain.customer.repository.CustomerAnalysisState(" +
+            "c.id, c.segment, c.loyaltyScore, c.totalVisitCount) " +
+            "FROM Customer c WHERE c.id IN :customerIds")
+    List<CustomerAnalysisState> findAnalysisStatesByIdIn(@Param("customerIds") List<Long> customerIds);
 }
@@ -0,0 +1,52 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AI 분석 결과 일괄 반영
+ * 고객별 UPDATE를 JDBC 배치로 묶어 한 번에 전송 (영속성 컨텍스트를 거치지 않음)
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerScoreJdbcRepository {
+
+    private static final String UPDATE_SEGMENT_AND_LOYALTY_SCORE_SQL =
+            "UPDATE customer SET segment = ?, loyalty_score = ? " +
+            "WHERE id = ? AND total_visit_count = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 고객별 segment/점수 갱신 (분석 이후 방문 수가 바뀐 고객은 0건)
+    // 반환값은 요청 순서대로 각 UPDATE의 반영 행 수
+    public int[] updateSegmentAndLoyaltyScores(List<CustomerScoreUpdate> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(updates.size());
+        for (CustomerScoreUpdate update : updates) {
+            batchArgs.add(new Object[]{
+                    update.segment().name(),
+                    update.loyaltyScore(),
+                    update.customerId(),
+                    update.expectedVisitCount()
+            });
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SEGMENT_AND_LOYALTY_SCORE_SQL, batchArgs);
+
+        // 드라이버가 행 수를 알려주지 않는 경우 반영된 것으로 간주
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                counts[i] = 1;
+            }
+        }
+        return counts;
+    }
+}
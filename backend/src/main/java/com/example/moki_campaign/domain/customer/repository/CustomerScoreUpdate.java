@@ -0,0 +1,15 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
+
+/**
+ * 고객 1명의 AI 분석 결과 갱신 요청
+ * expectedVisitCount: 분석 데이터 생성 시점의 total_visit_count (달라졌으면 갱신하지 않음)
+ */
+public record CustomerScoreUpdate(
+        Long customerId,
+        CustomerSegment segment,
+        int loyaltyScore,
+        int expectedVisitCount
+) {
+}
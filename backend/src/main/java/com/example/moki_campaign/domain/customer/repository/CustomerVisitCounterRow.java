@@ -0,0 +1,40 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.visit.entity.CustomerVisitCounter;
+
+import java.time.LocalDate;
+
+/**
+ * AI 분석용 고객 정보와 주간 방문 카운터 조회 결과 (고객 1명당 1행)
+ * 카운터가 없는 고객은 counterWeekStart와 week 값이 null
+ */
+public record CustomerVisitCounterRow(
+        Long customerId,
+        Integer totalAmount,
+        Integer totalVisitCount,
+        LocalDate lastVisitDate,
+        LocalDate counterWeekStart,
+        Integer week1,
+        Integer week2,
+        Integer week3,
+        Integer week4,
+        Integer week5,
+        Integer week6,
+        Integer week7,
+        Integer week8
+) {
+
+    // analysisDate가 속한 주 기준의 고객 특성으로 변환
+    public CustomerVisitFeature toFeature(LocalDate analysisDate) {
+        int[] weeks = new int[CustomerVisitCounter.WEEKS];
+        if (counterWeekStart != null) {
+            weeks = CustomerVisitCounter.countsAsOf(counterWeekStart,
+                    new int[]{week1, week2, week3, week4, week5, week6, week7, week8},
+                    analysisDate);
+        }
+
+        return new CustomerVisitFeature(customerId, totalAmount, totalVisitCount, lastVisitDate,
+                (long) weeks[0], (long) weeks[1], (long) weeks[2], (long) weeks[3],
+                (long) weeks[4], (long) weeks[5], (long) weeks[6], (long) weeks[7]);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import java.time.LocalDate;
+
+/**
+ * AI 분석용 고객 특성 조회 결과 (고객 1명당 1행)
+ * 주간 방문 횟수는 DB에서 조건부 합계로 집계됨
+ */
+public record CustomerVisitFeature(
+        Long customerId,
+        Integer totalAmount,
+        Integer totalVisitCount,
+        LocalDate lastVisitDate,
+        Long visits8WeekAgo,
+        Long visits7WeekAgo,
+        Long visits6WeekAgo,
+        Long visits5WeekAgo,
+        Long visits4WeekAgo,
+        Long visits3WeekAgo,
+        Long visits2WeekAgo,
+        Long visits1WeekAgo
+) {
+}
@@ -0,0 +1,63 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 방문 목록을 고객별 방문 통계 변화량으로 합산
+ * 한 배치에 같은 고객의 방문이 여러 번 있어도 고객당 UPDATE 한 번으로 반영되도록 메모리에서 미리 모음
+ */
+public class CustomerVisitStatsAccumulator {
+
+    private final Map<Long, Stats> statsByCustomer;
+    private int visitCount;
+
+    public CustomerVisitStatsAccumulator(int expectedCustomers) {
+        this.statsByCustomer = new HashMap<>(Math.max(16, expectedCustomers * 2));
+    }
+
+    public void add(Long customerId, int amount, LocalDate visitDate) {
+        add(customerId, 1, amount, visitDate);
+    }
+
+    // 이미 합산된 변화량(visits번 방문, 금액 합계, 마지막 방문일)을 더함
+    public void add(Long customerId, int visits, int amount, LocalDate lastVisitDate) {
+        Stats stats = statsByCustomer.computeIfAbsent(customerId, id -> new Stats());
+        stats.visitCount += visits;
+        stats.amount += amount;
+        if (stats.lastVisitDate == null || lastVisitDate.isAfter(stats.lastVisitDate)) {
+            stats.lastVisitDate = lastVisitDate;
+        }
+        visitCount += visits;
+    }
+
+    public boolean isEmpty() {
+        return statsByCustomer.isEmpty();
+    }
+
+    public int customerCount() {
+        return statsByCustomer.size();
+    }
+
+    public int visitCount() {
+        return visitCount;
+    }
+
+    // 고객 id 순으로 정렬된 변화량 (동시에 실행되는 배치 UPDATE가 같은 순서로 행 잠금을 잡도록 함)
+    public List<CustomerVisitStatsDelta> toDeltas() {
+        List<CustomerVisitStatsDelta> deltas = new ArrayList<>(statsByCustomer.size());
+        statsByCustomer.forEach((customerId, stats) -> deltas.add(
+                new CustomerVisitStatsDelta(customerId, stats.visitCount, stats.amount, stats.lastVisitDate)));
+        deltas.sort((a, b) -> Long.compare(a.customerId(), b.customerId()));
+        return deltas;
+    }
+
+    private static final class Stats {
+        private int visitCount;
+        private int amount;
+        private LocalDate lastVisitDate;
+    }
+}
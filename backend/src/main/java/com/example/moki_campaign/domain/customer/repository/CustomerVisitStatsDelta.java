@@ -0,0 +1,15 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import java.time.LocalDate;
+
+/**
+ * 고객 1명에게 더할 방문 통계 변화량
+ * lastVisitDate: 새 방문 중 가장 늦은 방문일 (기존 마지막 방문일보다 이를 때는 바꾸지 않음)
+ */
+public record CustomerVisitStatsDelta(
+        Long customerId,
+        int visitCount,
+        int amount,
+        LocalDate lastVisitDate
+) {
+}
@@ -0,0 +1,53 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 고객별 방문 통계(방문 수, 누적 금액, 마지막 방문일) 일괄 반영
+ * 고객마다 다른 변화량을 UPDATE 한 문장의 배치로 보내고, 긴 IN 목록 대신 WRITE_BATCH_SIZE명씩 나누어 전송
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerVisitStatsJdbcRepository {
+
+    // JDBC 배치 하나에 담을 고객 수
+    static final int WRITE_BATCH_SIZE = 1000;
+
+    private static final String ADD_VISIT_STATS_SQL =
+            "UPDATE customer SET total_visit_count = total_visit_count + ?, total_amount = total_amount + ?, " +
+            "last_visit_date = GREATEST(last_visit_date, ?) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 고객별 방문 수/금액을 더하고 마지막 방문일은 더 늦은 날짜로 갱신 (과거 방문이 늦게 들어와도 되돌리지 않음)
+    // 반환값은 전송한 JDBC 배치 수
+    public int addVisitStats(List<CustomerVisitStatsDelta> deltas) {
+        int batchCount = 0;
+        for (int from = 0; from < deltas.size(); from += WRITE_BATCH_SIZE) {
+            List<CustomerVisitStatsDelta> batch = deltas.subList(from, Math.min(from + WRITE_BATCH_SIZE, deltas.size()));
+
+            List<Object[]> batchArgs = new ArrayList<>(batch.size());
+            for (CustomerVisitStatsDelta delta : batch) {
+                batchArgs.add(new Object[]{
+                        delta.visitCount(),
+                        delta.amount(),
+                        Date.valueOf(delta.lastVisitDate()),
+                        delta.customerId()
+                });
+            }
+            jdbcTemplate.batchUpdate(ADD_VISIT_STATS_SQL, batchArgs);
+            batchCount++;
+        }
+        return batchCount;
+    }
+
+    public int addVisitStats(CustomerVisitStatsAccumulator accumulator) {
+        return addVisitStats(accumulator.toDeltas());
+    }
+}
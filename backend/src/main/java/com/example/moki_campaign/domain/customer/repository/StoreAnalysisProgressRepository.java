@@ -0,0 +1,107 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisProgress;
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoreAnalysisProgressRepository extends JpaRepository<StoreAnalysisProgress, Long> {
+
+    Optional<StoreAnalysisProgress> findByRunIdAndStoreId(Long runId, Long storeId);
+
+    List<StoreAnalysisProgress> findAllByRunId(Long runId);
+
+    @Query("SELECT p.storeId FROM StoreAnalysisProgress p WHERE p.runId = :runId")
+    List<Long> findStoreIdsByRunId(@Param("runId") Long runId);
+
+    @Query("SELECT p.storeId FROM StoreAnalysisProgress p WHERE p.runId = :runId AND p.status = :status")
+    List<Long> findStoreIdsByRunIdAndStatus(@Param("runId") Long runId, @Param("status") StoreAnalysisStatus status);
+
+    // 선점할 수 있는 매장: 대기 중이거나, 분석 도중 임대가 만료된(선점한 인스턴스가 종료된) 매장
+    @Query("""
+            SELECT p FROM StoreAnalysisProgress p
+             WHERE p.runId = :runId
+               AND (p.status = :pending OR (p.status = :inProgress AND p.attempts < :maxAttempts))
+               AND (p.leaseUntil IS NULL OR p.leaseUntil < :now)
+             ORDER BY p.id
+            """)
+    List<StoreAnalysisProgress> findClaimable(@Param("runId") Long runId,
+                                              @Param("pending") StoreAnalysisStatus pending,
+                                              @Param("inProgress") StoreAnalysisStatus inProgress,
+                                              @Param("maxAttempts") int maxAttempts,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    // 조회 이후 다른 인스턴스가 먼저 선점하지 않았을 때만 임대 획득 (갱신된 행 수 1이면 성공)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE StoreAnalysisProgress p
+               SET p.owner = :owner, p.leaseUntil = :leaseUntil
+             WHERE p.id = :id
+               AND (p.status = :pending OR (p.status = :inProgress AND p.attempts < :maxAttempts))
+               AND (p.leaseUntil IS NULL OR p.leaseUntil < :now)
+            """)
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("pending") StoreAnalysisStatus pending,
+              @Param("inProgress") StoreAnalysisStatus inProgress,
+              @Param("maxAttempts") int maxAttempts,
+              @Param("now") LocalDateTime now);
+
+    // 이 인스턴스가 아직 임대를 가진 매장만 연장 (갱신된 행 수 0이면 임대가 만료되어 다른 인스턴스가 회수함)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE StoreAnalysisProgress p
+               SET p.leaseUntil = :leaseUntil
+             WHERE p.runId = :runId AND p.storeId = :storeId AND p.owner = :owner
+            """)
+    int renewLease(@Param("runId") Long runId,
+                   @Param("storeId") Long storeId,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 임대를 가진 인스턴스일 때만 매장 분석 완료/실패를 기록하고 임대 해제 (갱신된 행 수 1이면 성공)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE StoreAnalysisProgress p
+               SET p.status = :status, p.lastError = :lastError, p.owner = NULL, p.leaseUntil = NULL
+             WHERE p.runId = :runId AND p.storeId = :storeId AND p.owner = :owner
+            """)
+    int finishOwned(@Param("runId") Long runId,
+                    @Param("storeId") Long storeId,
+                    @Param("owner") String owner,
+                    @Param("status") StoreAnalysisStatus status,
+                    @Param("lastError") String lastError);
+
+    // 아직 끝나지 않은 매장: 임대 중이거나 선점할 수 있는 매장 (시도 횟수를 다 쓰고 임대가 만료된 매장은 제외)
+    @Query("""
+            SELECT COUNT(p) FROM StoreAnalysisProgress p
+             WHERE p.runId = :runId
+               AND (p.leaseUntil >= :now
+                    OR p.status = :pending
+                    OR (p.status = :inProgress AND p.attempts < :maxAttempts))
+            """)
+    long countUnfinished(@Param("runId") Long runId,
+                         @Param("pending") StoreAnalysisStatus pending,
+                         @Param("inProgress") StoreAnalysisStatus inProgress,
+                         @Param("maxAttempts") int maxAttempts,
+                         @Param("now") LocalDateTime now);
+
+    // 실패한 매장을 다시 대기 상태로 (이번 주 실행에 다시 참여할 때 재시도)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StoreAnalysisProgress p SET p.status = :pending WHERE p.runId = :runId AND p.status = :failed")
+    int requeue(@Param("runId") Long runId,
+                @Param("failed") StoreAnalysisStatus failed,
+                @Param("pending") StoreAnalysisStatus pending);
+}
@@ -0,0 +1,79 @@
+package com.example.moki_campaign.domain.customer.repository;
+
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StoreAnalysisScheduleRepository extends JpaRepository<StoreAnalysisSchedule, Long> {
+
+    @Query("SELECT s.storeId FROM StoreAnalysisSchedule s")
+    List<Long> findAllStoreIds();
+
+    // 분석 기한이 지났고 다른 인스턴스가 선점하지 않은 매장
+    @Query("""
+            SELECT s FROM StoreAnalysisSchedule s
+             WHERE s.nextDueAt <= :now
+               AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)
+            """)
+    List<StoreAnalysisSchedule> findDue(@Param("now") LocalDateTime now);
+
+    // 조회 이후 다른 인스턴스가 먼저 선점하지 않았을 때만 임대 획득 (갱신된 행 수 1이면 성공)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE StoreAnalysisSchedule s
+               SET s.owner = :owner, s.leaseUntil = :leaseUntil
+             WHERE s.storeId = :storeId
+               AND s.nextDueAt <= :now
+               AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)
+            """)
+    int claim(@Param("storeId") Long storeId,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    // 이 인스턴스가 아직 임대를 가진 매장만 연장 (갱신된 행 수 0이면 임대가 만료되어 다른 인스턴스가 회수함)
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoreAnalysisSchedule s SET s.leaseUntil = :leaseUntil WHERE s.storeId = :storeId AND s.owner = :owner")
+    int renewLease(@Param("storeId") Long storeId,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 분석 완료: 새 주기/우선순위 기록, 다음 기한 설정 후 임대 해제 (임대를 가진 인스턴스일 때만, 갱신된 행 수 1이면 성공)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE StoreAnalysisSchedule s
+               SET s.nextDueAt = :nextDueAt, s.owner = NULL, s.leaseUntil = NULL,
+                   s.cadenceHours = :cadenceHours, s.priority = :priority,
+                   s.recentVisits = :recentVisits, s.changeRatio = :changeRatio,
+                   s.lastAnalyzedAt = :analyzedAt
+             WHERE s.storeId = :storeId AND s.owner = :owner
+            """)
+    int complete(@Param("storeId") Long storeId,
+                 @Param("owner") String owner,
+                 @Param("nextDueAt") LocalDateTime nextDueAt,
+                 @Param("cadenceHours") int cadenceHours,
+                 @Param("priority") double priority,
+                 @Param("recentVisits") int recentVisits,
+                 @Param("changeRatio") double changeRatio,
+                 @Param("analyzedAt") LocalDateTime analyzedAt);
+
+    // 분석 실패: 임대만 해제하여 다음 실행에서 다시 기한 도래 (임대를 가진 인스턴스일 때만)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE StoreAnalysisSchedule s
+               SET s.owner = NULL, s.leaseUntil = NULL
+             WHERE s.storeId = :storeId AND s.owner = :owner
+            """)
+    int release(@Param("storeId") Long storeId,
+                @Param("owner") String owner);
+}
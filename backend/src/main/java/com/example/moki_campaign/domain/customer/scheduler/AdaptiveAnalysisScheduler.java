@@ -0,0 +1,40 @@
+package com.example.moki_campaign.domain.customer.scheduler;
+
+import com.example.moki_campaign.domain.customer.service.AdaptiveAnalysisService;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 매장별 적응형 AI 분석 스케줄러
+ * analysis.adaptive.enabled=true 일 때 analysis.adaptive.cron 주기로 분석 기한이 된 매장을 우선순위 순으로 분석
+ * 매장 분석은 storeAnalysisExecutor에서 진행되므로 스케줄러 스레드는 선점까지만 사용
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptiveAnalysisScheduler {
+
+    private final AdaptiveAnalysisService adaptiveAnalysisService;
+    private final AnalysisProps analysisProps;
+
+    @Scheduled(cron = "${analysis.adaptive.cron:0 0 * * * *}")
+    public void scheduleDueStores() {
+        if (!analysisProps.getAdaptive().isEnabled()) {
+            return;
+        }
+
+        try {
+            adaptiveAnalysisService.analyzeDueStores()
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            log.error("적응형 AI 고객 분석 실행 중 오류 발생", e);
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("적응형 AI 고객 분석 스케줄 실행 중 오류 발생", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.moki_campaign.domain.customer.scheduler;
+
+import com.example.moki_campaign.domain.customer.service.AnalysisRunService;
+import com.example.moki_campaign.domain.customer.service.CustomerService;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 중단된 주간 분석 재개
+ * 애플리케이션 시작 시 이번 주 실행이 RUNNING으로 남아 있으면 이전 프로세스가 분석 도중 종료된 것으로 보고 이어서 분석
+ * 여러 인스턴스로 나누어 분석 중이면 진행 중인 실행에 참여 (다른 인스턴스가 임대 중인 매장은 건드리지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisRunResumer {
+
+    private final AnalysisRunService analysisRunService;
+    private final CustomerService customerService;
+    private final AnalysisProps analysisProps;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (!analysisProps.isResumeOnStartup()) {
+            return;
+        }
+
+        analysisRunService.findInterruptedRun(LocalDate.now()).ifPresent(run -> {
+            log.warn("중단된 주간 분석 실행 발견 - 주: {}, 마지막 갱신: {}. 완료되지 않은 매장부터 이어서 분석합니다.",
+                    run.getWeekStart(), run.getUpdatedAt());
+            customerService.analyzeAllStores();
+        });
+    }
+}
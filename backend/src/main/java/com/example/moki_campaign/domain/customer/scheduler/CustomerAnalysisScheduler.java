@@ -1,6 +1,7 @@
 package com.example.moki_campaign.domain.customer.scheduler;
 
 import com.example.moki_campaign.domain.customer.service.CustomerService; // CustomerAnalysisService -> CustomerService로 변경
+import com.example.moki_campaign.global.config.AnalysisProps;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -9,6 +10,8 @@ import org.springframework.stereotype.Component;
 /**
  * AI 고객 분석 스케줄러
  * 매주 월요일 자정에 실행되어 직전 6개월 데이터 분석 통한 단골 점수와 segment 업데이트
+ * 모든 인스턴스에서 실행되며, analysis.shard.enabled=true 이면 각 인스턴스가 선점한 매장만 나누어 분석
+ * analysis.adaptive.enabled=true 이면 매장별 주기로 분석하므로 실행하지 않음 (AdaptiveAnalysisScheduler)
  */
 @Component
 @RequiredArgsConstructor
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Component;
 public class CustomerAnalysisScheduler {
 
     private final CustomerService customerService;
+    private final AnalysisProps analysisProps;
 
     /**
      * 매주 월요일 00:00:00에 실행
@@ -24,6 +28,11 @@ public class CustomerAnalysisScheduler {
      */
     @Scheduled(cron = "0 0 0 ? * MON")
     public void scheduleWeeklyAnalysis() {
+        if (analysisProps.getAdaptive().isEnabled()) {
+            log.info("적응형 분석이 켜져 있어 주간 일괄 분석을 건너뜁니다.");
+            return;
+        }
+
         log.info("========================================");
         log.info("AI 고객 분석 스케줄 시작 (매주 월요일)");
         log.info("========================================");
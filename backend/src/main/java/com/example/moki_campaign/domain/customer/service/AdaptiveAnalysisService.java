@@ -0,0 +1,269 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.customer.entity.AnalysisBudgetWindow;
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisSchedule;
+import com.example.moki_campaign.domain.customer.repository.AnalysisBudgetWindowRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.StoreAnalysisScheduleRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.domain.visit.repository.StoreVisitCount;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 매장별 적응형 AI 분석
+ * 분석 기한이 된 매장을 (방문량/변화량 우선순위 + 기한 초과 정도) 순으로 고객 예산만큼 선점해 분석하고,
+ * 분석 결과가 바뀐 비율과 최근 방문량으로 다음 주기를 정함 (바쁘고 변화가 큰 매장일수록 자주 분석)
+ * 고객 예산은 구간별 사용량 행에, 선점은 일정 행에 조건부 UPDATE로 기록하므로
+ * 여러 인스턴스에서 실행되어도 구간 예산을 함께 쓰고 한 매장은 한 인스턴스만 분석
+ * 선점한 매장의 임대는 분석 중에 주기적으로 연장하고, 완료/실패는 임대를 가진 인스턴스만 기록
+ */
+@Service
+@Slf4j
+public class AdaptiveAnalysisService implements DisposableBean {
+
+    private static final int RECENT_VISIT_DAYS = 7;
+
+    private final StoreRepository storeRepository;
+    private final CustomerRepository customerRepository;
+    private final DailyVisitRepository dailyVisitRepository;
+    private final StoreAnalysisScheduleRepository scheduleRepository;
+    private final AnalysisBudgetWindowRepository budgetWindowRepository;
+    private final CustomerService customerService;
+    private final AnalysisProps analysisProps;
+    private final Executor storeAnalysisExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // 선점 소유자로 기록되는 이 인스턴스의 식별자
+    private final String nodeId;
+
+    // 이 인스턴스가 선점해 분석 중인 매장 id (임대 연장 대상)
+    private final Set<Long> heldLeases = ConcurrentHashMap.newKeySet();
+
+    // 임대 연장 전용 스레드 (분석 스레드가 오래 점유되어도 연장이 밀리지 않음)
+    private final ThreadPoolTaskScheduler leaseHeartbeat;
+
+    public AdaptiveAnalysisService(StoreRepository storeRepository,
+                                   CustomerRepository customerRepository,
+                                   DailyVisitRepository dailyVisitRepository,
+                                   StoreAnalysisScheduleRepository scheduleRepository,
+                                   AnalysisBudgetWindowRepository budgetWindowRepository,
+                                   CustomerService customerService,
+                                   AnalysisProps analysisProps,
+                                   @Qualifier("storeAnalysisExecutor") Executor storeAnalysisExecutor) {
+        this.storeRepository = storeRepository;
+        this.customerRepository = customerRepository;
+        this.dailyVisitRepository = dailyVisitRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.budgetWindowRepository = budgetWindowRepository;
+        this.customerService = customerService;
+        this.analysisProps = analysisProps;
+        this.storeAnalysisExecutor = storeAnalysisExecutor;
+        this.nodeId = AnalysisRunService.resolveNodeId(analysisProps.getShard().getNodeId());
+        this.leaseHeartbeat = analysisProps.getAdaptive().isEnabled() ? startLeaseHeartbeat() : null;
+    }
+
+    private ThreadPoolTaskScheduler startLeaseHeartbeat() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("AdaptiveLease-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::renewLeases, analysisProps.getAdaptive().getHeartbeatInterval());
+        return scheduler;
+    }
+
+    // 분석 기한이 된 매장을 우선순위 순으로 이번 구간의 남은 고객 예산만큼 분석
+    // 선점까지만 호출 스레드에서 하고 분석은 storeAnalysisExecutor에서 진행 (반환된 future는 이번 실행의 분석이 모두 끝나면 완료)
+    // 이전 실행의 분석이 아직 끝나지 않았으면 이번 실행은 건너뜀
+    public CompletableFuture<Void> analyzeDueStores() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("적응형 분석 - 이전 실행의 분석이 진행 중이라 이번 실행은 건너뜁니다.");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        try {
+            List<CompletableFuture<Void>> futures = startDueStores();
+            return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .whenComplete((result, e) -> running.set(false));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    // 기한이 된 매장을 선점하고 매장별 분석을 storeAnalysisExecutor에 제출
+    private List<CompletableFuture<Void>> startDueStores() {
+        AnalysisProps.Adaptive adaptive = analysisProps.getAdaptive();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Store> stores = storeRepository.findAll();
+        registerNewStores(stores, now);
+
+        List<StoreAnalysisSchedule> dueSchedules = scheduleRepository.findDue(now);
+        if (dueSchedules.isEmpty()) {
+            log.info("적응형 분석 - 분석 기한이 된 매장이 없습니다.");
+            return List.of();
+        }
+
+        Map<Long, Long> recentVisits = recentVisitsByStore(now.toLocalDate());
+        Map<Long, Store> storesById = stores.stream()
+                .collect(Collectors.toMap(Store::getId, store -> store));
+
+        List<StoreAnalysisSchedule> ordered = dueSchedules.stream()
+                .filter(schedule -> storesById.containsKey(schedule.getStoreId()))
+                .sorted(Comparator.comparingDouble(
+                        (StoreAnalysisSchedule schedule) -> effectivePriority(schedule, recentVisits, now)).reversed())
+                .toList();
+
+        // 우선순위 순으로 구간 예산을 예약한 뒤 선점 (구간에서 처음 예약하는 매장은 예산보다 커도 분석)
+        // 예약했는데 다른 인스턴스가 먼저 선점했으면 예약을 되돌리고 다음 매장에 사용
+        LocalDateTime windowStart = AnalysisBudgetWindow.windowStartOf(now, adaptive.getBudgetWindow());
+        budgetWindowRepository.createIfAbsent(windowStart);
+        budgetWindowRepository.deleteBefore(windowStart.minus(adaptive.getBudgetWindow()));
+
+        List<Store> claimed = new ArrayList<>();
+        long budgetUsed = 0;
+        int deferred = 0;
+        LocalDateTime leaseUntil = now.plus(adaptive.getLeaseDuration());
+        for (StoreAnalysisSchedule schedule : ordered) {
+            long customers = customerRepository.countByStoreId(schedule.getStoreId());
+            if (budgetWindowRepository.reserve(windowStart, customers, adaptive.getCustomerBudget()) == 0) {
+                deferred++;
+                continue;
+            }
+            if (scheduleRepository.claim(schedule.getStoreId(), nodeId, leaseUntil, now) == 1) {
+                heldLeases.add(schedule.getStoreId());
+                claimed.add(storesById.get(schedule.getStoreId()));
+                budgetUsed += customers;
+            } else {
+                budgetWindowRepository.refund(windowStart, customers);
+            }
+        }
+
+        log.info("적응형 분석 - 기한 도래 매장: {}개, 이번 실행 분석: {}개 (고객 {}명, 구간 예산 {}명), 예산 초과로 미룬 매장: {}개",
+                ordered.size(), claimed.size(), budgetUsed, adaptive.getCustomerBudget(), deferred);
+
+        return claimed.stream()
+                .map(store -> CompletableFuture.runAsync(
+                        () -> analyzeAndReschedule(store, recentVisits.getOrDefault(store.getId(), 0L)),
+                        storeAnalysisExecutor))
+                .toList();
+    }
+
+    // 매장 하나를 분석하고 결과 변화율과 최근 방문량으로 다음 기한 설정 (실패하면 임대만 해제해 다음 실행에서 재시도)
+    // 분석 도중 임대를 잃었으면 (다른 인스턴스가 회수) 그쪽 기록을 덮어쓰지 않음
+    private void analyzeAndReschedule(Store store, long recentVisits) {
+        AnalysisProps.Adaptive adaptive = analysisProps.getAdaptive();
+
+        try {
+            AnalysisApplyResult applyResult =
+                    customerService.analyzeStore(store, LocalDate.now(), AnalysisCheckpoint.NONE);
+
+            double changeRatio = AnalysisCadencePolicy.changeRatioOf(applyResult);
+            double priority = AnalysisCadencePolicy.priorityOf(recentVisits, changeRatio, adaptive.getBusyWeeklyVisits());
+            Duration cadence = AnalysisCadencePolicy.cadenceOf(priority, adaptive.getMinCadence(), adaptive.getMaxCadence());
+
+            LocalDateTime analyzedAt = LocalDateTime.now();
+            heldLeases.remove(store.getId());
+            int updated = scheduleRepository.complete(store.getId(), nodeId, analyzedAt.plus(cadence),
+                    (int) cadence.toHours(), priority, (int) Math.min(Integer.MAX_VALUE, recentVisits), changeRatio,
+                    analyzedAt);
+            if (updated == 0) {
+                log.warn("매장({}) 분석 임대를 잃어 다음 일정을 기록하지 않음 - 다른 인스턴스가 회수함", store.getName());
+                return;
+            }
+
+            log.info("매장({}) 적응형 분석 완료 - 최근 7일 방문: {}건, 결과 변경 비율: {}%, 우선순위: {}, 다음 분석: {}시간 후",
+                    store.getName(), recentVisits, String.format("%.1f", changeRatio * 100),
+                    String.format("%.2f", priority), cadence.toHours());
+
+        } catch (Exception e) {
+            log.error("매장({}) 적응형 분석 실패", store.getName(), e);
+            heldLeases.remove(store.getId());
+            try {
+                scheduleRepository.release(store.getId(), nodeId);
+            } catch (Exception releaseError) {
+                log.warn("매장({}) 분석 임대 해제 중 예외 발생 (임대 만료 후 다시 분석)", store.getName(), releaseError);
+            }
+        }
+    }
+
+    // 선점한 매장의 임대 연장 (heartbeat-interval마다 실행, 분석이 lease-duration보다 오래 걸려도 임대가 만료되지 않음)
+    // 연장되지 않은 매장은 이미 다른 인스턴스가 회수한 것이므로 연장 대상에서 제외
+    private void renewLeases() {
+        LocalDateTime leaseUntil = LocalDateTime.now().plus(analysisProps.getAdaptive().getLeaseDuration());
+        for (Long storeId : heldLeases) {
+            try {
+                if (scheduleRepository.renewLease(storeId, nodeId, leaseUntil) == 0) {
+                    heldLeases.remove(storeId);
+                    log.warn("매장(id: {}) 분석 임대가 만료되어 다른 인스턴스가 회수함", storeId);
+                }
+            } catch (Exception e) {
+                // 다음 연장 주기에 다시 시도
+                log.warn("매장(id: {}) 분석 임대 연장 중 예외 발생", storeId, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (leaseHeartbeat != null) {
+            leaseHeartbeat.shutdown();
+        }
+    }
+
+    private double effectivePriority(StoreAnalysisSchedule schedule, Map<Long, Long> recentVisits, LocalDateTime now) {
+        double priority = AnalysisCadencePolicy.priorityOf(
+                recentVisits.getOrDefault(schedule.getStoreId(), 0L), schedule.getChangeRatio(),
+                analysisProps.getAdaptive().getBusyWeeklyVisits());
+        return AnalysisCadencePolicy.effectivePriority(priority, schedule.getNextDueAt(), schedule.getCadenceHours(), now);
+    }
+
+    private Map<Long, Long> recentVisitsByStore(LocalDate today) {
+        return dailyVisitRepository.countVisitsByStore(today.minusDays(RECENT_VISIT_DAYS - 1), today).stream()
+                .collect(Collectors.toMap(StoreVisitCount::storeId, StoreVisitCount::visits));
+    }
+
+    // 일정이 없는 매장은 바로 분석 대상으로 등록 (다른 인스턴스가 먼저 등록했으면 무시)
+    private void registerNewStores(List<Store> stores, LocalDateTime now) {
+        Set<Long> registered = new HashSet<>(scheduleRepository.findAllStoreIds());
+        List<StoreAnalysisSchedule> newSchedules = stores.stream()
+                .map(Store::getId)
+                .filter(storeId -> !registered.contains(storeId))
+                .map(storeId -> StoreAnalysisSchedule.dueNow(storeId, now))
+                .toList();
+
+        if (newSchedules.isEmpty()) {
+            return;
+        }
+
+        try {
+            scheduleRepository.saveAll(newSchedules);
+            log.info("적응형 분석 일정에 새 매장 {}개 등록", newSchedules.size());
+        } catch (DataIntegrityViolationException e) {
+            log.info("다른 인스턴스가 새 매장 분석 일정을 먼저 등록했습니다.");
+        }
+    }
+}
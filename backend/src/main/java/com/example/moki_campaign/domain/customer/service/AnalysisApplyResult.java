@@ -0,0 +1,25 @@
+package com.example.moki_campaign.domain.customer.service;
+
+/**
+ * AI 분석 결과 반영 결과
+ * updated: 갱신된 고객 수
+ * unchanged: segment와 점수가 기존과 같아 쓰지 않은 고객 수
+ * stale: 분석 데이터 생성 이후 방문이 기록되어 갱신하지 않은 고객 수 (다음 분석에서 재평가)
+ * missing: AI 응답에 결과가 없는 고객 수
+ */
+public record AnalysisApplyResult(int updated, int unchanged, int stale, int missing) {
+
+    public static AnalysisApplyResult empty() {
+        return new AnalysisApplyResult(0, 0, 0, 0);
+    }
+
+    // 청크별 반영 결과 합산
+    public AnalysisApplyResult plus(AnalysisApplyResult other) {
+        return new AnalysisApplyResult(
+                updated + other.updated,
+                unchanged + other.unchanged,
+                stale + other.stale,
+                missing + other.missing
+        );
+    }
+}
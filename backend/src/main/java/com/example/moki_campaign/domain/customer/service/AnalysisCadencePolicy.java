@@ -0,0 +1,48 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 매장별 적응형 분석 주기/우선순위 계산
+ * 우선순위: 최근 7일 방문량 점수(로그 스케일, 0 ~ 1) 0.5 + 지난 분석에서 결과가 바뀐 고객 비율 0.5
+ * 주기: 우선순위 1이면 최소 주기, 0이면 최대 주기 사이를 선형으로 나눔
+ * 실행 순서: 우선순위 + 기한을 넘긴 주기 수 × 0.5 (주기의 2배 넘게 밀린 매장은 제때 온 어떤 매장보다 먼저 분석)
+ */
+public final class AnalysisCadencePolicy {
+
+    private static final double VISIT_WEIGHT = 0.5;
+    private static final double CHANGE_WEIGHT = 0.5;
+
+    // 기한을 넘긴 주기 하나당 더하는 값 (우선순위는 0 ~ 1이므로 1 / OVERDUE_WEIGHT 주기를 넘기면 우선순위 차이를 모두 뒤집음)
+    private static final double OVERDUE_WEIGHT = 0.5;
+
+    private AnalysisCadencePolicy() {
+    }
+
+    // 아직 분석하지 않은 매장(changeRatio == null)은 변화율 1로 보고 먼저 분석
+    public static double priorityOf(long recentVisits, Double changeRatio, int busyWeeklyVisits) {
+        double visitScore = Math.min(1.0, Math.log1p(recentVisits) / Math.log1p(Math.max(1, busyWeeklyVisits)));
+        double change = changeRatio == null ? 1.0 : Math.min(1.0, Math.max(0.0, changeRatio));
+        return visitScore * VISIT_WEIGHT + change * CHANGE_WEIGHT;
+    }
+
+    public static Duration cadenceOf(double priority, Duration minCadence, Duration maxCadence) {
+        long minHours = Math.max(1, minCadence.toHours());
+        long maxHours = Math.max(minHours, maxCadence.toHours());
+        return Duration.ofHours(Math.round(maxHours - priority * (maxHours - minHours)));
+    }
+
+    // 기한을 넘긴 시간이 주기에 비해 길수록 순서를 올려 예산에 밀린 매장이 계속 미뤄지지 않도록 함
+    // 우선순위에 곱하지 않고 더하므로 우선순위 0인 매장도 우선순위와 관계없이 밀린 주기 수만큼 순서가 올라감
+    public static double effectivePriority(double priority, LocalDateTime nextDueAt, int cadenceHours, LocalDateTime now) {
+        double overdueHours = Math.max(0, Duration.between(nextDueAt, now).toMinutes() / 60.0);
+        return priority + OVERDUE_WEIGHT * overdueHours / Math.max(1, cadenceHours);
+    }
+
+    // 분석한 고객 중 segment/점수가 바뀐 고객 비율
+    public static double changeRatioOf(AnalysisApplyResult applyResult) {
+        int analyzed = applyResult.updated() + applyResult.unchanged() + applyResult.stale();
+        return analyzed == 0 ? 0.0 : (double) applyResult.updated() / analyzed;
+    }
+}
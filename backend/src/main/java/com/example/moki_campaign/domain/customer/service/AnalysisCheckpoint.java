@@ -0,0 +1,15 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 매장 분석 체크포인트
+ * resumeAfterCustomerId: 이미 결과가 반영된 마지막 고객 id (0이면 처음부터 분석)
+ * chunkApplied: 청크 결과 반영이 끝날 때마다 해당 청크의 마지막 고객 id로 호출됨
+ * 청크 분석(analysis.chunk-size > 0)에서만 청크 단위로 재개하며, 나머지 방식은 매장 단위로 다시 분석
+ */
+public record AnalysisCheckpoint(long resumeAfterCustomerId, LongConsumer chunkApplied) {
+
+    public static final AnalysisCheckpoint NONE = new AnalysisCheckpoint(0L, lastCustomerId -> {
+    });
+}
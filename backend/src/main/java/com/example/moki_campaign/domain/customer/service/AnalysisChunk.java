@@ -0,0 +1,20 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+
+import java.util.List;
+
+/**
+ * 청크 단위 AI 분석 요청 데이터
+ * lastCustomerId: 청크에 포함된 마지막 고객 id (다음 청크 조회 기준)
+ */
+public record AnalysisChunk(List<AiCustomerDataInputDto> data, long lastCustomerId) {
+
+    public static AnalysisChunk empty(long lastCustomerId) {
+        return new AnalysisChunk(List.of(), lastCustomerId);
+    }
+
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+}
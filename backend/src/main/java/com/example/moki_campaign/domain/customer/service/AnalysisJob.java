@@ -0,0 +1,44 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 점주 요청 매장 분석 작업 상태 (상태가 바뀔 때마다 새 값으로 교체)
+ * result: 완료 시 반영 결과, error: 실패 시 원인
+ */
+public record AnalysisJob(
+        String id,
+        Long storeId,
+        AnalysisJobStatus status,
+        LocalDateTime requestedAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        AnalysisApplyResult result,
+        String error
+) {
+
+    public static AnalysisJob queued(Long storeId) {
+        return new AnalysisJob(UUID.randomUUID().toString(), storeId, AnalysisJobStatus.QUEUED,
+                LocalDateTime.now(), null, null, null, null);
+    }
+
+    public AnalysisJob started() {
+        return new AnalysisJob(id, storeId, AnalysisJobStatus.RUNNING, requestedAt, LocalDateTime.now(),
+                null, null, null);
+    }
+
+    public AnalysisJob completed(AnalysisApplyResult result) {
+        return new AnalysisJob(id, storeId, AnalysisJobStatus.COMPLETED, requestedAt, startedAt,
+                LocalDateTime.now(), result, null);
+    }
+
+    public AnalysisJob failed(String error) {
+        return new AnalysisJob(id, storeId, AnalysisJobStatus.FAILED, requestedAt, startedAt,
+                LocalDateTime.now(), null, error);
+    }
+
+    public boolean isFinished() {
+        return status == AnalysisJobStatus.COMPLETED || status == AnalysisJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.moki_campaign.domain.customer.service;
+
+public enum AnalysisJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,320 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.customer.entity.AnalysisRun;
+import com.example.moki_campaign.domain.customer.entity.AnalysisRunStatus;
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisProgress;
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisStatus;
+import com.example.moki_campaign.domain.customer.repository.AnalysisRunRepository;
+import com.example.moki_campaign.domain.customer.repository.StoreAnalysisProgressRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 주간 분석 실행 상태 기록
+ * 매장/청크 진행 상황을 각각 짧은 트랜잭션으로 저장하여 프로세스가 중단되어도 마지막 체크포인트부터 재개
+ * 여러 인스턴스로 나누어 분석할 때는 매장별 임대를 조건부 UPDATE로 선점하여 한 매장을 한 인스턴스만 분석
+ * 선점한 매장의 임대는 청크 반영과 별개로 주기적으로 연장하고, 완료/실패는 임대를 가진 인스턴스만 기록
+ */
+@Service
+@Slf4j
+public class AnalysisRunService implements DisposableBean {
+
+    private final AnalysisRunRepository analysisRunRepository;
+    private final StoreAnalysisProgressRepository storeAnalysisProgressRepository;
+    private final AnalysisProps analysisProps;
+
+    // 임대 선점/연장/만료 판단에 쓰는 시계
+    private final Clock clock;
+
+    // 임대 소유자로 기록되는 이 인스턴스의 식별자
+    @Getter
+    private final String nodeId;
+
+    // 이 인스턴스가 선점해 분석 중인 매장 (임대 연장 대상)
+    private final Set<LeaseKey> heldLeases = ConcurrentHashMap.newKeySet();
+
+    // 임대 연장 전용 스레드 (분석 스레드나 @Scheduled 스레드가 오래 점유되어도 연장이 밀리지 않음)
+    private final ThreadPoolTaskScheduler leaseHeartbeat;
+
+    public AnalysisRunService(AnalysisRunRepository analysisRunRepository,
+                              StoreAnalysisProgressRepository storeAnalysisProgressRepository,
+                              AnalysisProps analysisProps,
+                              Clock clock) {
+        this.analysisRunRepository = analysisRunRepository;
+        this.storeAnalysisProgressRepository = storeAnalysisProgressRepository;
+        this.analysisProps = analysisProps;
+        this.clock = clock;
+        this.nodeId = resolveNodeId(analysisProps.getShard().getNodeId());
+        this.leaseHeartbeat = analysisProps.getShard().isEnabled() ? startLeaseHeartbeat() : null;
+    }
+
+    private ThreadPoolTaskScheduler startLeaseHeartbeat() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("AnalysisLease-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::renewLeases, analysisProps.getShard().getHeartbeatInterval());
+        return scheduler;
+    }
+
+    // 이번 주 실행을 시작하거나 이어서 진행, 새로 추가된 매장은 대기 상태로 등록
+    @Transactional
+    public AnalysisRun startOrResume(List<Store> stores, LocalDate today) {
+        LocalDate weekStart = AnalysisRun.weekStartOf(today);
+
+        int closed = analysisRunRepository.closeRunsBefore(
+                weekStart, AnalysisRunStatus.RUNNING, AnalysisRunStatus.FAILED, LocalDateTime.now(clock));
+        if (closed > 0) {
+            log.warn("지난 주에 마치지 못한 분석 실행 {}건을 실패로 종료", closed);
+        }
+
+        AnalysisRun run = analysisRunRepository.findByWeekStart(weekStart).orElse(null);
+        if (run == null) {
+            run = analysisRunRepository.save(AnalysisRun.start(today));
+            log.info("주간 분석 실행 시작 - 주: {}, 기준일: {}", weekStart, run.getAnalysisDate());
+        } else {
+            log.info("주간 분석 실행 재개 - 주: {}, 기준일: {}, 이전 상태: {}",
+                    weekStart, run.getAnalysisDate(), run.getStatus());
+            run.resume();
+        }
+
+        Long runId = run.getId();
+        Set<Long> registered = new HashSet<>(storeAnalysisProgressRepository.findStoreIdsByRunId(runId));
+        List<StoreAnalysisProgress> newProgress = stores.stream()
+                .map(Store::getId)
+                .filter(storeId -> !registered.contains(storeId))
+                .map(storeId -> StoreAnalysisProgress.pending(runId, storeId))
+                .toList();
+        storeAnalysisProgressRepository.saveAll(newProgress);
+
+        return run;
+    }
+
+    // 여러 인스턴스가 함께 진행하는 이번 주 실행에 참여, 실패한 매장은 다시 대기 상태로 돌려 재시도
+    @Transactional
+    public AnalysisRun join(List<Store> stores, LocalDate today) {
+        AnalysisRun run = startOrResume(stores, today);
+
+        int requeued = storeAnalysisProgressRepository.requeue(
+                run.getId(), StoreAnalysisStatus.FAILED, StoreAnalysisStatus.PENDING);
+        if (requeued > 0) {
+            log.info("이번 주 분석에 실패한 매장 {}개를 다시 대기 상태로 변경", requeued);
+        }
+        return run;
+    }
+
+    // 분석할 매장을 최대 batchSize개 선점하고 매장 id를 반환 (더 선점할 매장이 없으면 빈 목록)
+    // 조회와 선점 UPDATE가 각각 바로 커밋되도록 트랜잭션 없이 실행하여 행 잠금을 짧게 유지
+    // 다른 인스턴스와 경합해 하나도 얻지 못하면 다시 조회 (다시 조회할 때마다 선점된 매장은 빠지므로 반드시 끝남)
+    public List<Long> claimStores(Long runId, int batchSize) {
+        AnalysisProps.Shard shard = analysisProps.getShard();
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<StoreAnalysisProgress> candidates = storeAnalysisProgressRepository.findClaimable(
+                    runId, StoreAnalysisStatus.PENDING, StoreAnalysisStatus.IN_PROGRESS, shard.getMaxAttempts(),
+                    now, PageRequest.of(0, batchSize * 2));
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+
+            List<Long> claimed = new ArrayList<>();
+            LocalDateTime leaseUntil = now.plus(shard.getLeaseDuration());
+            for (StoreAnalysisProgress candidate : candidates) {
+                if (claimed.size() >= batchSize) {
+                    break;
+                }
+                int updated = storeAnalysisProgressRepository.claim(candidate.getId(), nodeId, leaseUntil,
+                        StoreAnalysisStatus.PENDING, StoreAnalysisStatus.IN_PROGRESS, shard.getMaxAttempts(), now);
+                if (updated == 1) {
+                    heldLeases.add(new LeaseKey(runId, candidate.getStoreId()));
+                    if (candidate.getStatus() == StoreAnalysisStatus.IN_PROGRESS) {
+                        log.warn("임대가 만료된 매장(id: {}) 회수 - 이전 소유자: {}",
+                                candidate.getStoreId(), candidate.getOwner());
+                    }
+                    claimed.add(candidate.getStoreId());
+                }
+            }
+
+            if (!claimed.isEmpty()) {
+                return claimed;
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Long> findCompletedStoreIds(Long runId) {
+        return new HashSet<>(storeAnalysisProgressRepository.findStoreIdsByRunIdAndStatus(
+                runId, StoreAnalysisStatus.COMPLETED));
+    }
+
+    // 이번 주 실행이 RUNNING으로 남아 있으면 중단된 실행 (프로세스 시작 시점에 호출)
+    @Transactional(readOnly = true)
+    public Optional<AnalysisRun> findInterruptedRun(LocalDate today) {
+        return analysisRunRepository.findByWeekStart(AnalysisRun.weekStartOf(today))
+                .filter(AnalysisRun::isRunning);
+    }
+
+    // 매장 분석 시작, 청크 분석을 이어서 진행할 위치(마지막으로 반영된 고객 id)를 반환
+    @Transactional
+    public long markStarted(Long runId, Long storeId) {
+        StoreAnalysisProgress progress = findOrCreateProgress(runId, storeId);
+        long resumeAfterCustomerId = progress.start();
+
+        if (resumeAfterCustomerId > 0) {
+            log.info("매장(id: {}) 분석을 고객 id {} 이후부터 재개 (시도: {}회)",
+                    storeId, resumeAfterCustomerId, progress.getAttempts());
+        }
+        return resumeAfterCustomerId;
+    }
+
+    @Transactional
+    public void recordChunk(Long runId, Long storeId, long lastCustomerId) {
+        findOrCreateProgress(runId, storeId).recordChunk(lastCustomerId);
+    }
+
+    // 나누어 분석할 때는 임대를 가진 경우에만 기록 (임대가 만료되어 다른 인스턴스가 회수했으면 그쪽 결과를 유지)
+    @Transactional
+    public void markCompleted(Long runId, Long storeId) {
+        if (analysisProps.getShard().isEnabled()) {
+            finishOwned(runId, storeId, StoreAnalysisStatus.COMPLETED, null);
+            return;
+        }
+        findOrCreateProgress(runId, storeId).complete();
+    }
+
+    @Transactional
+    public void markFailed(Long runId, Long storeId, String error) {
+        if (analysisProps.getShard().isEnabled()) {
+            finishOwned(runId, storeId, StoreAnalysisStatus.FAILED, StoreAnalysisProgress.truncateError(error));
+            return;
+        }
+        findOrCreateProgress(runId, storeId).fail(error);
+    }
+
+    private void finishOwned(Long runId, Long storeId, StoreAnalysisStatus status, String error) {
+        heldLeases.remove(new LeaseKey(runId, storeId));
+        int updated = storeAnalysisProgressRepository.finishOwned(runId, storeId, nodeId, status, error);
+        if (updated == 0) {
+            log.warn("매장(id: {}) 임대를 잃어 분석 결과 상태({})를 기록하지 않음 - 다른 인스턴스가 회수함", storeId, status);
+        }
+    }
+
+    // 선점한 매장의 임대 연장 (heartbeat-interval마다 실행, 청크 단위로 나누지 않는 분석도 임대가 만료되지 않음)
+    // 연장되지 않은 매장은 이미 다른 인스턴스가 회수한 것이므로 연장 대상에서 제외
+    void renewLeases() {
+        LocalDateTime leaseUntil = LocalDateTime.now(clock).plus(analysisProps.getShard().getLeaseDuration());
+        for (LeaseKey lease : heldLeases) {
+            try {
+                int updated = storeAnalysisProgressRepository.renewLease(
+                        lease.runId(), lease.storeId(), nodeId, leaseUntil);
+                if (updated == 0) {
+                    heldLeases.remove(lease);
+                    log.warn("매장(id: {}) 임대가 만료되어 다른 인스턴스가 회수함", lease.storeId());
+                }
+            } catch (Exception e) {
+                // 다음 연장 주기에 다시 시도
+                log.warn("매장(id: {}) 임대 연장 중 예외 발생", lease.storeId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (leaseHeartbeat != null) {
+            leaseHeartbeat.shutdown();
+        }
+    }
+
+    // 매장별 진행 상태를 집계해 실행 종료
+    @Transactional
+    public void finish(Long runId) {
+        AnalysisRun run = analysisRunRepository.findById(runId).orElse(null);
+        if (run == null) {
+            return;
+        }
+
+        List<StoreAnalysisProgress> progresses = storeAnalysisProgressRepository.findAllByRunId(runId);
+        int completed = (int) progresses.stream()
+                .filter(progress -> progress.getStatus() == StoreAnalysisStatus.COMPLETED)
+                .count();
+        int failed = (int) progresses.stream()
+                .filter(progress -> progress.getStatus() == StoreAnalysisStatus.FAILED)
+                .count();
+
+        run.finish(progresses.size(), completed, failed);
+
+        log.info("주간 분석 실행 종료 - 주: {}, 상태: {}, 완료: {}/{}개, 실패: {}개",
+                run.getWeekStart(), run.getStatus(), completed, progresses.size(), failed);
+    }
+
+    // 다른 인스턴스가 아직 임대 중이거나 임대가 만료되어 다시 선점할 수 있는 매장이 있으면 종료하지 않음
+    // (선점할 매장이 없다고 확인한 직후 임대가 만료되어도 그 매장을 남긴 채 종료하지 않고 다음 확인에서 회수)
+    // 이미 다른 인스턴스가 종료한 실행이면 그대로 true
+    @Transactional
+    public boolean finishIfIdle(Long runId) {
+        boolean running = analysisRunRepository.findById(runId)
+                .map(AnalysisRun::isRunning)
+                .orElse(false);
+        if (!running) {
+            return true;
+        }
+
+        long unfinished = storeAnalysisProgressRepository.countUnfinished(
+                runId, StoreAnalysisStatus.PENDING, StoreAnalysisStatus.IN_PROGRESS,
+                analysisProps.getShard().getMaxAttempts(), LocalDateTime.now(clock));
+        if (unfinished > 0) {
+            log.info("분석 중이거나 다시 선점할 매장 {}개가 남아 있어 실행을 종료하지 않음", unfinished);
+            return false;
+        }
+        finish(runId);
+        return true;
+    }
+
+    private StoreAnalysisProgress findOrCreateProgress(Long runId, Long storeId) {
+        return storeAnalysisProgressRepository.findByRunIdAndStoreId(runId, storeId)
+                .orElseGet(() -> storeAnalysisProgressRepository.save(StoreAnalysisProgress.pending(runId, storeId)));
+    }
+
+    private record LeaseKey(Long runId, Long storeId) {
+    }
+
+    static String resolveNodeId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return truncate(configured.strip());
+        }
+
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return truncate(host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    private static String truncate(String nodeId) {
+        return nodeId.length() > StoreAnalysisProgress.MAX_OWNER_LENGTH
+                ? nodeId.substring(nodeId.length() - StoreAnalysisProgress.MAX_OWNER_LENGTH) : nodeId;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.scorer.CustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 청크 단위 매장 AI 분석
+ * 청크 N+1 데이터 생성, 청크 N AI 호출, 청크 N-1 결과 반영을 겹쳐서 실행
+ * 메모리에는 최대 3개 청크만 존재하며 각 DB 작업은 청크 단위의 짧은 트랜잭션으로 실행됨
+ * 일시적인 AI 호출 실패는 이미 만든 청크 데이터로 해당 청크만 재시도 (반영은 방문 횟수 조건으로 멱등)
+ * 델타 분석이 켜져 있으면 청크마다 특성이 바뀐 고객만 전송
+ * 청크마다 따로 정규화하면 매장 전체를 한 번에 분석한 점수와 달라지므로, 분석 전에 매장 전체 정규화 범위를 구해 모든 청크에 적용
+ */
+@Component
+@Slf4j
+public class ChunkedStoreAnalyzer {
+
+    private final CustomerAnalysisDataService customerAnalysisDataService;
+    private final CustomerScorer customerScorer;
+    private final Executor analysisStageExecutor;
+    private final RetryTemplate aiChunkRetryTemplate;
+    private final DeltaAnalysisFilter deltaAnalysisFilter;
+
+    private final Counter retryCounter;
+    private final Timer backOffTimer;
+
+    public ChunkedStoreAnalyzer(
+            CustomerAnalysisDataService customerAnalysisDataService,
+            CustomerScorer customerScorer,
+            @Qualifier("analysisStageExecutor") Executor analysisStageExecutor,
+            @Qualifier("aiChunkRetryTemplate") RetryTemplate aiChunkRetryTemplate,
+            DeltaAnalysisFilter deltaAnalysisFilter,
+            MeterRegistry meterRegistry) {
+        this.customerAnalysisDataService = customerAnalysisDataService;
+        this.customerScorer = customerScorer;
+        this.analysisStageExecutor = analysisStageExecutor;
+        this.aiChunkRetryTemplate = aiChunkRetryTemplate;
+        this.deltaAnalysisFilter = deltaAnalysisFilter;
+        this.retryCounter = Counter.builder("analysis.chunk.retries")
+                .description("청크 AI 호출 재시도 횟수")
+                .register(meterRegistry);
+        this.backOffTimer = Timer.builder("analysis.chunk.backoff")
+                .description("청크 AI 호출 재시도 전 대기 시간")
+                .register(meterRegistry);
+    }
+
+    // 매장 고객을 고객 id 순으로 chunkSize명씩 나누어 분석하고 청크별 반영 결과를 합산
+    // 모든 청크는 같은 analysisDate(주 경계)를 기준으로 생성됨
+    public AnalysisApplyResult analyze(Store store, LocalDate analysisDate, int chunkSize) {
+        return analyze(store, analysisDate, chunkSize, AnalysisCheckpoint.NONE);
+    }
+
+    // 체크포인트 이후 고객부터 분석하고, 청크 결과 반영이 끝날 때마다 체크포인트 기록
+    public AnalysisApplyResult analyze(Store store, LocalDate analysisDate, int chunkSize,
+                                       AnalysisCheckpoint checkpoint) {
+
+        // 체크포인트에서 재개해도 이미 반영한 청크와 같은 기준이 되도록 매장 전체 범위 사용
+        ScoreBounds bounds = customerAnalysisDataService.collectScoreBounds(store, analysisDate);
+
+        CompletableFuture<AnalysisChunk> nextChunk =
+                prepareChunkAsync(store, analysisDate, checkpoint.resumeAfterCustomerId(), chunkSize);
+        CompletableFuture<AnalysisApplyResult> pendingApply =
+                CompletableFuture.completedFuture(AnalysisApplyResult.empty());
+        long pendingLastCustomerId = checkpoint.resumeAfterCustomerId();
+
+        AnalysisApplyResult total = AnalysisApplyResult.empty();
+        RetryStats retryStats = new RetryStats();
+        int chunkCount = 0;
+        int skippedCustomers = 0;
+
+        try {
+            while (true) {
+                AnalysisChunk chunk = nextChunk.join();
+
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                chunkCount++;
+
+                // 청크 N+1 데이터 생성 시작
+                nextChunk = prepareChunkAsync(store, analysisDate, chunk.lastCustomerId(), chunkSize);
+
+                // 델타 분석: 특성이 바뀐 고객만 전송 (모두 그대로면 AI 호출과 반영을 생략)
+                List<AiCustomerDataInputDto> changedData =
+                        deltaAnalysisFilter.selectChanged(store, analysisDate, chunk.data());
+                skippedCustomers += chunk.data().size() - changedData.size();
+                AnalysisChunk sendChunk = new AnalysisChunk(changedData, chunk.lastCustomerId());
+
+                // 청크 N AI 호출 (트랜잭션 밖)
+                AiCustomerDataResponseDto aiResponse =
+                        sendChunk.isEmpty() ? null : analyzeChunkWithRetry(store, sendChunk, bounds, retryStats);
+
+                // 청크 N-1 반영 완료를 기다린 뒤 청크 N 반영 시작
+                total = total.plus(pendingApply.join());
+                recordCheckpoint(checkpoint, pendingLastCustomerId);
+                pendingApply = sendChunk.isEmpty()
+                        ? CompletableFuture.completedFuture(AnalysisApplyResult.empty())
+                        : applyChunkAsync(store, sendChunk, aiResponse);
+                pendingLastCustomerId = chunk.lastCustomerId();
+            }
+
+            total = total.plus(pendingApply.join());
+            recordCheckpoint(checkpoint, pendingLastCustomerId);
+
+        } catch (CompletionException e) {
+            awaitQuietly(pendingApply);
+            throw unwrap(e);
+        } catch (RuntimeException e) {
+            // AI 호출 실패 시에도 이미 시작된 이전 청크 반영은 마무리
+            awaitQuietly(pendingApply);
+            log.warn("매장({}) 청크 분석 실패 - 재시도: {}회, 재시도 대기: {}ms",
+                    store.getName(), retryStats.retries, retryStats.backOffNanos / 1_000_000);
+            throw e;
+        }
+
+        log.info("매장({}) 청크 분석 완료 - 청크 수: {}, 청크 크기: {}, 재시도: {}회, 재시도 대기: {}ms, 전송 생략: {}명",
+                store.getName(), chunkCount, chunkSize, retryStats.retries, retryStats.backOffNanos / 1_000_000,
+                skippedCustomers);
+
+        return total;
+    }
+
+    // 청크 AI 호출, 재시도 가능한 실패면 같은 청크 데이터로 다시 호출
+    // 전체 소요 시간에서 호출 시간을 뺀 나머지를 재시도 대기 시간으로 기록
+    private AiCustomerDataResponseDto analyzeChunkWithRetry(Store store, AnalysisChunk chunk, ScoreBounds bounds,
+                                                            RetryStats retryStats) {
+        long startedAt = System.nanoTime();
+        long[] callNanos = {0L};
+        int[] attempts = {0};
+
+        try {
+            return aiChunkRetryTemplate.execute(context -> {
+                if (context.getRetryCount() > 0) {
+                    log.warn("매장({}) 청크(마지막 고객 ID: {}) AI 호출 재시도 {}회차 - 이전 실패: {}",
+                            store.getName(), chunk.lastCustomerId(), context.getRetryCount(),
+                            context.getLastThrowable().getMessage());
+                }
+                attempts[0]++;
+                long callStartedAt = System.nanoTime();
+                try {
+                    return customerScorer.score(chunk.data(), bounds);
+                } finally {
+                    callNanos[0] += System.nanoTime() - callStartedAt;
+                }
+            });
+        } finally {
+            int retries = attempts[0] - 1;
+            if (retries > 0) {
+                long backOffNanos = Math.max(0L, System.nanoTime() - startedAt - callNanos[0]);
+                retryStats.retries += retries;
+                retryStats.backOffNanos += backOffNanos;
+                retryCounter.increment(retries);
+                backOffTimer.record(Duration.ofNanos(backOffNanos));
+            }
+        }
+    }
+
+    // 반영이 끝난 청크가 있을 때만 기록 (반영 전에 중단되면 해당 청크부터 다시 분석)
+    private void recordCheckpoint(AnalysisCheckpoint checkpoint, long lastCustomerId) {
+        if (lastCustomerId > checkpoint.resumeAfterCustomerId()) {
+            checkpoint.chunkApplied().accept(lastCustomerId);
+        }
+    }
+
+    private CompletableFuture<AnalysisChunk> prepareChunkAsync(
+            Store store, LocalDate analysisDate, long afterCustomerId, int chunkSize) {
+        return CompletableFuture.supplyAsync(
+                () -> customerAnalysisDataService.prepareChunkForAnalysis(store, analysisDate, afterCustomerId, chunkSize),
+                analysisStageExecutor);
+    }
+
+    private CompletableFuture<AnalysisApplyResult> applyChunkAsync(
+            Store store, AnalysisChunk chunk, AiCustomerDataResponseDto aiResponse) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (aiResponse == null || aiResponse.result() == null || aiResponse.result().isEmpty()) {
+                log.error("매장({}) 청크(마지막 고객 ID: {}) AI 분석 결과가 비어있습니다.",
+                        store.getName(), chunk.lastCustomerId());
+                return new AnalysisApplyResult(0, 0, 0, chunk.data().size());
+            }
+            AnalysisApplyResult applyResult =
+                    customerAnalysisDataService.applyAnalysisResults(store, chunk.data(), aiResponse.result());
+            deltaAnalysisFilter.remember(store, chunk.data(), aiResponse.result());
+            return applyResult;
+        }, analysisStageExecutor);
+    }
+
+    private void awaitQuietly(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (Exception e) {
+            log.warn("청크 결과 반영 중 예외 발생", e);
+        }
+    }
+
+    // 매장 분석 1회 동안의 재시도 통계 (AI 호출은 analyze 호출 스레드에서만 실행됨)
+    private static final class RetryStats {
+        private int retries;
+        private long backOffNanos;
+    }
+
+    private RuntimeException unwrap(CompletionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return e;
+    }
+}
@@ -0,0 +1,421 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
+import com.example.moki_campaign.domain.customer.repository.CustomerAnalysisState;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerScoreJdbcRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerScoreUpdate;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitCounterRow;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitFeature;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.entity.DailyVisit;
+import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.global.util.LongIntHashMap;
+import com.example.moki_campaign.global.util.WeeklyVisitHistogram;
+import com.example.moki_campaign.infra.ai.client.AiCustomerDataWriter;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.scorer.CustomerFeatureColumns;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AI 고객 분석의 DB 읽기/쓰기 단계
+ * AI 서버 호출 동안 커넥션을 점유하지 않도록 각 단계를 짧은 트랜잭션으로 분리
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerAnalysisDataService {
+
+    // 현재 상태 조회와 배치 UPDATE를 묶는 고객 수
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    // 요청하지 않았거나 이미 반영한 고객 표시
+    private static final int NOT_REQUESTED = -1;
+
+    private final CustomerRepository customerRepository;
+    private final DailyVisitRepository dailyVisitRepository;
+    private final CustomerScoreJdbcRepository customerScoreJdbcRepository;
+    private final AnalysisProps analysisProps;
+
+    // ai 분석을 위한 요청 데이터 생성 (지난 8주 데이터)
+    // 읽기 전용 트랜잭션으로 실행되며 반환 시점에 커넥션 반납
+    @Transactional(readOnly = true)
+    public List<AiCustomerDataInputDto> prepareDataForAnalysis(Store store, LocalDate analysisDate) {
+        return readInputData(store, analysisDate, 0L, Limit.unlimited());
+    }
+
+    // 고객 id 순으로 afterCustomerId 다음부터 chunkSize명의 분석 요청 데이터 생성
+    // 방문 기록도 해당 청크의 고객 범위만 조회하므로 매장 전체 데이터를 한 번에 메모리에 올리지 않음
+    @Transactional(readOnly = true)
+    public AnalysisChunk prepareChunkForAnalysis(Store store, LocalDate analysisDate,
+                                                 long afterCustomerId, int chunkSize) {
+
+        List<AiCustomerDataInputDto> inputData =
+                readInputData(store, analysisDate, afterCustomerId, Limit.of(chunkSize));
+
+        if (inputData.isEmpty()) {
+            return AnalysisChunk.empty(afterCustomerId);
+        }
+
+        long lastCustomerId = Long.parseLong(inputData.get(inputData.size() - 1).customerId());
+        return new AnalysisChunk(inputData, lastCustomerId);
+    }
+
+    // 매장에 분석할 고객이 있는지 확인
+    @Transactional(readOnly = true)
+    public boolean hasCustomers(Store store) {
+        return customerRepository.existsByStore(store);
+    }
+
+    // 매장 고객 특성을 DB 커서로 순차 조회하며 분석 요청 데이터를 writer에 바로 기록
+    // 고객 목록을 메모리에 모으지 않고, 결과 반영에 필요한 고객별 방문 수만 expectedVisitCounts에 보관
+    // 읽기 전용 트랜잭션은 요청 본문 기록이 끝나면 종료됨
+    @Transactional(readOnly = true)
+    public int writeAnalysisInput(Store store, LocalDate analysisDate, AiCustomerDataWriter writer,
+                                  LongIntHashMap expectedVisitCounts) throws IOException {
+        int customerCount = 0;
+
+        try (Stream<CustomerVisitFeature> features = streamVisitFeatures(store, analysisDate)) {
+            Iterator<CustomerVisitFeature> iterator = features.iterator();
+            while (iterator.hasNext()) {
+                CustomerVisitFeature feature = iterator.next();
+                writer.write(convertToAiInputDto(feature, analysisDate));
+                expectedVisitCounts.put(feature.customerId(), feature.totalVisitCount());
+                customerCount++;
+            }
+        }
+
+        return customerCount;
+    }
+
+    // 청크/델타 요청을 매장 전체와 같은 기준으로 정규화하도록 매장 전체 고객의 점수 정규화 범위 계산
+    // 커서로 읽으며 WRITE_BATCH_SIZE명씩 범위에 반영하므로 고객 목록을 메모리에 모으지 않음 (활성 고객당 이탈 위험 요소 3개만 보관)
+    @Transactional(readOnly = true)
+    public ScoreBounds collectScoreBounds(Store store, LocalDate analysisDate) {
+        ScoreBounds.Collector collector = new ScoreBounds.Collector();
+        List<AiCustomerDataInputDto> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+
+        try (Stream<CustomerVisitFeature> features = streamVisitFeatures(store, analysisDate)) {
+            Iterator<CustomerVisitFeature> iterator = features.iterator();
+            while (iterator.hasNext()) {
+                batch.add(convertToAiInputDto(iterator.next(), analysisDate));
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    collector.add(CustomerFeatureColumns.from(batch));
+                    batch.clear();
+                }
+            }
+        }
+        collector.add(CustomerFeatureColumns.from(batch));
+
+        return collector.build();
+    }
+
+    // analysis.feature-source 설정에 따라 매장 전체 고객 특성을 커서로 조회
+    // 방문 엔티티 집계 방식은 고객 범위별로 방문을 모아야 하므로 스트리밍 시에는 DB 집계를 사용
+    private Stream<CustomerVisitFeature> streamVisitFeatures(Store store, LocalDate analysisDate) {
+        if (analysisProps.getFeatureSource() == AnalysisProps.FeatureSource.COUNTER) {
+            return customerRepository.streamVisitCounterRows(store, 0L)
+                    .map(row -> row.toFeature(analysisDate));
+        }
+        return customerRepository.streamVisitFeatures(store, analysisDate);
+    }
+
+    // analysis.feature-source 설정에 따라 고객 id 순으로 분석 요청 데이터 조회
+    private List<AiCustomerDataInputDto> readInputData(Store store, LocalDate analysisDate,
+                                                       long afterCustomerId, Limit limit) {
+        return switch (analysisProps.getFeatureSource()) {
+            case AGGREGATE -> readFromVisitAggregates(store, analysisDate, afterCustomerId, limit);
+            case ENTITY -> readFromVisitEntities(store, analysisDate, afterCustomerId, limit);
+            case COUNTER -> readFromVisitCounters(store, analysisDate, afterCustomerId, limit);
+        };
+    }
+
+    // DB에서 고객별 주간 방문 횟수를 집계한 결과로 요청 데이터 생성 (방문 엔티티를 로딩하지 않음)
+    private List<AiCustomerDataInputDto> readFromVisitAggregates(Store store, LocalDate analysisDate,
+                                                                 long afterCustomerId, Limit limit) {
+
+        Pageable pageable = limit.isLimited() ? PageRequest.ofSize(limit.max()) : Pageable.unpaged();
+
+        List<CustomerVisitFeature> features =
+                customerRepository.findVisitFeatures(store, analysisDate, afterCustomerId, pageable);
+
+        List<AiCustomerDataInputDto> result = new ArrayList<>(features.size());
+        for (CustomerVisitFeature feature : features) {
+            result.add(convertToAiInputDto(feature, analysisDate));
+        }
+        return result;
+    }
+
+    // 방문 기록 시 갱신된 주간 방문 카운터로 요청 데이터 생성 (고객 수에 비례하는 조회)
+    private List<AiCustomerDataInputDto> readFromVisitCounters(Store store, LocalDate analysisDate,
+                                                               long afterCustomerId, Limit limit) {
+
+        Pageable pageable = limit.isLimited() ? PageRequest.ofSize(limit.max()) : Pageable.unpaged();
+
+        List<CustomerVisitCounterRow> rows =
+                customerRepository.findVisitCounterRows(store, afterCustomerId, pageable);
+
+        List<AiCustomerDataInputDto> result = new ArrayList<>(rows.size());
+        for (CustomerVisitCounterRow row : rows) {
+            result.add(convertToAiInputDto(row.toFeature(analysisDate), analysisDate));
+        }
+        return result;
+    }
+
+    // 방문 엔티티를 조회해 애플리케이션에서 주간 방문 횟수를 집계하여 요청 데이터 생성
+    private List<AiCustomerDataInputDto> readFromVisitEntities(Store store, LocalDate analysisDate,
+                                                               long afterCustomerId, Limit limit) {
+
+        // 현재 주의 월요일을 기준으로 8주 전부터 현재 주 일요일까지
+        LocalDate currentWeekStart = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate startDate = currentWeekStart.minusWeeks(7);  // 8주 전 월요일
+        LocalDate endDate = currentWeekStart.plusDays(6);      // 현재 주 일요일
+
+        List<Customer> customers = customerRepository
+                .findByStoreAndIdGreaterThanOrderByIdAsc(store, afterCustomerId, limit);
+
+        // 매장에 고객이 존재하지 않는 경우
+        if (customers.isEmpty()) {
+            return List.of();
+        }
+
+        long firstCustomerId = customers.get(0).getId();
+        long lastCustomerId = customers.get(customers.size() - 1).getId();
+
+        List<DailyVisit> visits = dailyVisitRepository.findByStoreAndCustomerIdRangeAndDateRange(
+                store, firstCustomerId, lastCustomerId, startDate, endDate);
+
+        return buildInputData(customers, visits, analysisDate);
+    }
+
+    // ai 분석 결과 바탕으로 고객 정보 업데이트
+    @Transactional
+    public AnalysisApplyResult applyAnalysisResults(
+            Store store,
+            List<AiCustomerDataInputDto> inputData,
+            List<AiCustomerDataOutputDto> aiResults) {
+
+        if (aiResults.isEmpty()) {
+            log.warn("AI 분석 결과가 비어있습니다.");
+            return AnalysisApplyResult.empty();
+        }
+
+        LongIntHashMap expectedVisitCounts = new LongIntHashMap(inputData.size());
+        for (AiCustomerDataInputDto input : inputData) {
+            expectedVisitCounts.put(parseCustomerId(input.customerId()), input.totalVisits());
+        }
+
+        return applyAnalysisResults(store, expectedVisitCounts, aiResults);
+    }
+
+    // 요청 고객별 방문 수(고객 id → total_visit_count)만으로 ai 분석 결과 반영
+    // WRITE_BATCH_SIZE명씩 현재 상태를 한 번에 조회한 뒤 segment/점수가 바뀐 고객만 JDBC 배치로 갱신
+    // 요청 데이터 생성 이후 방문이 기록된 고객은 total_visit_count가 달라지므로 갱신하지 않음
+    // (해당 고객은 기존 segment/점수를 유지하고 다음 분석에서 최신 방문을 반영해 재평가)
+    @Transactional
+    public AnalysisApplyResult applyAnalysisResults(
+            Store store,
+            LongIntHashMap expectedVisitCounts,
+            List<AiCustomerDataOutputDto> aiResults) {
+
+        AnalysisApplyResult total = AnalysisApplyResult.empty();
+        for (int from = 0; from < aiResults.size(); from += WRITE_BATCH_SIZE) {
+            List<AiCustomerDataOutputDto> batch =
+                    aiResults.subList(from, Math.min(from + WRITE_BATCH_SIZE, aiResults.size()));
+            total = total.plus(applyResultBatch(expectedVisitCounts, batch));
+        }
+
+        int matchedCount = total.updated() + total.unchanged() + total.stale();
+        total = new AnalysisApplyResult(total.updated(), total.unchanged(), total.stale(),
+                expectedVisitCounts.size() - matchedCount);
+
+        log.info("매장({}) AI 분석 결과 반영 완료: {}건 업데이트, {}건 변경 없음, {}건 건너뜀, {}건 결과 없음",
+                store.getName(), total.updated(), total.unchanged(), total.stale(), total.missing());
+
+        return total;
+    }
+
+    // 분석 결과 묶음 하나 반영 (스트리밍 응답에서는 묶음마다 별도 트랜잭션으로 호출)
+    // 반영한 고객은 expectedVisitCounts에 처리 완료로 표시하여 중복 결과를 무시
+    // 결과가 없는 고객 수는 호출하는 쪽에서 전체 요청 고객 수와 비교해 계산
+    @Transactional
+    public AnalysisApplyResult applyResultBatch(
+            LongIntHashMap expectedVisitCounts,
+            List<AiCustomerDataOutputDto> batch) {
+
+        List<Long> customerIds = new ArrayList<>(batch.size());
+        List<AiCustomerDataOutputDto> requestedResults = new ArrayList<>(batch.size());
+        int[] expectedVisits = new int[batch.size()];
+
+        for (AiCustomerDataOutputDto aiResult : batch) {
+            Long customerId = parseCustomerId(aiResult.customerId());
+            int expected = expectedVisitCounts.get(customerId, NOT_REQUESTED);
+
+            if (expected == NOT_REQUESTED) {
+                log.warn("요청하지 않은 고객(ID: {})의 AI 분석 결과를 무시합니다.", aiResult.customerId());
+                continue;
+            }
+
+            expectedVisitCounts.put(customerId, NOT_REQUESTED);
+            expectedVisits[customerIds.size()] = expected;
+            customerIds.add(customerId);
+            requestedResults.add(aiResult);
+        }
+
+        if (customerIds.isEmpty()) {
+            return AnalysisApplyResult.empty();
+        }
+
+        Map<Long, CustomerAnalysisState> currentStates = customerRepository.findAnalysisStatesByIdIn(customerIds)
+                .stream()
+                .collect(Collectors.toMap(CustomerAnalysisState::customerId, state -> state));
+
+        List<CustomerScoreUpdate> updates = new ArrayList<>();
+        int unchangedCount = 0;
+        int staleCount = 0;
+
+        for (int i = 0; i < customerIds.size(); i++) {
+            Long customerId = customerIds.get(i);
+            AiCustomerDataOutputDto aiResult = requestedResults.get(i);
+
+            CustomerAnalysisState current = currentStates.get(customerId);
+            if (current == null || current.totalVisitCount() != expectedVisits[i]) {
+                log.debug("고객(ID: {}) 분석 중 새 방문이 기록되어 업데이트를 건너뜁니다.", customerId);
+                staleCount++;
+                continue;
+            }
+
+            CustomerSegment segment = CustomerSegment.fromString(aiResult.customerSegment());
+
+            int loyaltyScore = (int) Math.round(aiResult.predictedLoyaltyScore() * 100);
+
+            if (current.segment() == segment && current.loyaltyScore() == loyaltyScore) {
+                unchangedCount++;
+                continue;
+            }
+
+            updates.add(new CustomerScoreUpdate(customerId, segment, loyaltyScore, expectedVisits[i]));
+        }
+
+        // 조회 이후 쓰기 전에 방문이 기록된 고객은 UPDATE 조건에서 걸러짐
+        int updateCount = 0;
+        if (!updates.isEmpty()) {
+            int[] updatedRows = customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(updates);
+            for (int rows : updatedRows) {
+                if (rows > 0) {
+                    updateCount++;
+                } else {
+                    staleCount++;
+                }
+            }
+        }
+
+        return new AnalysisApplyResult(updateCount, unchangedCount, staleCount, 0);
+    }
+
+    // 방문 기록을 한 번 순회하며 고객별 주간 방문 횟수를 집계한 뒤 ai 분석 요청 데이터로 변환
+    private List<AiCustomerDataInputDto> buildInputData(
+            List<Customer> customers,
+            List<DailyVisit> visits,
+            LocalDate analysisDate) {
+
+        WeeklyVisitHistogram histogram = new WeeklyVisitHistogram(analysisDate, customers.size());
+        int[] customerIndexes = new int[customers.size()];
+        for (int i = 0; i < customers.size(); i++) {
+            customerIndexes[i] = histogram.register(customers.get(i).getId());
+        }
+
+        for (DailyVisit visit : visits) {
+            histogram.add(visit.getCustomer().getId(), visit.getVisitDate());
+        }
+
+        List<AiCustomerDataInputDto> result = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            result.add(convertToAiInputDto(customers.get(i), histogram, customerIndexes[i], analysisDate));
+        }
+        return result;
+    }
+
+    // DB 집계 결과로 ai 고객 분석용 dto 생성
+    private AiCustomerDataInputDto convertToAiInputDto(CustomerVisitFeature feature, LocalDate analysisEndDate) {
+
+        int daysSinceLastVisit = (int) ChronoUnit.DAYS.between(feature.lastVisitDate(), analysisEndDate);
+
+        return AiCustomerDataInputDto.builder()
+                .customerId(String.valueOf(feature.customerId()))
+                .amount(feature.totalAmount().doubleValue())
+                .totalVisits(feature.totalVisitCount())
+                .daysSinceLastVisit(daysSinceLastVisit)
+                .visits8WeekAgo(feature.visits8WeekAgo().intValue())
+                .visits7WeekAgo(feature.visits7WeekAgo().intValue())
+                .visits6WeekAgo(feature.visits6WeekAgo().intValue())
+                .visits5WeekAgo(feature.visits5WeekAgo().intValue())
+                .visits4WeekAgo(feature.visits4WeekAgo().intValue())
+                .visits3WeekAgo(feature.visits3WeekAgo().intValue())
+                .visits2WeekAgo(feature.visits2WeekAgo().intValue())
+                .visits1WeekAgo(feature.visits1WeekAgo().intValue())
+                .build();
+    }
+
+    // ai 고객 분석용 dto 생성 (주별 방문 데이터)
+    private AiCustomerDataInputDto convertToAiInputDto(
+            Customer customer,
+            WeeklyVisitHistogram histogram,
+            int customerIndex,
+            LocalDate analysisEndDate) {
+
+        double totalAmount = customer.getTotalAmount();
+
+        int totalVisits = customer.getTotalVisitCount();
+
+        int daysSinceLastVisit = (int) ChronoUnit.DAYS.between(customer.getLastVisitDate(), analysisEndDate);
+
+        // 8주 전(week 0)부터 현재 주(week 7)까지 각 주의 방문 횟수
+        return AiCustomerDataInputDto.builder()
+                .customerId(String.valueOf(customer.getId()))
+                .amount(totalAmount)
+                .totalVisits(totalVisits)
+                .daysSinceLastVisit(daysSinceLastVisit)
+                .visits8WeekAgo(histogram.count(customerIndex, 0))
+                .visits7WeekAgo(histogram.count(customerIndex, 1))
+                .visits6WeekAgo(histogram.count(customerIndex, 2))
+                .visits5WeekAgo(histogram.count(customerIndex, 3))
+                .visits4WeekAgo(histogram.count(customerIndex, 4))
+                .visits3WeekAgo(histogram.count(customerIndex, 5))
+                .visits2WeekAgo(histogram.count(customerIndex, 6))
+                .visits1WeekAgo(histogram.count(customerIndex, 7))
+                .build();
+    }
+
+    // 문자열 형태의 고객 id를 Long으로 변환
+    private Long parseCustomerId(String customerId) {
+        try {
+            return Long.parseLong(customerId);
+        } catch (NumberFormatException e) {
+            log.error("Invalid customer_id format: {}", customerId);
+            return -1L;
+        }
+    }
+}
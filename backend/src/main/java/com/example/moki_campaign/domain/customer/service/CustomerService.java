@@ -7,6 +7,8 @@ import com.example.moki_campaign.domain.customer.dto.response.VisitGraphResponse
 import com.example.moki_campaign.domain.store.entity.Store;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+
 public interface CustomerService {
 
     DeclinedLoyalSummaryResponseDto findDeclinedLoyalInfo(Store store);
@@ -20,4 +22,6 @@ public interface CustomerService {
     void analyzeAllStores();
 
     void analyzeStore(Store store);
+
+    AnalysisApplyResult analyzeStore(Store store, LocalDate analysisDate, AnalysisCheckpoint checkpoint);
 }
\ No newline at end of file
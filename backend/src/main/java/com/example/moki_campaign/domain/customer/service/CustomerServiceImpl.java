@@ -7,6 +7,7 @@ import com.example.moki_campaign.domain.customer.dto.response.CustomerSummaryDto
 import com.example.moki_campaign.domain.customer.dto.response.DeclinedLoyalSummaryResponseDto;
 import com.example.moki_campaign.domain.customer.dto.response.VisitGraphItemDto;
 import com.example.moki_campaign.domain.customer.dto.response.VisitGraphResponseDto;
+import com.example.moki_campaign.domain.customer.entity.AnalysisRun;
 import com.example.moki_campaign.domain.customer.entity.Customer;
 import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
 import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
@@ -14,13 +15,17 @@ import com.example.moki_campaign.domain.store.entity.Store;
 import com.example.moki_campaign.domain.store.repository.StoreRepository;
 import com.example.moki_campaign.domain.visit.entity.DailyVisit;
 import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.global.config.AnalysisProps;
 import com.example.moki_campaign.global.exception.common.BusinessException;
 import com.example.moki_campaign.global.exception.common.ErrorCode;
 import com.example.moki_campaign.infra.ai.client.AiClient;
 import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
-import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
 import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.scorer.CustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -39,7 +44,14 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,7 +61,16 @@ public class CustomerServiceImpl implements CustomerService {
     private final StoreRepository storeRepository;
     private final CustomerRepository customerRepository;
     private final DailyVisitRepository dailyVisitRepository;
+    private final CustomerAnalysisDataService customerAnalysisDataService;
+    private final ChunkedStoreAnalyzer chunkedStoreAnalyzer;
+    private final PipelinedStoreAnalyzer pipelinedStoreAnalyzer;
+    private final StreamingStoreAnalyzer streamingStoreAnalyzer;
     private final AiClient aiClient;
+    private final CustomerScorer customerScorer;
+    private final AnalysisRunService analysisRunService;
+    private final DeltaAnalysisFilter deltaAnalysisFilter;
+    private final AnalysisProps analysisProps;
+    private final Executor storeAnalysisExecutor;
 
     private final CustomerService self;
 
@@ -57,12 +78,30 @@ public class CustomerServiceImpl implements CustomerService {
             StoreRepository storeRepository,
             CustomerRepository customerRepository,
             DailyVisitRepository dailyVisitRepository,
+            CustomerAnalysisDataService customerAnalysisDataService,
+            ChunkedStoreAnalyzer chunkedStoreAnalyzer,
+            PipelinedStoreAnalyzer pipelinedStoreAnalyzer,
+            StreamingStoreAnalyzer streamingStoreAnalyzer,
             AiClient aiClient,
+            CustomerScorer customerScorer,
+            AnalysisRunService analysisRunService,
+            DeltaAnalysisFilter deltaAnalysisFilter,
+            AnalysisProps analysisProps,
+            @Qualifier("storeAnalysisExecutor") Executor storeAnalysisExecutor,
             @Lazy CustomerService self) {
         this.storeRepository = storeRepository;
         this.customerRepository = customerRepository;
         this.dailyVisitRepository = dailyVisitRepository;
+        this.customerAnalysisDataService = customerAnalysisDataService;
+        this.chunkedStoreAnalyzer = chunkedStoreAnalyzer;
+        this.pipelinedStoreAnalyzer = pipelinedStoreAnalyzer;
+        this.streamingStoreAnalyzer = streamingStoreAnalyzer;
         this.aiClient = aiClient;
+        this.customerScorer = customerScorer;
+        this.analysisRunService = analysisRunService;
+        this.deltaAnalysisFilter = deltaAnalysisFilter;
+        this.analysisProps = analysisProps;
+        this.storeAnalysisExecutor = storeAnalysisExecutor;
         this.self = self;
     }
 
@@ -317,8 +356,13 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     // 전체 매장의 고객들에 대한 ai 고객 분석
+    // 매장별로 독립된 작업을 storeAnalysisExecutor(analysis.parallelism 크기)에 제출하여 병렬 처리
+    // 한 매장이 느리거나 실패해도 해당 워커만 점유되며 나머지 매장 분석은 계속 진행됨
+    // analysis.non-blocking=true 이면 AI 서버 응답 대기 중에는 워커를 반환하여 다른 매장의 읽기/쓰기 단계를 진행
+    // 주 단위 실행 상태와 매장/청크별 진행 상황을 저장하므로, 재시작 시 이번 주에 완료된 매장은 건너뛰고 이어서 분석
+    // analysis.shard.enabled=true 이면 모든 인스턴스가 같은 실행에 참여해 DB에서 선점한 매장만 분석
     // 테스트 위해 @Async 추가(테스트 완료하면 테스트 로직 삭제 예정)
-    @Async
+    @Async("mokiApiExecutor")
     @Override
     public void analyzeAllStores() {
 
@@ -329,208 +373,344 @@ public class CustomerServiceImpl implements CustomerService {
             return;
         }
 
-        log.info("분석 대상 매장 수: {}개", stores.size());
+        if (analysisProps.getShard().isEnabled()) {
+            analyzeClaimedStores(stores);
+            return;
+        }
 
-        int successCount = 0;
-        int failCount = 0;
+        AnalysisRun run = analysisRunService.startOrResume(stores, LocalDate.now());
+        Set<Long> completedStoreIds = analysisRunService.findCompletedStoreIds(run.getId());
 
-        for (Store store : stores) {
-            try {
-                self.analyzeStore(store);
-                successCount++;
-            } catch (Exception e) {
-                log.error("매장({}) AI 분석 실패", store.getName(), e);
-                failCount++;
-            }
+        List<Store> pendingStores = stores.stream()
+                .filter(store -> !completedStoreIds.contains(store.getId()))
+                .toList();
+
+        if (pendingStores.isEmpty()) {
+            log.info("이번 주 전체 매장 분석이 이미 완료되었습니다. (기준일: {})", run.getAnalysisDate());
+            analysisRunService.finish(run.getId());
+            return;
         }
 
-        log.info("전체 매장 AI 고객 분석 완료 - 성공: {}개, 실패: {}개", successCount, failCount);
-    }
+        log.info("분석 대상 매장 수: {}개 (이번 주 완료되어 건너뛴 매장: {}개), 동시 분석 수: {}",
+                pendingStores.size(), stores.size() - pendingStores.size(), analysisProps.getParallelism());
 
-    // 특정 매장의 고객을 대상으로 ai 분석
-    // 항상 새로운 트렌젝션을 시작
-    @Override
-    @Transactional
-    public void analyzeStore(Store store) {
+        long startedAt = System.nanoTime();
+        DeltaAnalysisFilter.Totals deltaBefore = deltaAnalysisFilter.totals();
 
-        try {
-            List<AiCustomerDataInputDto> inputData = prepareDataForAnalysis(store);
+        boolean nonBlocking = isNonBlockingMode();
 
-            if (inputData.isEmpty()) {
-                log.warn("매장({}) 분석 대상 데이터가 없습니다.", store.getName());
-                return;
-            }
+        List<CompletableFuture<StoreAnalysisResult>> futures = pendingStores.stream()
+                .map(store -> startStoreAnalysis(run, store, nonBlocking))
+                .toList();
+
+        List<StoreAnalysisResult> results = futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
 
-            AiCustomerDataResponseDto aiResponse = aiClient.analyzeCustomers(inputData);
+        logRunSummary(results, startedAt, deltaBefore);
 
-            if (aiResponse == null || aiResponse.result() == null || aiResponse.result().isEmpty()) {
-                log.error("매장({}) AI 분석 결과가 비어있습니다.", store.getName());
-                return;
+        analysisRunService.finish(run.getId());
+    }
+
+    // 여러 인스턴스가 나누어 분석: 매장 임대를 한 묶음씩 선점해 분석하고, 선점할 매장이 없을 때까지 반복
+    // 인스턴스가 도중에 종료되면 임대가 만료된 매장을 남은 인스턴스가 가져가 체크포인트부터 이어서 분석
+    // 모든 임대가 끝나면 마지막으로 확인한 인스턴스가 실행을 종료
+    private void analyzeClaimedStores(List<Store> stores) {
+        AnalysisRun run = joinRun(stores);
+        Map<Long, Store> storesById = stores.stream()
+                .collect(Collectors.toMap(Store::getId, store -> store));
+
+        int batchSize = analysisProps.getShard().getClaimBatchSize() > 0
+                ? analysisProps.getShard().getClaimBatchSize()
+                : Math.max(1, analysisProps.getParallelism());
+
+        log.info("주간 분석 참여 - 인스턴스: {}, 전체 매장 수: {}개, 한 번에 선점할 매장 수: {}",
+                analysisRunService.getNodeId(), stores.size(), batchSize);
+
+        long startedAt = System.nanoTime();
+        DeltaAnalysisFilter.Totals deltaBefore = deltaAnalysisFilter.totals();
+        boolean nonBlocking = isNonBlockingMode();
+        List<StoreAnalysisResult> results = new ArrayList<>();
+
+        do {
+            List<Long> claimedStoreIds;
+            while (!(claimedStoreIds = analysisRunService.claimStores(run.getId(), batchSize)).isEmpty()) {
+                List<CompletableFuture<StoreAnalysisResult>> futures = claimedStoreIds.stream()
+                        .map(storeId -> findClaimedStore(run, storesById, storeId))
+                        .flatMap(Optional::stream)
+                        .map(store -> startStoreAnalysis(run, store, nonBlocking))
+                        .toList();
+
+                futures.stream()
+                        .map(CompletableFuture::join)
+                        .forEach(results::add);
             }
+        } while (!analysisRunService.finishIfIdle(run.getId()) && awaitLeaseCheck());
+
+        if (results.isEmpty()) {
+            log.info("이 인스턴스가 선점한 매장이 없습니다. (다른 인스턴스가 분석했거나 이번 주 분석 완료)");
+        } else {
+            logRunSummary(results, startedAt, deltaBefore);
+        }
+    }
+
+    // 다른 인스턴스가 임대 중인 매장이 끝나거나 임대가 만료될 때까지 대기 (중단되면 false)
+    private boolean awaitLeaseCheck() {
+        try {
+            Thread.sleep(analysisProps.getShard().getLeaseCheckInterval().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("임대 만료 대기 중 중단되어 분석 참여를 종료합니다.");
+            return false;
+        }
+    }
 
-            int updatedCount = updateCustomersFromAiResult(
-                    store,
-                    aiResponse.result()
-            );
+    // 다른 인스턴스가 같은 주의 실행이나 매장 진행 상태를 먼저 등록했으면 등록된 것을 다시 읽어 참여
+    private AnalysisRun joinRun(List<Store> stores) {
+        try {
+            return analysisRunService.join(stores, LocalDate.now());
+        } catch (DataIntegrityViolationException e) {
+            log.info("다른 인스턴스가 이번 주 분석 실행을 먼저 등록하여 다시 참여합니다.");
+            return analysisRunService.join(stores, LocalDate.now());
+        }
+    }
 
-            log.info("매장({}) AI 고객 분석 완료: {}명 업데이트", store.getName(), updatedCount);
+    // 이 인스턴스가 매장 목록을 읽은 뒤 등록된 매장이면 다시 조회, 삭제된 매장이면 실패로 기록해 임대 해제
+    private Optional<Store> findClaimedStore(AnalysisRun run, Map<Long, Store> storesById, Long storeId) {
+        Store store = storesById.get(storeId);
+        if (store != null) {
+            return Optional.of(store);
+        }
 
-        } catch (Exception e) {
-            log.error("매장({}) AI 고객 분석 중 예외 발생", store.getName(), e);
-            throw e; // 상위로 전파하여 실패 카운트
+        Optional<Store> found = storeRepository.findById(storeId);
+        if (found.isEmpty()) {
+            analysisRunService.markFailed(run.getId(), storeId, "매장을 찾을 수 없음");
         }
+        return found;
     }
 
-    // ai 분석을 위한 요청 데이터 생성 (지난 8주 데이터)
-    private List<AiCustomerDataInputDto> prepareDataForAnalysis(Store store) {
-        LocalDate now = LocalDate.now();
+    private CompletableFuture<StoreAnalysisResult> startStoreAnalysis(AnalysisRun run, Store store, boolean nonBlocking) {
+        return nonBlocking
+                ? analyzeStoreNonBlocking(run, store)
+                : CompletableFuture.supplyAsync(() -> analyzeStoreIsolated(run, store), storeAnalysisExecutor);
+    }
+
+    private void logRunSummary(List<StoreAnalysisResult> results, long startedAt, DeltaAnalysisFilter.Totals deltaBefore) {
+        long totalElapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        long successCount = results.stream().filter(StoreAnalysisResult::success).count();
+        long failCount = results.size() - successCount;
 
-        // 현재 주의 월요일을 기준으로 8주 전부터 현재 주 일요일까지
-        LocalDate currentWeekStart = now.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        LocalDate startDate = currentWeekStart.minusWeeks(7);  // 8주 전 월요일
-        LocalDate endDate = currentWeekStart.plusDays(6);      // 현재 주 일요일
+        results.stream()
+                .sorted(Comparator.comparingLong(StoreAnalysisResult::elapsedMs).reversed())
+                .forEach(result -> log.info("매장({}) 분석 소요 시간: {}ms ({})",
+                        result.storeName(), result.elapsedMs(), result.success() ? "성공" : "실패"));
 
-        List<Customer> customers = customerRepository.findAllByStore(store);
+        log.info("전체 매장 AI 고객 분석 완료 - 성공: {}개, 실패: {}개, 총 소요 시간: {}ms",
+                successCount, failCount, totalElapsedMs);
 
-        // 매장에 고객이 존재하지 않는 경우
-        if (customers.isEmpty()) {
-            return List.of();
+        if (deltaAnalysisFilter.isEnabled()) {
+            DeltaAnalysisFilter.Totals delta = deltaAnalysisFilter.totals().minus(deltaBefore);
+            log.info("델타 분석 - 전송: {}명, 변경 없음으로 전송 생략: {}명 (요청 데이터 {}% 절감)",
+                    delta.sent(), delta.skipped(), String.format("%.1f", delta.savedPercent()));
         }
+    }
 
-        List<DailyVisit> visits = dailyVisitRepository
-                .findByStoreAndDateRangeWithCustomer(store, startDate, endDate);
+    // 매장 하나를 분석하고 소요 시간과 성공 여부를 기록 (예외는 여기서 격리)
+    private StoreAnalysisResult analyzeStoreIsolated(AnalysisRun run, Store store) {
+        long startedAt = System.nanoTime();
+        boolean success;
 
-        Map<Long, List<DailyVisit>> visitsByCustomer = visits.stream()
-                .collect(Collectors.groupingBy(v -> v.getCustomer().getId()));
+        try {
+            long resumeAfterCustomerId = analysisRunService.markStarted(run.getId(), store.getId());
+            self.analyzeStore(store, run.getAnalysisDate(), checkpointOf(run, store, resumeAfterCustomerId));
+            analysisRunService.markCompleted(run.getId(), store.getId());
+            success = true;
+        } catch (Exception e) {
+            log.error("매장({}) AI 분석 실패", store.getName(), e);
+            markFailedQuietly(run, store, e);
+            success = false;
+        }
 
-        List<AiCustomerDataInputDto> result = customers.stream()
-                .map(customer -> {
-                    List<DailyVisit> customerVisits = visitsByCustomer
-                            .getOrDefault(customer.getId(), List.of());
-                    return convertToAiInputDto(customer, customerVisits, now);
-                })
-                .collect(Collectors.toList());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        return new StoreAnalysisResult(store.getName(), success, elapsedMs);
+    }
 
-        return result;
-    }
-
-    // ai 고객 분석용 dto 생성 (주별 방문 데이터)
-    private AiCustomerDataInputDto convertToAiInputDto(
-            Customer customer,
-            List<DailyVisit> visits,
-            LocalDate analysisEndDate) {
-
-        double totalAmount = customer.getTotalAmount();
-
-        int totalVisits = customer.getTotalVisitCount();
-
-        int daysSinceLastVisit = (int) ChronoUnit.DAYS.between(customer.getLastVisitDate(), analysisEndDate);
-
-        // 현재 주의 월요일 기준
-        LocalDate currentWeekStart = analysisEndDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-
-        // 8주 전부터 1주 전까지 각 주의 방문 횟수 계산
-        int visits8WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(7));
-        int visits7WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(6));
-        int visits6WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(5));
-        int visits5WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(4));
-        int visits4WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(3));
-        int visits3WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(2));
-        int visits2WeekAgo = countVisitsInWeek(visits, currentWeekStart.minusWeeks(1));
-        int visits1WeekAgo = countVisitsInWeek(visits, currentWeekStart);
-
-        return AiCustomerDataInputDto.builder()
-                .customerId(String.valueOf(customer.getId()))
-                .amount(totalAmount)
-                .totalVisits(totalVisits)
-                .daysSinceLastVisit(daysSinceLastVisit)
-                .visits8WeekAgo(visits8WeekAgo)
-                .visits7WeekAgo(visits7WeekAgo)
-                .visits6WeekAgo(visits6WeekAgo)
-                .visits5WeekAgo(visits5WeekAgo)
-                .visits4WeekAgo(visits4WeekAgo)
-                .visits3WeekAgo(visits3WeekAgo)
-                .visits2WeekAgo(visits2WeekAgo)
-                .visits1WeekAgo(visits1WeekAgo)
-                .build();
-    }
-
-    // 특정 주 동안의 방문 횟수 계산 (월요일 시작 기준)
-    private int countVisitsInWeek(List<DailyVisit> visits, LocalDate weekStart) {
-        LocalDate weekEnd = weekStart.plusDays(6); // 일요일까지
-
-        return (int) visits.stream()
-                .filter(visit -> {
-                    LocalDate visitDate = visit.getVisitDate();
-                    return !visitDate.isBefore(weekStart) && !visitDate.isAfter(weekEnd);
-                })
-                .count();
+    // analysis.non-blocking=true 이고 매장 전체를 한 번에 AI 서버로 요청하는 방식일 때만 비동기로 분석
+    private boolean isNonBlockingMode() {
+        return analysisProps.isNonBlocking() && !analysisProps.isStreaming() && analysisProps.getChunkSize() <= 0
+                && isRemoteScorer();
     }
 
-    // 한달 동안 방문 횟수 계산
-    private int countVisitsInMonth(List<DailyVisit> visits, YearMonth targetMonth) {
-        return (int) visits.stream()
-                .filter(visit -> YearMonth.from(visit.getVisitDate()).equals(targetMonth))
-                .count();
+    // 스트리밍/비동기 방식은 AI 서버 호출에만 해당 (로컬 엔진은 매장 전체 또는 청크 단위로 계산)
+    private boolean isRemoteScorer() {
+        return analysisProps.getScorer() == AnalysisProps.Scorer.REMOTE;
     }
 
-    // ai 분석 결과 바탕으로 고객 정보 업데이트
-    private int updateCustomersFromAiResult(Store store, List<AiCustomerDataOutputDto> aiResults) {
+    // 실행 기록에 청크 반영 위치를 저장하는 체크포인트
+    private AnalysisCheckpoint checkpointOf(AnalysisRun run, Store store, long resumeAfterCustomerId) {
+        return new AnalysisCheckpoint(resumeAfterCustomerId,
+                lastCustomerId -> analysisRunService.recordChunk(run.getId(), store.getId(), lastCustomerId));
+    }
 
-        if (aiResults.isEmpty()) {
-            log.warn("AI 분석 결과가 비어있습니다.");
-            return 0;
+    // 실패 기록 중 예외가 나도 다른 매장 분석에는 영향을 주지 않음 (기록되지 않은 매장은 재개 시 다시 분석)
+    private void markFailedQuietly(AnalysisRun run, Store store, Throwable error) {
+        try {
+            analysisRunService.markFailed(run.getId(), store.getId(), error.getMessage());
+        } catch (Exception e) {
+            log.warn("매장({}) 분석 실패 상태 기록 중 예외 발생", store.getName(), e);
         }
+    }
 
-        Map<Long, AiCustomerDataOutputDto> resultMap = aiResults.stream()
-                .collect(Collectors.toMap(
-                        result -> parseCustomerId(result.customerId()),
-                        result -> result,
-                        (existing, replacement) -> replacement
-                ));
-
-        List<Customer> customers = customerRepository.findAllByStore(store);
+    // 매장 하나를 비동기로 분석하고 소요 시간과 성공 여부를 기록 (예외는 여기서 격리)
+    // 읽기/쓰기 단계만 storeAnalysisExecutor에서 실행하고, AI 서버 응답을 기다리는 동안에는 스레드를 점유하지 않음
+    // 동시에 진행되는 AI 서버 호출 수는 ai.client.max-concurrent-calls로 제한됨
+    private CompletableFuture<StoreAnalysisResult> analyzeStoreNonBlocking(AnalysisRun run, Store store) {
+        long startedAt = System.nanoTime();
+        LocalDate analysisDate = run.getAnalysisDate();
+
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    analysisRunService.markStarted(run.getId(), store.getId());
+                    return customerAnalysisDataService.prepareDataForAnalysis(store, analysisDate);
+                }, storeAnalysisExecutor)
+                .thenApply(inputData -> {
+                    if (inputData.isEmpty()) {
+                        log.warn("매장({}) 분석 대상 데이터가 없습니다.", store.getName());
+                    }
+                    return selectChanged(store, analysisDate, inputData);
+                })
+                .thenCompose(request -> {
+                    if (request.sendData().isEmpty()) {
+                        return CompletableFuture.completedFuture(AnalysisApplyResult.empty());
+                    }
+                    return aiClient.analyzeCustomersAsync(request.sendData(), request.bounds())
+                            .thenApplyAsync(aiResponse -> applyAiResponse(store, request.sendData(), aiResponse),
+                                    storeAnalysisExecutor);
+                })
+                .handle((applyResult, error) -> {
+                    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        log.error("매장({}) AI 분석 실패", store.getName(), cause);
+                        markFailedQuietly(run, store, cause);
+                        return new StoreAnalysisResult(store.getName(), false, elapsedMs);
+                    }
+
+                    logApplyResult(store, applyResult);
+                    try {
+                        analysisRunService.markCompleted(run.getId(), store.getId());
+                    } catch (Exception e) {
+                        log.warn("매장({}) 분석 완료 상태 기록 중 예외 발생", store.getName(), e);
+                    }
+                    return new StoreAnalysisResult(store.getName(), true, elapsedMs);
+                });
+    }
 
-        int updateCount = 0;
+    private record StoreAnalysisResult(String storeName, boolean success, long elapsedMs) {
+    }
 
-        for (Customer customer : customers) {
-            AiCustomerDataOutputDto aiResult = resultMap.get(customer.getId());
+    // 델타 분석 후 전송할 고객과 매장 전체 정규화 범위
+    private record DeltaRequest(List<AiCustomerDataInputDto> sendData, ScoreBounds bounds) {
+    }
 
-            if (aiResult != null) {
-                CustomerSegment segment = CustomerSegment.fromString(aiResult.customerSegment());
+    // 델타 분석: 특성이 바뀐 고객만 남기고, 매장 전체 고객으로 구한 정규화 범위를 함께 보냄
+    // 전체를 다시 보내는 주차에도 같은 범위를 보내 델타 주차와 같은 방식으로 점수를 계산
+    // (요청 고객끼리 정규화하면 바뀐 고객의 점수가 건너뛴 고객의 기존 점수와 다른 기준이 됨)
+    private DeltaRequest selectChanged(Store store, LocalDate analysisDate, List<AiCustomerDataInputDto> inputData) {
+        List<AiCustomerDataInputDto> changedData = deltaAnalysisFilter.selectChanged(store, analysisDate, inputData);
+        if (changedData.isEmpty()) {
+            return new DeltaRequest(changedData, null);
+        }
+        return new DeltaRequest(changedData, ScoreBounds.of(inputData));
+    }
 
-                int loyaltyScore = (int) Math.round(aiResult.predictedLoyaltyScore() * 100);
+    // 특정 매장의 고객을 대상으로 ai 분석
+    // AI 서버 호출 동안 DB 커넥션을 점유하지 않도록 읽기 → 원격 호출 → 쓰기 단계로 분리
+    // 읽기/쓰기 단계만 각각 짧은 트랜잭션으로 실행되고 AI 서버 호출은 트랜잭션 밖에서 수행
+    // analysis.streaming=true 이면 DB 커서로 읽는 대로 요청 본문을 전송
+    // analysis.chunk-size > 0 이면 청크 단위로 나누어 단계들을 겹쳐서 실행 (analysis.pipeline.enabled=true 이면 단계별 워커 파이프라인)
+    // analysis.scorer=local 이면 AI 서버 대신 JVM 내 규칙 기반 엔진으로 점수 계산 (스트리밍 설정은 무시)
+    @Override
+    public void analyzeStore(Store store) {
+        analyzeStore(store, LocalDate.now(), AnalysisCheckpoint.NONE);
+    }
 
-                customerRepository.updateSegmentAndLoyaltyScore(
-                        customer.getId(),
-                        segment,
-                        loyaltyScore
-                );
-                updateCount++;
+    // 기준일과 체크포인트를 지정한 매장 분석 (주간 실행 재개 시 사용), 반영 결과를 반환
+    @Override
+    public AnalysisApplyResult analyzeStore(Store store, LocalDate analysisDate, AnalysisCheckpoint checkpoint) {
 
-                log.debug("고객(ID: {}) 업데이트: segment={}, loyaltyScore={}",
-                        customer.getId(),
-                        segment,
-                        loyaltyScore);
+        try {
+            AnalysisApplyResult applyResult;
+            if (analysisProps.isStreaming() && isRemoteScorer()) {
+                applyResult = streamingStoreAnalyzer.analyze(store, analysisDate);
+            } else if (analysisProps.getChunkSize() > 0 && analysisProps.getPipeline().isEnabled()) {
+                applyResult = pipelinedStoreAnalyzer.analyze(
+                        store, analysisDate, analysisProps.getChunkSize(), checkpoint);
+            } else if (analysisProps.getChunkSize() > 0) {
+                applyResult = chunkedStoreAnalyzer.analyze(
+                        store, analysisDate, analysisProps.getChunkSize(), checkpoint);
             } else {
-                log.warn("고객(ID: {})에 대한 AI 분석 결과를 찾을 수 없습니다.",
-                        customer.getId());
+                applyResult = analyzeStoreAtOnce(store, analysisDate);
             }
+
+            logApplyResult(store, applyResult);
+            return applyResult;
+
+        } catch (Exception e) {
+            log.error("매장({}) AI 고객 분석 중 예외 발생", store.getName(), e);
+            throw e; // 상위로 전파하여 실패 카운트
         }
+    }
 
-        log.info("매장({}) AI 분석 결과 반영 완료: {}건 업데이트", store.getName(), updateCount);
+    // 매장 전체 고객을 한 번의 AI 요청으로 분석
+    private AnalysisApplyResult analyzeStoreAtOnce(Store store, LocalDate analysisDate) {
 
-        return updateCount;
+        // 1. 읽기 전용 트랜잭션: 분석 요청 데이터 생성
+        List<AiCustomerDataInputDto> inputData =
+                customerAnalysisDataService.prepareDataForAnalysis(store, analysisDate);
+
+        if (inputData.isEmpty()) {
+            log.warn("매장({}) 분석 대상 데이터가 없습니다.", store.getName());
+            return AnalysisApplyResult.empty();
+        }
+
+        // 델타 분석: 특성이 바뀐 고객만 전송
+        DeltaRequest request = selectChanged(store, analysisDate, inputData);
+        if (request.sendData().isEmpty()) {
+            log.info("매장({}) 지난 분석 이후 특성이 바뀐 고객이 없습니다.", store.getName());
+            return AnalysisApplyResult.empty();
+        }
+
+        // 2. 트랜잭션 밖: 점수 계산 (AI 서버 호출 또는 로컬 엔진)
+        AiCustomerDataResponseDto aiResponse = customerScorer.score(request.sendData(), request.bounds());
+
+        // 3. 쓰기 트랜잭션: 분석 결과 반영
+        return applyAiResponse(store, request.sendData(), aiResponse);
     }
 
-    // 문자열 형태의 고객 id를 Long으로 변환
-    private Long parseCustomerId(String customerId) {
-        try {
-            return Long.parseLong(customerId);
-        } catch (NumberFormatException e) {
-            log.error("Invalid customer_id format: {}", customerId);
-            return -1L;
+    // AI 분석 결과를 고객 정보에 반영 (결과가 비어 있으면 반영하지 않음)
+    private AnalysisApplyResult applyAiResponse(Store store, List<AiCustomerDataInputDto> inputData,
+                                                AiCustomerDataResponseDto aiResponse) {
+        if (aiResponse == null || aiResponse.result() == null || aiResponse.result().isEmpty()) {
+            log.error("매장({}) AI 분석 결과가 비어있습니다.", store.getName());
+            return AnalysisApplyResult.empty();
         }
+
+        AnalysisApplyResult applyResult = customerAnalysisDataService.applyAnalysisResults(
+                store,
+                inputData,
+                aiResponse.result()
+        );
+        deltaAnalysisFilter.remember(store, inputData, aiResponse.result());
+        return applyResult;
+    }
+
+    private void logApplyResult(Store store, AnalysisApplyResult applyResult) {
+        log.info("매장({}) AI 고객 분석 완료: {}명 업데이트, {}명 변경 없음, {}명 건너뜀(분석 중 방문 발생)",
+                store.getName(), applyResult.updated(), applyResult.unchanged(), applyResult.stale());
     }
 
     private Pageable sortForAll(int page, int size) {
@@ -0,0 +1,197 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerFingerprintJdbcRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 델타 분석: 지난 분석 이후 특성이 바뀐 고객만 AI 서버로 전송
+ * 고객별로 마지막 전송 특성의 64비트 지문을 저장해 두고, 같은 지문의 고객은 기존 segment/점수를 유지
+ * 마지막 방문 경과일은 매주 바뀌므로 점수 구간이 달라지는 경계(로그 구간, 60일 초과)로만 반영
+ * 바뀐 고객은 매장 전체 정규화 범위로 점수를 계산하지만, 건너뛴 고객의 기존 점수는 이전 범위 기준이므로
+ * 매장마다 analysis.delta.full-refresh-weeks 주기로 전체 고객을 전송해 같은 기준으로 다시 맞춤
+ */
+@Component
+@Slf4j
+public class DeltaAnalysisFilter {
+
+    // AI 서버가 비활성 고객(0점, CHURN_RISK)으로 처리하는 마지막 방문 경과일 기준
+    private static final int INACTIVE_DAYS = 60;
+
+    // 전체 전송 주차 계산 기준 (월요일)
+    private static final LocalDate EPOCH_MONDAY = LocalDate.of(1970, 1, 5);
+
+    private final CustomerFingerprintJdbcRepository fingerprintRepository;
+    private final AnalysisProps analysisProps;
+
+    private final Counter sentCounter;
+    private final Counter skippedCounter;
+    private final LongAdder sentTotal = new LongAdder();
+    private final LongAdder skippedTotal = new LongAdder();
+
+    public DeltaAnalysisFilter(CustomerFingerprintJdbcRepository fingerprintRepository,
+                               AnalysisProps analysisProps,
+                               MeterRegistry meterRegistry) {
+        this.fingerprintRepository = fingerprintRepository;
+        this.analysisProps = analysisProps;
+        this.sentCounter = Counter.builder("analysis.delta.customers")
+                .description("델타 분석 대상 고객 수")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("analysis.delta.customers")
+                .description("델타 분석 대상 고객 수")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return analysisProps.getDelta().isEnabled();
+    }
+
+    // 전송할 고객만 남긴 요청 데이터 (비활성화 또는 전체 전송 주차이면 그대로 반환)
+    public List<AiCustomerDataInputDto> selectChanged(Store store, LocalDate analysisDate,
+                                                      List<AiCustomerDataInputDto> inputData) {
+        if (!isEnabled() || inputData.isEmpty()) {
+            return inputData;
+        }
+
+        if (isFullRefresh(store, analysisDate)) {
+            record(inputData.size(), 0);
+            return inputData;
+        }
+
+        List<Long> customerIds = new ArrayList<>(inputData.size());
+        for (AiCustomerDataInputDto input : inputData) {
+            customerIds.add(Long.parseLong(input.customerId()));
+        }
+        Map<Long, Long> lastFingerprints = fingerprintRepository.findFingerprints(customerIds);
+
+        List<AiCustomerDataInputDto> changed = new ArrayList<>();
+        for (int i = 0; i < inputData.size(); i++) {
+            AiCustomerDataInputDto input = inputData.get(i);
+            Long lastFingerprint = lastFingerprints.get(customerIds.get(i));
+            if (lastFingerprint == null || lastFingerprint != fingerprintOf(input)) {
+                changed.add(input);
+            }
+        }
+
+        int skipped = inputData.size() - changed.size();
+        record(changed.size(), skipped);
+        log.debug("매장({}) 델타 분석: {}명 중 {}명 변경 없음으로 전송 생략",
+                store.getName(), inputData.size(), skipped);
+
+        return changed;
+    }
+
+    // AI 결과가 돌아온 고객의 전송 특성 지문 저장 (결과가 없는 고객은 다음 분석에서 다시 전송)
+    // 반영 시 방문 수가 달라 건너뛴 고객은 다음 분석의 특성(방문 수)이 달라지므로 자연히 다시 전송됨
+    public void remember(Store store, List<AiCustomerDataInputDto> sentData, List<AiCustomerDataOutputDto> aiResults) {
+        if (!isEnabled() || sentData.isEmpty() || aiResults == null || aiResults.isEmpty()) {
+            return;
+        }
+
+        Set<String> answered = new HashSet<>(aiResults.size() * 2);
+        for (AiCustomerDataOutputDto result : aiResults) {
+            answered.add(result.customerId());
+        }
+
+        List<Long> customerIds = new ArrayList<>(sentData.size());
+        long[] fingerprints = new long[sentData.size()];
+        for (AiCustomerDataInputDto input : sentData) {
+            if (answered.contains(input.customerId())) {
+                fingerprints[customerIds.size()] = fingerprintOf(input);
+                customerIds.add(Long.parseLong(input.customerId()));
+            }
+        }
+
+        fingerprintRepository.saveFingerprints(store.getId(), customerIds, fingerprints);
+    }
+
+    // 매장 id로 주차를 분산하여 fullRefreshWeeks 주마다 한 번 전체 전송
+    public boolean isFullRefresh(Store store, LocalDate analysisDate) {
+        int period = analysisProps.getDelta().getFullRefreshWeeks();
+        if (period <= 1 || store.getId() == null) {
+            return true;
+        }
+
+        LocalDate weekStart = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long week = ChronoUnit.WEEKS.between(EPOCH_MONDAY, weekStart);
+        return Math.floorMod(week, period) == Math.floorMod(store.getId(), period);
+    }
+
+    // 지금까지 누적 전송/생략 고객 수 (실행별 절감량은 시작/종료 시점의 차이로 계산)
+    public Totals totals() {
+        return new Totals(sentTotal.sum(), skippedTotal.sum());
+    }
+
+    // 특성 벡터 지문 (금액, 누적 방문 수, 경과일 구간, 8주 주간 방문 횟수)
+    public static long fingerprintOf(AiCustomerDataInputDto input) {
+        long hash = 0x9E3779B97F4A7C15L;
+        hash = mix(hash, input.amount() != null ? Double.doubleToLongBits(input.amount()) : -1L);
+        hash = mix(hash, valueOf(input.totalVisits()));
+        hash = mix(hash, daysBucket(valueOf(input.daysSinceLastVisit())));
+        hash = mix(hash, valueOf(input.visits8WeekAgo()));
+        hash = mix(hash, valueOf(input.visits7WeekAgo()));
+        hash = mix(hash, valueOf(input.visits6WeekAgo()));
+        hash = mix(hash, valueOf(input.visits5WeekAgo()));
+        hash = mix(hash, valueOf(input.visits4WeekAgo()));
+        hash = mix(hash, valueOf(input.visits3WeekAgo()));
+        hash = mix(hash, valueOf(input.visits2WeekAgo()));
+        hash = mix(hash, valueOf(input.visits1WeekAgo()));
+        return hash;
+    }
+
+    // 경과일 구간 (0, 1, 2~3, 4~7, ..., 32~60, 60 초과)
+    static int daysBucket(long days) {
+        if (days > INACTIVE_DAYS) {
+            return -1;
+        }
+        return 64 - Long.numberOfLeadingZeros(Math.max(0, days));
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long valueOf(Integer value) {
+        return value != null ? value : -1L;
+    }
+
+    private void record(int sent, int skipped) {
+        sentCounter.increment(sent);
+        skippedCounter.increment(skipped);
+        sentTotal.add(sent);
+        skippedTotal.add(skipped);
+    }
+
+    public record Totals(long sent, long skipped) {
+
+        public Totals minus(Totals other) {
+            return new Totals(sent - other.sent, skipped - other.skipped);
+        }
+
+        // 전체 대상 중 전송을 생략한 비율 (%)
+        public double savedPercent() {
+            long total = sent + skipped;
+            return total == 0 ? 0.0 : skipped * 100.0 / total;
+        }
+    }
+}
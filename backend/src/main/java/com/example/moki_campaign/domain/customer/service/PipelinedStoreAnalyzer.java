@@ -0,0 +1,400 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.scorer.CustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 파이프라인 방식 매장 AI 분석
+ * 읽기 → 전송 고객 선별 → AI 호출 → 결과 반영 단계를 크기가 제한된 큐로 연결하고 단계마다 워커 수를 따로 지정
+ * 뒤 단계가 밀려 큐가 가득 차면 앞 단계가 대기하므로 메모리에 올라오는 청크 수가 큐 크기와 워커 수로 제한됨
+ * 결과 반영은 청크 순서와 무관하게 끝나지만 체크포인트는 앞 청크가 모두 반영된 지점까지만 기록
+ * 모든 청크는 분석 시작 전에 구한 매장 전체 정규화 범위로 점수를 계산하므로 청크 구성과 무관하게 같은 점수가 나옴
+ */
+@Component
+@Slf4j
+public class PipelinedStoreAnalyzer {
+
+    // 중단 여부를 확인하며 큐를 기다리는 간격
+    private static final long POLL_MILLIS = 100;
+
+    // 단계 종료 표시 (같은 단계의 다른 워커도 종료하도록 큐에 다시 넣음)
+    private static final PipelineItem END = new PipelineItem(-1, AnalysisChunk.empty(-1), List.of(), null);
+
+    private final CustomerAnalysisDataService customerAnalysisDataService;
+    private final CustomerScorer customerScorer;
+    private final Executor analysisPipelineExecutor;
+    private final RetryTemplate aiChunkRetryTemplate;
+    private final DeltaAnalysisFilter deltaAnalysisFilter;
+    private final AnalysisProps analysisProps;
+
+    private final Counter retryCounter;
+    private final Map<Stage, StageMeters> stageMeters = new EnumMap<>(Stage.class);
+
+    public PipelinedStoreAnalyzer(
+            CustomerAnalysisDataService customerAnalysisDataService,
+            CustomerScorer customerScorer,
+            @Qualifier("analysisPipelineExecutor") Executor analysisPipelineExecutor,
+            @Qualifier("aiChunkRetryTemplate") RetryTemplate aiChunkRetryTemplate,
+            DeltaAnalysisFilter deltaAnalysisFilter,
+            AnalysisProps analysisProps,
+            MeterRegistry meterRegistry) {
+        this.customerAnalysisDataService = customerAnalysisDataService;
+        this.customerScorer = customerScorer;
+        this.analysisPipelineExecutor = analysisPipelineExecutor;
+        this.aiChunkRetryTemplate = aiChunkRetryTemplate;
+        this.deltaAnalysisFilter = deltaAnalysisFilter;
+        this.analysisProps = analysisProps;
+        this.retryCounter = Counter.builder("analysis.chunk.retries")
+                .description("청크 AI 호출 재시도 횟수")
+                .register(meterRegistry);
+        for (Stage stage : Stage.values()) {
+            stageMeters.put(stage, new StageMeters(stage, meterRegistry));
+        }
+    }
+
+    // 체크포인트 이후 고객부터 chunkSize명씩 파이프라인으로 분석하고 청크별 반영 결과를 합산
+    public AnalysisApplyResult analyze(Store store, LocalDate analysisDate, int chunkSize,
+                                       AnalysisCheckpoint checkpoint) {
+
+        AnalysisProps.Pipeline pipeline = analysisProps.getPipeline();
+        ScoreBounds bounds = customerAnalysisDataService.collectScoreBounds(store, analysisDate);
+        PipelineRun run = new PipelineRun(store, analysisDate, chunkSize, checkpoint, bounds,
+                Math.max(1, pipeline.getQueueCapacity()));
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        workers.add(startWorkers(run, Stage.READ, 1, null, run.readQueue, this::readChunks));
+        workers.add(startWorkers(run, Stage.BUILD, pipeline.getBuilderWorkers(),
+                run.readQueue, run.buildQueue, this::selectChanged));
+        workers.add(startWorkers(run, Stage.SCORE, pipeline.getAiWorkers(),
+                run.buildQueue, run.scoreQueue, this::score));
+        workers.add(startWorkers(run, Stage.APPLY, pipeline.getWriterWorkers(),
+                run.scoreQueue, null, this::apply));
+
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            run.unregisterQueues();
+        }
+
+        Throwable failure = run.failure.get();
+        if (failure != null) {
+            log.warn("매장({}) 파이프라인 분석 실패 - 반영된 청크 수: {}", store.getName(), run.appliedChunks.get());
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(failure);
+        }
+
+        log.info("매장({}) 파이프라인 분석 완료 - 청크 수: {}, 청크 크기: {}, 전송 생략: {}명",
+                store.getName(), run.appliedChunks.get(), chunkSize, run.skippedCustomers.get());
+
+        return run.total.get();
+    }
+
+    // 읽기 단계: 고객 id 순으로 다음 청크를 조회 (다음 청크의 기준이 이전 청크의 마지막 고객이므로 워커 1개)
+    private void readChunks(PipelineRun run, PipelineItem ignored) throws InterruptedException {
+        long afterCustomerId = run.checkpoint.resumeAfterCustomerId();
+        long sequence = 0;
+
+        while (!run.isAborted()) {
+            long startedAt = System.nanoTime();
+            AnalysisChunk chunk = customerAnalysisDataService.prepareChunkForAnalysis(
+                    run.store, run.analysisDate, afterCustomerId, run.chunkSize);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            stageMeters.get(Stage.READ).record(startedAt, chunk.data().size());
+
+            run.put(run.readQueue, new PipelineItem(sequence++, chunk, chunk.data(), null), Stage.READ);
+            afterCustomerId = chunk.lastCustomerId();
+        }
+    }
+
+    // 선별 단계: 델타 분석이 켜져 있으면 특성이 바뀐 고객만 남김
+    private void selectChanged(PipelineRun run, PipelineItem item) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        List<AiCustomerDataInputDto> changedData =
+                deltaAnalysisFilter.selectChanged(run.store, run.analysisDate, item.chunk().data());
+        run.skippedCustomers.addAndGet(item.chunk().data().size() - changedData.size());
+        stageMeters.get(Stage.BUILD).record(startedAt, item.chunk().data().size());
+
+        run.put(run.buildQueue, new PipelineItem(item.sequence(), item.chunk(), changedData, null), Stage.BUILD);
+    }
+
+    // AI 호출 단계: 재시도 가능한 실패면 같은 청크 데이터로 다시 호출 (모두 그대로인 청크는 호출 생략)
+    private void score(PipelineRun run, PipelineItem item) throws InterruptedException {
+        AiCustomerDataResponseDto aiResponse = null;
+        if (!item.sendData().isEmpty()) {
+            long startedAt = System.nanoTime();
+            aiResponse = scoreWithRetry(run, item);
+            stageMeters.get(Stage.SCORE).record(startedAt, item.sendData().size());
+        }
+
+        run.put(run.scoreQueue, new PipelineItem(item.sequence(), item.chunk(), item.sendData(), aiResponse),
+                Stage.SCORE);
+    }
+
+    // 반영 단계: 청크 결과를 DB에 반영하고 반영이 끝난 연속 구간까지 체크포인트 기록
+    private void apply(PipelineRun run, PipelineItem item) {
+        long startedAt = System.nanoTime();
+        AnalysisApplyResult applyResult = applyChunk(run.store, item);
+        stageMeters.get(Stage.APPLY).record(startedAt, item.sendData().size());
+
+        run.total.accumulateAndGet(applyResult, AnalysisApplyResult::plus);
+        run.appliedChunks.incrementAndGet();
+        run.checkpointTracker.applied(item.sequence(), item.chunk().lastCustomerId());
+    }
+
+    private AnalysisApplyResult applyChunk(Store store, PipelineItem item) {
+        if (item.sendData().isEmpty()) {
+            return AnalysisApplyResult.empty();
+        }
+        AiCustomerDataResponseDto aiResponse = item.aiResponse();
+        if (aiResponse == null || aiResponse.result() == null || aiResponse.result().isEmpty()) {
+            log.error("매장({}) 청크(마지막 고객 ID: {}) AI 분석 결과가 비어있습니다.",
+                    store.getName(), item.chunk().lastCustomerId());
+            return new AnalysisApplyResult(0, 0, 0, item.sendData().size());
+        }
+        AnalysisApplyResult applyResult =
+                customerAnalysisDataService.applyAnalysisResults(store, item.sendData(), aiResponse.result());
+        deltaAnalysisFilter.remember(store, item.sendData(), aiResponse.result());
+        return applyResult;
+    }
+
+    private AiCustomerDataResponseDto scoreWithRetry(PipelineRun run, PipelineItem item) {
+        return aiChunkRetryTemplate.execute(context -> {
+            if (context.getRetryCount() > 0) {
+                log.warn("매장({}) 청크(마지막 고객 ID: {}) AI 호출 재시도 {}회차 - 이전 실패: {}",
+                        run.store.getName(), item.chunk().lastCustomerId(), context.getRetryCount(),
+                        context.getLastThrowable().getMessage());
+                retryCounter.increment();
+            }
+            return customerScorer.score(item.sendData(), run.bounds);
+        });
+    }
+
+    // 단계 워커를 workerCount개 시작하고, 마지막 워커가 끝나면 다음 단계 큐에 종료 표시를 넣음
+    // 읽기 단계(input == null)는 입력 큐 없이 한 번만 실행됨
+    private CompletableFuture<Void> startWorkers(PipelineRun run, Stage stage, int workerCount,
+                                                 BlockingQueue<PipelineItem> input,
+                                                 BlockingQueue<PipelineItem> output,
+                                                 StageWork work) {
+        int count = Math.max(1, workerCount);
+        AtomicInteger remaining = new AtomicInteger(count);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    if (input == null) {
+                        work.process(run, null);
+                    } else {
+                        PipelineItem item;
+                        while ((item = run.take(input)) != END) {
+                            work.process(run, item);
+                        }
+                        // 같은 단계의 다른 워커도 종료하도록 종료 표시를 되돌려 놓음
+                        // 앞 단계가 모두 끝난 뒤라 큐에는 종료 표시만 남아 있으므로 항상 자리가 있음
+                        input.offer(END);
+                    }
+                    if (remaining.decrementAndGet() == 0 && output != null) {
+                        run.put(output, END, stage);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    run.abort(e);
+                } catch (Throwable e) {
+                    run.abort(e);
+                }
+            }, analysisPipelineExecutor));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    public enum Stage {
+        READ, BUILD, SCORE, APPLY
+    }
+
+    @FunctionalInterface
+    private interface StageWork {
+        void process(PipelineRun run, PipelineItem item) throws InterruptedException;
+    }
+
+    // sendData: AI 서버로 보낼 고객 (델타 분석 후), aiResponse: AI 호출 단계 이후에만 존재
+    private record PipelineItem(long sequence, AnalysisChunk chunk,
+                                List<AiCustomerDataInputDto> sendData, AiCustomerDataResponseDto aiResponse) {
+    }
+
+    // 매장 분석 1회의 큐와 진행 상태
+    private final class PipelineRun {
+
+        private final Store store;
+        private final LocalDate analysisDate;
+        private final int chunkSize;
+        private final AnalysisCheckpoint checkpoint;
+        private final ScoreBounds bounds;
+
+        private final BlockingQueue<PipelineItem> readQueue;
+        private final BlockingQueue<PipelineItem> buildQueue;
+        private final BlockingQueue<PipelineItem> scoreQueue;
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicReference<AnalysisApplyResult> total = new AtomicReference<>(AnalysisApplyResult.empty());
+        private final AtomicInteger appliedChunks = new AtomicInteger();
+        private final AtomicInteger skippedCustomers = new AtomicInteger();
+        private final CheckpointTracker checkpointTracker;
+
+        private PipelineRun(Store store, LocalDate analysisDate, int chunkSize, AnalysisCheckpoint checkpoint,
+                            ScoreBounds bounds, int queueCapacity) {
+            this.store = store;
+            this.analysisDate = analysisDate;
+            this.chunkSize = chunkSize;
+            this.checkpoint = checkpoint;
+            this.bounds = bounds;
+            this.checkpointTracker = new CheckpointTracker(checkpoint);
+            this.readQueue = new ArrayBlockingQueue<>(queueCapacity);
+            this.buildQueue = new ArrayBlockingQueue<>(queueCapacity);
+            this.scoreQueue = new ArrayBlockingQueue<>(queueCapacity);
+            stageMeters.get(Stage.READ).queues.add(readQueue);
+            stageMeters.get(Stage.BUILD).queues.add(buildQueue);
+            stageMeters.get(Stage.SCORE).queues.add(scoreQueue);
+        }
+
+        private boolean isAborted() {
+            return failure.get() != null;
+        }
+
+        // 한 단계가 실패하면 나머지 워커는 큐 대기를 멈추고 종료
+        private void abort(Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                log.warn("매장({}) 파이프라인 단계 실패로 분석 중단", store.getName());
+            }
+        }
+
+        // 다음 단계 큐가 가득 차면 빈자리가 생길 때까지 대기 (backpressure), 대기 시간은 단계별로 기록
+        private void put(BlockingQueue<PipelineItem> queue, PipelineItem item, Stage stage)
+                throws InterruptedException {
+            long startedAt = System.nanoTime();
+            while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (isAborted()) {
+                    throw new PipelineAbortedException();
+                }
+            }
+            stageMeters.get(stage).blocked.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        private PipelineItem take(BlockingQueue<PipelineItem> queue) throws InterruptedException {
+            PipelineItem item;
+            while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (isAborted()) {
+                    throw new PipelineAbortedException();
+                }
+            }
+            return item;
+        }
+
+        private void unregisterQueues() {
+            stageMeters.get(Stage.READ).queues.remove(readQueue);
+            stageMeters.get(Stage.BUILD).queues.remove(buildQueue);
+            stageMeters.get(Stage.SCORE).queues.remove(scoreQueue);
+        }
+    }
+
+    // 청크 반영이 순서와 무관하게 끝나도 앞 청크가 모두 반영된 지점까지만 체크포인트 기록
+    // (중간 청크 반영 전에 중단되면 그 청크부터 다시 분석)
+    private static final class CheckpointTracker {
+
+        private final AnalysisCheckpoint checkpoint;
+        private final TreeMap<Long, Long> appliedOutOfOrder = new TreeMap<>();
+        private long nextSequence = 0;
+
+        private CheckpointTracker(AnalysisCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        private synchronized void applied(long sequence, long lastCustomerId) {
+            appliedOutOfOrder.put(sequence, lastCustomerId);
+
+            Long contiguousLastCustomerId = null;
+            while (appliedOutOfOrder.containsKey(nextSequence)) {
+                contiguousLastCustomerId = appliedOutOfOrder.remove(nextSequence);
+                nextSequence++;
+            }
+
+            if (contiguousLastCustomerId != null && contiguousLastCustomerId > checkpoint.resumeAfterCustomerId()) {
+                checkpoint.chunkApplied().accept(contiguousLastCustomerId);
+            }
+        }
+    }
+
+    // 단계별 처리량(청크/고객 수, 처리 시간), 다음 큐 대기 시간, 입력 큐 깊이
+    private static final class StageMeters {
+
+        private final Set<BlockingQueue<PipelineItem>> queues = ConcurrentHashMap.newKeySet();
+        private final Timer duration;
+        private final Counter customers;
+        private final Timer blocked;
+
+        private StageMeters(Stage stage, MeterRegistry meterRegistry) {
+            String stageName = stage.name().toLowerCase();
+            this.duration = Timer.builder("analysis.pipeline.stage.duration")
+                    .description("파이프라인 단계의 청크 처리 시간")
+                    .tag("stage", stageName)
+                    .register(meterRegistry);
+            this.customers = Counter.builder("analysis.pipeline.stage.customers")
+                    .description("파이프라인 단계가 처리한 고객 수")
+                    .tag("stage", stageName)
+                    .register(meterRegistry);
+            this.blocked = Timer.builder("analysis.pipeline.stage.blocked")
+                    .description("다음 단계 큐가 가득 차 대기한 시간")
+                    .tag("stage", stageName)
+                    .register(meterRegistry);
+            // 이 단계가 채우는 큐에 쌓인 청크 수 (실행 중인 모든 매장 합계)
+            Gauge.builder("analysis.pipeline.queue.depth", queues,
+                            registered -> registered.stream().mapToInt(BlockingQueue::size).sum())
+                    .description("다음 단계를 기다리는 청크 수")
+                    .tag("stage", stageName)
+                    .register(meterRegistry);
+        }
+
+        private void record(long startedAtNanos, int customerCount) {
+            duration.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+            customers.increment(customerCount);
+        }
+    }
+
+    // 다른 단계의 실패로 대기를 멈춘 워커 (원인 예외는 PipelineRun.failure에 보관)
+    private static final class PipelineAbortedException extends RuntimeException {
+        private PipelineAbortedException() {
+            super(null, null, false, false);
+        }
+    }
+}
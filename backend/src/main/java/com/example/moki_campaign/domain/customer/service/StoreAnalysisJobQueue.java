@@ -0,0 +1,119 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 점주 요청 매장 분석 작업 큐
+ * 매장당 대기/실행 중인 작업은 하나뿐이며, 그 사이 들어온 같은 매장의 요청은 기존 작업으로 합쳐짐
+ * 작업은 onDemandAnalysisExecutor(analysis.on-demand.workers 스레드, FIFO 대기열)에서 실행되므로
+ * 한 매장이 대기열을 독차지할 수 없고 동시에 진행되는 AI 분석 수도 제한됨
+ * 작업 상태는 이 인스턴스 메모리에 job-retention 동안 보관
+ */
+@Component
+@Slf4j
+public class StoreAnalysisJobQueue {
+
+    private final CustomerService customerService;
+    private final AnalysisProps analysisProps;
+    private final Executor onDemandAnalysisExecutor;
+
+    // 매장 id → 대기/실행 중인 작업 id
+    private final Map<Long, String> activeJobIds = new ConcurrentHashMap<>();
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+
+    public StoreAnalysisJobQueue(CustomerService customerService,
+                                 AnalysisProps analysisProps,
+                                 @Qualifier("onDemandAnalysisExecutor") Executor onDemandAnalysisExecutor) {
+        this.customerService = customerService;
+        this.analysisProps = analysisProps;
+        this.onDemandAnalysisExecutor = onDemandAnalysisExecutor;
+    }
+
+    // 매장 분석 요청, 같은 매장의 작업이 이미 대기/실행 중이면 그 작업을 반환
+    public AnalysisJob submit(Store store) {
+        removeExpiredJobs();
+        Long storeId = store.getId();
+
+        while (true) {
+            // 다른 요청이 합쳐질 때 작업을 바로 조회할 수 있도록 먼저 등록
+            AnalysisJob queued = AnalysisJob.queued(storeId);
+            jobs.put(queued.id(), queued);
+
+            String activeJobId = activeJobIds.putIfAbsent(storeId, queued.id());
+            if (activeJobId == null) {
+                return enqueue(store, queued);
+            }
+
+            jobs.remove(queued.id());
+            AnalysisJob active = jobs.get(activeJobId);
+            if (active != null && !active.isFinished()) {
+                log.info("매장({}) 분석 요청을 진행 중인 작업({}, {})에 합침", store.getName(), active.id(), active.status());
+                return active;
+            }
+            // 조회하는 사이 기존 작업이 끝났으면 새 작업으로 다시 시도
+            activeJobIds.remove(storeId, activeJobId);
+        }
+    }
+
+    // 이 매장의 작업만 조회 가능
+    public AnalysisJob findJob(Store store, String jobId) {
+        AnalysisJob job = jobs.get(jobId);
+        if (job == null || !job.storeId().equals(store.getId())) {
+            throw new BusinessException(ErrorCode.ANALYSIS_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    private AnalysisJob enqueue(Store store, AnalysisJob queued) {
+        try {
+            onDemandAnalysisExecutor.execute(() -> run(store, queued.id()));
+        } catch (RejectedExecutionException e) {
+            activeJobIds.remove(store.getId(), queued.id());
+            jobs.put(queued.id(), queued.failed("분석 대기열이 가득 참"));
+            log.warn("매장({}) 분석 요청 거절 - 대기열이 가득 참 (최대 {}건)",
+                    store.getName(), analysisProps.getOnDemand().getMaxQueuedJobs());
+            throw new BusinessException(ErrorCode.ANALYSIS_QUEUE_FULL);
+        }
+
+        log.info("매장({}) 분석 작업 등록 - 작업 id: {}", store.getName(), queued.id());
+        return queued;
+    }
+
+    private void run(Store store, String jobId) {
+        jobs.computeIfPresent(jobId, (id, job) -> job.started());
+
+        AnalysisApplyResult result = null;
+        String error = null;
+        try {
+            result = customerService.analyzeStore(store, LocalDate.now(), AnalysisCheckpoint.NONE);
+        } catch (Exception e) {
+            log.error("매장({}) 요청 분석 실패 - 작업 id: {}", store.getName(), jobId, e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        // 작업을 끝내기 전에 합치기 대상에서 빼서, 이후 요청은 새 작업으로 등록되도록 함
+        activeJobIds.remove(store.getId(), jobId);
+
+        AnalysisApplyResult applyResult = result;
+        String failure = error;
+        jobs.computeIfPresent(jobId, (id, job) -> failure == null ? job.completed(applyResult) : job.failed(failure));
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(analysisProps.getOnDemand().getJobRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(expiredBefore));
+    }
+}
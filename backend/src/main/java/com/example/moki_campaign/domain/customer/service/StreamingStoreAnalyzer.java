@@ -0,0 +1,152 @@
+package com.example.moki_campaign.domain.customer.service;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.util.LongIntHashMap;
+import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트리밍 방식 매장 AI 분석
+ * 고객 특성을 DB 커서로 읽는 대로 요청 본문에 기록하므로 요청 데이터 목록을 메모리에 만들지 않음
+ * 응답도 RESULT_BATCH_SIZE개씩 읽는 대로 반영 스레드에 넘겨 파싱과 DB 쓰기를 겹쳐서 실행
+ * 메모리에는 고객 id → 방문 수 맵(원시 타입 배열)과 최대 PENDING_BATCHES + 2개의 결과 묶음만 존재
+ */
+@Component
+@Slf4j
+public class StreamingStoreAnalyzer {
+
+    private static final int EXPECTED_CUSTOMERS = 1024;
+    private static final int RESULT_BATCH_SIZE = 1000;
+    private static final int PENDING_BATCHES = 4;
+    private static final long ENQUEUE_POLL_MILLIS = 100;
+
+    // 응답을 모두 읽었음을 반영 스레드에 알리는 표시
+    private static final List<AiCustomerDataOutputDto> END_OF_RESULTS = new ArrayList<>();
+
+    private final CustomerAnalysisDataService customerAnalysisDataService;
+    private final AiClient aiClient;
+    private final Executor analysisStageExecutor;
+
+    public StreamingStoreAnalyzer(
+            CustomerAnalysisDataService customerAnalysisDataService,
+            AiClient aiClient,
+            @Qualifier("analysisStageExecutor") Executor analysisStageExecutor) {
+        this.customerAnalysisDataService = customerAnalysisDataService;
+        this.aiClient = aiClient;
+        this.analysisStageExecutor = analysisStageExecutor;
+    }
+
+    public AnalysisApplyResult analyze(Store store, LocalDate analysisDate) {
+
+        if (!customerAnalysisDataService.hasCustomers(store)) {
+            log.warn("매장({}) 분석 대상 데이터가 없습니다.", store.getName());
+            return AnalysisApplyResult.empty();
+        }
+
+        LongIntHashMap expectedVisitCounts = new LongIntHashMap(EXPECTED_CUSTOMERS);
+        BlockingQueue<List<AiCustomerDataOutputDto>> pendingBatches = new ArrayBlockingQueue<>(PENDING_BATCHES);
+
+        // 결과 반영 스레드: 응답에서 읽힌 결과 묶음을 순서대로 짧은 쓰기 트랜잭션으로 반영
+        CompletableFuture<AnalysisApplyResult> writer = CompletableFuture.supplyAsync(
+                () -> applyBatches(pendingBatches, expectedVisitCounts), analysisStageExecutor);
+
+        int resultCount;
+        try {
+            // 읽기 전용 트랜잭션 + 요청 전송: 커서로 읽은 고객을 바로 요청 본문에 기록
+            // 응답 파싱: 결과 묶음이 모일 때마다 반영 스레드에 전달
+            resultCount = aiClient.analyzeCustomersStreaming(
+                    customerWriter -> customerAnalysisDataService.writeAnalysisInput(
+                            store, analysisDate, customerWriter, expectedVisitCounts),
+                    batch -> enqueue(pendingBatches, batch, writer),
+                    RESULT_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // 이미 전달된 결과 묶음은 반영을 마친 뒤 예외 전파
+            finishQuietly(pendingBatches, writer);
+            throw e;
+        }
+
+        enqueue(pendingBatches, END_OF_RESULTS, writer);
+        AnalysisApplyResult applied = join(writer);
+
+        if (resultCount == 0) {
+            log.error("매장({}) AI 분석 결과가 비어있습니다.", store.getName());
+        }
+
+        int matchedCount = applied.updated() + applied.unchanged() + applied.stale();
+        AnalysisApplyResult total = new AnalysisApplyResult(applied.updated(), applied.unchanged(), applied.stale(),
+                expectedVisitCounts.size() - matchedCount);
+
+        log.info("매장({}) AI 분석 결과 반영 완료: {}건 업데이트, {}건 변경 없음, {}건 건너뜀, {}건 결과 없음",
+                store.getName(), total.updated(), total.unchanged(), total.stale(), total.missing());
+
+        return total;
+    }
+
+    private AnalysisApplyResult applyBatches(BlockingQueue<List<AiCustomerDataOutputDto>> pendingBatches,
+                                             LongIntHashMap expectedVisitCounts) {
+        AnalysisApplyResult total = AnalysisApplyResult.empty();
+        try {
+            while (true) {
+                List<AiCustomerDataOutputDto> batch = pendingBatches.take();
+                if (batch == END_OF_RESULTS) {
+                    return total;
+                }
+                total = total.plus(customerAnalysisDataService.applyResultBatch(expectedVisitCounts, batch));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("분석 결과 반영이 중단되었습니다.", e);
+        }
+    }
+
+    // 반영 스레드가 밀려 있으면 응답 파싱을 잠시 멈춤 (반영 스레드가 실패하면 파싱도 중단)
+    private void enqueue(BlockingQueue<List<AiCustomerDataOutputDto>> pendingBatches,
+                         List<AiCustomerDataOutputDto> batch,
+                         CompletableFuture<AnalysisApplyResult> writer) {
+        try {
+            while (!pendingBatches.offer(batch, ENQUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    join(writer);
+                    throw new IllegalStateException("분석 결과 반영이 먼저 종료되었습니다.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("분석 결과 전달이 중단되었습니다.", e);
+        }
+    }
+
+    private void finishQuietly(BlockingQueue<List<AiCustomerDataOutputDto>> pendingBatches,
+                               CompletableFuture<AnalysisApplyResult> writer) {
+        try {
+            enqueue(pendingBatches, END_OF_RESULTS, writer);
+            writer.join();
+        } catch (Exception e) {
+            log.warn("분석 결과 반영 중 예외 발생", e);
+        }
+    }
+
+    private AnalysisApplyResult join(CompletableFuture<AnalysisApplyResult> writer) {
+        try {
+            return writer.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.moki_campaign.domain.visit.controller;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.dto.request.VisitBatchRequestDto;
+import com.example.moki_campaign.domain.visit.dto.request.VisitCheckInRequestDto;
+import com.example.moki_campaign.domain.visit.dto.response.VisitBatchResponseDto;
+import com.example.moki_campaign.domain.visit.service.VisitIngestService;
+import com.example.moki_campaign.domain.visit.service.VisitWriteBehindBuffer;
+import com.example.moki_campaign.global.auth.CurrentStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "방문", description = "키오스크 방문 수집 API")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/visits")
+@SecurityRequirement(name = "bearerAuth")
+public class VisitController {
+
+    private final VisitIngestService visitIngestService;
+    private final VisitWriteBehindBuffer visitWriteBehindBuffer;
+
+    @Operation(
+            summary = "키오스크 체크인",
+            description = """
+                    체크인 한 건을 현재 매장의 방문으로 저장합니다.
+                    - 쓰기 지연 버퍼 사용 시 버퍼에 담은 뒤 202를 반환하고, 잠시 후 다른 체크인과 함께 저장됩니다.
+                    - 버퍼가 가득 차면 503을 반환하므로 같은 체크인 id로 다시 보내면 됩니다.
+                    """
+    )
+    @ApiResponse(responseCode = "200", description = "저장 성공")
+    @ApiResponse(responseCode = "202", description = "버퍼에 담김")
+    @PostMapping
+    public ResponseEntity<Void> checkIn(
+            @Valid @RequestBody VisitCheckInRequestDto request,
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        boolean buffered = visitWriteBehindBuffer.submit(store, request);
+        return buffered ? ResponseEntity.accepted().build() : ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "키오스크 체크인 일괄 수집",
+            description = """
+                    키오스크 체크인 목록을 현재 매장의 방문으로 저장합니다.
+                    - 이미 저장된 체크인 id는 다시 저장하지 않으므로 실패한 요청은 그대로 재전송할 수 있습니다.
+                    - 매장에 없는 전화번호는 고객으로 등록됩니다.
+                    - 한 번에 최대 5000건까지 보낼 수 있습니다.
+                    """
+    )
+    @ApiResponse(responseCode = "200", description = "수집 성공")
+    @PostMapping("/batch")
+    public ResponseEntity<VisitBatchResponseDto> ingestVisits(
+            @Valid @RequestBody VisitBatchRequestDto request,
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        VisitBatchResponseDto response = visitIngestService.ingest(store, request.visits());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.moki_campaign.domain.visit.controller;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.dto.response.VisitCounterRebuildResponseDto;
+import com.example.moki_campaign.domain.visit.dto.response.VisitCounterVerifyResponseDto;
+import com.example.moki_campaign.domain.visit.service.CustomerVisitCounterService;
+import com.example.moki_campaign.global.auth.CurrentStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "방문 카운터", description = "고객별 주간 방문 카운터 관리 API")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/visits/counters")
+@SecurityRequirement(name = "bearerAuth")
+public class VisitCounterController {
+
+    private final CustomerVisitCounterService customerVisitCounterService;
+
+    @Operation(
+            summary = "주간 방문 카운터 재구성",
+            description = "방문 기록(daily_visit)으로 매장 고객들의 최근 8주 주간 방문 카운터를 다시 계산합니다."
+    )
+    @ApiResponse(responseCode = "200", description = "재구성 성공")
+    @PostMapping("/rebuild")
+    public ResponseEntity<VisitCounterRebuildResponseDto> rebuild(
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        VisitCounterRebuildResponseDto response = customerVisitCounterService.rebuild(store);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "주간 방문 카운터 검증",
+            description = "매장 고객들의 주간 방문 카운터가 방문 기록과 일치하는지 확인합니다."
+    )
+    @ApiResponse(responseCode = "200", description = "검증 성공")
+    @GetMapping("/verify")
+    public ResponseEntity<VisitCounterVerifyResponseDto> verify(
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        VisitCounterVerifyResponseDto response = customerVisitCounterService.verify(store);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.moki_campaign.domain.visit.controller;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.dto.response.VisitImportResponseDto;
+import com.example.moki_campaign.domain.visit.service.VisitImportService;
+import com.example.moki_campaign.global.auth.CurrentStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@Tag(name = "방문 가져오기", description = "POS 방문 내보내기 파일 가져오기 API")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/visits/imports")
+@SecurityRequirement(name = "bearerAuth")
+public class VisitImportController {
+
+    private final VisitImportService visitImportService;
+
+    @Operation(
+            summary = "POS 방문 파일 가져오기 요청",
+            description = """
+                    요청 본문의 CSV 파일(전화번호,방문일,금액)을 현재 매장의 과거 방문으로 가져오는 작업을 등록합니다.
+                    - 본문을 파일로 저장한 뒤 202와 작업 ID를 반환하고, 가져오기는 뒤에서 진행됩니다.
+                    - 첫 줄이 열 이름이면 건너뛰며, 형식이 맞지 않는 줄은 건너뛴 수로 집계됩니다.
+                    - 매장에 없는 전화번호는 고객으로 등록되고 방문 수/금액/마지막 방문일이 고객 정보에 더해집니다.
+                    """
+    )
+    @ApiResponse(responseCode = "202", description = "등록 성공")
+    @PostMapping(consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<VisitImportResponseDto> requestImport(
+            HttpServletRequest request,
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) throws IOException {
+        VisitImportResponseDto response =
+                VisitImportResponseDto.from(visitImportService.upload(store, request.getInputStream()));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(
+            summary = "POS 방문 파일 가져오기 상태 조회",
+            description = "가져오기 작업의 진행 위치, 저장한 방문 수, 초당 저장 수를 조회합니다."
+    )
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @Parameters({
+            @Parameter(name = "importId", description = "가져오기 작업 ID", required = true)
+    })
+    @GetMapping("/{importId}")
+    public ResponseEntity<VisitImportResponseDto> getImport(
+            @PathVariable Long importId,
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        VisitImportResponseDto response = VisitImportResponseDto.from(visitImportService.findImport(store, importId));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "POS 방문 파일 가져오기 재개",
+            description = """
+                    실패했거나 진행이 멈춘 가져오기 작업을 마지막으로 저장된 파일 위치부터 다시 시작합니다.
+                    - 이미 저장된 줄은 다시 저장하지 않습니다.
+                    - 실행 중인 작업은 일정 시간(기본 10분) 진행이 없을 때만 다시 시작할 수 있습니다.
+                    """
+    )
+    @ApiResponse(responseCode = "202", description = "재개 등록 성공")
+    @Parameters({
+            @Parameter(name = "importId", description = "가져오기 작업 ID", required = true)
+    })
+    @PostMapping("/{importId}/resume")
+    public ResponseEntity<VisitImportResponseDto> resumeImport(
+            @PathVariable Long importId,
+            @Parameter(hidden = true) @CurrentStore Store store
+    ) {
+        VisitImportResponseDto response = VisitImportResponseDto.from(visitImportService.resume(store, importId));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.moki_campaign.domain.visit.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "키오스크 체크인 일괄 수집 요청")
+public record VisitBatchRequestDto(
+
+        @Schema(description = "체크인 목록")
+        @NotEmpty(message = "체크인 목록은 비어 있을 수 없습니다")
+        @Valid
+        List<VisitCheckInRequestDto> visits
+) {}
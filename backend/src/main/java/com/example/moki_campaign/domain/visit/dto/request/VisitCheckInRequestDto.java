@@ -0,0 +1,38 @@
+package com.example.moki_campaign.domain.visit.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+@Schema(description = "키오스크 체크인")
+public record VisitCheckInRequestDto(
+
+        @Schema(description = "체크인 id (같은 id로 다시 보내면 한 번만 저장)", example = "kiosk-1-20251110-000123")
+        @NotBlank(message = "체크인 id는 필수입니다")
+        @Size(max = 64, message = "체크인 id는 64자 이하입니다")
+        @JsonProperty("idempotency_key")
+        String idempotencyKey,
+
+        @Schema(description = "고객 전화번호 (매장에 없는 번호면 고객으로 등록)", example = "010-1234-5678")
+        @NotBlank(message = "전화번호는 필수입니다")
+        @Size(max = 20, message = "전화번호는 20자 이하입니다")
+        @JsonProperty("phone_number")
+        String phoneNumber,
+
+        @Schema(description = "방문일", example = "2025-11-10")
+        @NotNull(message = "방문일은 필수입니다")
+        @PastOrPresent(message = "방문일은 오늘 이전이어야 합니다")
+        @JsonProperty("visit_date")
+        LocalDate visitDate,
+
+        @Schema(description = "결제 금액", example = "3900")
+        @NotNull(message = "결제 금액은 필수입니다")
+        @PositiveOrZero(message = "결제 금액은 0 이상입니다")
+        Integer amount
+) {}
@@ -0,0 +1,22 @@
+package com.example.moki_campaign.domain.visit.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record VisitBatchResponseDto(
+        @Schema(description = "요청에 담긴 체크인 수", example = "1200")
+        @JsonProperty("received_count")
+        Integer receivedCount,
+
+        @Schema(description = "새로 저장된 방문 수", example = "1180")
+        @JsonProperty("inserted_count")
+        Integer insertedCount,
+
+        @Schema(description = "이미 저장된 체크인 id라서 건너뛴 수 (요청 안의 중복 포함)", example = "20")
+        @JsonProperty("duplicate_count")
+        Integer duplicateCount,
+
+        @Schema(description = "새로 등록된 고객 수", example = "15")
+        @JsonProperty("new_customer_count")
+        Integer newCustomerCount
+) {}
@@ -0,0 +1,10 @@
+package com.example.moki_campaign.domain.visit.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record VisitCounterRebuildResponseDto(
+        @Schema(description = "재구성된 고객 카운터 수", example = "1200")
+        @JsonProperty("rebuilt_count")
+        Integer rebuiltCount
+) {}
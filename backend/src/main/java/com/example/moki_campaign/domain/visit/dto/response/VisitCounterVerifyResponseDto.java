@@ -0,0 +1,20 @@
+package com.example.moki_campaign.domain.visit.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record VisitCounterVerifyResponseDto(
+        @Schema(description = "검증한 고객 수", example = "1200")
+        @JsonProperty("checked_count")
+        Integer checkedCount,
+
+        @Schema(description = "카운터가 방문 기록과 다른 고객 수", example = "0")
+        @JsonProperty("mismatched_count")
+        Integer mismatchedCount,
+
+        @Schema(description = "카운터가 어긋난 고객 ID (최대 20명)", example = "[]")
+        @JsonProperty("mismatched_customer_ids")
+        List<Long> mismatchedCustomerIds
+) {}
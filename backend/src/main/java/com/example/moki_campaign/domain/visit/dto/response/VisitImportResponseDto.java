@@ -0,0 +1,70 @@
+package com.example.moki_campaign.domain.visit.dto.response;
+
+import com.example.moki_campaign.domain.visit.entity.VisitImport;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+public record VisitImportResponseDto(
+        @Schema(description = "가져오기 작업 ID", example = "12")
+        @JsonProperty("import_id")
+        Long importId,
+
+        @Schema(description = "작업 상태 [QUEUED, RUNNING, COMPLETED, FAILED]", example = "RUNNING")
+        @JsonProperty("status")
+        String status,
+
+        @Schema(description = "업로드한 파일 크기 (bytes)", example = "3221225472")
+        @JsonProperty("file_size")
+        Long fileSize,
+
+        @Schema(description = "저장까지 끝난 파일 위치 (bytes, 재개 시 이 위치부터 읽음)", example = "1073741824")
+        @JsonProperty("committed_offset")
+        Long committedOffset,
+
+        @Schema(description = "진행률 (%)", example = "33.3")
+        @JsonProperty("progress_percent")
+        Double progressPercent,
+
+        @Schema(description = "저장한 방문 수", example = "24000000")
+        @JsonProperty("imported_rows")
+        Long importedRows,
+
+        @Schema(description = "형식이 맞지 않아 건너뛴 줄 수", example = "12")
+        @JsonProperty("skipped_rows")
+        Long skippedRows,
+
+        @Schema(description = "새로 등록된 고객 수", example = "18000")
+        @JsonProperty("new_customer_count")
+        Long newCustomerCount,
+
+        @Schema(description = "마지막 실행의 초당 저장 방문 수", example = "85000")
+        @JsonProperty("rows_per_second")
+        Long rowsPerSecond,
+
+        @Schema(description = "완료 시각", example = "2025-11-10T15:02:11")
+        @JsonProperty("completed_at")
+        LocalDateTime completedAt,
+
+        @Schema(description = "실패 원인 (실패 시)", example = "Connection is not available")
+        @JsonProperty("error")
+        String error
+) {
+
+    public static VisitImportResponseDto from(VisitImport visitImport) {
+        return new VisitImportResponseDto(
+                visitImport.getId(),
+                visitImport.getStatus().name(),
+                visitImport.getFileSize(),
+                visitImport.getCommittedOffset(),
+                visitImport.progressPercent(),
+                visitImport.getImportedRows(),
+                visitImport.getSkippedRows(),
+                visitImport.getNewCustomers(),
+                visitImport.getRowsPerSecond(),
+                visitImport.getCompletedAt(),
+                visitImport.getLastError()
+        );
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.moki_campaign.domain.visit.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 고객별 최근 8주 주간 방문 횟수 카운터
+ * 방문이 기록될 때 함께 갱신되어 분석 시 daily_visit을 다시 스캔하지 않도록 함
+ * week1 = weekStart가 속한 주, week8 = 그 7주 전 (새로운 주의 방문이 기록되면 그만큼 밀어냄)
+ */
+@Entity
+@Table(name = "customer_visit_counter", indexes = {
+        @Index(name = "idx_visit_counter_store_customer", columnList = "store_id, customer_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CustomerVisitCounter {
+
+    public static final int WEEKS = 8;
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    // 가장 최근 방문이 기록된 주의 월요일
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "week1", nullable = false)
+    private int week1;
+
+    @Column(name = "week2", nullable = false)
+    private int week2;
+
+    @Column(name = "week3", nullable = false)
+    private int week3;
+
+    @Column(name = "week4", nullable = false)
+    private int week4;
+
+    @Column(name = "week5", nullable = false)
+    private int week5;
+
+    @Column(name = "week6", nullable = false)
+    private int week6;
+
+    @Column(name = "week7", nullable = false)
+    private int week7;
+
+    @Column(name = "week8", nullable = false)
+    private int week8;
+
+    // 갱신은 행을 잠근 뒤 수행하며, 잠금 없이 읽고 쓰는 경로가 생겨도 증가분을 덮어쓰지 않도록 버전도 확인
+    @Version
+    private Long version;
+
+    private CustomerVisitCounter(Long customerId, Long storeId, LocalDate weekStart) {
+        this.customerId = customerId;
+        this.storeId = storeId;
+        this.weekStart = weekStartOf(weekStart);
+    }
+
+    public static CustomerVisitCounter create(Long customerId, Long storeId, LocalDate date) {
+        return new CustomerVisitCounter(customerId, storeId, date);
+    }
+
+    // visitDate가 속한 주에 방문 횟수 가산
+    // 더 최근 주의 방문이면 카운터를 앞으로 밀고, 8주 범위보다 오래된 방문은 무시
+    public void record(LocalDate visitDate, int visits) {
+        LocalDate visitWeekStart = weekStartOf(visitDate);
+        long shift = ChronoUnit.WEEKS.between(weekStart, visitWeekStart);
+
+        if (shift > 0) {
+            rollForward(shift);
+            weekStart = visitWeekStart;
+            shift = 0;
+        }
+
+        long age = -shift;
+        if (age >= WEEKS) {
+            return;
+        }
+
+        int[] counts = toArray();
+        counts[(int) age] += visits;
+        fromArray(counts);
+    }
+
+    // 주어진 주간 방문 횟수로 덮어쓰기 (재구성 시 사용, counts[0] = weekStart가 속한 주)
+    public void overwrite(LocalDate date, int[] counts) {
+        this.weekStart = weekStartOf(date);
+        fromArray(counts);
+    }
+
+    // analysisDate가 속한 주 기준 주간 방문 횟수 (index 0 = 8주 전 ... 7 = 현재 주)
+    public int[] countsAsOf(LocalDate analysisDate) {
+        return countsAsOf(weekStart, toArray(), analysisDate);
+    }
+
+    // 카운터 값(counts[0] = weekStart가 속한 주)을 analysisDate가 속한 주 기준으로 변환
+    // 분석 주가 weekStart 이후이면 지나간 주만큼 밀어서 해석하므로 주 경계에서 별도 갱신이 필요 없음
+    public static int[] countsAsOf(LocalDate weekStart, int[] counts, LocalDate analysisDate) {
+        long shift = ChronoUnit.WEEKS.between(weekStart, weekStartOf(analysisDate));
+
+        int[] result = new int[WEEKS];
+        for (int age = 0; age < WEEKS; age++) {
+            long counterAge = age - shift;
+            if (counterAge >= 0 && counterAge < WEEKS) {
+                result[WEEKS - 1 - age] = counts[(int) counterAge];
+            }
+        }
+        return result;
+    }
+
+    public static LocalDate weekStartOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private void rollForward(long weeks) {
+        int[] counts = toArray();
+        int[] rolled = new int[WEEKS];
+        for (int age = (int) weeks; age < WEEKS; age++) {
+            rolled[age] = counts[age - (int) weeks];
+        }
+        fromArray(rolled);
+    }
+
+    private int[] toArray() {
+        return new int[]{week1, week2, week3, week4, week5, week6, week7, week8};
+    }
+
+    private void fromArray(int[] counts) {
+        week1 = counts[0];
+        week2 = counts[1];
+        week3 = counts[2];
+        week4 = counts[3];
+        week5 = counts[4];
+        week6 = counts[5];
+        week7 = counts[6];
+        week8 = counts[7];
+    }
+}
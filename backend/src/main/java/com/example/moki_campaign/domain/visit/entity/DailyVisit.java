@@ -3,6 +3,7 @@ package com.example.moki_campaign.domain.visit.entity;
 import com.example.moki_campaign.domain.baestime.CreatedAtEntity;
 import com.example.moki_campaign.domain.customer.entity.Customer;
 import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.util.TableIdAllocator;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -13,14 +14,23 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "daily_visit", indexes = {
-        @Index(name = "idx_daily_visit_customer_date", columnList = "customer_id, visit_date")
+        @Index(name = "idx_daily_visit_customer_date", columnList = "customer_id, visit_date"),
+        @Index(name = "idx_daily_visit_store_date", columnList = "store_id, visit_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_visit_store_idempotency_key", columnNames = {"store_id", "idempotency_key"})
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class DailyVisit extends CreatedAtEntity {
 
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    // id를 id_sequence 테이블에서 구간 단위로 미리 할당 (IDENTITY는 INSERT마다 id를 돌려받아야 해서 JDBC 배치가 꺼짐)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "daily_visit_id_generator")
+    @TableGenerator(name = "daily_visit_id_generator", table = TableIdAllocator.TABLE,
+            pkColumnName = TableIdAllocator.SEGMENT_COLUMN, valueColumnName = TableIdAllocator.VALUE_COLUMN,
+            pkColumnValue = TableIdAllocator.DAILY_VISIT, allocationSize = TableIdAllocator.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,6 +47,14 @@ public class DailyVisit extends CreatedAtEntity {
     @Column(name = "amount", nullable = false)
     private Integer amount;
 
+    // 키오스크 체크인 id (같은 매장에서 같은 키로 다시 보내면 저장하지 않음, 직접 생성한 방문은 null)
+    @Column(name = "idempotency_key", length = MAX_IDEMPOTENCY_KEY_LENGTH)
+    private String idempotencyKey;
+
+    // 방문을 저장한 일괄 수집 요청 id (요청이 실제로 새로 저장한 방문을 구분하는 데 사용)
+    @Column(name = "ingest_batch_id")
+    private Long ingestBatchId;
+
     @Builder
     public DailyVisit(Store store, Customer customer, LocalDate visitDate, Integer amount) {
         this.store = store;
@@ -0,0 +1,90 @@
+package com.example.moki_campaign.domain.visit.entity;
+
+import com.example.moki_campaign.domain.baestime.AuditingEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * POS 방문 내보내기 파일 가져오기 작업
+ * committedOffset: 방문 저장까지 커밋된 마지막 줄의 다음 바이트 위치 (실패 후 재개 시 이 위치부터 읽음)
+ * 진행 상황은 청크마다 방문 저장과 같은 트랜잭션에서 갱신되므로 커밋된 위치와 저장된 방문이 항상 일치함
+ * 상태/진행 위치는 실행 스레드가 조건부 UPDATE로만 바꿈 (VisitImportRepository)
+ * fileHash: 파일 내용의 SHA-256 (같은 파일을 다시 올려도 줄마다 같은 체크인 id가 만들어져 중복 저장되지 않음)
+ */
+@Entity
+@Table(name = "visit_import", indexes = {
+        @Index(name = "idx_visit_import_store", columnList = "store_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class VisitImport extends AuditingEntity {
+
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    // 이전 버전에서 등록한 작업은 없음 (실행 시 파일에서 계산)
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private VisitImportStatus status;
+
+    @Column(name = "committed_offset", nullable = false)
+    private long committedOffset;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "skipped_rows", nullable = false)
+    private long skippedRows;
+
+    @Column(name = "new_customers", nullable = false)
+    private long newCustomers;
+
+    // 마지막 실행의 초당 저장 방문 수
+    @Column(name = "rows_per_second", nullable = false)
+    private long rowsPerSecond;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    private VisitImport(Long storeId, String filePath, long fileSize, String fileHash) {
+        this.storeId = storeId;
+        this.filePath = filePath;
+        this.fileSize = fileSize;
+        this.fileHash = fileHash;
+        this.status = VisitImportStatus.QUEUED;
+    }
+
+    public static VisitImport queued(Long storeId, String filePath, long fileSize, String fileHash) {
+        return new VisitImport(storeId, filePath, fileSize, fileHash);
+    }
+
+    // 파일 크기 대비 커밋된 위치 (%)
+    public double progressPercent() {
+        return fileSize == 0 ? 100.0 : Math.round(committedOffset * 1000.0 / fileSize) / 10.0;
+    }
+}
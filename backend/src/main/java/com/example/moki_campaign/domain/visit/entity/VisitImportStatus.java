@@ -0,0 +1,6 @@
+package com.example.moki_campaign.domain.visit.entity;
+
+public enum VisitImportStatus {
+
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,39 @@
+package com.example.moki_campaign.domain.visit.repository;
+
+import com.example.moki_campaign.domain.visit.entity.CustomerVisitCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface CustomerVisitCounterRepository extends JpaRepository<CustomerVisitCounter, Long> {
+
+    @Query("SELECT vc.customerId FROM CustomerVisitCounter vc WHERE vc.customerId IN :customerIds")
+    List<Long> findExistingIds(@Param("customerIds") Collection<Long> customerIds);
+
+    // 카운터 행을 고객 id 순으로 잠그고 조회 (갱신하는 트랜잭션끼리 같은 순서로 잠가 교착을 피함)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT vc FROM CustomerVisitCounter vc WHERE vc.customerId IN :customerIds ORDER BY vc.customerId ASC")
+    List<CustomerVisitCounter> findAllForUpdate(@Param("customerIds") Collection<Long> customerIds);
+
+    // 방문 횟수 0인 카운터 생성 (다른 트랜잭션이 먼저 만들었으면 건너뜀)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO customer_visit_counter "
+            + "(customer_id, store_id, week_start, week1, week2, week3, week4, week5, week6, week7, week8, version) "
+            + "VALUES (:customerId, :storeId, :weekStart, 0, 0, 0, 0, 0, 0, 0, 0, 0)", nativeQuery = true)
+    int insertIfAbsent(@Param("customerId") Long customerId,
+                       @Param("storeId") Long storeId,
+                       @Param("weekStart") LocalDate weekStart);
+
+    // 매장에서 삭제된 고객의 카운터 삭제 (재구성 시 정리)
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CustomerVisitCounter vc WHERE vc.storeId = :storeId "
+            + "AND vc.customerId NOT IN (SELECT c.id FROM Customer c WHERE c.store.id = :storeId)")
+    int deleteOrphans(@Param("storeId") Long storeId);
+}
@@ -14,12 +14,15 @@ import java.util.Set;
 @Repository
 public interface DailyVisitRepository extends JpaRepository<DailyVisit, Long> {
 
-    // 특정 기간동안 매장에 방문한 기록 데이터 조회
-    @Query("SELECT dv FROM DailyVisit dv JOIN FETCH dv.customer " +
-            "WHERE dv.store = :store AND dv.visitDate BETWEEN :startDate AND :endDate")
-    List<DailyVisit> findByStoreAndDateRangeWithCustomer(@Param("store") Store store,
-                                                         @Param("startDate") LocalDate startDate,
-                                                         @Param("endDate") LocalDate endDate);
+    // 특정 기간동안 매장에 방문한 기록 중 고객 id 범위에 해당하는 데이터 조회 (청크 단위 분석)
+    @Query("SELECT dv FROM DailyVisit dv " +
+            "WHERE dv.store = :store AND dv.customer.id BETWEEN :fromCustomerId AND :toCustomerId " +
+            "AND dv.visitDate BETWEEN :startDate AND :endDate")
+    List<DailyVisit> findByStoreAndCustomerIdRangeAndDateRange(@Param("store") Store store,
+                                                               @Param("fromCustomerId") Long fromCustomerId,
+                                                               @Param("toCustomerId") Long toCustomerId,
+                                                               @Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate);
 
     // 지정된 기간과 매장의 총 매출 합산
     @Query("SELECT COALESCE(SUM(dv.amount), 0L) " +
@@ -53,4 +56,12 @@ public interface DailyVisitRepository extends JpaRepository<DailyVisit, Long> {
     List<DailyVisit> findByCustomerIdAndDateRange(@Param("customerId") Long customerId,
                                                    @Param("startDate") LocalDate startDate,
                                                    @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    // 기간 내 매장별 방문 수 (적응형 분석 주기 계산)
+    @Query("SELECT new com.example.moki_campaign.domain.visit.repository.StoreVisitCount(dv.store.id, COUNT(dv)) " +
+            "FROM DailyVisit dv " +
+            "WHERE dv.visitDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY dv.store.id")
+    List<StoreVisitCount> countVisitsByStore(@Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+}
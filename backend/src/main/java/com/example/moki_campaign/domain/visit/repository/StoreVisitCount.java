@@ -0,0 +1,7 @@
+package com.example.moki_campaign.domain.visit.repository;
+
+/**
+ * 매장별 기간 내 방문 수 집계 결과
+ */
+public record StoreVisitCount(Long storeId, Long visits) {
+}
@@ -0,0 +1,108 @@
+package com.example.moki_campaign.domain.visit.repository;
+
+import com.example.moki_campaign.domain.visit.entity.VisitImport;
+import com.example.moki_campaign.domain.visit.entity.VisitImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface VisitImportRepository extends JpaRepository<VisitImport, Long> {
+
+    Optional<VisitImport> findByIdAndStoreId(Long id, Long storeId);
+
+    // 대기 중인 작업만 실행 상태로 전환 (갱신된 행 수 1이면 이 스레드가 실행)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE VisitImport v
+               SET v.status = :running, v.attempts = v.attempts + 1, v.lastError = NULL, v.updatedAt = :now
+             WHERE v.id = :id AND v.status = :queued
+            """)
+    int claim(@Param("id") Long id,
+              @Param("queued") VisitImportStatus queued,
+              @Param("running") VisitImportStatus running,
+              @Param("now") LocalDateTime now);
+
+    // 실패했거나, 대기/실행 중인데 staleBefore 이후 진행이 없는(맡은 인스턴스가 종료된) 작업을 다시 대기 상태로
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE VisitImport v
+               SET v.status = :queued, v.updatedAt = :now
+             WHERE v.id = :id
+               AND (v.status = :failed OR (v.status IN (:queued, :running) AND v.updatedAt < :staleBefore))
+            """)
+    int requeue(@Param("id") Long id,
+                @Param("queued") VisitImportStatus queued,
+                @Param("failed") VisitImportStatus failed,
+                @Param("running") VisitImportStatus running,
+                @Param("staleBefore") LocalDateTime staleBefore,
+                @Param("now") LocalDateTime now);
+
+    // 대기/실행 중인데 staleBefore 이후 진행이 없는 작업만 다시 대기 상태로 (실패한 작업 제외)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE VisitImport v
+               SET v.status = :queued, v.updatedAt = :now
+             WHERE v.id = :id AND v.status IN (:queued, :running) AND v.updatedAt < :staleBefore
+            """)
+    int requeueStale(@Param("id") Long id,
+                     @Param("queued") VisitImportStatus queued,
+                     @Param("running") VisitImportStatus running,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+
+    // 대기/실행 중인데 staleBefore 이후 진행이 없는(맡은 인스턴스가 종료된) 작업
+    @Query("""
+            SELECT v.id FROM VisitImport v
+             WHERE v.status IN (:queued, :running) AND v.updatedAt < :staleBefore
+             ORDER BY v.id
+            """)
+    List<Long> findStaleIds(@Param("queued") VisitImportStatus queued,
+                            @Param("running") VisitImportStatus running,
+                            @Param("staleBefore") LocalDateTime staleBefore);
+
+    // 청크 저장과 같은 트랜잭션에서 진행 위치 기록
+    // 읽기 시작한 위치(fromOffset)가 그대로일 때만 갱신하므로, 같은 작업이 두 번 실행되어도 한 청크는 한 번만 커밋됨 (0이면 롤백)
+    @Modifying
+    @Query("""
+            UPDATE VisitImport v
+               SET v.committedOffset = :toOffset,
+                   v.importedRows = v.importedRows + :rows,
+                   v.skippedRows = v.skippedRows + :skipped,
+                   v.newCustomers = v.newCustomers + :newCustomers,
+                   v.rowsPerSecond = :rowsPerSecond,
+                   v.updatedAt = :now
+             WHERE v.id = :id AND v.committedOffset = :fromOffset
+            """)
+    int recordChunk(@Param("id") Long id,
+                    @Param("fromOffset") long fromOffset,
+                    @Param("toOffset") long toOffset,
+                    @Param("rows") long rows,
+                    @Param("skipped") long skipped,
+                    @Param("newCustomers") long newCustomers,
+                    @Param("rowsPerSecond") long rowsPerSecond,
+                    @Param("now") LocalDateTime now);
+
+    // 실행 중인 작업을 완료/실패로 종료 (진행 위치는 바꾸지 않음)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE VisitImport v
+               SET v.status = :status, v.lastError = :error, v.completedAt = :completedAt, v.updatedAt = :now
+             WHERE v.id = :id AND v.status = :running
+            """)
+    int finish(@Param("id") Long id,
+               @Param("running") VisitImportStatus running,
+               @Param("status") VisitImportStatus status,
+               @Param("error") String error,
+               @Param("completedAt") LocalDateTime completedAt,
+               @Param("now") LocalDateTime now);
+}
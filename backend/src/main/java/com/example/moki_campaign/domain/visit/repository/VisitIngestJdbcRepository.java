@@ -0,0 +1,241 @@
+package com.example.moki_campaign.domain.visit.repository;
+
+import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
+import com.example.moki_campaign.global.config.VisitIngestProps;
+import com.example.moki_campaign.global.util.TableIdAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 키오스크 방문 일괄 수집 / POS 파일 가져오기용 JDBC 쓰기
+ * 중복 여부를 미리 조회하지 않고 유니크 키에 걸린 행은 ON DUPLICATE KEY UPDATE로 건너뜀
+ * (rewriteBatchedStatements 사용 시 행별 반영 수를 알 수 없으므로 새로 저장된 행은 수집 요청 id로 다시 조회)
+ * 건너뛴 행은 중복으로 세기 전에 (매장, 체크인 id) / (매장, 전화번호) 행이 실제로 있는지 확인하고,
+ * 없으면 기본 키(id) 충돌이므로 새 id로 다시 저장 (INSERT IGNORE는 기본 키 충돌과 컬럼 오류까지 건너뛰므로 사용하지 않음)
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class VisitIngestJdbcRepository {
+
+    // IN 절 하나에 담을 최대 값 수
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    // 기본 키 충돌로 저장되지 않은 행을 새 id로 다시 저장하는 최대 시도 수
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private static final String INSERT_CUSTOMER_SQL =
+            "INSERT INTO customer (id, store_id, name, phone_number, total_amount, points, segment, " +
+            "loyalty_score, total_visit_count, last_visit_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 0, 0, ?, 0, 0, ?, ?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String INSERT_VISIT_SQL =
+            "INSERT INTO daily_visit (id, store_id, customer_id, visit_date, amount, idempotency_key, " +
+            "ingest_batch_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TableIdAllocator tableIdAllocator;
+    private final VisitIngestProps visitIngestProps;
+
+    // 전화번호 → 고객 id (매장에 등록되지 않은 번호는 포함되지 않음)
+    public Map<String, Long> findCustomerIds(Long storeId, List<String> phoneNumbers) {
+        return findCustomerIds(storeId, phoneNumbers, false);
+    }
+
+    // 처음 방문한 전화번호를 고객으로 등록하고 전화번호 → 고객 id 반환
+    // 다른 요청이 먼저 등록해 건너뛴 번호는 트랜잭션 스냅샷(REPEATABLE READ)에 보이지 않을 수 있으므로
+    // 잠금 읽기(FOR UPDATE)로 최신 커밋된 행을 조회 (같은 트랜잭션에서 방문 통계를 갱신할 행이므로 잠금 범위가 늘지 않음)
+    // 잠금 읽기로도 찾지 못한 번호는 기본 키 충돌로 저장되지 않은 것이므로 새 id로 다시 등록하고,
+    // 반복되면 고객 없는 방문이 저장되지 않도록 예외로 트랜잭션을 롤백
+    public Map<String, Long> registerCustomers(Long storeId, Map<String, LocalDate> firstVisitDateByPhone) {
+        Map<String, Long> customerIds = new HashMap<>(firstVisitDateByPhone.size() * 2);
+        Map<String, LocalDate> pending = firstVisitDateByPhone;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            insertCustomers(storeId, pending);
+            customerIds.putAll(findCustomerIds(storeId, new ArrayList<>(pending.keySet()), true));
+
+            Map<String, LocalDate> unresolved = new HashMap<>();
+            pending.forEach((phone, date) -> {
+                if (!customerIds.containsKey(phone)) {
+                    unresolved.put(phone, date);
+                }
+            });
+            if (!unresolved.isEmpty()) {
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    throw new IllegalStateException("매장(" + storeId + ") 고객 등록 후에도 고객을 찾지 못한 전화번호 "
+                            + unresolved.size() + "건");
+                }
+                log.warn("매장({}) 고객 등록 - id 충돌로 저장되지 않은 {}건을 새 id로 다시 등록", storeId, unresolved.size());
+            }
+            pending = unresolved;
+        }
+        return customerIds;
+    }
+
+    private Map<String, Long> findCustomerIds(Long storeId, List<String> phoneNumbers, boolean lockingRead) {
+        Map<String, Long> customerIds = new HashMap<>(phoneNumbers.size() * 2);
+        for (int from = 0; from < phoneNumbers.size(); from += LOOKUP_BATCH_SIZE) {
+            List<String> batch = phoneNumbers.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, phoneNumbers.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(storeId);
+            args.addAll(batch);
+
+            jdbcTemplate.query(
+                    "SELECT phone_number, id FROM customer WHERE store_id = ? AND phone_number IN (" + placeholders + ")" +
+                    (lockingRead ? " FOR UPDATE" : ""),
+                    rs -> {
+                        customerIds.put(rs.getString(1), rs.getLong(2));
+                    },
+                    args.toArray());
+        }
+        return customerIds;
+    }
+
+    // 처음 방문한 전화번호를 고객으로 등록 (다른 요청이 먼저 등록한 번호는 매장/전화번호 유니크 키로 건너뜀)
+    // 방문 통계는 0에서 시작하고 방문 저장 후 CustomerVisitStatsJdbcRepository로 반영됨
+    private void insertCustomers(Long storeId, Map<String, LocalDate> firstVisitDateByPhone) {
+        LocalDateTime now = LocalDateTime.now();
+        long nextId = tableIdAllocator.allocate(TableIdAllocator.CUSTOMER, firstVisitDateByPhone.size());
+        List<Object[]> batchArgs = new ArrayList<>(firstVisitDateByPhone.size());
+        for (Map.Entry<String, LocalDate> entry : firstVisitDateByPhone.entrySet()) {
+            batchArgs.add(new Object[]{
+                    nextId++,
+                    storeId,
+                    defaultNameOf(entry.getKey()),
+                    entry.getKey(),
+                    CustomerSegment.GENERAL.name(),
+                    Date.valueOf(entry.getValue()),
+                    Timestamp.valueOf(now),
+                    Timestamp.valueOf(now)
+            });
+        }
+        batchUpdate(INSERT_CUSTOMER_SQL, batchArgs, visitIngestProps.getJdbcBatchSize());
+    }
+
+    // 방문 일괄 저장 후 이번 수집 요청이 새로 저장한 방문 반환
+    // 이미 저장된 (매장, 체크인 id)는 건너뛰고 (건너뛴 행에 할당한 id는 사용되지 않음),
+    // 건너뛰었는데 같은 체크인 id의 행이 없으면 기본 키 충돌이므로 새 id로 다시 저장
+    // 기존 행은 ON DUPLICATE KEY UPDATE가 이미 잠갔으므로 잠금 읽기로 다른 트랜잭션이 커밋한 행까지 확인
+    public List<VisitIngestRow> insertVisits(Long storeId, long ingestBatchId, List<VisitIngestRow> rows) {
+        return insertVisits(storeId, ingestBatchId, rows, visitIngestProps.getJdbcBatchSize());
+    }
+
+    // batchSize: JDBC 배치 하나에 담을 행 수 (POS 파일 가져오기는 bulk-import.jdbc-batch-size 사용)
+    public List<VisitIngestRow> insertVisits(Long storeId, long ingestBatchId, List<VisitIngestRow> rows, int batchSize) {
+        List<VisitIngestRow> inserted = new ArrayList<>(rows.size());
+        List<VisitIngestRow> pending = rows;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            insertVisitRows(storeId, ingestBatchId, pending, batchSize);
+            List<String> keys = pending.stream().map(VisitIngestRow::idempotencyKey).toList();
+            List<VisitIngestRow> insertedNow = findInsertedVisits(storeId, ingestBatchId, keys);
+            inserted.addAll(insertedNow);
+
+            Set<String> stored = new HashSet<>(findExistingIdempotencyKeys(storeId, keys));
+            List<VisitIngestRow> collided = pending.stream()
+                    .filter(row -> !stored.contains(row.idempotencyKey()))
+                    .toList();
+            if (!collided.isEmpty()) {
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    throw new IllegalStateException("매장(" + storeId + ") 방문 저장 후에도 찾지 못한 체크인 "
+                            + collided.size() + "건");
+                }
+                log.warn("매장({}) 방문 저장 - id 충돌로 저장되지 않은 {}건을 새 id로 다시 저장", storeId, collided.size());
+            }
+            pending = collided;
+        }
+        return inserted;
+    }
+
+    private void insertVisitRows(Long storeId, long ingestBatchId, List<VisitIngestRow> rows, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long nextId = tableIdAllocator.allocate(TableIdAllocator.DAILY_VISIT, rows.size());
+        List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        for (VisitIngestRow row : rows) {
+            batchArgs.add(new Object[]{
+                    nextId++,
+                    storeId,
+                    row.customerId(),
+                    Date.valueOf(row.visitDate()),
+                    row.amount(),
+                    row.idempotencyKey(),
+                    ingestBatchId,
+                    now
+            });
+        }
+        batchUpdate(INSERT_VISIT_SQL, batchArgs, batchSize);
+    }
+
+    // 이번 수집 요청이 새로 저장한 방문 조회 (매장/체크인 id 유니크 인덱스 사용)
+    private List<VisitIngestRow> findInsertedVisits(Long storeId, long ingestBatchId, List<String> idempotencyKeys) {
+        List<VisitIngestRow> inserted = new ArrayList<>(idempotencyKeys.size());
+        for (int from = 0; from < idempotencyKeys.size(); from += LOOKUP_BATCH_SIZE) {
+            List<String> batch =
+                    idempotencyKeys.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, idempotencyKeys.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+
+            List<Object> args = new ArrayList<>(batch.size() + 2);
+            args.add(storeId);
+            args.addAll(batch);
+            args.add(ingestBatchId);
+
+            jdbcTemplate.query(
+                    "SELECT customer_id, visit_date, amount, idempotency_key FROM daily_visit " +
+                    "WHERE store_id = ? AND idempotency_key IN (" + placeholders + ") AND ingest_batch_id = ?",
+                    rs -> {
+                        inserted.add(new VisitIngestRow(rs.getLong(1), rs.getDate(2).toLocalDate(),
+                                rs.getInt(3), rs.getString(4)));
+                    },
+                    args.toArray());
+        }
+        return inserted;
+    }
+
+    // 매장에 저장된 체크인 id 조회 (다른 트랜잭션이 커밋한 행까지 보도록 잠금 읽기)
+    private List<String> findExistingIdempotencyKeys(Long storeId, List<String> idempotencyKeys) {
+        List<String> existing = new ArrayList<>(idempotencyKeys.size());
+        for (int from = 0; from < idempotencyKeys.size(); from += LOOKUP_BATCH_SIZE) {
+            List<String> batch =
+                    idempotencyKeys.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, idempotencyKeys.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(storeId);
+            args.addAll(batch);
+
+            existing.addAll(jdbcTemplate.queryForList(
+                    "SELECT idempotency_key FROM daily_visit WHERE store_id = ? AND idempotency_key IN (" +
+                    placeholders + ") FOR UPDATE",
+                    String.class, args.toArray()));
+        }
+        return existing;
+    }
+
+    private void batchUpdate(String sql, List<Object[]> batchArgs, int batchSize) {
+        batchSize = Math.max(1, batchSize);
+        for (int from = 0; from < batchArgs.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, batchArgs.subList(from, Math.min(from + batchSize, batchArgs.size())));
+        }
+    }
+
+    // 키오스크로 처음 등록되는 고객의 이름 (전화번호 끝 4자리)
+    private static String defaultNameOf(String phoneNumber) {
+        String digits = phoneNumber.replaceAll("\\D", "");
+        return "고객" + digits.substring(Math.max(0, digits.length() - 4));
+    }
+}
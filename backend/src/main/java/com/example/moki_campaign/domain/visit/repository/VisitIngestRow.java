@@ -0,0 +1,14 @@
+package com.example.moki_campaign.domain.visit.repository;
+
+import java.time.LocalDate;
+
+/**
+ * 일괄 수집으로 저장할(또는 저장된) 방문 1건
+ */
+public record VisitIngestRow(
+        Long customerId,
+        LocalDate visitDate,
+        int amount,
+        String idempotencyKey
+) {
+}
@@ -0,0 +1,43 @@
+package com.example.moki_campaign.domain.visit.scheduler;
+
+import com.example.moki_campaign.domain.visit.service.VisitImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 중단된 POS 방문 가져오기 재개
+ * 애플리케이션 시작 시와 visit.ingest.bulk-import.recovery-cron 주기로, 이전 프로세스가 종료되며 대기/실행 중으로 남긴 작업을
+ * 커밋된 파일 위치부터 다시 실행 (stale-after 동안 진행이 없는 작업만 대상이므로 다른 인스턴스가 실행 중인 작업은 건드리지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VisitImportResumer {
+
+    private final VisitImportService visitImportService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        recover();
+    }
+
+    @Scheduled(cron = "${visit.ingest.bulk-import.recovery-cron:0 */5 * * * *}")
+    public void resumeStaleImports() {
+        recover();
+    }
+
+    private void recover() {
+        try {
+            int recovered = visitImportService.recoverInterrupted();
+            if (recovered > 0) {
+                log.info("중단된 방문 가져오기 {}건을 다시 실행", recovered);
+            }
+        } catch (Exception e) {
+            log.error("중단된 방문 가져오기 재개 중 오류 발생", e);
+        }
+    }
+}
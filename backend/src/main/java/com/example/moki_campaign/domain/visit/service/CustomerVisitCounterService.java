@@ -0,0 +1,222 @@
+package com.example.moki_campaign.domain.visit.service;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitFeature;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.dto.response.VisitCounterRebuildResponseDto;
+import com.example.moki_campaign.domain.visit.dto.response.VisitCounterVerifyResponseDto;
+import com.example.moki_campaign.domain.visit.entity.CustomerVisitCounter;
+import com.example.moki_campaign.domain.visit.entity.DailyVisit;
+import com.example.moki_campaign.domain.visit.repository.CustomerVisitCounterRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 고객별 주간 방문 카운터 관리
+ * 방문 저장 경로에서 함께 호출되어 카운터를 갱신하고, daily_visit 기준 재구성/검증 기능 제공
+ * 갱신과 재구성 모두 카운터 행을 고객 id 순으로 잠근 뒤 쓰므로 동시에 실행되어도 증가분이 유실되지 않음
+ */
+@Service
+@Slf4j
+public class CustomerVisitCounterService {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    private final CustomerVisitCounterRepository customerVisitCounterRepository;
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomerVisitCounterService(CustomerVisitCounterRepository customerVisitCounterRepository,
+                                       CustomerRepository customerRepository,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager) {
+        this.customerVisitCounterRepository = customerVisitCounterRepository;
+        this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // 저장되는 방문 기록을 고객별 주간 카운터에 반영
+    // 방문 저장과 같은 트랜잭션에서 호출되어 방문 기록과 카운터가 함께 커밋됨
+    // 카운터 행을 잠근 뒤 더하므로 같은 고객의 방문이 동시에 기록되면 먼저 잠근 트랜잭션이 커밋될 때까지 대기
+    @Transactional
+    public void recordVisits(List<DailyVisit> visits) {
+        if (visits.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> storeIdsByCustomerId = new HashMap<>();
+        LocalDate earliestVisitDate = visits.get(0).getVisitDate();
+        for (DailyVisit visit : visits) {
+            storeIdsByCustomerId.putIfAbsent(visit.getCustomer().getId(), visit.getStore().getId());
+            if (visit.getVisitDate().isBefore(earliestVisitDate)) {
+                earliestVisitDate = visit.getVisitDate();
+            }
+        }
+
+        createMissingCounters(storeIdsByCustomerId, earliestVisitDate);
+        Map<Long, CustomerVisitCounter> counters = lockCounters(storeIdsByCustomerId.keySet());
+
+        for (DailyVisit visit : visits) {
+            counters.get(visit.getCustomer().getId()).record(visit.getVisitDate(), 1);
+        }
+    }
+
+    // daily_visit 기준으로 매장의 모든 고객 카운터 재구성
+    // 카운터가 누락되거나 어긋났을 때 복구용으로 사용
+    // 고객 페이지마다 짧은 트랜잭션에서 카운터를 먼저 잠근 뒤 방문을 집계해 덮어쓰므로, 동시에 기록되는 방문은
+    // 잠금 전에 커밋되어 집계에 포함되거나 재구성이 커밋된 뒤 잠금을 얻어 덮어쓴 값에 더해짐
+    public VisitCounterRebuildResponseDto rebuild(Store store) {
+        LocalDate today = LocalDate.now();
+        long startTime = System.currentTimeMillis();
+
+        transactionTemplate.executeWithoutResult(status ->
+                customerVisitCounterRepository.deleteOrphans(store.getId()));
+
+        int rebuiltCount = 0;
+        long afterCustomerId = 0L;
+
+        while (true) {
+            List<Long> customerIds = customerRepository.findIdsByStore(
+                    store, afterCustomerId, PageRequest.ofSize(PAGE_SIZE));
+
+            if (customerIds.isEmpty()) {
+                break;
+            }
+
+            Map<Long, Long> storeIdsByCustomerId = new HashMap<>();
+            customerIds.forEach(customerId -> storeIdsByCustomerId.put(customerId, store.getId()));
+            transactionTemplate.executeWithoutResult(status -> createMissingCounters(storeIdsByCustomerId, today));
+
+            long fromCustomerId = afterCustomerId;
+            long toCustomerId = customerIds.get(customerIds.size() - 1);
+            transactionTemplate.executeWithoutResult(status ->
+                    overwriteCounters(store, today, fromCustomerId, toCustomerId, storeIdsByCustomerId.keySet()));
+
+            rebuiltCount += customerIds.size();
+            afterCustomerId = toCustomerId;
+        }
+
+        log.info("매장({}) 주간 방문 카운터 재구성 완료: {}명, {}ms",
+                store.getName(), rebuiltCount, System.currentTimeMillis() - startTime);
+
+        return new VisitCounterRebuildResponseDto(rebuiltCount);
+    }
+
+    // daily_visit 집계 결과와 카운터 값을 비교하여 어긋난 고객 확인
+    @Transactional(readOnly = true)
+    public VisitCounterVerifyResponseDto verify(Store store) {
+        LocalDate today = LocalDate.now();
+
+        int checkedCount = 0;
+        int mismatchedCount = 0;
+        List<Long> mismatchedCustomerIds = new ArrayList<>();
+        long afterCustomerId = 0L;
+
+        while (true) {
+            List<CustomerVisitFeature> features = customerRepository.findVisitFeatures(
+                    store, today, afterCustomerId, PageRequest.ofSize(PAGE_SIZE));
+
+            if (features.isEmpty()) {
+                break;
+            }
+
+            List<Long> customerIds = features.stream().map(CustomerVisitFeature::customerId).toList();
+            Map<Long, CustomerVisitCounter> counters = customerVisitCounterRepository.findAllById(customerIds).stream()
+                    .collect(Collectors.toMap(CustomerVisitCounter::getCustomerId, Function.identity()));
+
+            for (CustomerVisitFeature feature : features) {
+                CustomerVisitCounter counter = counters.get(feature.customerId());
+                int[] actual = counter != null ? counter.countsAsOf(today) : new int[CustomerVisitCounter.WEEKS];
+
+                if (!Arrays.equals(toAnalysisOrder(feature), actual)) {
+                    mismatchedCount++;
+                    if (mismatchedCustomerIds.size() < MAX_REPORTED_MISMATCHES) {
+                        mismatchedCustomerIds.add(feature.customerId());
+                    }
+                }
+            }
+
+            entityManager.clear();
+
+            checkedCount += features.size();
+            afterCustomerId = features.get(features.size() - 1).customerId();
+        }
+
+        if (mismatchedCount > 0) {
+            log.warn("매장({}) 주간 방문 카운터 불일치: {}명 중 {}명", store.getName(), checkedCount, mismatchedCount);
+        }
+
+        return new VisitCounterVerifyResponseDto(checkedCount, mismatchedCount, mismatchedCustomerIds);
+    }
+
+    // 잠근 카운터를 잠금 이후의 방문 집계로 덮어씀 (잠금보다 먼저 읽으면 그 사이 커밋된 방문이 빠질 수 있음)
+    private void overwriteCounters(Store store, LocalDate today, long afterCustomerId, long toCustomerId,
+                                   Set<Long> customerIds) {
+        Map<Long, CustomerVisitCounter> counters = lockCounters(customerIds);
+
+        for (CustomerVisitFeature feature : customerRepository.findVisitFeaturesInRange(
+                store, today, afterCustomerId, toCustomerId)) {
+            CustomerVisitCounter counter = counters.get(feature.customerId());
+            if (counter != null) {
+                counter.overwrite(today, toCounterOrder(feature));
+            }
+        }
+
+        customerVisitCounterRepository.flush();
+        entityManager.clear();
+    }
+
+    // 카운터가 없는 고객은 방문 0회 카운터를 먼저 만들어 둠 (없는 행은 잠글 수 없으므로 잠금 전에 생성)
+    private void createMissingCounters(Map<Long, Long> storeIdsByCustomerId, LocalDate date) {
+        Set<Long> existing = new HashSet<>(customerVisitCounterRepository.findExistingIds(storeIdsByCustomerId.keySet()));
+        LocalDate weekStart = CustomerVisitCounter.weekStartOf(date);
+
+        storeIdsByCustomerId.forEach((customerId, storeId) -> {
+            if (!existing.contains(customerId)) {
+                customerVisitCounterRepository.insertIfAbsent(customerId, storeId, weekStart);
+            }
+        });
+    }
+
+    private Map<Long, CustomerVisitCounter> lockCounters(Collection<Long> customerIds) {
+        return customerVisitCounterRepository.findAllForUpdate(customerIds).stream()
+                .collect(Collectors.toMap(CustomerVisitCounter::getCustomerId, Function.identity()));
+    }
+
+    // 집계 결과를 카운터 순서(0 = 현재 주 ... 7 = 8주 전)로 변환
+    private int[] toCounterOrder(CustomerVisitFeature feature) {
+        int[] analysisOrder = toAnalysisOrder(feature);
+        int[] counterOrder = new int[CustomerVisitCounter.WEEKS];
+        for (int i = 0; i < CustomerVisitCounter.WEEKS; i++) {
+            counterOrder[i] = analysisOrder[CustomerVisitCounter.WEEKS - 1 - i];
+        }
+        return counterOrder;
+    }
+
+    // 집계 결과를 분석 순서(0 = 8주 전 ... 7 = 현재 주)로 변환
+    private int[] toAnalysisOrder(CustomerVisitFeature feature) {
+        return new int[]{
+                feature.visits8WeekAgo().intValue(),
+                feature.visits7WeekAgo().intValue(),
+                feature.visits6WeekAgo().intValue(),
+                feature.visits5WeekAgo().intValue(),
+                feature.visits4WeekAgo().intValue(),
+                feature.visits3WeekAgo().intValue(),
+                feature.visits2WeekAgo().intValue(),
+                feature.visits1WeekAgo().intValue()
+        };
+    }
+}
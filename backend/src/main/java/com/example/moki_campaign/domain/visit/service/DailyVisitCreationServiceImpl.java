@@ -2,6 +2,8 @@ package com.example.moki_campaign.domain.visit.service;
 
 import com.example.moki_campaign.domain.customer.entity.Customer;
 import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsAccumulator;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsJdbcRepository;
 import com.example.moki_campaign.domain.store.entity.Store;
 import com.example.moki_campaign.domain.store.repository.StoreRepository;
 import com.example.moki_campaign.domain.visit.entity.DailyVisit;
@@ -23,14 +25,16 @@ public class DailyVisitCreationServiceImpl implements DailyVisitCreationService{
     private final StoreRepository storeRepository;
     private final CustomerRepository customerRepository; // CustomerRepository 주입
     private final DailyVisitRepository dailyVisitRepository;
+    private final CustomerVisitStatsJdbcRepository customerVisitStatsJdbcRepository;
+    private final CustomerVisitCounterService customerVisitCounterService;
 
     private static final int FIXED_AMOUNT = 3900;
     private static final int MIN_VISITORS = 50;
     private static final int MAX_VISITORS = 100;
 
     // 매일 일간 방문 고객 기록 조회
-    // 키오스크로 받아오지 않고 임의의 값을 넣고 있음
-    // 추후 해당 로직 변경 필요
+    // 키오스크로 받아오지 않고 임의의 값을 넣고 있음 (개발/시연용)
+    // 실제 키오스크 방문은 POST /api/visits/batch (VisitIngestService)로 수집
     @Override
     @Transactional
     public void createRandomDailyVisitsForYesterday() {
@@ -49,7 +53,7 @@ public class DailyVisitCreationServiceImpl implements DailyVisitCreationService{
                 .collect(Collectors.groupingBy(Customer::getStore));
 
         List<DailyVisit> visitsToSave = new ArrayList<>();
-        List<Long> allCustomerIdsToUpdate = new ArrayList<>();
+        CustomerVisitStatsAccumulator visitStats = new CustomerVisitStatsAccumulator(allCustomers.size());
 
         Random random = new Random();
 
@@ -77,24 +81,14 @@ public class DailyVisitCreationServiceImpl implements DailyVisitCreationService{
                         .amount(FIXED_AMOUNT)
                         .build();
                 visitsToSave.add(newVisit);
+                visitStats.add(customer.getId(), FIXED_AMOUNT, yesterday);
             }
 
-            allCustomerIdsToUpdate.addAll(
-                    selectedCustomers.stream()
-                            .map(Customer::getId)
-                            .collect(Collectors.toList())
-            );
-
         }
 
-        // 방문한 고객들에 대한 정보 일괄 업데이트
-        if (!allCustomerIdsToUpdate.isEmpty()) {
-
-            customerRepository.batchUpdateCustomerVisitStats(
-                    allCustomerIdsToUpdate,
-                    yesterday,
-                    FIXED_AMOUNT
-            );
+        // 방문한 고객들에 대한 정보 일괄 업데이트 (고객별 변화량을 합산해 고객당 UPDATE 1건)
+        if (!visitStats.isEmpty()) {
+            customerVisitStatsJdbcRepository.addVisitStats(visitStats);
         } else {
             log.info("업데이트할 고객이 없습니다.");
         }
@@ -102,6 +96,9 @@ public class DailyVisitCreationServiceImpl implements DailyVisitCreationService{
         // 생성된 모든 Visit 데이터를 DB에 일괄 저장
         if (!visitsToSave.isEmpty()) {
             dailyVisitRepository.saveAll(visitsToSave);
+
+            // 고객별 주간 방문 카운터에 반영
+            customerVisitCounterService.recordVisits(visitsToSave);
         } else {
             log.info("저장할 방문 데이터가 없습니다.");
         }
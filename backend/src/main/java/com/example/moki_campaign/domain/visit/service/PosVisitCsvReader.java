@@ -0,0 +1,323 @@
+package com.example.moki_campaign.domain.visit.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * POS 방문 내보내기 CSV 순차 읽기
+ * 형식: 전화번호,방문일,금액[,무시할 열...] (방문일은 yyyy-MM-dd, yyyy/MM/dd, yyyy.MM.dd, yyyyMMdd)
+ * 필드는 큰따옴표로 감쌀 수 있으나 필드 안의 쉼표/줄바꿈은 지원하지 않으며, 형식이 맞지 않는 줄은 건너뜀
+ * 파일을 window 크기 구간씩 메모리 매핑하여 바이트 단위로 필드를 해석 (방문일/금액은 문자열을 만들지 않고 전화번호만 String 생성)
+ * offset()은 마지막으로 읽은 줄 다음 바이트 위치이며, 이 위치로 다시 열면 그다음 줄부터 이어서 읽음
+ */
+public class PosVisitCsvReader implements Closeable {
+
+    // 키오스크 체크인과 같은 전화번호 길이 제한
+    private static final int MAX_PHONE_NUMBER_LENGTH = 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long offset;
+    private long skippedLines;
+
+    private final byte[] phoneBuffer = new byte[MAX_PHONE_NUMBER_LENGTH];
+    private String phoneNumber;
+    private LocalDate visitDate;
+    private int amount;
+
+    // 내보내기 파일은 대개 날짜순이므로 직전 방문일을 재사용
+    private int cachedDateKey = -1;
+    private LocalDate cachedDate;
+
+    public PosVisitCsvReader(Path file, long startOffset, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = Math.max(1024, windowSize);
+        this.offset = Math.min(Math.max(0, startOffset), fileSize);
+    }
+
+    // 다음 방문 줄로 이동, 파일 끝이면 false
+    public boolean next() throws IOException {
+        while (offset < fileSize) {
+            long lineStart = offset;
+            int end = findLineEnd(positionInWindow(lineStart));
+            // 줄이 구간 끝에 걸려 다시 매핑했으면 줄 시작 인덱스가 바뀜
+            int start = (int) (lineStart - windowStart);
+            offset = windowStart + end + (windowStart + end < fileSize ? 1 : 0);
+
+            if (lineStart == 0) {
+                start = skipByteOrderMark(start, end);
+                // 첫 줄이 열 이름이면 건너뜀 (전화번호는 숫자나 +로 시작)
+                if (isHeader(start, end)) {
+                    continue;
+                }
+            }
+            if (end > start && window.get(end - 1) == '\r') {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+            if (parseLine(start, end)) {
+                return true;
+            }
+            skippedLines++;
+        }
+        return false;
+    }
+
+    public String phoneNumber() {
+        return phoneNumber;
+    }
+
+    public LocalDate visitDate() {
+        return visitDate;
+    }
+
+    public int amount() {
+        return amount;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public long fileSize() {
+        return fileSize;
+    }
+
+    // 형식이 맞지 않아 건너뛴 줄 수 (열 이름 줄과 빈 줄 제외)
+    public long skippedLines() {
+        return skippedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    // 파일 위치가 현재 매핑 구간 안에 있으면 그 인덱스, 아니면 그 위치부터 새로 매핑
+    private int positionInWindow(long position) throws IOException {
+        if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+            map(position);
+        }
+        return (int) (position - windowStart);
+    }
+
+    // 줄 끝('\n' 위치 또는 파일 끝) 인덱스, 줄이 매핑 구간 끝에 걸리면 줄 시작부터 다시 매핑
+    private int findLineEnd(int start) throws IOException {
+        int end = indexOfNewline(start);
+        if (end >= 0) {
+            return end;
+        }
+        if (windowStart + window.limit() >= fileSize) {
+            return window.limit();
+        }
+        if (start == 0) {
+            throw new IOException("한 줄이 매핑 구간(" + windowSize + " bytes)보다 깁니다 - offset: " + windowStart);
+        }
+
+        map(windowStart + start);
+        end = indexOfNewline(0);
+        if (end >= 0) {
+            return end;
+        }
+        if (windowStart + window.limit() >= fileSize) {
+            return window.limit();
+        }
+        throw new IOException("한 줄이 매핑 구간(" + windowSize + " bytes)보다 깁니다 - offset: " + windowStart);
+    }
+
+    private int indexOfNewline(int from) {
+        int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void map(long position) throws IOException {
+        long size = Math.min(windowSize, fileSize - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        windowStart = position;
+    }
+
+    private int skipByteOrderMark(int start, int end) {
+        if (end - start >= 3 && window.get(start) == (byte) 0xEF
+                && window.get(start + 1) == (byte) 0xBB && window.get(start + 2) == (byte) 0xBF) {
+            return start + 3;
+        }
+        return start;
+    }
+
+    // 줄 [start, end)를 전화번호/방문일/금액으로 해석, 형식이 맞지 않으면 false
+    private boolean parseLine(int start, int end) {
+        int phoneEnd = indexOfComma(start, end);
+        if (phoneEnd < 0) {
+            return false;
+        }
+        int dateEnd = indexOfComma(phoneEnd + 1, end);
+        if (dateEnd < 0) {
+            return false;
+        }
+        int amountEnd = indexOfComma(dateEnd + 1, end);
+        if (amountEnd < 0) {
+            amountEnd = end;
+        }
+
+        String phone = parsePhoneNumber(start, phoneEnd);
+        LocalDate date = parseDate(phoneEnd + 1, dateEnd);
+        int parsedAmount = parseAmount(dateEnd + 1, amountEnd);
+        if (phone == null || date == null || parsedAmount < 0) {
+            return false;
+        }
+
+        this.phoneNumber = phone;
+        this.visitDate = date;
+        this.amount = parsedAmount;
+        return true;
+    }
+
+    private int indexOfComma(int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String parsePhoneNumber(int start, int end) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        int length = end - start;
+        if (length == 0 || length > MAX_PHONE_NUMBER_LENGTH) {
+            return null;
+        }
+        window.get(start, phoneBuffer, 0, length);
+        return new String(phoneBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private LocalDate parseDate(int start, int end) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+
+        int year;
+        int month;
+        int day;
+        if (end - start == 10) {
+            byte separator = window.get(start + 4);
+            if ((separator != '-' && separator != '/' && separator != '.') || window.get(start + 7) != separator) {
+                return null;
+            }
+            year = parseDigits(start, start + 4);
+            month = parseDigits(start + 5, start + 7);
+            day = parseDigits(start + 8, start + 10);
+        } else if (end - start == 8) {
+            year = parseDigits(start, start + 4);
+            month = parseDigits(start + 4, start + 6);
+            day = parseDigits(start + 6, start + 8);
+        } else {
+            return null;
+        }
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+
+        int key = year * 10000 + month * 100 + day;
+        if (key != cachedDateKey) {
+            try {
+                cachedDate = LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                return null;
+            }
+            cachedDateKey = key;
+        }
+        return cachedDate;
+    }
+
+    // 0 이상의 정수 금액 (소수점 이하는 버림), 형식이 맞지 않으면 -1
+    private int parseAmount(int start, int end) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        if (start == end) {
+            return -1;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.') {
+                return fractionIsDigits(i + 1, end) ? (int) value : -1;
+            }
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) value;
+    }
+
+    private boolean fractionIsDigits(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseDigits(int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    // 앞뒤 공백과 감싼 큰따옴표 제외
+    private int trimStart(int start, int end) {
+        while (start < end && (window.get(start) == ' ' || window.get(start) == '"')) {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && (window.get(end - 1) == ' ' || window.get(end - 1) == '"')) {
+            end--;
+        }
+        return end;
+    }
+
+    private boolean isHeader(int start, int end) {
+        start = trimStart(start, end);
+        if (start == end) {
+            return false;
+        }
+        byte first = window.get(start);
+        return first != '+' && (first < '0' || first > '9');
+    }
+}
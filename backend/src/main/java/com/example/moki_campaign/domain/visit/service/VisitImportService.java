@@ -0,0 +1,395 @@
+package com.example.moki_campaign.domain.visit.service;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsAccumulator;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsJdbcRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.entity.VisitImport;
+import com.example.moki_campaign.domain.visit.entity.VisitImportStatus;
+import com.example.moki_campaign.domain.visit.repository.VisitImportRepository;
+import com.example.moki_campaign.domain.visit.repository.VisitIngestJdbcRepository;
+import com.example.moki_campaign.domain.visit.repository.VisitIngestRow;
+import com.example.moki_campaign.global.config.VisitIngestProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POS 방문 내보내기 파일 일괄 가져오기
+ * 업로드 본문을 파일로 저장한 뒤 visitImportExecutor에서 PosVisitCsvReader로 읽어 chunk-rows건씩 한 트랜잭션에 저장
+ * (처음 보는 전화번호만 매장/전화번호 인덱스로 조회하여 고객 등록, 방문은 구간 할당 id로 JDBC 배치 저장, 고객 통계는 고객별 변화량으로 반영)
+ * 청크마다 같은 트랜잭션에서 파일 위치를 기록하므로 실패하거나 중단되면 마지막으로 커밋된 위치부터 이어서 가져옴
+ * 방문마다 파일 해시와 줄 위치로 체크인 id를 만들어 키오스크 수집과 같은 중복 제외 저장을 사용
+ * (같은 파일을 다시 올리거나 진행 위치 기록 전에 중단되어 다시 가져와도 방문과 고객 통계가 두 번 반영되지 않음)
+ */
+@Service
+@Slf4j
+public class VisitImportService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    // 체크인 id에 넣을 파일 해시 길이 (SHA-256 16진수 앞부분, 체크인 id 최대 길이 안에 줄 위치까지 담음)
+    private static final int KEY_HASH_LENGTH = 32;
+
+    private final VisitImportRepository visitImportRepository;
+    private final VisitIngestJdbcRepository visitIngestJdbcRepository;
+    private final CustomerVisitStatsJdbcRepository customerVisitStatsJdbcRepository;
+    private final CustomerVisitCounterService customerVisitCounterService;
+    private final StoreRepository storeRepository;
+    private final VisitIngestProps.BulkImport props;
+    private final Executor visitImportExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter importedRows;
+    private final Timer chunkDuration;
+
+    public VisitImportService(VisitImportRepository visitImportRepository,
+                              VisitIngestJdbcRepository visitIngestJdbcRepository,
+                              CustomerVisitStatsJdbcRepository customerVisitStatsJdbcRepository,
+                              CustomerVisitCounterService customerVisitCounterService,
+                              StoreRepository storeRepository,
+                              VisitIngestProps visitIngestProps,
+                              @Qualifier("visitImportExecutor") Executor visitImportExecutor,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.visitImportRepository = visitImportRepository;
+        this.visitIngestJdbcRepository = visitIngestJdbcRepository;
+        this.customerVisitStatsJdbcRepository = customerVisitStatsJdbcRepository;
+        this.customerVisitCounterService = customerVisitCounterService;
+        this.storeRepository = storeRepository;
+        this.props = visitIngestProps.getBulkImport();
+        this.visitImportExecutor = visitImportExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.importedRows = Counter.builder("visit.import.rows")
+                .description("POS 파일에서 가져온 방문 수")
+                .register(meterRegistry);
+        this.chunkDuration = Timer.builder("visit.import.chunk.duration")
+                .description("가져오기 청크 하나를 읽고 저장하는 데 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    // 업로드 본문을 파일로 저장하고 가져오기 작업 등록 (max-file-size를 넘으면 저장을 멈추고 거절)
+    public VisitImport upload(Store store, InputStream body) {
+        Path directory = Path.of(props.getDirectory());
+        Path file = directory.resolve("store-" + store.getId() + "-" + UUID.randomUUID() + ".csv");
+        long maxFileSize = props.getMaxFileSize().toBytes();
+
+        MessageDigest digest = sha256();
+        long fileSize;
+        try {
+            Files.createDirectories(directory);
+            fileSize = copy(new DigestInputStream(body, digest), file, maxFileSize);
+        } catch (IOException e) {
+            log.error("매장({}) 방문 가져오기 파일 저장 실패", store.getName(), e);
+            deleteQuietly(file);
+            throw new BusinessException(ErrorCode.VISIT_IMPORT_UPLOAD_FAILED);
+        }
+        if (fileSize > maxFileSize) {
+            log.warn("매장({}) 방문 가져오기 파일이 최대 크기({} bytes)를 넘어 거절", store.getName(), maxFileSize);
+            deleteQuietly(file);
+            throw new BusinessException(ErrorCode.VISIT_IMPORT_TOO_LARGE);
+        }
+        if (fileSize == 0) {
+            deleteQuietly(file);
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE);
+        }
+
+        VisitImport visitImport = visitImportRepository.save(VisitImport.queued(store.getId(), file.toString(), fileSize,
+                HexFormat.of().formatHex(digest.digest())));
+        log.info("매장({}) 방문 가져오기({}) 등록 - {} bytes", store.getName(), visitImport.getId(), fileSize);
+
+        submit(visitImport.getId());
+        return visitImport;
+    }
+
+    // 본문을 파일로 복사하고 복사한 크기 반환 (maxBytes를 넘으면 나머지를 읽지 않고 maxBytes + 1 이상을 반환)
+    private long copy(InputStream body, Path file, long maxBytes) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long copied = 0;
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                copied += read;
+                if (copied > maxBytes) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return copied;
+    }
+
+    // 이전 버전에서 등록해 해시가 없는 작업은 파일을 한 번 읽어 계산
+    private String fileHashOf(VisitImport visitImport) throws IOException {
+        if (visitImport.getFileHash() != null) {
+            return visitImport.getFileHash();
+        }
+
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(Path.of(visitImport.getFilePath())), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 가져온 방문의 체크인 id: 파일 해시 + 줄이 끝나는 바이트 위치 (같은 파일의 같은 줄이면 항상 같은 값)
+    static String idempotencyKeyOf(String fileHash, long lineEndOffset) {
+        return "pos:" + fileHash.substring(0, KEY_HASH_LENGTH) + ":" + lineEndOffset;
+    }
+
+    // 종료된 인스턴스가 남긴 작업을 다시 대기 상태로 돌려 커밋된 위치부터 실행하고 다시 실행한 작업 수 반환
+    // 대기/실행 중인 작업은 청크마다 갱신되므로 stale-after 동안 진행이 없는 작업만 대상 (다른 인스턴스가 실행 중인 작업 제외)
+    public int recoverInterrupted() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(props.getStaleAfter());
+
+        int recovered = 0;
+        for (Long importId : visitImportRepository.findStaleIds(
+                VisitImportStatus.QUEUED, VisitImportStatus.RUNNING, staleBefore)) {
+            // 조회 이후 실패로 끝난 작업은 requeue 조건에 맞아도 다시 실행하지 않음 (점주의 재개 요청으로만 실행)
+            if (visitImportRepository.requeueStale(importId, VisitImportStatus.QUEUED, VisitImportStatus.RUNNING,
+                    staleBefore, now) == 1) {
+                log.warn("중단된 방문 가져오기({})를 커밋된 위치부터 다시 실행", importId);
+                submit(importId);
+                recovered++;
+            }
+        }
+        return recovered;
+    }
+
+    // 이 매장의 작업만 조회 가능
+    public VisitImport findImport(Store store, Long importId) {
+        return visitImportRepository.findByIdAndStoreId(importId, store.getId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.VISIT_IMPORT_NOT_FOUND));
+    }
+
+    // 실패했거나 stale-after 동안 진행이 없는 작업을 커밋된 위치부터 다시 실행
+    public VisitImport resume(Store store, Long importId) {
+        findImport(store, importId);
+
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = visitImportRepository.requeue(importId, VisitImportStatus.QUEUED, VisitImportStatus.FAILED,
+                VisitImportStatus.RUNNING, now.minus(props.getStaleAfter()), now);
+        if (requeued == 0) {
+            throw new BusinessException(ErrorCode.VISIT_IMPORT_NOT_RESUMABLE);
+        }
+
+        submit(importId);
+        return findImport(store, importId);
+    }
+
+    private void submit(Long importId) {
+        visitImportExecutor.execute(() -> run(importId));
+    }
+
+    // 가져오기 실행 (대기 중인 작업만 실행 상태로 선점)
+    void run(Long importId) {
+        if (visitImportRepository.claim(importId, VisitImportStatus.QUEUED, VisitImportStatus.RUNNING,
+                LocalDateTime.now()) == 0) {
+            log.info("방문 가져오기({})는 이미 실행 중이거나 끝난 작업이라 건너뜀", importId);
+            return;
+        }
+        VisitImport visitImport = visitImportRepository.findById(importId).orElseThrow();
+
+        try {
+            if (!importFile(visitImport)) {
+                log.warn("방문 가져오기({}) 중단 - 재개 요청 시 커밋된 위치부터 이어서 가져옴", importId);
+                return;
+            }
+        } catch (ImportTakenOverException e) {
+            log.warn("방문 가져오기({})를 다른 실행이 이어받아 이 실행은 멈춤", importId);
+            return;
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("방문 가져오기({}) 중단 - 재개 요청 시 커밋된 위치부터 이어서 가져옴", importId);
+                return;
+            }
+            log.error("방문 가져오기({}) 실패", importId, e);
+            String error = e.getMessage() != null && e.getMessage().length() > VisitImport.MAX_ERROR_LENGTH
+                    ? e.getMessage().substring(0, VisitImport.MAX_ERROR_LENGTH) : e.getMessage();
+            visitImportRepository.finish(importId, VisitImportStatus.RUNNING, VisitImportStatus.FAILED,
+                    error, null, LocalDateTime.now());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        visitImportRepository.finish(importId, VisitImportStatus.RUNNING, VisitImportStatus.COMPLETED, null, now, now);
+        deleteQuietly(Path.of(visitImport.getFilePath()));
+
+        // 최근 8주 방문이 포함될 수 있으므로 주간 방문 카운터를 daily_visit 기준으로 다시 맞춤
+        try {
+            storeRepository.findById(visitImport.getStoreId()).ifPresent(customerVisitCounterService::rebuild);
+        } catch (RuntimeException e) {
+            log.warn("방문 가져오기({}) 후 주간 방문 카운터 재구성 실패 - 카운터 재구성 API로 다시 실행 필요", importId, e);
+        }
+    }
+
+    // 커밋된 위치부터 chunk-rows건씩 읽어 저장, 파일 끝까지 저장했으면 true (종료로 인터럽트되면 false)
+    private boolean importFile(VisitImport visitImport) throws IOException {
+        Long importId = visitImport.getId();
+        Long storeId = visitImport.getStoreId();
+        String fileHash = fileHashOf(visitImport);
+        int chunkRows = Math.max(1, props.getChunkRows());
+        int mapWindow = (int) Math.min(Integer.MAX_VALUE, props.getMapWindow().toBytes());
+
+        // 전화번호 → 고객 id (커밋된 청크에서 확인한 고객만 보관)
+        Map<String, Long> customerIds = new HashMap<>();
+        long offset = visitImport.getCommittedOffset();
+        long startedAt = System.nanoTime();
+        long rowsThisRun = 0;
+
+        try (PosVisitCsvReader reader = new PosVisitCsvReader(Path.of(visitImport.getFilePath()), offset, mapWindow)) {
+            List<PosVisit> chunk = new ArrayList<>(chunkRows);
+            long skippedBefore = 0;
+
+            while (offset < reader.fileSize()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                long chunkStartedAt = System.nanoTime();
+
+                chunk.clear();
+                while (chunk.size() < chunkRows && reader.next()) {
+                    chunk.add(new PosVisit(reader.phoneNumber(), reader.visitDate(), reader.amount(),
+                            idempotencyKeyOf(fileHash, reader.offset())));
+                }
+                long skipped = reader.skippedLines() - skippedBefore;
+                skippedBefore = reader.skippedLines();
+
+                long fromOffset = offset;
+                long toOffset = reader.offset();
+                long rowsBefore = rowsThisRun;
+                ChunkResult result = transactionTemplate.execute(status -> writeChunk(importId, storeId, chunk,
+                        fromOffset, toOffset, skipped, rowsBefore, startedAt, customerIds));
+
+                offset = toOffset;
+                rowsThisRun += result.inserted();
+                customerIds.putAll(result.resolvedCustomerIds());
+                if (customerIds.size() > props.getCustomerCacheSize()) {
+                    customerIds.clear();
+                }
+
+                importedRows.increment(result.inserted());
+                chunkDuration.record(System.nanoTime() - chunkStartedAt, TimeUnit.NANOSECONDS);
+                log.info("방문 가져오기({}) 진행 - {} / {} bytes, 저장: {}건 (신규 고객 {}명), 중복: {}건, 건너뜀: {}줄, 초당 {}건",
+                        importId, offset, reader.fileSize(), rowsThisRun, result.newCustomers(),
+                        chunk.size() - result.inserted(), skipped, result.rowsPerSecond());
+            }
+        }
+
+        log.info("방문 가져오기({}) 완료 - 이번 실행 저장: {}건, 소요: {}초", importId, rowsThisRun,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt));
+        return true;
+    }
+
+    // 청크 하나를 저장하고 진행 위치 기록 (한 트랜잭션)
+    private ChunkResult writeChunk(Long importId, Long storeId, List<PosVisit> chunk,
+                                   long fromOffset, long toOffset, long skipped,
+                                   long rowsBefore, long startedAt, Map<String, Long> customerIds) {
+        // 1. 이번 실행에서 처음 보는 전화번호만 매장/전화번호 인덱스로 조회, 없으면 고객으로 등록
+        Map<String, LocalDate> firstVisitDateByPhone = new HashMap<>();
+        for (PosVisit visit : chunk) {
+            if (!customerIds.containsKey(visit.phoneNumber())) {
+                firstVisitDateByPhone.merge(visit.phoneNumber(), visit.visitDate(), (a, b) -> a.isBefore(b) ? a : b);
+            }
+        }
+
+        Map<String, Long> resolved = firstVisitDateByPhone.isEmpty() ? new HashMap<>()
+                : visitIngestJdbcRepository.findCustomerIds(storeId, new ArrayList<>(firstVisitDateByPhone.keySet()));
+        Map<String, LocalDate> newPhones = new HashMap<>();
+        firstVisitDateByPhone.forEach((phone, date) -> {
+            if (!resolved.containsKey(phone)) {
+                newPhones.put(phone, date);
+            }
+        });
+        resolved.putAll(visitIngestJdbcRepository.registerCustomers(storeId, newPhones));
+
+        // 2. 방문 저장 (이미 저장된 줄은 체크인 id로 건너뜀), 새로 저장한 방문만 고객별 변화량으로 고객 통계에 반영
+        List<VisitIngestRow> rows = new ArrayList<>(chunk.size());
+        for (PosVisit visit : chunk) {
+            Long customerId = customerIds.get(visit.phoneNumber());
+            if (customerId == null) {
+                customerId = resolved.get(visit.phoneNumber());
+            }
+            rows.add(new VisitIngestRow(customerId, visit.visitDate(), visit.amount(), visit.idempotencyKey()));
+        }
+        long ingestBatchId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        List<VisitIngestRow> inserted = rows.isEmpty() ? List.of()
+                : visitIngestJdbcRepository.insertVisits(storeId, ingestBatchId, rows, props.getJdbcBatchSize());
+
+        CustomerVisitStatsAccumulator visitStats = new CustomerVisitStatsAccumulator(resolved.size() + 16);
+        for (VisitIngestRow visit : inserted) {
+            visitStats.add(visit.customerId(), visit.amount(), visit.visitDate());
+        }
+        customerVisitStatsJdbcRepository.addVisitStats(visitStats);
+
+        // 3. 진행 위치 기록 (다른 실행이 이미 이 청크를 커밋했으면 롤백)
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedAt);
+        long rowsPerSecond = (rowsBefore + inserted.size()) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        int recorded = visitImportRepository.recordChunk(importId, fromOffset, toOffset, inserted.size(), skipped,
+                newPhones.size(), rowsPerSecond, LocalDateTime.now());
+        if (recorded == 0) {
+            throw new ImportTakenOverException();
+        }
+
+        return new ChunkResult(resolved, inserted.size(), newPhones.size(), rowsPerSecond);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("방문 가져오기 파일 {} 삭제 실패", file, e);
+        }
+    }
+
+    private record PosVisit(String phoneNumber, LocalDate visitDate, int amount, String idempotencyKey) {
+    }
+
+    private record ChunkResult(Map<String, Long> resolvedCustomerIds, int inserted, int newCustomers,
+                               long rowsPerSecond) {
+    }
+
+    // 같은 작업의 다른 실행이 진행 위치를 먼저 옮김
+    private static final class ImportTakenOverException extends RuntimeException {
+        private ImportTakenOverException() {
+            super(null, null, false, false);
+        }
+    }
+}
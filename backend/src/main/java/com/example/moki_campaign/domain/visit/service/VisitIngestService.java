@@ -0,0 +1,130 @@
+package com.example.moki_campaign.domain.visit.service;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsAccumulator;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsJdbcRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.dto.request.VisitCheckInRequestDto;
+import com.example.moki_campaign.domain.visit.dto.response.VisitBatchResponseDto;
+import com.example.moki_campaign.domain.visit.entity.DailyVisit;
+import com.example.moki_campaign.domain.visit.repository.VisitIngestJdbcRepository;
+import com.example.moki_campaign.domain.visit.repository.VisitIngestRow;
+import com.example.moki_campaign.global.config.VisitIngestProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 키오스크 체크인 일괄 수집
+ * 체크인 id를 (매장, 체크인 id) 유니크 키로 저장하여 같은 요청을 다시 보내도 방문과 고객 통계가 한 번만 반영됨
+ * 고객/방문 저장과 통계 갱신은 JDBC 배치로 보내고, 새로 저장된 방문만 고객 통계와 주간 카운터에 더함
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VisitIngestService {
+
+    private final VisitIngestJdbcRepository visitIngestJdbcRepository;
+    private final CustomerRepository customerRepository;
+    private final StoreRepository storeRepository;
+    private final CustomerVisitStatsJdbcRepository customerVisitStatsJdbcRepository;
+    private final CustomerVisitCounterService customerVisitCounterService;
+    private final VisitIngestProps visitIngestProps;
+
+    // 체크인 목록을 매장 방문으로 저장 (요청 하나가 하나의 트랜잭션)
+    @Transactional
+    public VisitBatchResponseDto ingest(Store store, List<VisitCheckInRequestDto> checkIns) {
+        if (checkIns.size() > visitIngestProps.getMaxBatchSize()) {
+            throw new BusinessException(ErrorCode.VISIT_BATCH_TOO_LARGE);
+        }
+
+        // 요청 안에서 같은 체크인 id가 반복되면 첫 번째만 사용
+        Map<String, VisitCheckInRequestDto> checkInsByKey = new LinkedHashMap<>(checkIns.size() * 2);
+        for (VisitCheckInRequestDto checkIn : checkIns) {
+            checkInsByKey.putIfAbsent(checkIn.idempotencyKey(), checkIn);
+        }
+
+        // 1. 전화번호로 고객 확인, 처음 보는 번호는 고객으로 등록
+        Map<String, LocalDate> firstVisitDateByPhone = new HashMap<>();
+        for (VisitCheckInRequestDto checkIn : checkInsByKey.values()) {
+            firstVisitDateByPhone.merge(checkIn.phoneNumber().trim(), checkIn.visitDate(),
+                    (a, b) -> a.isBefore(b) ? a : b);
+        }
+
+        List<String> phoneNumbers = new ArrayList<>(firstVisitDateByPhone.keySet());
+        Map<String, Long> customerIds = visitIngestJdbcRepository.findCustomerIds(store.getId(), phoneNumbers);
+
+        Map<String, LocalDate> newPhones = new HashMap<>();
+        firstVisitDateByPhone.forEach((phone, date) -> {
+            if (!customerIds.containsKey(phone)) {
+                newPhones.put(phone, date);
+            }
+        });
+        customerIds.putAll(visitIngestJdbcRepository.registerCustomers(store.getId(), newPhones));
+
+        // 2. 방문 저장 (이미 저장된 체크인 id는 DB가 건너뜀)
+        long ingestBatchId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        List<VisitIngestRow> rows = new ArrayList<>(checkInsByKey.size());
+        for (VisitCheckInRequestDto checkIn : checkInsByKey.values()) {
+            rows.add(new VisitIngestRow(customerIds.get(checkIn.phoneNumber().trim()), checkIn.visitDate(),
+                    checkIn.amount(), checkIn.idempotencyKey()));
+        }
+        List<VisitIngestRow> inserted = visitIngestJdbcRepository.insertVisits(store.getId(), ingestBatchId, rows);
+
+        // 3. 이번 요청이 새로 저장한 방문만 고객 통계와 주간 카운터에 반영
+
+        if (!inserted.isEmpty()) {
+            customerVisitStatsJdbcRepository.addVisitStats(aggregateByCustomer(inserted));
+            customerVisitCounterService.recordVisits(toDailyVisits(store, inserted));
+        }
+
+        int duplicateCount = checkIns.size() - inserted.size();
+        log.info("매장({}) 방문 수집 - 요청: {}건, 저장: {}건, 중복: {}건, 신규 고객: {}명",
+                store.getName(), checkIns.size(), inserted.size(), duplicateCount, newPhones.size());
+
+        return new VisitBatchResponseDto(checkIns.size(), inserted.size(), duplicateCount, newPhones.size());
+    }
+
+    // 쓰기 지연 버퍼가 모은 체크인 저장 (요청 스레드 밖에서 호출되므로 매장은 id로 조회)
+    @Transactional
+    public VisitBatchResponseDto ingest(Long storeId, List<VisitCheckInRequestDto> checkIns) {
+        Store store = storeRepository.findById(storeId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.STORE_NOT_FOUND));
+        return ingest(store, checkIns);
+    }
+
+    // 고객별 방문 수/금액 합계와 가장 늦은 방문일
+    private CustomerVisitStatsAccumulator aggregateByCustomer(List<VisitIngestRow> visits) {
+        CustomerVisitStatsAccumulator accumulator = new CustomerVisitStatsAccumulator(visits.size());
+        for (VisitIngestRow visit : visits) {
+            accumulator.add(visit.customerId(), visit.amount(), visit.visitDate());
+        }
+        return accumulator;
+    }
+
+    // 주간 카운터 반영용 방문 (고객은 id만 가진 참조로 전달하여 조회하지 않음)
+    private List<DailyVisit> toDailyVisits(Store store, List<VisitIngestRow> visits) {
+        List<DailyVisit> dailyVisits = new ArrayList<>(visits.size());
+        for (VisitIngestRow visit : visits) {
+            dailyVisits.add(DailyVisit.builder()
+                    .store(store)
+                    .customer(customerRepository.getReferenceById(visit.customerId()))
+                    .visitDate(visit.visitDate())
+                    .amount(visit.amount())
+                    .build());
+        }
+        return dailyVisits;
+    }
+}
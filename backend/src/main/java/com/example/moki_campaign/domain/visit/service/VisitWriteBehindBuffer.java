@@ -0,0 +1,390 @@
+package com.example.moki_campaign.domain.visit.service;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.dto.request.VisitCheckInRequestDto;
+import com.example.moki_campaign.global.config.VisitIngestProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import com.example.moki_campaign.global.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 단건 키오스크 체크인 쓰기 지연 버퍼
+ * 요청 스레드는 락 없는 링 버퍼에 체크인을 넣고 바로 응답하며, 쓰기 스레드 하나가 flush-size건 또는 flush-interval마다 꺼내
+ * 매장별로 VisitIngestService에 묶어서 저장 (같은 고객의 체크인은 고객 조회와 통계 UPDATE 1건으로 합쳐짐)
+ * 버퍼가 가득 차면 offer-timeout 동안 기다린 뒤 거절하여 메모리 사용량을 capacity건으로 제한
+ * 저장이 실패하면 지수 백오프로 재시도하고, 그래도 저장하지 못한 체크인은 spill-file에 남겨
+ * 시작 시와 실행 중 spill-replay-interval마다 다시 저장 (체크인 id로 중복 저장되지 않음)
+ * 저장할 수 없는 체크인(BusinessException)이 섞인 묶음은 나누어 다시 저장하여 해당 체크인만 버림
+ */
+@Component
+@Slf4j
+public class VisitWriteBehindBuffer implements SmartLifecycle {
+
+    // 웹 서버보다 먼저 시작하고, 웹 서버가 요청 수신을 멈춘 뒤에 종료
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    // 버퍼가 가득 찼을 때 빈 자리를 다시 확인하는 간격
+    private static final long OFFER_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final VisitIngestService visitIngestService;
+    private final VisitIngestProps.WriteBehind props;
+    private final MpscRingBuffer<BufferedCheckIn> ring;
+    private final int flushSize;
+    private final Path spillFile;
+    private final RetryTemplate flushRetryTemplate;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    // 종료 대기 시간을 넘기면 DB 저장을 멈추고 남은 체크인을 모두 spill 파일에 남김
+    private volatile boolean spillRemaining;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter persisted;
+    private final Counter spilled;
+    private final Counter dropped;
+    private final DistributionSummary flushBatchSize;
+    private final Timer flushDuration;
+    private final Timer latency;
+
+    public VisitWriteBehindBuffer(VisitIngestService visitIngestService,
+                                  VisitIngestProps visitIngestProps,
+                                  MeterRegistry meterRegistry) {
+        this.visitIngestService = visitIngestService;
+        this.props = visitIngestProps.getWriteBehind();
+        this.ring = new MpscRingBuffer<>(props.isEnabled() ? props.getCapacity() : 2);
+        this.flushSize = Math.max(1, Math.min(props.getFlushSize(),
+                Math.min(ring.capacity(), visitIngestProps.getMaxBatchSize())));
+        this.spillFile = Path.of(props.getSpillFile());
+        this.flushRetryTemplate = createFlushRetryTemplate(props);
+
+        Gauge.builder("visit.buffer.pending", ring, MpscRingBuffer::size)
+                .description("저장을 기다리는 체크인 수")
+                .register(meterRegistry);
+        this.accepted = Counter.builder("visit.buffer.accepted")
+                .description("버퍼에 담은 체크인 수")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("visit.buffer.rejected")
+                .description("버퍼가 가득 차 거절한 체크인 수")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("visit.buffer.persisted")
+                .description("DB에 저장한 체크인 수 (중복 체크인 포함)")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("visit.buffer.spilled")
+                .description("저장하지 못해 spill 파일에 남긴 체크인 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("visit.buffer.dropped")
+                .description("다시 시도해도 저장할 수 없어 버린 체크인 수 (삭제된 매장 등)")
+                .register(meterRegistry);
+        this.flushBatchSize = DistributionSummary.builder("visit.buffer.flush.size")
+                .description("한 번에 저장한 체크인 수")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("visit.buffer.flush.duration")
+                .description("버퍼 내용을 저장하는 데 걸린 시간")
+                .register(meterRegistry);
+        this.latency = Timer.builder("visit.buffer.latency")
+                .description("체크인을 버퍼에 담은 뒤 DB에 저장되기까지 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    // 저장할 수 없는 요청(BusinessException: 삭제된 매장 등)은 재시도하지 않음
+    private static RetryTemplate createFlushRetryTemplate(VisitIngestProps.WriteBehind props) {
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(props.getFlushRetryInitialInterval().toMillis());
+        backOffPolicy.setMultiplier(2.0);
+        backOffPolicy.setMaxInterval(props.getFlushRetryMaxInterval().toMillis());
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(Math.max(1, props.getFlushMaxAttempts()),
+                Map.of(BusinessException.class, false), true, true));
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        return retryTemplate;
+    }
+
+    // 체크인 등록, 버퍼에 담았으면 true (버퍼를 쓰지 않으면 바로 저장하고 false)
+    public boolean submit(Store store, VisitCheckInRequestDto checkIn) {
+        if (!props.isEnabled()) {
+            visitIngestService.ingest(store, List.of(checkIn));
+            return false;
+        }
+
+        BufferedCheckIn buffered = new BufferedCheckIn(store.getId(), checkIn, System.nanoTime());
+        long deadline = buffered.enqueuedAt() + props.getOfferTimeout().toNanos();
+        while (!running || !ring.offer(buffered)) {
+            if (!running || System.nanoTime() - deadline >= 0) {
+                rejected.increment();
+                throw new BusinessException(ErrorCode.VISIT_BUFFER_FULL);
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, OFFER_RETRY_NANOS);
+        }
+        accepted.increment();
+
+        if (ring.size() >= flushSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        replaySpilled();
+
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "VisitWriteBehind");
+        writer = thread;
+        thread.start();
+        log.info("방문 쓰기 지연 버퍼 시작 - capacity: {}, flushSize: {}, flushInterval: {}",
+                ring.capacity(), flushSize, props.getFlushInterval());
+    }
+
+    // 남은 체크인을 저장할 때까지 shutdown-timeout 동안 기다리고, 넘기면 저장을 멈추고 spill 파일에 남길 때까지 한 번 더 기다림
+    // 쓰기 스레드가 끝난 뒤에 반환하므로 DataSource 등 다른 빈이 먼저 종료되어도 체크인을 잃지 않음
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(props.getShutdownTimeout().toMillis());
+            if (thread.isAlive()) {
+                log.warn("방문 쓰기 지연 버퍼 종료 대기 시간 초과 - 남은 체크인 {}건을 spill 파일에 남김", ring.size());
+                spillRemaining = true;
+                // 재시도 백오프 대기 중이면 바로 깨움
+                thread.interrupt();
+                thread.join(props.getShutdownTimeout().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            log.error("방문 쓰기 지연 버퍼가 종료되지 않음 - 남은 체크인: {}건", ring.size());
+            return;
+        }
+        log.info("방문 쓰기 지연 버퍼 종료");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return props.isEnabled();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // 쓰기 스레드: flush-size건이 모이거나 가장 오래된 체크인이 flush-interval을 넘기면 저장
+    // 버퍼에 쌓인 체크인이 없을 때 spill-replay-interval마다 spill 파일을 다시 저장 (spill 파일은 이 스레드만 씀)
+    // 종료 요청 후에는 버퍼를 모두 비울 때까지 저장
+    private void writeLoop() {
+        long flushIntervalNanos = props.getFlushInterval().toNanos();
+        long replayIntervalNanos = props.getSpillReplayInterval().toNanos();
+        long nextReplayAt = System.nanoTime() + replayIntervalNanos;
+        List<BufferedCheckIn> batch = new ArrayList<>(flushSize);
+
+        while (running || !ring.isEmpty()) {
+            if (running && batch.isEmpty() && System.nanoTime() - nextReplayAt >= 0) {
+                replaySpilled();
+                nextReplayAt = System.nanoTime() + replayIntervalNanos;
+            }
+
+            int drained = ring.drain(batch::add, flushSize - batch.size());
+
+            if (!batch.isEmpty() && (batch.size() >= flushSize || !running
+                    || System.nanoTime() - batch.get(0).enqueuedAt() >= flushIntervalNanos)) {
+                flush(batch);
+                batch.clear();
+                continue;
+            }
+
+            if (drained == 0) {
+                long waitNanos = !running ? OFFER_RETRY_NANOS
+                        : batch.isEmpty() ? flushIntervalNanos
+                        : flushIntervalNanos - (System.nanoTime() - batch.get(0).enqueuedAt());
+                LockSupport.parkNanos(this, Math.max(waitNanos, OFFER_RETRY_NANOS));
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    // 매장별로 한 트랜잭션에 저장하고 실패하면 재시도, 끝내 실패한 매장의 체크인은 spill 파일에 남김
+    // spill 파일에 남긴 체크인이 없으면 true
+    private boolean flush(List<BufferedCheckIn> batch) {
+        long startedAt = System.nanoTime();
+
+        Map<Long, List<BufferedCheckIn>> checkInsByStore = new LinkedHashMap<>();
+        for (BufferedCheckIn buffered : batch) {
+            checkInsByStore.computeIfAbsent(buffered.storeId(), id -> new ArrayList<>()).add(buffered);
+        }
+
+        List<BufferedCheckIn> failed = new ArrayList<>();
+        checkInsByStore.forEach((storeId, buffered) -> persist(storeId, buffered, failed));
+
+        if (!failed.isEmpty()) {
+            spill(failed);
+        }
+        flushBatchSize.record(batch.size());
+        flushDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return failed.isEmpty();
+    }
+
+    // 매장 하나의 체크인을 한 트랜잭션에 저장, 끝내 실패하면 failed에 추가
+    // BusinessException은 묶음 전체가 롤백되므로 반으로 나누어 다시 저장하여 저장할 수 없는 체크인만 버림
+    // (매장이 삭제된 경우는 모든 체크인이 저장할 수 없으므로 나누지 않고 버림)
+    private void persist(Long storeId, List<BufferedCheckIn> buffered, List<BufferedCheckIn> failed) {
+        if (spillRemaining) {
+            failed.addAll(buffered);
+            return;
+        }
+
+        List<VisitCheckInRequestDto> checkIns = buffered.stream().map(BufferedCheckIn::checkIn).toList();
+        try {
+            flushRetryTemplate.execute(context -> {
+                if (context.getRetryCount() > 0) {
+                    log.warn("매장({}) 체크인 {}건 저장 재시도 {}회차 - 이전 실패: {}", storeId, buffered.size(),
+                            context.getRetryCount(), context.getLastThrowable().getMessage());
+                }
+                return visitIngestService.ingest(storeId, checkIns);
+            });
+
+            long persistedAt = System.nanoTime();
+            for (BufferedCheckIn checkIn : buffered) {
+                latency.record(persistedAt - checkIn.enqueuedAt(), TimeUnit.NANOSECONDS);
+            }
+            persisted.increment(buffered.size());
+        } catch (BusinessException e) {
+            if (buffered.size() > 1 && e.getErrorCode() != ErrorCode.STORE_NOT_FOUND) {
+                int half = buffered.size() / 2;
+                persist(storeId, buffered.subList(0, half), failed);
+                persist(storeId, buffered.subList(half, buffered.size()), failed);
+                return;
+            }
+            log.warn("매장({}) 체크인 {}건 저장 불가로 버림 - {}", storeId, buffered.size(), e.getMessage());
+            dropped.increment(buffered.size());
+        } catch (RuntimeException e) {
+            log.error("매장({}) 체크인 {}건 저장 실패", storeId, buffered.size(), e);
+            failed.addAll(buffered);
+        }
+    }
+
+    // 저장하지 못한 체크인을 spill 파일 끝에 추가하고 디스크에 동기화
+    // 한 줄에 체크인 하나: 매장 id, 체크인 id, 전화번호, 방문일, 금액 (탭 구분, 문자열은 URL 인코딩)
+    private void spill(List<BufferedCheckIn> checkIns) {
+        try {
+            Path directory = spillFile.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (FileOutputStream out = new FileOutputStream(spillFile.toFile(), true);
+                 Writer spillWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                for (BufferedCheckIn buffered : checkIns) {
+                    VisitCheckInRequestDto checkIn = buffered.checkIn();
+                    spillWriter.write(buffered.storeId() + "\t"
+                            + URLEncoder.encode(checkIn.idempotencyKey(), StandardCharsets.UTF_8) + "\t"
+                            + URLEncoder.encode(checkIn.phoneNumber(), StandardCharsets.UTF_8) + "\t"
+                            + checkIn.visitDate() + "\t"
+                            + checkIn.amount() + "\n");
+                }
+                spillWriter.flush();
+                out.getFD().sync();
+            }
+            spilled.increment(checkIns.size());
+            log.warn("체크인 {}건을 {}에 기록 (spill-replay-interval 후 다시 저장)", checkIns.size(), spillFile);
+        } catch (IOException e) {
+            log.error("체크인 {}건을 {}에 기록하지 못해 유실", checkIns.size(), spillFile, e);
+        }
+    }
+
+    // spill 파일에 남긴 체크인을 다시 저장 (다시 실패한 체크인은 새 spill 파일에 남김)
+    // 파일을 먼저 옮겨 두므로 다시 저장하는 도중 중단되면 다음 시작 시 옮겨 둔 파일부터 이어서 처리
+    private void replaySpilled() {
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        try {
+            if (Files.exists(replaying)) {
+                replay(replaying);
+            }
+            if (Files.exists(spillFile)) {
+                Files.move(spillFile, replaying);
+                replay(replaying);
+            }
+        } catch (IOException e) {
+            log.error("spill 파일 {} 처리 실패", spillFile, e);
+        }
+    }
+
+    private void replay(Path file) throws IOException {
+        List<BufferedCheckIn> checkIns = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long now = System.nanoTime();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                try {
+                    checkIns.add(new BufferedCheckIn(Long.parseLong(fields[0]), new VisitCheckInRequestDto(
+                            URLDecoder.decode(fields[1], StandardCharsets.UTF_8),
+                            URLDecoder.decode(fields[2], StandardCharsets.UTF_8),
+                            LocalDate.parse(fields[3]),
+                            Integer.parseInt(fields[4])), now));
+                } catch (RuntimeException e) {
+                    // 기록 도중 종료되어 잘린 마지막 줄 등
+                    log.warn("spill 파일의 잘못된 줄 건너뜀: {}", line);
+                }
+            }
+        }
+
+        // 한 묶음이라도 저장하지 못하면 DB가 아직 복구되지 않은 것으로 보고 나머지는 시도하지 않고 다시 남김
+        log.info("spill 파일의 체크인 {}건 다시 저장", checkIns.size());
+        for (int from = 0; from < checkIns.size(); from += flushSize) {
+            int to = Math.min(from + flushSize, checkIns.size());
+            if (!flush(checkIns.subList(from, to))) {
+                if (to < checkIns.size()) {
+                    spill(checkIns.subList(to, checkIns.size()));
+                }
+                break;
+            }
+        }
+        Files.delete(file);
+    }
+
+    private record BufferedCheckIn(Long storeId, VisitCheckInRequestDto checkIn, long enqueuedAt) {
+    }
+}
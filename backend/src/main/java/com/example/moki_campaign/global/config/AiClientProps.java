@@ -0,0 +1,81 @@
+package com.example.moki_campaign.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ai.client")
+public class AiClientProps {
+
+    // AI 서버 요청/응답 본문 형식
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    // 요청 본문 gzip 압축 및 압축 응답 수신 여부
+    private boolean gzip = false;
+
+    // 동시에 진행할 수 있는 AI 서버 호출 수 (초과 호출은 대기)
+    private int maxConcurrentCalls = 8;
+
+    // 호출 한 건의 기한 (허가 대기 + 요청 전송 + 응답 수신)
+    private Duration callTimeout = Duration.ofMinutes(5);
+
+    // AI 서버 연결 수립 기한
+    private Duration connectTimeout = Duration.ofSeconds(20);
+
+    // 동시 호출 수가 가득 찼을 때 허가를 기다리는 최대 시간 (넘으면 AI_SERVER_UNAVAILABLE)
+    private Duration bulkheadMaxWait = Duration.ofMinutes(1);
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout();
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        // 실패율 계산에 사용할 최근 호출 수
+        private int slidingWindowSize = 20;
+
+        // 실패율을 평가하기 위한 최소 호출 수
+        private int minimumCalls = 5;
+
+        // OPEN으로 전환하는 실패율 (0~1)
+        private double failureRateThreshold = 0.5;
+
+        // OPEN 상태 유지 시간 (이후 HALF_OPEN에서 시험 호출)
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        // HALF_OPEN 상태에서 허용하는 시험 호출 수 (모두 성공하면 CLOSED)
+        private int halfOpenTrials = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class AdaptiveTimeout {
+
+        // false이면 응답 대기 기한으로 항상 call-timeout 사용
+        private boolean enabled = false;
+
+        // 관측된 응답 시간으로 계산한 기한의 하한
+        private Duration minTimeout = Duration.ofSeconds(30);
+
+        // 고객 수 구간별 기한을 적용하기 전에 필요한 최소 관측 수
+        private int minimumSamples = 5;
+
+        // (평균 + 4 × 편차)에 곱하는 여유 배수
+        private double headroom = 2.0;
+    }
+
+    public enum WireFormat {
+        // 고객마다 필드명을 포함하는 JSON 객체 배열 (application/json)
+        JSON,
+        // 필드명을 columns 헤더에 한 번만 싣고 고객별 값만 배열로 전송 (application/vnd.moki.compact+json)
+        COMPACT
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.moki_campaign.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "analysis")
+public class AnalysisProps {
+
+    // 동시에 분석할 매장 수 (1이면 순차 실행)
+    private int parallelism = 4;
+
+    // 한 번의 AI 요청에 담을 고객 수 (0 이하이면 매장 전체를 한 번에 요청)
+    private int chunkSize = 0;
+
+    // 고객 데이터를 DB 커서로 읽으면서 AI 요청 본문으로 바로 전송 (chunkSize보다 우선)
+    private boolean streaming = false;
+
+    // 매장 전체를 한 번에 요청하는 방식에서 AI 서버 응답을 기다리는 동안 워커 스레드를 점유하지 않음
+    private boolean nonBlocking = false;
+
+    // 주간 방문 횟수 집계 방식
+    private FeatureSource featureSource = FeatureSource.AGGREGATE;
+
+    // 고객 점수 계산 방식
+    private Scorer scorer = Scorer.REMOTE;
+
+    // 프로세스 시작 시 이번 주 분석 실행이 중단된 상태로 남아 있으면 이어서 분석
+    private boolean resumeOnStartup = true;
+
+    // 청크 단위 AI 호출 재시도
+    private Retry retry = new Retry();
+
+    // 특성이 바뀐 고객만 AI 서버로 전송하는 델타 분석
+    private Delta delta = new Delta();
+
+    // 여러 인스턴스가 매장 단위 임대(lease)를 선점해 주간 분석을 나누어 실행
+    private Shard shard = new Shard();
+
+    // 매장별 방문량/변화량으로 분석 주기와 우선순위를 정하는 적응형 스케줄링
+    private Adaptive adaptive = new Adaptive();
+
+    // 점주 요청으로 매장 하나를 바로 분석하는 작업 큐
+    private OnDemand onDemand = new OnDemand();
+
+    // 청크 분석을 단계별 워커와 크기가 제한된 큐로 연결한 파이프라인으로 실행
+    private Pipeline pipeline = new Pipeline();
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        // 청크 하나당 최대 시도 횟수 (1이면 재시도하지 않음)
+        private int maxAttempts = 3;
+
+        // 첫 재시도 전 대기 시간, 이후 multiplier 배씩 늘어나며 maxInterval을 넘지 않음 (지터 포함)
+        private Duration initialInterval = Duration.ofSeconds(1);
+
+        private double multiplier = 2.0;
+
+        private Duration maxInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Delta {
+
+        // true이면 지난 분석 이후 특성이 바뀐 고객만 전송하고 나머지는 기존 segment/점수 유지
+        private boolean enabled = false;
+
+        // 매장마다 이 주기(주)에 한 번은 전체 고객을 전송 (매장 id로 주차를 분산, 1 이하이면 매주 전체 전송)
+        private int fullRefreshWeeks = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        // true이면 모든 인스턴스가 같은 실행에 참여해 선점한 매장만 분석 (false이면 인스턴스마다 전체 매장 분석)
+        private boolean enabled = false;
+
+        // 임대 소유자로 기록할 인스턴스 식별자 (비어 있으면 호스트명-pid-임의값)
+        private String nodeId = "";
+
+        // 한 번에 선점할 매장 수 (0 이하이면 parallelism)
+        private int claimBatchSize = 0;
+
+        // 매장 임대 유지 시간, 분석 중에는 heartbeatInterval마다 연장되며 만료되면 다른 인스턴스가 다시 가져감
+        private Duration leaseDuration = Duration.ofMinutes(15);
+
+        // 선점한 매장의 임대를 연장하는 간격 (청크 반영과 무관하게 연장, leaseDuration보다 충분히 짧게)
+        private Duration heartbeatInterval = Duration.ofMinutes(5);
+
+        // 선점할 매장이 없지만 다른 인스턴스가 임대 중인 매장이 남아 있을 때 만료 여부를 다시 확인하는 간격
+        private Duration leaseCheckInterval = Duration.ofSeconds(30);
+
+        // 분석 도중 임대가 만료된 매장을 다시 가져갈 최대 시도 횟수 (인스턴스를 계속 죽이는 매장 격리)
+        private int maxAttempts = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+
+        // true이면 고정 주간 분석 대신 매장별 주기에 따라 분석 (주간 스케줄은 건너뜀)
+        private boolean enabled = false;
+
+        // 분석 기한이 된 매장을 확인하는 주기
+        private String cron = "0 0 * * * *";
+
+        // budgetWindow 동안 모든 인스턴스를 합쳐 분석할 최대 고객 수
+        // (우선순위가 높은 매장부터 채우고 남은 매장은 다음 구간으로 미룸)
+        private long customerBudget = 100_000;
+
+        // 고객 예산을 적용하는 구간 (epoch 기준으로 나누며, 사용량은 DB에 기록해 인스턴스끼리 공유)
+        private Duration budgetWindow = Duration.ofHours(1);
+
+        // 최근 7일 방문 수가 이 값 이상이면 방문량 점수 최대
+        private int busyWeeklyVisits = 500;
+
+        // 방문량과 변화량이 가장 큰 매장의 분석 주기
+        private Duration minCadence = Duration.ofDays(1);
+
+        // 방문이 거의 없고 결과가 바뀌지 않는 매장의 분석 주기
+        private Duration maxCadence = Duration.ofDays(7);
+
+        // 매장 분석 선점 유지 시간, 분석 중에는 heartbeatInterval마다 연장 (인스턴스가 분석 도중 종료되면 만료 후 다시 기한 도래)
+        private Duration leaseDuration = Duration.ofMinutes(15);
+
+        // 분석 중인 매장의 선점을 연장하는 간격 (leaseDuration보다 충분히 짧게)
+        private Duration heartbeatInterval = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class OnDemand {
+
+        // 동시에 실행할 요청 분석 수 (AI 서버 부하 제한)
+        private int workers = 2;
+
+        // 대기할 수 있는 최대 작업 수 (매장당 하나, 넘으면 요청 거절)
+        private int maxQueuedJobs = 100;
+
+        // 끝난 작업 상태를 조회할 수 있도록 보관하는 시간
+        private Duration jobRetention = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Pipeline {
+
+        // chunkSize > 0 일 때 청크 분석 대신 파이프라인 사용
+        private boolean enabled = false;
+
+        // 단계 사이 큐에 쌓아둘 수 있는 최대 청크 수 (가득 차면 앞 단계가 대기)
+        private int queueCapacity = 2;
+
+        // 델타 필터로 전송할 고객을 고르는 워커 수
+        private int builderWorkers = 1;
+
+        // AI 서버를 동시에 호출하는 워커 수
+        private int aiWorkers = 2;
+
+        // 분석 결과를 DB에 반영하는 워커 수
+        private int writerWorkers = 1;
+    }
+
+    public enum FeatureSource {
+        // DB에서 고객별 주간 방문 횟수를 조건부 합계로 집계
+        AGGREGATE,
+        // 방문 엔티티를 조회해 애플리케이션에서 집계
+        ENTITY,
+        // 방문 기록 시 갱신되는 고객별 주간 방문 카운터 사용
+        COUNTER
+    }
+
+    public enum Scorer {
+        // 원격 AI 서버 호출
+        REMOTE,
+        // JVM 내 규칙 기반 엔진 (스트리밍/비동기 방식 대신 매장 전체 또는 청크 단위로 계산)
+        LOCAL
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.moki_campaign.global.config;
+
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration
+public class AnalysisRetryConfig {
+
+    // 청크 단위 AI 호출 재시도 템플릿
+    @Bean(name = "aiChunkRetryTemplate")
+    public RetryTemplate aiChunkRetryTemplate(AnalysisProps analysisProps) {
+        return createAiChunkRetryTemplate(analysisProps.getRetry());
+    }
+
+    // 지수 백오프에 무작위 배수(1 ~ multiplier)를 곱해 여러 매장의 재시도가 같은 시점에 몰리지 않도록 함
+    public static RetryTemplate createAiChunkRetryTemplate(AnalysisProps.Retry retry) {
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(retry.getInitialInterval().toMillis());
+        backOffPolicy.setMultiplier(retry.getMultiplier());
+        backOffPolicy.setMaxInterval(retry.getMaxInterval().toMillis());
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new TransientAiFailureRetryPolicy(retry.getMaxAttempts()));
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        return retryTemplate;
+    }
+
+    // 일시적인 AI 서버 실패(연결/기한 초과/잘못된 응답)만 재시도
+    // 서킷 브레이커가 열렸거나 동시 호출 허가를 받지 못한 경우(AI_SERVER_UNAVAILABLE)와 그 밖의 예외는 바로 실패
+    static class TransientAiFailureRetryPolicy extends SimpleRetryPolicy {
+
+        TransientAiFailureRetryPolicy(int maxAttempts) {
+            super(Math.max(1, maxAttempts));
+        }
+
+        @Override
+        public boolean canRetry(RetryContext context) {
+            Throwable lastThrowable = context.getLastThrowable();
+            return (lastThrowable == null || isTransient(lastThrowable)) && super.canRetry(context);
+        }
+
+        private boolean isTransient(Throwable throwable) {
+            return throwable instanceof BusinessException e
+                    && (e.getErrorCode() == ErrorCode.AI_SERVER_CONNECT_ERROR
+                    || e.getErrorCode() == ErrorCode.INVAILD_AI_SERVER_RESPONSE);
+        }
+    }
+}
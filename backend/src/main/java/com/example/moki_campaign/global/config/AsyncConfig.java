@@ -3,6 +3,7 @@ package com.example.moki_campaign.global.config;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -39,4 +40,106 @@ public class AsyncConfig {
 
         return executor;
     }
-}
\ No newline at end of file
+
+    // 전체 매장 AI 분석 시 매장 단위 작업을 병렬로 처리하는 워커 풀
+    // 스레드 수 = analysis.parallelism, 나머지 매장은 큐에서 대기
+    @Bean(name = "storeAnalysisExecutor")
+    public Executor storeAnalysisExecutor(AnalysisProps analysisProps) {
+        int parallelism = Math.max(1, analysisProps.getParallelism());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("StoreAnalysis-");
+
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.initialize();
+
+        log.info("StoreAnalysis Executor 초기화 완료 - PoolSize: {}", parallelism);
+
+        return executor;
+    }
+
+    // 청크 단위 분석 시 데이터 생성/결과 반영 단계를 AI 호출과 겹쳐 실행하기 위한 풀
+    // 매장 하나당 최대 2개 작업(다음 청크 생성, 이전 청크 반영)이 동시에 실행됨
+    @Bean(name = "analysisStageExecutor")
+    public Executor analysisStageExecutor(AnalysisProps analysisProps) {
+        int poolSize = Math.max(1, analysisProps.getParallelism()) * 2;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("AnalysisStage-");
+
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.initialize();
+
+        log.info("AnalysisStage Executor 초기화 완료 - PoolSize: {}", poolSize);
+
+        return executor;
+    }
+
+    // 점주 요청 매장 분석 워커 풀
+    // 매장당 작업이 하나로 합쳐지므로 FIFO 대기열에서 매장들이 차례로 처리되며, 대기열이 가득 차면 요청을 거절
+    @Bean(name = "onDemandAnalysisExecutor")
+    public Executor onDemandAnalysisExecutor(AnalysisProps analysisProps) {
+        AnalysisProps.OnDemand onDemand = analysisProps.getOnDemand();
+        int workers = Math.max(1, onDemand.getWorkers());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(Math.max(1, onDemand.getMaxQueuedJobs()));
+        executor.setThreadNamePrefix("OnDemandAnalysis-");
+
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.initialize();
+
+        log.info("OnDemandAnalysis Executor 초기화 완료 - PoolSize: {}, QueueCapacity: {}",
+                workers, executor.getQueueCapacity());
+
+        return executor;
+    }
+
+    // 파이프라인 분석의 단계 워커용 스레드 (매장 분석이 끝날 때까지 큐에서 대기하는 장기 작업)
+    // 워커가 서로의 큐를 기다리므로 풀 크기 제한으로 워커가 시작되지 못하면 교착되어, 작업마다 스레드를 새로 생성
+    @Bean(name = "analysisPipelineExecutor")
+    public Executor analysisPipelineExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AnalysisPipeline-");
+        executor.setTaskTerminationTimeout(60_000);
+
+        log.info("AnalysisPipeline Executor 초기화 완료");
+
+        return executor;
+    }
+
+    // POS 방문 파일 가져오기 워커 (DB 쓰기 부하를 제한하기 위해 한 번에 한 파일씩 처리, 나머지는 대기)
+    // 종료 시 진행 중인 가져오기는 인터럽트되어 커밋된 위치에서 멈춤
+    @Bean(name = "visitImportExecutor")
+    public Executor visitImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("VisitImport-");
+
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+
+        log.info("VisitImport Executor 초기화 완료");
+
+        return executor;
+    }
+}
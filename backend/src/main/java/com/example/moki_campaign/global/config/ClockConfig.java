@@ -0,0 +1,19 @@
+package com.example.moki_campaign.global.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    // 분석 임대 만료 판단에 쓰는 시계 (테스트에서 시계를 직접 등록하면 그 시계를 사용)
+    @Bean
+    @ConditionalOnMissingBean(Clock.class)
+    public Clock clock() {
+
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.moki_campaign.global.config;
+
+import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.scorer.CustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.LocalCustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.RemoteCustomerScorer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class CustomerScorerConfig {
+
+    // analysis.scorer 설정에 따라 고객 점수 계산 방식 선택
+    @Bean
+    public CustomerScorer customerScorer(AnalysisProps analysisProps, AiClient aiClient) {
+        log.info("고객 점수 계산 방식: {}", analysisProps.getScorer());
+
+        return switch (analysisProps.getScorer()) {
+            case REMOTE -> new RemoteCustomerScorer(aiClient);
+            case LOCAL -> new LocalCustomerScorer();
+        };
+    }
+}
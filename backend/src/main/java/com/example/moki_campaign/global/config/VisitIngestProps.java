@@ -0,0 +1,92 @@
+package com.example.moki_campaign.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "visit.ingest")
+public class VisitIngestProps {
+
+    // 한 번의 요청으로 받을 수 있는 최대 체크인 수
+    private int maxBatchSize = 5000;
+
+    // JDBC 배치 하나에 담을 행 수
+    private int jdbcBatchSize = 1000;
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    private BulkImport bulkImport = new BulkImport();
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        // true이면 단건 체크인(POST /api/visits)을 메모리 버퍼에 모았다가 묶어서 저장
+        private boolean enabled = false;
+
+        // 버퍼에 담을 수 있는 최대 체크인 수 (2의 거듭제곱으로 올림)
+        private int capacity = 8192;
+
+        // 버퍼가 이 수만큼 쌓이면 바로 저장
+        private int flushSize = 500;
+
+        // 첫 체크인이 들어온 뒤 이 시간이 지나면 flush-size 미만이어도 저장
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        // 버퍼가 가득 찼을 때 빈 자리를 기다리는 최대 시간 (넘으면 요청 거절)
+        private Duration offerTimeout = Duration.ofMillis(50);
+
+        // 종료 시 남은 체크인을 저장하기까지 기다리는 최대 시간 (넘기면 남은 체크인을 spill 파일에 남기고 종료)
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        // 매장 하나의 체크인 저장 최대 시도 횟수 (모두 실패하면 spill-file에 기록, 1이면 재시도하지 않음)
+        private int flushMaxAttempts = 3;
+
+        // 첫 재시도 전 대기 시간, 이후 2배씩 늘어나며 flushRetryMaxInterval을 넘지 않음 (지터 포함)
+        private Duration flushRetryInitialInterval = Duration.ofMillis(100);
+
+        private Duration flushRetryMaxInterval = Duration.ofSeconds(2);
+
+        // 저장하지 못한 체크인을 기록하는 파일 (시작 시와 실행 중 spillReplayInterval마다 다시 저장)
+        private String spillFile = "data/visit-write-behind.spill";
+
+        // 실행 중 spill 파일을 다시 저장하는 간격
+        private Duration spillReplayInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class BulkImport {
+
+        // 업로드한 POS 내보내기 파일을 보관할 디렉터리 (가져오기가 끝나면 삭제)
+        private String directory = "data/visit-imports";
+
+        // 한 트랜잭션에 저장하고 진행 위치를 기록할 방문 수
+        private int chunkRows = 50_000;
+
+        // 가져오기 JDBC 배치 하나에 담을 행 수
+        private int jdbcBatchSize = 5000;
+
+        // 파일을 한 번에 메모리 매핑할 크기 (한 줄은 이보다 짧아야 함)
+        private DataSize mapWindow = DataSize.ofMegabytes(64);
+
+        // 작업 하나가 기억할 전화번호 → 고객 id 수 (넘으면 비우고 다시 조회)
+        private int customerCacheSize = 200_000;
+
+        // 업로드 파일 최대 크기 (넘으면 저장을 멈추고 거절)
+        private DataSize maxFileSize = DataSize.ofGigabytes(1);
+
+        // 실행 중 상태인데 이 시간 동안 진행이 없으면 중단된 것으로 보고 재개 요청을 받음
+        private Duration staleAfter = Duration.ofMinutes(10);
+
+        // 중단된 작업(대기/실행 중인데 stale-after 동안 진행 없음)을 찾아 다시 실행하는 주기 (시작 시에도 한 번 실행)
+        private String recoveryCron = "0 */5 * * * *";
+    }
+}
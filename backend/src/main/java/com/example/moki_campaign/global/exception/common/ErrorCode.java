@@ -25,12 +25,21 @@ public enum ErrorCode {
 
     // Customer
     CUSTOMER_NOT_FOUND(HttpStatus.NOT_FOUND, "CUSTOMER_NOT_FOUND", "고객 데이터를 찾을 수 없습니다."),
+    ANALYSIS_JOB_NOT_FOUND(HttpStatus.NOT_FOUND, "ANALYSIS_JOB_NOT_FOUND", "분석 작업을 찾을 수 없습니다."),
+    ANALYSIS_QUEUE_FULL(HttpStatus.TOO_MANY_REQUESTS, "ANALYSIS_QUEUE_FULL", "분석 요청이 많아 잠시 후 다시 시도해 주세요."),
 
     // Visit
+    VISIT_BATCH_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "VISIT_BATCH_TOO_LARGE", "한 번에 보낼 수 있는 방문 기록 수를 초과했습니다."),
+    VISIT_BUFFER_FULL(HttpStatus.SERVICE_UNAVAILABLE, "VISIT_BUFFER_FULL", "방문 기록 요청이 많아 잠시 후 다시 시도해 주세요."),
+    VISIT_IMPORT_NOT_FOUND(HttpStatus.NOT_FOUND, "VISIT_IMPORT_NOT_FOUND", "방문 가져오기 작업을 찾을 수 없습니다."),
+    VISIT_IMPORT_NOT_RESUMABLE(HttpStatus.CONFLICT, "VISIT_IMPORT_NOT_RESUMABLE", "실패했거나 중단된 가져오기 작업만 다시 시작할 수 있습니다."),
+    VISIT_IMPORT_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "VISIT_IMPORT_TOO_LARGE", "가져올 파일이 최대 크기를 넘었습니다."),
+    VISIT_IMPORT_UPLOAD_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "VISIT_IMPORT_UPLOAD_FAILED", "가져올 파일을 저장하지 못했습니다."),
 
     // AI
     INVAILD_AI_SERVER_RESPONSE(HttpStatus.INTERNAL_SERVER_ERROR, "INVAILD_AI_SERVER_RESPONSE", "AI 분석 서버로부터 유효한 응답을 받지 못했습니다."),
-    AI_SERVER_CONNECT_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "AI_SERVER_CONNECT_ERROR", "AI 분석 서버 호출에 실패했습니다.");
+    AI_SERVER_CONNECT_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "AI_SERVER_CONNECT_ERROR", "AI 분석 서버 호출에 실패했습니다."),
+    AI_SERVER_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "AI_SERVER_UNAVAILABLE", "AI 분석 서버를 일시적으로 사용할 수 없습니다.");
 
 
     public final HttpStatus status;
@@ -0,0 +1,91 @@
+package com.example.moki_campaign.global.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 크기가 고정된 다중 생산자 / 단일 소비자 링 버퍼 (락 없음)
+ * 생산자는 쓰기 위치를 CAS로 선점하고, 슬롯별 순번으로 값이 다 쓰였는지와 소비자가 비웠는지를 구분
+ * drain은 한 스레드에서만 호출해야 함
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    // 슬롯 순번: 위치 p에 쓸 수 있으면 p, 값이 쓰였으면 p + 1, 소비 후 p + capacity
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // 소비자만 변경 (size 조회용으로 volatile)
+    private volatile long head;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // 빈 슬롯이 없으면 false (대기하지 않음)
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                // 소비자가 아직 한 바퀴 전의 값을 비우지 않음
+                return false;
+            } else {
+                // 다른 생산자가 먼저 선점함
+                position = tail.get();
+            }
+        }
+    }
+
+    // 최대 limit개를 꺼내 순서대로 전달, 꺼낸 수 반환
+    // 선점만 되고 아직 쓰이지 않은 슬롯을 만나면 그 앞까지만 꺼냄
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long position = head;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            E element = slots.get(index);
+            slots.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            head = position;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    // 선점된 슬롯 수 (쓰기 중인 슬롯 포함, 근삿값)
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
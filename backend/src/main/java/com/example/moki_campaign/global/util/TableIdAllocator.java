@@ -0,0 +1,82 @@
+package com.example.moki_campaign.global.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * id_sequence 테이블 기반 id 구간 할당
+ * Hibernate @TableGenerator(pooled-lo)와 같은 행을 사용하므로, JPA를 거치지 않는 JDBC INSERT도 겹치지 않는 id를 받음
+ * next_val은 Hibernate 기본 규칙(hibernate.id.generator.stored_last_used=true)과 같이 마지막으로 할당한 id이며,
+ * 구간 할당은 별도 트랜잭션에서 커밋되어 행 잠금을 바로 반납
+ * 할당은 대부분 커넥션을 잡은 트랜잭션 안에서 호출되므로 같은 커넥션 풀을 쓰면 요청마다 커넥션 2개가 필요하고
+ * 풀이 소진되면 서로의 두 번째 커넥션을 기다리며 멈출 수 있어, 할당 전용 커넥션 풀을 따로 사용
+ */
+@Component
+public class TableIdAllocator implements DisposableBean {
+
+    public static final String TABLE = "id_sequence";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // Hibernate가 한 번에 가져오는 id 수 (hibernate.jdbc.batch_size와 같게 유지)
+    public static final int ALLOCATION_SIZE = 100;
+
+    public static final String CUSTOMER = "customer";
+    public static final String DAILY_VISIT = "daily_visit";
+
+    // 할당 전용 풀 크기 (할당 트랜잭션은 행 하나를 잠그고 바로 커밋하므로 동시 할당이 많아도 짧게 대기)
+    private static final int POOL_SIZE = 2;
+
+    private static final String INIT_SQL =
+            "INSERT IGNORE INTO " + TABLE + " (" + SEGMENT_COLUMN + ", " + VALUE_COLUMN + ") VALUES (?, 0)";
+    private static final String SELECT_FOR_UPDATE_SQL =
+            "SELECT " + VALUE_COLUMN + " FROM " + TABLE + " WHERE " + SEGMENT_COLUMN + " = ? FOR UPDATE";
+    private static final String ADVANCE_SQL =
+            "UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = ? WHERE " + SEGMENT_COLUMN + " = ?";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate allocationTransaction;
+
+    // spring.datasource 설정(url, 계정)으로 할당 전용 풀 생성
+    public TableIdAllocator(DataSourceProperties dataSourceProperties) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("id-allocator");
+        this.dataSource.setMaximumPoolSize(POOL_SIZE);
+        this.dataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.allocationTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    // segment의 연속된 id count개 중 첫 번째 id 반환 (first ~ first + count - 1)
+    public long allocate(String segment, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+
+        Long first = allocationTransaction.execute(status -> {
+            List<Long> current = jdbcTemplate.queryForList(SELECT_FOR_UPDATE_SQL, Long.class, segment);
+            if (current.isEmpty()) {
+                // 마이그레이션/스키마 생성 전에 처음 사용하는 경우
+                jdbcTemplate.update(INIT_SQL, segment);
+                current = jdbcTemplate.queryForList(SELECT_FOR_UPDATE_SQL, Long.class, segment);
+            }
+            long lastUsed = current.get(0);
+            jdbcTemplate.update(ADVANCE_SQL, lastUsed + count, segment);
+            return lastUsed + 1;
+        });
+        return first;
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.moki_campaign.global.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 고객별 최근 8주 주간 방문 횟수 집계
+ * 분석 기준일이 속한 주의 월요일을 기준으로 방문일의 주 오프셋을 계산하여 한 번의 순회로 집계
+ * 고객마다 int[8] 구간을 하나의 int 배열에 이어서 저장 (week 0 = 8주 전, week 7 = 현재 주)
+ */
+public class WeeklyVisitHistogram {
+
+    public static final int WEEKS = 8;
+
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final long startEpochDay;
+    private final LongIntHashMap indexByCustomerId;
+    private int[] counts;
+    private int customerCount;
+
+    public WeeklyVisitHistogram(LocalDate analysisDate, int expectedCustomers) {
+        LocalDate currentWeekStart = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        this.startEpochDay = currentWeekStart.minusWeeks(WEEKS - 1).toEpochDay();
+        this.indexByCustomerId = new LongIntHashMap(expectedCustomers);
+        this.counts = new int[Math.max(1, expectedCustomers) * WEEKS];
+    }
+
+    // 집계 대상 고객 등록 후 고객 인덱스 반환 (등록 순서대로 0부터 증가)
+    public int register(long customerId) {
+        int index = indexByCustomerId.get(customerId, -1);
+        if (index >= 0) {
+            return index;
+        }
+
+        index = customerCount++;
+        if (index * WEEKS >= counts.length) {
+            int[] grown = new int[counts.length * 2];
+            System.arraycopy(counts, 0, grown, 0, counts.length);
+            counts = grown;
+        }
+        indexByCustomerId.put(customerId, index);
+        return index;
+    }
+
+    // 방문 1건 집계 (등록되지 않은 고객이거나 8주 범위 밖의 방문은 무시)
+    public void add(long customerId, LocalDate visitDate) {
+        long offset = visitDate.toEpochDay() - startEpochDay;
+        if (offset < 0 || offset >= WEEKS * DAYS_PER_WEEK) {
+            return;
+        }
+
+        int index = indexByCustomerId.get(customerId, -1);
+        if (index < 0) {
+            return;
+        }
+
+        counts[index * WEEKS + (int) (offset / DAYS_PER_WEEK)]++;
+    }
+
+    // week: 0 = 8주 전 ... 7 = 현재 주
+    public int count(int customerIndex, int week) {
+        return counts[customerIndex * WEEKS + week];
+    }
+}
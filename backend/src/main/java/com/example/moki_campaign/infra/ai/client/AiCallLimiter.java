@@ -0,0 +1,82 @@
+package com.example.moki_campaign.infra.ai.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 서버 동시 호출 수 제한
+ * 허용량이 남아 있으면 즉시, 없으면 반환된 호출이 생길 때 대기 순서대로 허가를 완료 (대기 중 스레드를 점유하지 않음)
+ */
+public class AiCallLimiter {
+
+    private final int maxConcurrentCalls;
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    public AiCallLimiter(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+    }
+
+    // 호출 허가 요청, timeout 안에 허가를 받지 못하면 TimeoutException으로 완료
+    // 정상 완료된 허가는 호출이 끝난 뒤 반드시 release로 반환해야 함
+    public CompletableFuture<Void> acquire(Duration timeout) {
+        CompletableFuture<Void> permit;
+        synchronized (this) {
+            if (inFlight < maxConcurrentCalls) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            permit = new CompletableFuture<>();
+            waiters.add(permit);
+        }
+        permit.whenComplete((ignored, error) -> {
+            if (error != null) {
+                removeWaiter(permit);
+            }
+        });
+        return permit.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // 허가 반환: 기한이 지나지 않은 첫 대기자에게 넘기고, 대기자가 없으면 허용량을 되돌림
+    public void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            // 대기 중 기한이 지난 허가는 건너뜀
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    // 허가 대기 포기 (대기 스레드 인터럽트 등): 아직 대기 중이면 취소하고, 그 사이 허가가 넘어왔으면 반환
+    public void abandon(CompletableFuture<Void> permit) {
+        if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+            release();
+        }
+    }
+
+    private synchronized void removeWaiter(CompletableFuture<Void> permit) {
+        waiters.remove(permit);
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+
+    public int maxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.moki_campaign.infra.ai.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * AI 서버 서킷 브레이커
+ * 최근 호출의 실패율이 기준을 넘으면 OPEN으로 전환해 일정 시간 호출을 즉시 거절하고,
+ * 이후 HALF_OPEN에서 제한된 수의 시험 호출이 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ */
+@Slf4j
+public class AiCircuitBreaker {
+
+    // tryAcquire가 호출을 거절했을 때의 반환값
+    public static final long REJECTED = -1L;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenTrials;
+    private final LongSupplier nanoClock;
+
+    // CLOSED 상태의 최근 호출 결과 (true = 실패)
+    private final boolean[] outcomes;
+    private int recordedCalls;
+    private int nextIndex;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    // 상태가 바뀔 때마다 증가, 이전 상태에서 허가된 호출의 결과는 반영하지 않음
+    private long generation;
+    private long openedCount;
+
+    public AiCircuitBreaker(int slidingWindowSize, int minimumCalls, double failureRateThreshold,
+                            Duration openDuration, int halfOpenTrials) {
+        this(slidingWindowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenTrials, System::nanoTime);
+    }
+
+    public AiCircuitBreaker(int slidingWindowSize, int minimumCalls, double failureRateThreshold,
+                            Duration openDuration, int halfOpenTrials, LongSupplier nanoClock) {
+        this.slidingWindowSize = Math.max(1, slidingWindowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.slidingWindowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenTrials = Math.max(1, halfOpenTrials);
+        this.nanoClock = nanoClock;
+        this.outcomes = new boolean[this.slidingWindowSize];
+    }
+
+    // 호출 허가 요청, 허가되면 결과 보고에 사용할 값을, 거절되면 REJECTED를 반환
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return REJECTED;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenTrials) {
+                return REJECTED;
+            }
+            halfOpenInFlight++;
+        }
+
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permission) {
+        if (permission != generation) {
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (++halfOpenSuccesses >= halfOpenTrials) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        record(false);
+    }
+
+    public synchronized void onFailure(long permission) {
+        if (permission != generation) {
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+
+        record(true);
+        if (recordedCalls >= minimumCalls && failureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    // 서버 상태와 무관한 이유(호출자 예외, 동시 호출 제한)로 끝난 호출, 결과에 반영하지 않고 시험 호출 자리만 반환
+    public synchronized void onIgnored(long permission) {
+        if (permission == generation && state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized double failureRate() {
+        return recordedCalls == 0 ? 0.0 : (double) failedCalls / recordedCalls;
+    }
+
+    // OPEN으로 전환된 누적 횟수
+    public synchronized long openedCount() {
+        return openedCount;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == slidingWindowSize) {
+            if (outcomes[nextIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+
+        outcomes[nextIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextIndex = (nextIndex + 1) % slidingWindowSize;
+    }
+
+    private void transitionTo(State next) {
+        log.warn("AI 서버 서킷 브레이커 상태 변경: {} -> {} (실패율: {})",
+                state, next, String.format("%.2f", failureRate()));
+
+        state = next;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+
+        if (next == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+            openedCount++;
+        }
+        if (next == State.CLOSED) {
+            recordedCalls = 0;
+            nextIndex = 0;
+            failedCalls = 0;
+        }
+    }
+}
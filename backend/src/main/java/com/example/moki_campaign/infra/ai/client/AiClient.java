@@ -1,73 +1,846 @@
 package com.example.moki_campaign.infra.ai.client;
 
+import com.example.moki_campaign.global.config.AiClientProps;
 import com.example.moki_campaign.global.exception.common.BusinessException;
 import com.example.moki_campaign.global.exception.common.ErrorCode;
-import com.example.moki_campaign.infra.ai.dto.request.AiAnalysisRequestDto; // [추가]
 import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
 import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClient;
 
-import org.springframework.http.client.JdkClientHttpRequestFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 @Component
 @Slf4j
 public class AiClient {
-    private final RestClient restClient;
+
+    // 필드명을 columns 헤더에 한 번만 싣는 압축 본문 형식
+    public static final String COMPACT_JSON_VALUE = "application/vnd.moki.compact+json";
+
+    private static final String CUSTOMER_ANALYSIS_PATH = "/api/ai/customers";
+    private static final String DATA_FIELD = "data";
+    private static final String COLUMNS_FIELD = "columns";
+    private static final String RESULT_FIELD = "result";
+    private static final String BOUNDS_FIELD = "bounds";
+
+    // 스트리밍 요청 시 DB 조회 스레드와 HTTP 전송 스레드 사이의 버퍼 크기
+    private static final int STREAMING_PIPE_BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
+    // 목록 요청(analyzeCustomers) 응답을 읽을 때의 묶음 크기
+    private static final int RESULT_BATCH_SIZE = 1000;
+
+    // compact 요청의 값 순서 (AiCustomerDataInputDto의 JSON 필드명)
+    private static final List<String> INPUT_COLUMNS = List.of(
+            "customer_id", "amount", "total_visits", "days_since_last_visit",
+            "visits_8_week_ago", "visits_7_week_ago", "visits_6_week_ago", "visits_5_week_ago",
+            "visits_4_week_ago", "visits_3_week_ago", "visits_2_week_ago", "visits_1_week_ago");
+
+    private static final String CUSTOMER_ID_COLUMN = "customer_id";
+    private static final String SEGMENT_COLUMN = "customer_segment";
+    private static final String LOYALTY_SCORE_COLUMN = "predicted_loyalty_score";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI customerAnalysisUri;
+    private final AiClientProps aiClientProps;
+    private final MeterRegistry meterRegistry;
+
+    // 벌크헤드: 동시에 진행되는 AI 서버 호출 수 제한
+    private final AiCallLimiter callLimiter;
+    private final AiCircuitBreaker circuitBreaker;
+    private final AiLatencyTracker latencyTracker;
+
+    // 서버의 compact 형식 지원 여부 (null이면 아직 확인 전), 거부(415/422)한 뒤에는 JSON으로만 요청
+    private volatile Boolean compactFormatSupported;
 
     public AiClient(
-            @Value("${ai.service.url}") String baseUrl)
+            @Value("${ai.service.url}") String baseUrl,
+            ObjectMapper objectMapper,
+            AiClientProps aiClientProps,
+            MeterRegistry meterRegistry)
     {
-        HttpClient httpClient = HttpClient.newBuilder()
+        this.httpClient = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_1_1)
-                .connectTimeout(Duration.ofSeconds(20))
+                .connectTimeout(aiClientProps.getConnectTimeout())
                 .build();
+        this.objectMapper = objectMapper;
+        this.customerAnalysisUri = URI.create(baseUrl + CUSTOMER_ANALYSIS_PATH);
+        this.aiClientProps = aiClientProps;
+        this.meterRegistry = meterRegistry;
+        this.callLimiter = new AiCallLimiter(aiClientProps.getMaxConcurrentCalls());
 
-        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
-        requestFactory.setReadTimeout(Duration.ofMinutes(5));
+        AiClientProps.CircuitBreaker breakerProps = aiClientProps.getCircuitBreaker();
+        this.circuitBreaker = new AiCircuitBreaker(
+                breakerProps.getSlidingWindowSize(),
+                breakerProps.getMinimumCalls(),
+                breakerProps.getFailureRateThreshold(),
+                breakerProps.getOpenDuration(),
+                breakerProps.getHalfOpenTrials());
 
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .requestFactory(requestFactory)
-                .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> {
-                    log.error("AI 서버 에러 - Status: {}, Body: {}", response.getStatusCode(), response.getBody().toString());
-                    throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
-                })
-                .build();
+        AiClientProps.AdaptiveTimeout timeoutProps = aiClientProps.getAdaptiveTimeout();
+        this.latencyTracker = new AiLatencyTracker(
+                timeoutProps.getMinTimeout(),
+                aiClientProps.getCallTimeout(),
+                timeoutProps.getMinimumSamples(),
+                timeoutProps.getHeadroom(),
+                this::registerTimeoutGauge);
+
+        registerMetrics();
     }
 
     public AiCustomerDataResponseDto analyzeCustomers(List<AiCustomerDataInputDto> customerData) {
+        return analyzeCustomers(customerData, null);
+    }
+
+    // 매장 고객 일부만 보내는 요청(청크/델타)은 매장 전체 정규화 범위를 함께 전송
+    // 범위를 받은 서버는 요청 고객만으로 모델을 학습하지 않고 그 범위로 정규화한 규칙 기반 점수를 반환
+    public AiCustomerDataResponseDto analyzeCustomers(List<AiCustomerDataInputDto> customerData, ScoreBounds bounds) {
+        log.info("AI 서버 고객 분석 요청. 고객 수: {}, 매장 정규화 범위: {}", customerData.size(), bounds != null);
+
+        List<AiCustomerDataOutputDto> results = new ArrayList<>(customerData.size());
+        analyzeCustomersStreaming(listWriter(customerData), bounds, results::addAll, RESULT_BATCH_SIZE);
+
+        return new AiCustomerDataResponseDto(results);
+    }
+
+    // 호출 스레드를 막지 않는 분석 요청 (ai.client.call-timeout 기한)
+    public CompletableFuture<AiCustomerDataResponseDto> analyzeCustomersAsync(List<AiCustomerDataInputDto> customerData) {
+        return analyzeCustomersAsync(customerData, null, aiClientProps.getCallTimeout());
+    }
+
+    // 매장 전체 정규화 범위를 함께 보내는 비동기 분석 요청 (ai.client.call-timeout 기한)
+    public CompletableFuture<AiCustomerDataResponseDto> analyzeCustomersAsync(List<AiCustomerDataInputDto> customerData,
+                                                                              ScoreBounds bounds) {
+        return analyzeCustomersAsync(customerData, bounds, aiClientProps.getCallTimeout());
+    }
+
+    // 호출 스레드를 막지 않는 분석 요청
+    // 동시 호출 허가 대기, 요청 전송, 응답 수신을 모두 timeout 안에 끝내야 하며 넘기면 요청을 취소
+    // 서킷 브레이커가 열려 있거나 동시 호출 허가를 받지 못하면 BusinessException(AI_SERVER_UNAVAILABLE)으로 즉시 완료
+    // 그 밖의 실패는 BusinessException(AI_SERVER_CONNECT_ERROR / INVAILD_AI_SERVER_RESPONSE)으로 완료
+    public CompletableFuture<AiCustomerDataResponseDto> analyzeCustomersAsync(List<AiCustomerDataInputDto> customerData,
+                                                                              Duration timeout) {
+        return analyzeCustomersAsync(customerData, null, timeout);
+    }
+
+    private CompletableFuture<AiCustomerDataResponseDto> analyzeCustomersAsync(List<AiCustomerDataInputDto> customerData,
+                                                                               ScoreBounds bounds,
+                                                                               Duration timeout) {
+        log.info("AI 서버 고객 분석 비동기 요청. 고객 수: {}", customerData.size());
+
+        long permission = circuitBreaker.tryAcquire();
+        if (permission == AiCircuitBreaker.REJECTED) {
+            return CompletableFuture.failedFuture(circuitOpen());
+        }
+
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+
+        return callLimiter.acquire(bulkheadWait(timeout))
+                .exceptionally(error -> {
+                    circuitBreaker.onIgnored(permission);
+                    throw bulkheadFull();
+                })
+                .thenCompose(permit -> {
+                    CompletableFuture<AiCustomerDataResponseDto> exchange;
+                    try {
+                        exchange = exchangeAsync(customerData, bounds, compactFormatEnabled(), deadlineNanos);
+                    } catch (RuntimeException e) {
+                        exchange = CompletableFuture.failedFuture(e);
+                    }
+                    // 허가를 반환하고 결과를 기록한 뒤에 호출 결과가 완료되도록 whenComplete 결과를 이어받음
+                    // 비동기 호출에는 호출자 코드가 끼지 않으므로 모든 실패를 서버 실패로 기록
+                    return exchange.whenComplete((response, error) -> {
+                        callLimiter.release();
+                        if (error == null) {
+                            recordSuccess(permission);
+                        } else {
+                            recordFailure(permission);
+                        }
+                    });
+                })
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw toBusinessException(error);
+                    }
+                    return response;
+                });
+    }
+
+    // 요청 본문을 메모리에 만들지 않고 bodyWriter가 기록하는 대로 전송
+    // bodyWriter는 호출 스레드에서 실행되고(트랜잭션 유지), HTTP 전송은 파이프를 통해 HttpClient 스레드가 담당
+    // 응답의 분석 결과는 전체를 역직렬화하지 않고 batchSize개씩 읽는 대로 resultHandler에 전달
+    // bodyWriter/resultHandler에서 발생한 예외는 요청을 취소한 뒤 그대로 전파 (서킷 브레이커 실패율에 반영하지 않음)
+    // 서킷 브레이커가 열려 있거나 동시 호출 허가를 받지 못하면 BusinessException(AI_SERVER_UNAVAILABLE)
+    // 반환값은 응답에 포함된 분석 결과 수
+    public int analyzeCustomersStreaming(AiRequestBodyWriter bodyWriter,
+                                         AiResultBatchHandler resultHandler,
+                                         int batchSize) {
+        return analyzeCustomersStreaming(bodyWriter, null, resultHandler, batchSize);
+    }
+
+    private int analyzeCustomersStreaming(AiRequestBodyWriter bodyWriter,
+                                          ScoreBounds bounds,
+                                          AiResultBatchHandler resultHandler,
+                                          int batchSize) {
+        long permission = circuitBreaker.tryAcquire();
+        if (permission == AiCircuitBreaker.REJECTED) {
+            throw circuitOpen();
+        }
+
+        Duration timeout = aiClientProps.getCallTimeout();
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
         try {
-            log.info("AI 서버 고객 분석 요청. 고객 수: {}", customerData.size());
+            acquirePermit(bulkheadWait(timeout));
+        } catch (RuntimeException e) {
+            circuitBreaker.onIgnored(permission);
+            throw e;
+        }
 
-            AiAnalysisRequestDto requestBody = new AiAnalysisRequestDto(customerData);
+        try {
+            // bodyWriter(DB 커서 등)는 다시 실행할 수 없으므로 본문을 보내기 전에 형식을 확정
+            boolean compact = negotiateCompactFormat();
 
-            AiCustomerDataResponseDto response = restClient.post()
-                    .uri("/api/ai/customers")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(requestBody)
-                    .retrieve()
-                    .body(AiCustomerDataResponseDto.class);
+            HttpResponse<InputStream> response = send(bodyWriter, bounds, compact, timeout);
 
-            if (response == null || response.result() == null) {
-                log.error("AI 서버 응답이 비어있습니다.");
-                throw new BusinessException(ErrorCode.INVAILD_AI_SERVER_RESPONSE);
+            // 확인 뒤 서버가 바뀌어 compact 형식을 거부하면 남은 기한 안에서 본문을 다시 작성해 JSON으로 보냄
+            // 서버 장애가 아니므로 서킷 브레이커 실패로 세지 않고, 다음 요청부터는 바로 JSON 사용
+            if (compact && isUnsupportedFormat(response.statusCode())) {
+                closeQuietly(response.body());
+                rejectCompactFormat();
+                response = send(bodyWriter, bounds, false, remaining(deadlineNanos));
             }
 
-            log.info("AI 서버 고객 분석 완료. 응답 수: {}", response.result().size());
+            int resultCount = readResponseWithin(response, resultHandler, batchSize, deadlineNanos);
+            recordSuccess(permission);
+            return resultCount;
+
+        } catch (BusinessException e) {
+            if (isServerFailure(e)) {
+                recordFailure(permission);
+            } else {
+                recordIgnored(permission);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            recordIgnored(permission);
+            throw e;
+        } finally {
+            callLimiter.release();
+        }
+    }
+
+    public int inFlightCalls() {
+        return callLimiter.inFlight();
+    }
+
+    public int waitingCalls() {
+        return callLimiter.waiting();
+    }
+
+    public AiCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    // compact 형식을 설정했고 서버가 거부한 적이 없으면 true
+    private boolean compactFormatEnabled() {
+        return aiClientProps.getWireFormat() == AiClientProps.WireFormat.COMPACT
+                && !Boolean.FALSE.equals(compactFormatSupported);
+    }
+
+    // 스트리밍 요청 전송 형식 결정: 지원 여부를 아직 모르면 빈 compact 요청으로 먼저 확인
+    private boolean negotiateCompactFormat() {
+        if (!compactFormatEnabled()) {
+            return false;
+        }
+        Boolean supported = compactFormatSupported;
+        return supported != null ? supported : probeCompactFormat();
+    }
+
+    // 고객 없이 columns 헤더만 담은 compact 요청(gzip 설정 포함)으로 서버의 형식 지원 여부 확인
+    // 415/422면 미지원으로 기록하고, 연결 실패 등으로 확인하지 못하면 이번 요청만 JSON으로 보낸 뒤 다음 요청에서 다시 확인
+    private boolean probeCompactFormat() {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            writeRequestBody(output, writer -> 0, null, true);
+            HttpRequest request = newRequest(true, aiClientProps.getConnectTimeout())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(output.toByteArray()))
+                    .build();
+
+            int statusCode = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (isUnsupportedFormat(statusCode)) {
+                rejectCompactFormat();
+                return false;
+            }
+            if (HttpStatusCode.valueOf(statusCode).is2xxSuccessful()) {
+                acceptCompactFormat();
+                return true;
+            }
+            log.warn("AI 서버 compact 형식 지원 여부 확인 실패 - Status: {}, 이번 요청은 JSON 형식으로 보냅니다.", statusCode);
+            return false;
+        } catch (IOException e) {
+            log.warn("AI 서버 compact 형식 지원 여부 확인 실패, 이번 요청은 JSON 형식으로 보냅니다.", e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+        }
+    }
+
+    // 415(Content-Type/Content-Encoding 미지원) 또는 422(본문 해석 실패, compact 형식을 모르는 서버)
+    private boolean isUnsupportedFormat(int statusCode) {
+        return statusCode == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()
+                || statusCode == HttpStatus.UNPROCESSABLE_ENTITY.value();
+    }
+
+    private void acceptCompactFormat() {
+        if (compactFormatSupported == null) {
+            log.info("AI 서버가 compact 형식을 지원합니다.");
+        }
+        compactFormatSupported = true;
+    }
+
+    private void rejectCompactFormat() {
+        compactFormatSupported = false;
+        log.warn("AI 서버가 compact 형식을 지원하지 않아 이후 요청은 JSON 형식으로 보냅니다.");
+    }
+
+    // 호출 기한까지 남은 시간 (요청 타임아웃은 0보다 커야 하므로 최소 1ms)
+    private Duration remaining(long deadlineNanos) {
+        return Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), deadlineNanos - System.nanoTime()));
+    }
+
+    private Duration bulkheadWait(Duration timeout) {
+        Duration maxWait = aiClientProps.getBulkheadMaxWait();
+        return maxWait.compareTo(timeout) < 0 ? maxWait : timeout;
+    }
+
+    // 동기 호출의 동시 호출 허가 대기 (허가를 받으면 호출이 끝난 뒤 반환해야 함)
+    private void acquirePermit(Duration maxWait) {
+        CompletableFuture<Void> permit = callLimiter.acquire(maxWait);
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            callLimiter.abandon(permit);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.AI_SERVER_UNAVAILABLE);
+        } catch (ExecutionException | CancellationException e) {
+            throw bulkheadFull();
+        }
+    }
+
+    private BusinessException circuitOpen() {
+        meterRegistry.counter("ai.client.calls", "outcome", "rejected").increment();
+        log.warn("AI 서버 서킷 브레이커가 열려 있어 호출을 거절합니다.");
+        return new BusinessException(ErrorCode.AI_SERVER_UNAVAILABLE);
+    }
+
+    private BusinessException bulkheadFull() {
+        meterRegistry.counter("ai.client.calls", "outcome", "bulkhead_full").increment();
+        log.error("AI 서버 동시 호출 허가 대기 기한 초과. 진행 중: {}, 대기 중: {}",
+                callLimiter.inFlight(), callLimiter.waiting());
+        return new BusinessException(ErrorCode.AI_SERVER_UNAVAILABLE);
+    }
+
+    // AI 서버 장애로 볼 실패 (연결/기한 초과/5xx/잘못된 응답)
+    private boolean isServerFailure(BusinessException e) {
+        return e.getErrorCode() == ErrorCode.AI_SERVER_CONNECT_ERROR
+                || e.getErrorCode() == ErrorCode.INVAILD_AI_SERVER_RESPONSE;
+    }
+
+    private void recordSuccess(long permission) {
+        circuitBreaker.onSuccess(permission);
+        meterRegistry.counter("ai.client.calls", "outcome", "success").increment();
+    }
+
+    private void recordFailure(long permission) {
+        circuitBreaker.onFailure(permission);
+        meterRegistry.counter("ai.client.calls", "outcome", "failure").increment();
+    }
+
+    private void recordIgnored(long permission) {
+        circuitBreaker.onIgnored(permission);
+        meterRegistry.counter("ai.client.calls", "outcome", "ignored").increment();
+    }
+
+    // 고객 수 구간에 맞는 응답 대기 기한
+    private Duration responseTimeout(int customerCount) {
+        return aiClientProps.getAdaptiveTimeout().isEnabled()
+                ? latencyTracker.timeoutFor(customerCount)
+                : aiClientProps.getCallTimeout();
+    }
+
+    // 정상 응답의 대기 시간을 고객 수 구간별로 기록
+    private void recordLatency(int customerCount, long startedAt) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        latencyTracker.record(customerCount, elapsed);
+        Timer.builder("ai.client.response.latency")
+                .tag("customers_upto", String.valueOf(
+                        AiLatencyTracker.bucketUpperBound(AiLatencyTracker.bucketOf(customerCount))))
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
+    private void registerMetrics() {
+        for (AiCircuitBreaker.State state : AiCircuitBreaker.State.values()) {
+            Gauge.builder("ai.client.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ai.client.circuit.failure.rate", circuitBreaker, AiCircuitBreaker::failureRate)
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.client.circuit.opened", circuitBreaker, AiCircuitBreaker::openedCount)
+                .register(meterRegistry);
+        Gauge.builder("ai.client.bulkhead.in.flight", callLimiter, AiCallLimiter::inFlight)
+                .register(meterRegistry);
+        Gauge.builder("ai.client.bulkhead.waiting", callLimiter, AiCallLimiter::waiting)
+                .register(meterRegistry);
+        Gauge.builder("ai.client.bulkhead.max", callLimiter, AiCallLimiter::maxConcurrentCalls)
+                .register(meterRegistry);
+    }
+
+    // 고객 수 구간이 처음 관측되면 해당 구간의 응답 대기 기한 게이지 등록
+    private void registerTimeoutGauge(int bucket) {
+        Gauge.builder("ai.client.response.timeout", latencyTracker,
+                        tracker -> tracker.timeoutForBucket(bucket).toMillis())
+                .tag("customers_upto", String.valueOf(AiLatencyTracker.bucketUpperBound(bucket)))
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    // 비동기 요청 한 건: 본문을 바이트 배열로 만들어 전송하고 응답을 받는 대로 해석
+    // 응답 대기 기한은 남은 호출 기한과 고객 수 구간별 기한 중 짧은 쪽
+    // 415/422 응답이면 남은 기한 안에서 JSON으로 다시 요청 (본문이 바이트 배열이라 다시 보낼 수 있음)
+    private CompletableFuture<AiCustomerDataResponseDto> exchangeAsync(List<AiCustomerDataInputDto> customerData,
+                                                                      ScoreBounds bounds,
+                                                                      boolean compact,
+                                                                      long deadlineNanos) {
+        long remainingNanos = Math.min(deadlineNanos - System.nanoTime(),
+                responseTimeout(customerData.size()).toNanos());
+        if (remainingNanos <= 0) {
+            return CompletableFuture.failedFuture(new TimeoutException("AI 서버 호출 기한 초과"));
+        }
+
+        byte[] body;
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            writeRequestBody(output, listWriter(customerData), bounds, compact);
+            body = output.toByteArray();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = newRequest(compact, Duration.ofNanos(remainingNanos))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> sending =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // 요청 타임아웃은 응답 헤더까지만 적용되므로 본문 수신까지 기한을 걸고, 넘기면 요청 취소
+        CompletableFuture<HttpResponse<byte[]>> bounded =
+                sending.copy().orTimeout(remainingNanos, TimeUnit.NANOSECONDS);
+        bounded.whenComplete((response, error) -> {
+            if (error != null) {
+                sending.cancel(true);
+            }
+        });
+
+        log.info("AI 서버 고객 분석 비동기 요청 전송. 고객 수: {}, 형식: {}, 본문: {}B",
+                customerData.size(), compact ? "compact" : "json", body.length);
+
+        return bounded.thenCompose(response -> {
+            if (compact && isUnsupportedFormat(response.statusCode())) {
+                rejectCompactFormat();
+                return exchangeAsync(customerData, bounds, false, deadlineNanos);
+            }
+            if (compact && HttpStatusCode.valueOf(response.statusCode()).is2xxSuccessful()) {
+                acceptCompactFormat();
+            }
+
+            List<AiCustomerDataOutputDto> results = new ArrayList<>(customerData.size());
+            readResponse(response.statusCode(), response.headers(), new ByteArrayInputStream(response.body()),
+                    results::addAll, RESULT_BATCH_SIZE);
+            recordLatency(customerData.size(), startedAt);
+            return CompletableFuture.completedFuture(new AiCustomerDataResponseDto(results));
+        });
+    }
+
+    // 비동기 호출 실패 원인을 BusinessException으로 변환
+    private BusinessException toBusinessException(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof BusinessException businessException) {
+            return businessException;
+        }
+        if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+            log.error("AI 서버 호출 기한 초과. 진행 중: {}, 대기 중: {}", callLimiter.inFlight(), callLimiter.waiting());
+        } else {
+            log.error("AI 서버 통신 중 예외 발생", cause);
+        }
+        return new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+    }
+
+    // 협상된 형식으로 요청 본문을 기록하며 전송하고 응답 헤더를 기다림
+    // 본문 전송이 끝난 뒤의 응답 대기는 고객 수 구간별 기한(adaptive-timeout)으로 제한
+    private HttpResponse<InputStream> send(AiRequestBodyWriter bodyWriter, ScoreBounds bounds, boolean compact,
+                                           Duration timeout) {
+        PipedInputStream bodyInput = new PipedInputStream(STREAMING_PIPE_BUFFER_SIZE);
+        CompletableFuture<HttpResponse<InputStream>> responseFuture = null;
+        int customerCount;
+
+        try (PipedOutputStream bodyOutput = new PipedOutputStream(bodyInput)) {
+            HttpRequest request = newRequest(compact, timeout)
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> bodyInput))
+                    .build();
+
+            responseFuture = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            // 본문을 다 읽기 전에 요청이 끝나면(연결 실패, 조기 응답) 쓰는 쪽이 막히지 않도록 파이프를 닫음
+            responseFuture.whenComplete((response, error) -> closeQuietly(bodyInput));
+
+            try {
+                customerCount = writeRequestBody(bodyOutput, bodyWriter, bounds, compact);
+            } catch (RuntimeException e) {
+                responseFuture.cancel(true);
+                closeQuietly(bodyInput);
+                throw e;
+            }
+        } catch (IOException e) {
+            // 서버가 본문을 다 받기 전에 compact 형식을 거부했으면 호출한 쪽에서 JSON으로 다시 보내도록 그 응답을 반환
+            if (compact && responseFuture != null && responseFuture.isDone()
+                    && !responseFuture.isCompletedExceptionally()
+                    && isUnsupportedFormat(responseFuture.join().statusCode())) {
+                return responseFuture.join();
+            }
+            // 파이프가 닫혀 쓰지 못한 경우 실제 원인은 응답 쪽 예외
+            log.error("AI 서버 스트리밍 요청 전송 중 예외 발생", e);
+            throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+        }
+
+        Duration responseTimeout = responseTimeout(customerCount);
+        log.info("AI 서버 고객 분석 요청 전송 완료. 고객 수: {}, 형식: {}, gzip: {}, 응답 대기 기한: {}ms",
+                customerCount, compact ? "compact" : "json", aiClientProps.isGzip(), responseTimeout.toMillis());
+
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response =
+                    responseFuture.get(responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (HttpStatusCode.valueOf(response.statusCode()).is2xxSuccessful()) {
+                recordLatency(customerCount, startedAt);
+            }
             return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            responseFuture.cancel(true);
+            throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+        } catch (ExecutionException | TimeoutException e) {
+            responseFuture.cancel(true);
+            log.error("AI 서버 통신 중 예외 발생 (응답 대기 기한: {}ms)", responseTimeout.toMillis(), e);
+            throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+        }
+    }
+
+    private HttpRequest.Builder newRequest(boolean compact, Duration timeout) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(customerAnalysisUri)
+                .timeout(timeout)
+                .header("Content-Type", compact ? COMPACT_JSON_VALUE : MediaType.APPLICATION_JSON_VALUE)
+                .header("Accept", compact ? COMPACT_JSON_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE
+                        : MediaType.APPLICATION_JSON_VALUE);
+        if (aiClientProps.isGzip()) {
+            requestBuilder.header("Content-Encoding", "gzip")
+                    .header("Accept-Encoding", "gzip, deflate");
+        }
+        return requestBuilder;
+    }
+
+    // {"data": [...]} (compact면 columns 헤더, 정규화 범위가 있으면 bounds 포함) 형태의 요청 본문 기록, 반환값은 기록한 고객 수
+    // 실패 시 미완성 JSON이 정상 본문처럼 닫히지 않도록 예외가 나면 본문을 닫지 않고 그대로 전파
+    private int writeRequestBody(OutputStream output, AiRequestBodyWriter bodyWriter, ScoreBounds bounds,
+                                 boolean compact) throws IOException {
+        OutputStream wireOutput = aiClientProps.isGzip() ? new GZIPOutputStream(output, GZIP_BUFFER_SIZE) : output;
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(wireOutput);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+        generator.writeStartObject();
+        if (compact) {
+            generator.writeArrayFieldStart(COLUMNS_FIELD);
+            for (String column : INPUT_COLUMNS) {
+                generator.writeString(column);
+            }
+            generator.writeEndArray();
+        }
+        if (bounds != null) {
+            writeBounds(generator, bounds);
+        }
+        generator.writeArrayFieldStart(DATA_FIELD);
+        int customerCount = bodyWriter.writeCustomers(compact ? compactWriter(generator) : generator::writeObject);
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+
+        return customerCount;
+    }
+
+    // "bounds": {"total_visits": [min, max], ...} (서버가 정규화 직전 값에 적용하는 범위)
+    private void writeBounds(JsonGenerator generator, ScoreBounds bounds) throws IOException {
+        generator.writeObjectFieldStart(BOUNDS_FIELD);
+        writeRange(generator, "total_visits", bounds.totalVisits());
+        writeRange(generator, "avg_spend", bounds.avgSpend());
+        writeRange(generator, "recency", bounds.recency());
+        writeRange(generator, "churn_recency", bounds.churnRecency());
+        writeRange(generator, "trend_inverse", bounds.trendInverse());
+        writeRange(generator, "visit_decline", bounds.visitDecline());
+        writeRange(generator, "churn_score", bounds.churnScore());
+        generator.writeEndObject();
+    }
+
+    private void writeRange(JsonGenerator generator, String fieldName, ScoreBounds.Range range) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        generator.writeNumber(range.min());
+        generator.writeNumber(range.max());
+        generator.writeEndArray();
+    }
+
+    private AiRequestBodyWriter listWriter(List<AiCustomerDataInputDto> customerData) {
+        return writer -> {
+            for (AiCustomerDataInputDto customer : customerData) {
+                writer.write(customer);
+            }
+            return customerData.size();
+        };
+    }
+
+    // compact 형식: 고객 한 건을 INPUT_COLUMNS 순서의 값 배열로 기록
+    private AiCustomerDataWriter compactWriter(JsonGenerator generator) {
+        return customer -> {
+            generator.writeStartArray();
+            generator.writeString(customer.customerId());
+            generator.writeNumber(customer.amount());
+            generator.writeNumber(customer.totalVisits());
+            generator.writeNumber(customer.daysSinceLastVisit());
+            generator.writeNumber(customer.visits8WeekAgo());
+            generator.writeNumber(customer.visits7WeekAgo());
+            generator.writeNumber(customer.visits6WeekAgo());
+            generator.writeNumber(customer.visits5WeekAgo());
+            generator.writeNumber(customer.visits4WeekAgo());
+            generator.writeNumber(customer.visits3WeekAgo());
+            generator.writeNumber(customer.visits2WeekAgo());
+            generator.writeNumber(customer.visits1WeekAgo());
+            generator.writeEndArray();
+        };
+    }
+
+    // 스트리밍 응답 본문 읽기에도 남은 호출 기한 적용
+    // 요청 타임아웃은 응답 헤더까지만 적용되므로, 기한이 지나면 응답 스트림을 닫아 막혀 있는 읽기를 중단
+    private int readResponseWithin(HttpResponse<InputStream> response, AiResultBatchHandler resultHandler,
+                                   int batchSize, long deadlineNanos) {
+        InputStream body = response.body();
+        CompletableFuture<Void> reading = new CompletableFuture<>();
+        reading.orTimeout(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        closeQuietly(body);
+                    }
+                });
+
+        try {
+            return readResponse(response.statusCode(), response.headers(), body, resultHandler, batchSize);
+        } catch (BusinessException e) {
+            if (reading.isCompletedExceptionally()) {
+                log.error("AI 서버 응답 수신 기한 초과 (호출 기한: {}ms)", aiClientProps.getCallTimeout().toMillis());
+                throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+            }
+            throw e;
+        } finally {
+            reading.complete(null);
+        }
+    }
+
+    // 응답 상태를 확인하고 Content-Encoding/Content-Type에 맞춰 분석 결과를 순차적으로 읽어 전달
+    private int readResponse(int statusCode, HttpHeaders headers, InputStream rawBody,
+                             AiResultBatchHandler resultHandler, int batchSize) {
+        try (InputStream body = decode(headers, rawBody)) {
+            if (HttpStatusCode.valueOf(statusCode).isError()) {
+                log.error("AI 서버 에러 - Status: {}, Body: {}",
+                        statusCode, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
+            }
+
+            boolean compact = headers.firstValue("Content-Type")
+                    .map(contentType -> contentType.startsWith(COMPACT_JSON_VALUE))
+                    .orElse(false);
+
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                int resultCount = readResults(parser, resultHandler, batchSize, compact);
+                log.info("AI 서버 고객 분석 완료. 응답 수: {}", resultCount);
+                return resultCount;
+            }
 
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("AI 서버 통신 중 예외 발생", e);
             throw new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    // JDK HttpClient는 응답 압축을 풀지 않으므로 Content-Encoding에 따라 직접 해제
+    private InputStream decode(HttpHeaders headers, InputStream body) throws IOException {
+        String encoding = headers.firstValue("Content-Encoding").orElse("identity");
+        return switch (encoding.toLowerCase()) {
+            case "gzip" -> new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+            case "deflate" -> new InflaterInputStream(body);
+            default -> body;
+        };
+    }
+
+    // {"result": [...]} 형태의 응답에서 result 배열 원소를 하나씩 읽어 batchSize개씩 전달
+    // compact 응답은 result 앞의 columns 헤더로 값 배열의 위치를 찾음
+    private int readResults(JsonParser parser, AiResultBatchHandler resultHandler, int batchSize,
+                            boolean compact) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            log.error("AI 서버 응답 형식이 올바르지 않습니다.");
+            throw new BusinessException(ErrorCode.INVAILD_AI_SERVER_RESPONSE);
+        }
+
+        List<String> columns = null;
+        boolean hasResult = false;
+        int resultCount = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+
+            if (compact && COLUMNS_FIELD.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                columns = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    columns.add(parser.getValueAsString());
+                }
+                continue;
+            }
+
+            if (!RESULT_FIELD.equals(fieldName) || valueToken != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+
+            if (compact && (columns == null || !columns.contains(CUSTOMER_ID_COLUMN))) {
+                log.error("AI 서버 compact 응답에 columns 헤더가 없습니다.");
+                throw new BusinessException(ErrorCode.INVAILD_AI_SERVER_RESPONSE);
+            }
+
+            hasResult = true;
+            List<AiCustomerDataOutputDto> batch = new ArrayList<>(batchSize);
+
+            JsonToken elementToken;
+            while ((elementToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (elementToken == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if (compact && elementToken != JsonToken.START_ARRAY) {
+                    log.error("AI 서버 compact 응답 형식이 올바르지 않습니다.");
+                    throw new BusinessException(ErrorCode.INVAILD_AI_SERVER_RESPONSE);
+                }
+
+                batch.add(compact ? readCompactResult(parser, columns) : parser.readValueAs(AiCustomerDataOutputDto.class));
+                resultCount++;
+
+                if (batch.size() == batchSize) {
+                    resultHandler.handle(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                resultHandler.handle(batch);
+            }
+        }
+
+        if (!hasResult) {
+            log.error("AI 서버 응답이 비어있습니다.");
+            throw new BusinessException(ErrorCode.INVAILD_AI_SERVER_RESPONSE);
+        }
+
+        return resultCount;
+    }
+
+    // compact 응답의 값 배열 한 건을 columns 헤더 순서대로 읽음 (알 수 없는 열은 건너뜀)
+    private AiCustomerDataOutputDto readCompactResult(JsonParser parser, List<String> columns) throws IOException {
+        String customerId = null;
+        String segment = null;
+        Double loyaltyScore = null;
+
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String column = index < columns.size() ? columns.get(index) : null;
+            index++;
+
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (CUSTOMER_ID_COLUMN.equals(column)) {
+                customerId = parser.getValueAsString();
+            } else if (SEGMENT_COLUMN.equals(column)) {
+                segment = parser.getValueAsString();
+            } else if (LOYALTY_SCORE_COLUMN.equals(column)) {
+                loyaltyScore = parser.getValueAsDouble();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return new AiCustomerDataOutputDto(customerId, segment, loyaltyScore);
+    }
+
+    private void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.debug("AI 서버 요청 스트림 종료 실패", e);
+        }
+    }
+}
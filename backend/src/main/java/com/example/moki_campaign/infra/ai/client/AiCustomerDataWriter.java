@@ -0,0 +1,15 @@
+package com.example.moki_campaign.infra.ai.client;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+
+import java.io.IOException;
+
+/**
+ * 분석 요청 본문에 고객 데이터 한 건 기록
+ * 협상된 본문 형식(JSON 객체 / compact 값 배열)에 맞춰 AiClient가 구현을 제공
+ */
+@FunctionalInterface
+public interface AiCustomerDataWriter {
+
+    void write(AiCustomerDataInputDto customer) throws IOException;
+}
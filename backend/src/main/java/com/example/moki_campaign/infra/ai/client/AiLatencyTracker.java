@@ -0,0 +1,101 @@
+package com.example.moki_campaign.infra.ai.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * 요청 고객 수 구간별 AI 서버 응답 시간 추적 및 응답 대기 기한 계산
+ * 구간(2의 거듭제곱 단위)마다 응답 시간의 지수 가중 평균과 편차를 유지하고
+ * (평균 + 4 × 편차) × headroom을 최소/최대 기한 사이로 제한해 사용 (관측이 부족한 구간은 최대 기한)
+ */
+public class AiLatencyTracker {
+
+    // 평균/편차 갱신 가중치 (TCP 재전송 타임아웃 계산과 동일한 값)
+    private static final double MEAN_WEIGHT = 0.125;
+    private static final double DEVIATION_WEIGHT = 0.25;
+
+    private final Duration minTimeout;
+    private final Duration maxTimeout;
+    private final int minimumSamples;
+    private final double headroom;
+    private final IntConsumer newBucketListener;
+
+    private final Map<Integer, Estimate> estimates = new ConcurrentHashMap<>();
+
+    public AiLatencyTracker(Duration minTimeout, Duration maxTimeout, int minimumSamples, double headroom,
+                            IntConsumer newBucketListener) {
+        this.minTimeout = minTimeout.compareTo(maxTimeout) < 0 ? minTimeout : maxTimeout;
+        this.maxTimeout = maxTimeout;
+        this.minimumSamples = Math.max(1, minimumSamples);
+        this.headroom = Math.max(1.0, headroom);
+        this.newBucketListener = newBucketListener;
+    }
+
+    // 고객 수가 속한 구간 (1 → 1, 2~3 → 2, 4~7 → 3, ...)
+    public static int bucketOf(int customerCount) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, customerCount));
+    }
+
+    // 구간에 속하는 최대 고객 수
+    public static long bucketUpperBound(int bucket) {
+        return (1L << bucket) - 1;
+    }
+
+    public void record(int customerCount, Duration elapsed) {
+        int bucket = bucketOf(customerCount);
+        Estimate estimate = estimates.computeIfAbsent(bucket, key -> new Estimate());
+        if (estimate.update(elapsed.toNanos() / 1_000_000.0) == 1) {
+            newBucketListener.accept(bucket);
+        }
+    }
+
+    public Duration timeoutFor(int customerCount) {
+        return timeoutForBucket(bucketOf(customerCount));
+    }
+
+    public Duration timeoutForBucket(int bucket) {
+        Estimate estimate = estimates.get(bucket);
+        if (estimate == null) {
+            return maxTimeout;
+        }
+
+        double timeoutMillis = estimate.timeoutMillis(minimumSamples);
+        if (Double.isNaN(timeoutMillis)) {
+            return maxTimeout;
+        }
+
+        Duration timeout = Duration.ofMillis((long) Math.ceil(timeoutMillis * headroom));
+        if (timeout.compareTo(minTimeout) < 0) {
+            return minTimeout;
+        }
+        return timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+    }
+
+    private static final class Estimate {
+
+        private long samples;
+        private double meanMillis;
+        private double deviationMillis;
+
+        // 반환값은 갱신 후 관측 수
+        synchronized long update(double elapsedMillis) {
+            if (samples == 0) {
+                meanMillis = elapsedMillis;
+                deviationMillis = elapsedMillis / 2;
+            } else {
+                deviationMillis += DEVIATION_WEIGHT * (Math.abs(elapsedMillis - meanMillis) - deviationMillis);
+                meanMillis += MEAN_WEIGHT * (elapsedMillis - meanMillis);
+            }
+            return ++samples;
+        }
+
+        synchronized double timeoutMillis(int minimumSamples) {
+            if (samples < minimumSamples) {
+                return Double.NaN;
+            }
+            return meanMillis + 4 * deviationMillis;
+        }
+    }
+}
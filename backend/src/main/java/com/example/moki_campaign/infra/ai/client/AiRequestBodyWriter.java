@@ -0,0 +1,15 @@
+package com.example.moki_campaign.infra.ai.client;
+
+import java.io.IOException;
+
+/**
+ * 스트리밍 분석 요청 본문 작성
+ * AiClient가 연 "data" 배열 안에 고객 데이터를 한 건씩 기록하고 기록한 고객 수를 반환
+ * 요청 형식은 본문을 보내기 전에 정해지므로 보통 호출마다 한 번만 실행됨 (DB 커서를 그대로 흘려보낼 수 있음)
+ * 형식 확인 뒤 서버가 compact 형식을 거부하면 JSON으로 다시 보내기 위해 한 번 더 실행되므로 같은 고객을 다시 기록할 수 있어야 함
+ */
+@FunctionalInterface
+public interface AiRequestBodyWriter {
+
+    int writeCustomers(AiCustomerDataWriter writer) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.example.moki_campaign.infra.ai.client;
+
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+
+import java.util.List;
+
+/**
+ * 스트리밍 응답의 분석 결과 처리
+ * 응답의 "result" 배열을 읽는 도중 정해진 개수만큼 모일 때마다 호출됨
+ */
+@FunctionalInterface
+public interface AiResultBatchHandler {
+
+    void handle(List<AiCustomerDataOutputDto> batch);
+}
@@ -0,0 +1,57 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+
+import java.util.List;
+
+/**
+ * 점수 계산용 고객 특성 열 배열 (고객 i의 특성은 각 배열의 i번째 값)
+ * weeklyVisits[w][i]: 고객 i의 (w + 1)주 전 방문 횟수 (w = 0 → 1주 전, w = 7 → 8주 전)
+ */
+public record CustomerFeatureColumns(
+        double[] amount,
+        int[] totalVisits,
+        int[] daysSinceLastVisit,
+        int[][] weeklyVisits
+) {
+
+    public static final int WEEKS = 8;
+
+    public int size() {
+        return amount.length;
+    }
+
+    public static CustomerFeatureColumns from(List<AiCustomerDataInputDto> inputData) {
+        int size = inputData.size();
+        double[] amount = new double[size];
+        int[] totalVisits = new int[size];
+        int[] daysSinceLastVisit = new int[size];
+        int[][] weeklyVisits = new int[WEEKS][size];
+
+        for (int i = 0; i < size; i++) {
+            AiCustomerDataInputDto input = inputData.get(i);
+            amount[i] = valueOf(input.amount());
+            totalVisits[i] = valueOf(input.totalVisits());
+            daysSinceLastVisit[i] = valueOf(input.daysSinceLastVisit());
+            weeklyVisits[0][i] = valueOf(input.visits1WeekAgo());
+            weeklyVisits[1][i] = valueOf(input.visits2WeekAgo());
+            weeklyVisits[2][i] = valueOf(input.visits3WeekAgo());
+            weeklyVisits[3][i] = valueOf(input.visits4WeekAgo());
+            weeklyVisits[4][i] = valueOf(input.visits5WeekAgo());
+            weeklyVisits[5][i] = valueOf(input.visits6WeekAgo());
+            weeklyVisits[6][i] = valueOf(input.visits7WeekAgo());
+            weeklyVisits[7][i] = valueOf(input.visits8WeekAgo());
+        }
+
+        return new CustomerFeatureColumns(amount, totalVisits, daysSinceLastVisit, weeklyVisits);
+    }
+
+    // AI 서버와 같이 누락 값은 0으로 처리
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
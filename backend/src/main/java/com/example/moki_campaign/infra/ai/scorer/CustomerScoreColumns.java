@@ -0,0 +1,11 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+/**
+ * 고객별 점수 계산 결과 열 배열 (입력 특성과 같은 순서)
+ */
+public record CustomerScoreColumns(
+        double[] loyaltyScores,
+        double[] churnRiskScores,
+        String[] segments
+) {
+}
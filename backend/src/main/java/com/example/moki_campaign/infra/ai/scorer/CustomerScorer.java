@@ -0,0 +1,19 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+
+import java.util.List;
+
+/**
+ * 고객 충성도/세그먼트 점수 계산
+ * analysis.scorer 설정에 따라 원격 AI 서버(REMOTE) 또는 JVM 내 규칙 기반 엔진(LOCAL)을 사용
+ * 구현체는 상태를 갖지 않으므로 여러 매장 분석에서 동시에 호출해도 됨
+ */
+public interface CustomerScorer {
+
+    AiCustomerDataResponseDto score(List<AiCustomerDataInputDto> inputData);
+
+    // 매장 고객 일부(청크/델타)만 계산할 때 매장 전체 범위로 정규화 (bounds가 null이면 score(inputData)와 같음)
+    AiCustomerDataResponseDto score(List<AiCustomerDataInputDto> inputData, ScoreBounds bounds);
+}
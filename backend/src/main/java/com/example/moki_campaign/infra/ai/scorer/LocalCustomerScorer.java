@@ -0,0 +1,35 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM 내 규칙 기반 엔진으로 점수 계산 (네트워크 왕복 없음)
+ * AI 서버의 RandomForest 단계 없이 학습 정답으로 쓰이는 규칙 기반 점수를 그대로 사용
+ * (AI 서버도 활성 고객이 10명 미만인 요청에서는 같은 점수를 반환)
+ */
+public class LocalCustomerScorer implements CustomerScorer {
+
+    @Override
+    public AiCustomerDataResponseDto score(List<AiCustomerDataInputDto> inputData) {
+        return score(inputData, null);
+    }
+
+    @Override
+    public AiCustomerDataResponseDto score(List<AiCustomerDataInputDto> inputData, ScoreBounds bounds) {
+        CustomerScoreColumns scores = LoyaltyScoringEngine.score(CustomerFeatureColumns.from(inputData), bounds);
+
+        List<AiCustomerDataOutputDto> result = new ArrayList<>(inputData.size());
+        for (int i = 0; i < inputData.size(); i++) {
+            result.add(new AiCustomerDataOutputDto(
+                    inputData.get(i).customerId(),
+                    scores.segments()[i],
+                    scores.loyaltyScores()[i]));
+        }
+        return new AiCustomerDataResponseDto(result);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+import java.util.Arrays;
+
+/**
+ * AI 서버(ai/server/AI/app/main.py)의 규칙 기반 충성도/이탈 위험 점수를 열 배열 위에서 계산
+ * 충성도: 로그 변환 후 Min-Max 정규화한 누적 방문 수 0.3 + 평균 지출 0.3 + (1 - 마지막 방문 경과일) 0.4
+ * 이탈 위험: 경과일(60일 상한) 0.3 + 최근 주 가중 방문의 역수 0.3 + 최근 4주 방문 감소량(로그) 0.4 를 다시 Min-Max 정규화
+ * 60일 넘게 방문하지 않은 고객은 정규화에서 제외하고 충성도 0, 이탈 위험 1, CHURN_RISK로 처리
+ * 정규화 범위(ScoreBounds)를 넘기면 입력 고객끼리가 아니라 그 범위(매장 전체)로 정규화
+ * 연산 순서와 반올림(소수점 4자리, half-even)을 서버와 맞추어 같은 입력에 같은 값을 반환
+ */
+public final class LoyaltyScoringEngine {
+
+    public static final String AT_RISK_LOYAL = "AT_RISK_LOYAL";
+    public static final String LOYAL = "LOYAL";
+    public static final String CHURN_RISK = "CHURN_RISK";
+    public static final String GENERAL = "GENERAL";
+
+    private static final int ACTIVE_THRESHOLD_DAYS = 60;
+
+    private static final double TOTAL_VISITS_WEIGHT = 0.3;
+    private static final double AVG_SPEND_WEIGHT = 0.3;
+    private static final double RECENCY_WEIGHT = 0.4;
+
+    private static final double CHURN_RECENCY_WEIGHT = 0.3;
+    private static final double CHURN_TREND_WEIGHT = 0.3;
+    private static final double CHURN_DECLINE_WEIGHT = 0.4;
+
+    private static final double LOYALTY_THRESHOLD = 0.60;
+    private static final double CHURN_RISK_THRESHOLD = 0.40;
+
+    private LoyaltyScoringEngine() {
+    }
+
+    public static CustomerScoreColumns score(CustomerFeatureColumns features) {
+        return score(features, null);
+    }
+
+    // bounds가 null이면 입력 고객끼리 정규화
+    public static CustomerScoreColumns score(CustomerFeatureColumns features, ScoreBounds bounds) {
+        int size = features.size();
+        double[] loyaltyScores = new double[size];
+        double[] churnRiskScores = new double[size];
+        String[] segments = new String[size];
+
+        // 활성 고객(경과일 60일 이하) 위치만 모아 정규화 대상으로 사용
+        int[] active = new int[size];
+        int activeCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (isActive(features, i)) {
+                active[activeCount++] = i;
+            } else {
+                loyaltyScores[i] = 0.0;
+                churnRiskScores[i] = 1.0;
+                segments[i] = CHURN_RISK;
+            }
+        }
+
+        if (activeCount == 0) {
+            return new CustomerScoreColumns(loyaltyScores, churnRiskScores, segments);
+        }
+        active = Arrays.copyOf(active, activeCount);
+
+        double[] loyalty = loyaltyScores(features, active, bounds);
+        double[] churn = churnRiskScores(features, active, bounds);
+
+        for (int k = 0; k < activeCount; k++) {
+            int i = active[k];
+            loyaltyScores[i] = round4(loyalty[k]);
+            churnRiskScores[i] = round4(churn[k]);
+            segments[i] = segmentOf(loyaltyScores[i], churnRiskScores[i]);
+        }
+
+        return new CustomerScoreColumns(loyaltyScores, churnRiskScores, segments);
+    }
+
+    // 규칙 기반 충성도 점수 (0 ~ 1)
+    private static double[] loyaltyScores(CustomerFeatureColumns features, int[] active, ScoreBounds bounds) {
+        int n = active.length;
+        double[] totalVisits = new double[n];
+        double[] avgSpend = new double[n];
+        double[] recency = new double[n];
+
+        for (int k = 0; k < n; k++) {
+            int i = active[k];
+            totalVisits[k] = totalVisitsValue(features, i);
+            avgSpend[k] = avgSpendValue(features, i);
+            recency[k] = recencyValue(features, i);
+        }
+
+        normalize(totalVisits, bounds != null ? bounds.totalVisits() : null);
+        normalize(avgSpend, bounds != null ? bounds.avgSpend() : null);
+        normalize(recency, bounds != null ? bounds.recency() : null);
+
+        double[] scores = new double[n];
+        for (int k = 0; k < n; k++) {
+            double weighted = totalVisits[k] * TOTAL_VISITS_WEIGHT
+                    + avgSpend[k] * AVG_SPEND_WEIGHT
+                    + (1.0 - recency[k]) * RECENCY_WEIGHT;
+            scores[k] = Math.min(1.0, Math.max(0.0, weighted));
+        }
+        return scores;
+    }
+
+    // 이탈 위험 점수 (매장 내 Min-Max 정규화된 0 ~ 1)
+    private static double[] churnRiskScores(CustomerFeatureColumns features, int[] active, ScoreBounds bounds) {
+        int n = active.length;
+        double[] recency = new double[n];
+        double[] trendInverse = new double[n];
+        double[] decline = new double[n];
+
+        for (int k = 0; k < n; k++) {
+            int i = active[k];
+            recency[k] = churnRecencyValue(features, i);
+            trendInverse[k] = trendInverseValue(features, i);
+            decline[k] = visitDeclineValue(features, i);
+        }
+
+        normalize(recency, bounds != null ? bounds.churnRecency() : null);
+        normalize(trendInverse, bounds != null ? bounds.trendInverse() : null);
+        normalize(decline, bounds != null ? bounds.visitDecline() : null);
+
+        double[] scores = new double[n];
+        for (int k = 0; k < n; k++) {
+            scores[k] = churnComposite(recency[k], trendInverse[k], decline[k]);
+        }
+        normalize(scores, bounds != null ? bounds.churnScore() : null);
+        return scores;
+    }
+
+    static boolean isActive(CustomerFeatureColumns features, int i) {
+        return features.daysSinceLastVisit()[i] <= ACTIVE_THRESHOLD_DAYS;
+    }
+
+    static double totalVisitsValue(CustomerFeatureColumns features, int i) {
+        return Math.log1p(features.totalVisits()[i]);
+    }
+
+    static double avgSpendValue(CustomerFeatureColumns features, int i) {
+        int visits = features.totalVisits()[i];
+        return Math.log1p(visits > 0 ? features.amount()[i] / visits : 0);
+    }
+
+    static double recencyValue(CustomerFeatureColumns features, int i) {
+        return Math.log1p(features.daysSinceLastVisit()[i]);
+    }
+
+    static double churnRecencyValue(CustomerFeatureColumns features, int i) {
+        return Math.min(features.daysSinceLastVisit()[i], ACTIVE_THRESHOLD_DAYS);
+    }
+
+    // 1주 전 8 ~ 8주 전 1 가중치로 최근 활동량 합산, 활동이 적을수록 위험하도록 역수 사용
+    static double trendInverseValue(CustomerFeatureColumns features, int i) {
+        int[][] weeklyVisits = features.weeklyVisits();
+        double weighted = 0.0;
+        for (int w = 0; w < CustomerFeatureColumns.WEEKS; w++) {
+            weighted += weeklyVisits[w][i] * (double) (CustomerFeatureColumns.WEEKS - w);
+        }
+        return 1.0 / (1.0 + weighted);
+    }
+
+    static double visitDeclineValue(CustomerFeatureColumns features, int i) {
+        int[][] weeklyVisits = features.weeklyVisits();
+        int recent4Weeks = weeklyVisits[0][i] + weeklyVisits[1][i] + weeklyVisits[2][i] + weeklyVisits[3][i];
+        int past4Weeks = weeklyVisits[4][i] + weeklyVisits[5][i] + weeklyVisits[6][i] + weeklyVisits[7][i];
+        return Math.log1p(Math.max(0, past4Weeks - recent4Weeks));
+    }
+
+    // 정규화된 이탈 위험 요소의 가중 합 (최종 Min-Max 정규화 전)
+    static double churnComposite(double recency, double trendInverse, double decline) {
+        return recency * CHURN_RECENCY_WEIGHT
+                + trendInverse * CHURN_TREND_WEIGHT
+                + decline * CHURN_DECLINE_WEIGHT;
+    }
+
+    private static String segmentOf(double loyaltyScore, double churnRiskScore) {
+        boolean loyal = loyaltyScore >= LOYALTY_THRESHOLD;
+        boolean highRisk = churnRiskScore >= CHURN_RISK_THRESHOLD;
+
+        if (loyal) {
+            return highRisk ? AT_RISK_LOYAL : LOYAL;
+        }
+        return highRisk ? CHURN_RISK : GENERAL;
+    }
+
+    // range가 null이면 값들끼리 Min-Max 정규화, 있으면 그 범위로 정규화하고 범위 밖 값은 0 ~ 1로 자름
+    private static void normalize(double[] values, ScoreBounds.Range range) {
+        if (range == null) {
+            minMax(values);
+            return;
+        }
+        if (range.max() == range.min()) {
+            Arrays.fill(values, 0.5);
+            return;
+        }
+        for (int k = 0; k < values.length; k++) {
+            values[k] = range.normalize(values[k]);
+        }
+    }
+
+    // Min-Max 정규화 (모든 값이 같으면 0.5)
+    static void minMax(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        if (max == min) {
+            Arrays.fill(values, 0.5);
+            return;
+        }
+
+        double range = max - min;
+        for (int k = 0; k < values.length; k++) {
+            values[k] = (values[k] - min) / range;
+        }
+    }
+
+    // numpy round(x, 4)와 같은 반올림 (x × 10⁴을 가장 가까운 짝수 쪽 정수로)
+    static double round4(double value) {
+        return Math.rint(value * 10000.0) / 10000.0;
+    }
+}
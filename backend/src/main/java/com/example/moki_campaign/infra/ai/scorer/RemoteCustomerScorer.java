@@ -0,0 +1,28 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 원격 AI 서버로 점수 계산 (규칙 기반 점수로 학습한 RandomForest 예측값)
+ * 정규화 범위를 함께 보내면 서버는 요청 고객만으로 모델을 학습하지 않고 그 범위로 정규화한 규칙 기반 점수를 반환
+ */
+@RequiredArgsConstructor
+public class RemoteCustomerScorer implements CustomerScorer {
+
+    private final AiClient aiClient;
+
+    @Override
+    public AiCustomerDataResponseDto score(List<AiCustomerDataInputDto> inputData) {
+        return aiClient.analyzeCustomers(inputData);
+    }
+
+    @Override
+    public AiCustomerDataResponseDto score(List<AiCustomerDataInputDto> inputData, ScoreBounds bounds) {
+        return aiClient.analyzeCustomers(inputData, bounds);
+    }
+}
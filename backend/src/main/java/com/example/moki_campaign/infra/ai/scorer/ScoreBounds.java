@@ -0,0 +1,121 @@
+package com.example.moki_campaign.infra.ai.scorer;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 매장 전체 활성 고객 기준 점수 정규화 범위
+ * 청크/델타 요청처럼 매장 고객 일부만 점수를 계산할 때, 요청 고객끼리 정규화하면 매장 전체를 한 번에 계산한 점수와 달라지므로
+ * 매장 전체에서 구한 범위를 함께 넘겨 같은 기준으로 정규화 (각 범위는 로그 변환 등 정규화 직전 값 기준)
+ */
+public record ScoreBounds(
+        Range totalVisits,
+        Range avgSpend,
+        Range recency,
+        Range churnRecency,
+        Range trendInverse,
+        Range visitDecline,
+        Range churnScore
+) {
+
+    // 고객 목록 전체의 범위 (활성 고객이 없으면 null)
+    public static ScoreBounds of(List<AiCustomerDataInputDto> inputData) {
+        Collector collector = new Collector();
+        collector.add(CustomerFeatureColumns.from(inputData));
+        return collector.build();
+    }
+
+    public record Range(double min, double max) {
+
+        // min ~ max를 0 ~ 1로 변환, 범위 밖 값은 0 또는 1
+        public double normalize(double value) {
+            return Math.min(1.0, Math.max(0.0, (value - min) / (max - min)));
+        }
+    }
+
+    /**
+     * 고객 특성을 나누어 받아 범위 계산
+     * 이탈 위험 합산 점수의 범위는 각 요소의 범위가 정해진 뒤에야 구할 수 있으므로 활성 고객의 이탈 위험 요소 3개만 보관
+     */
+    public static final class Collector {
+
+        private final MinMax totalVisits = new MinMax();
+        private final MinMax avgSpend = new MinMax();
+        private final MinMax recency = new MinMax();
+        private final MinMax churnRecency = new MinMax();
+        private final MinMax trendInverse = new MinMax();
+        private final MinMax visitDecline = new MinMax();
+
+        private double[] churnValues = new double[3 * 1024];
+        private int activeCount;
+
+        public void add(CustomerFeatureColumns features) {
+            for (int i = 0; i < features.size(); i++) {
+                if (!LoyaltyScoringEngine.isActive(features, i)) {
+                    continue;
+                }
+                totalVisits.add(LoyaltyScoringEngine.totalVisitsValue(features, i));
+                avgSpend.add(LoyaltyScoringEngine.avgSpendValue(features, i));
+                recency.add(LoyaltyScoringEngine.recencyValue(features, i));
+
+                double recencyValue = LoyaltyScoringEngine.churnRecencyValue(features, i);
+                double trendValue = LoyaltyScoringEngine.trendInverseValue(features, i);
+                double declineValue = LoyaltyScoringEngine.visitDeclineValue(features, i);
+                churnRecency.add(recencyValue);
+                trendInverse.add(trendValue);
+                visitDecline.add(declineValue);
+
+                if (churnValues.length < (activeCount + 1) * 3) {
+                    churnValues = Arrays.copyOf(churnValues, churnValues.length * 2);
+                }
+                churnValues[activeCount * 3] = recencyValue;
+                churnValues[activeCount * 3 + 1] = trendValue;
+                churnValues[activeCount * 3 + 2] = declineValue;
+                activeCount++;
+            }
+        }
+
+        // 활성 고객이 없으면 null (정규화할 고객이 없음)
+        public ScoreBounds build() {
+            if (activeCount == 0) {
+                return null;
+            }
+
+            Range churnRecencyRange = churnRecency.toRange();
+            Range trendInverseRange = trendInverse.toRange();
+            Range visitDeclineRange = visitDecline.toRange();
+
+            MinMax churnScore = new MinMax();
+            for (int k = 0; k < activeCount; k++) {
+                churnScore.add(LoyaltyScoringEngine.churnComposite(
+                        normalize(churnValues[k * 3], churnRecencyRange),
+                        normalize(churnValues[k * 3 + 1], trendInverseRange),
+                        normalize(churnValues[k * 3 + 2], visitDeclineRange)));
+            }
+
+            return new ScoreBounds(totalVisits.toRange(), avgSpend.toRange(), recency.toRange(),
+                    churnRecencyRange, trendInverseRange, visitDeclineRange, churnScore.toRange());
+        }
+
+        private static double normalize(double value, Range range) {
+            return range.max() == range.min() ? 0.5 : range.normalize(value);
+        }
+    }
+
+    private static final class MinMax {
+
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(double value) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        private Range toRange() {
+            return new Range(min, max);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- customer / daily_visit id 생성을 IDENTITY에서 id_sequence 테이블 기반 구간 할당으로 전환 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 애플리케이션을 멈춘 상태에서 실행
+-- next_val은 마지막으로 할당한 id이므로 (Hibernate 기본값 hibernate.id.generator.stored_last_used=true) 기존 최대 id에서 시작
+
+CREATE TABLE IF NOT EXISTS id_sequence (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'customer', COALESCE(MAX(id), 0) FROM customer
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'daily_visit', COALESCE(MAX(id), 0) FROM daily_visit
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+-- 기존 AUTO_INCREMENT 속성은 그대로 두어도 됨 (모든 INSERT가 id를 지정하며, 외래 키가 걸린 id 컬럼 변경을 피함)
@@ -0,0 +1,22 @@
+-- POS 방문 내보내기 파일 가져오기 작업 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 실행
+
+CREATE TABLE IF NOT EXISTS visit_import (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    store_id         BIGINT       NOT NULL,
+    file_path        VARCHAR(500) NOT NULL,
+    file_size        BIGINT       NOT NULL,
+    status           VARCHAR(20)  NOT NULL,
+    committed_offset BIGINT       NOT NULL,
+    imported_rows    BIGINT       NOT NULL,
+    skipped_rows     BIGINT       NOT NULL,
+    new_customers    BIGINT       NOT NULL,
+    rows_per_second  BIGINT       NOT NULL,
+    attempts         INT          NOT NULL,
+    last_error       VARCHAR(500),
+    completed_at     DATETIME(6),
+    created_at       DATETIME(6)  NOT NULL,
+    updated_at       DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_visit_import_store (store_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,57 @@
+-- 키오스크 방문 일괄 수집 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 애플리케이션을 멈춘 상태에서 실행
+-- daily_visit에 체크인 id / 수집 요청 id 컬럼과 (매장, 체크인 id) 유니크 키를 추가하고,
+-- 매장/전화번호 인덱스를 유니크로 바꾸기 전에 같은 매장의 중복 전화번호 고객을 하나로 합침
+
+ALTER TABLE daily_visit
+    ADD COLUMN idempotency_key VARCHAR(64),
+    ADD COLUMN ingest_batch_id BIGINT,
+    ADD CONSTRAINT uk_daily_visit_store_idempotency_key UNIQUE (store_id, idempotency_key);
+
+-- 1. 중복 전화번호 고객 → 같은 매장/전화번호의 가장 작은 id 고객
+CREATE TEMPORARY TABLE customer_phone_merge (
+    duplicate_id BIGINT NOT NULL,
+    keep_id      BIGINT NOT NULL,
+    PRIMARY KEY (duplicate_id),
+    INDEX idx_customer_phone_merge_keep (keep_id)
+) ENGINE = InnoDB;
+
+INSERT INTO customer_phone_merge (duplicate_id, keep_id)
+SELECT c.id, k.keep_id
+FROM customer c
+JOIN (SELECT store_id, phone_number, MIN(id) AS keep_id
+      FROM customer
+      GROUP BY store_id, phone_number
+      HAVING COUNT(*) > 1) k
+  ON k.store_id = c.store_id AND k.phone_number = c.phone_number AND c.id <> k.keep_id;
+
+-- 2. 중복 고객의 방문을 남길 고객으로 옮기고 누적 통계를 더함
+UPDATE daily_visit v
+JOIN customer_phone_merge m ON m.duplicate_id = v.customer_id
+SET v.customer_id = m.keep_id;
+
+UPDATE customer c
+JOIN (SELECT m.keep_id,
+             SUM(d.total_amount)      AS total_amount,
+             SUM(d.points)            AS points,
+             SUM(d.total_visit_count) AS total_visit_count,
+             MAX(d.last_visit_date)   AS last_visit_date
+      FROM customer_phone_merge m
+      JOIN customer d ON d.id = m.duplicate_id
+      GROUP BY m.keep_id) s ON s.keep_id = c.id
+SET c.total_amount      = c.total_amount + s.total_amount,
+    c.points            = c.points + s.points,
+    c.total_visit_count = c.total_visit_count + s.total_visit_count,
+    c.last_visit_date   = GREATEST(c.last_visit_date, s.last_visit_date);
+
+DELETE c FROM customer c
+JOIN customer_phone_merge m ON m.duplicate_id = c.id;
+
+DROP TEMPORARY TABLE customer_phone_merge;
+
+-- 3. 매장/전화번호 유니크 인덱스 (ON DUPLICATE KEY UPDATE로 동시 등록된 같은 번호를 건너뜀)
+ALTER TABLE customer
+    DROP INDEX idx_customer_store_phone,
+    ADD UNIQUE INDEX idx_customer_store_phone (store_id, phone_number);
+
+-- 합쳐진 고객의 segment/점수는 다음 주간 분석에서 다시 계산됨
@@ -0,0 +1,42 @@
+-- 주간 방문 카운터 테이블 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 애플리케이션을 멈춘 상태에서 실행
+
+CREATE TABLE IF NOT EXISTS customer_visit_counter (
+    customer_id BIGINT NOT NULL,
+    store_id    BIGINT NOT NULL,
+    week_start  DATE   NOT NULL,
+    week1       INT    NOT NULL,
+    week2       INT    NOT NULL,
+    week3       INT    NOT NULL,
+    week4       INT    NOT NULL,
+    week5       INT    NOT NULL,
+    week6       INT    NOT NULL,
+    week7       INT    NOT NULL,
+    week8       INT    NOT NULL,
+    version     BIGINT,
+    PRIMARY KEY (customer_id),
+    INDEX idx_visit_counter_store_customer (store_id, customer_id)
+) ENGINE = InnoDB;
+
+-- 기존 방문 기록으로 주간 방문 카운터 채우기 (week1 = 이번 주(월요일 시작), week8 = 7주 전)
+SET @week_start = DATE_SUB(CURDATE(), INTERVAL WEEKDAY(CURDATE()) DAY);
+
+INSERT INTO customer_visit_counter
+    (customer_id, store_id, week_start, week1, week2, week3, week4, week5, week6, week7, week8, version)
+SELECT c.id, c.store_id, @week_start,
+       COALESCE(SUM(dv.visit_date >= @week_start), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 7 DAY AND dv.visit_date < @week_start), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 14 DAY AND dv.visit_date < @week_start - INTERVAL 7 DAY), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 21 DAY AND dv.visit_date < @week_start - INTERVAL 14 DAY), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 28 DAY AND dv.visit_date < @week_start - INTERVAL 21 DAY), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 35 DAY AND dv.visit_date < @week_start - INTERVAL 28 DAY), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 42 DAY AND dv.visit_date < @week_start - INTERVAL 35 DAY), 0),
+       COALESCE(SUM(dv.visit_date >= @week_start - INTERVAL 49 DAY AND dv.visit_date < @week_start - INTERVAL 42 DAY), 0),
+       0
+FROM customer c
+LEFT JOIN daily_visit dv
+       ON dv.customer_id = c.id
+      AND dv.visit_date >= @week_start - INTERVAL 49 DAY
+      AND dv.visit_date < @week_start + INTERVAL 7 DAY
+GROUP BY c.id, c.store_id
+ON DUPLICATE KEY UPDATE customer_id = customer_id;
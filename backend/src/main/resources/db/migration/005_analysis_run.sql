@@ -0,0 +1,31 @@
+-- 주간 분석 실행 / 매장별 진행 상태 테이블 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 실행
+
+CREATE TABLE IF NOT EXISTS analysis_run (
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    week_start       DATE        NOT NULL,
+    analysis_date    DATE        NOT NULL,
+    status           VARCHAR(20) NOT NULL,
+    total_stores     INT         NOT NULL,
+    completed_stores INT         NOT NULL,
+    failed_stores    INT         NOT NULL,
+    finished_at      DATETIME(6),
+    created_at       DATETIME(6) NOT NULL,
+    updated_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_analysis_run_week_start (week_start)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS store_analysis_progress (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    run_id           BIGINT       NOT NULL,
+    store_id         BIGINT       NOT NULL,
+    status           VARCHAR(20)  NOT NULL,
+    last_customer_id BIGINT       NOT NULL,
+    attempts         INT          NOT NULL,
+    last_error       VARCHAR(500),
+    created_at       DATETIME(6)  NOT NULL,
+    updated_at       DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_store_analysis_progress_run_store (run_id, store_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,11 @@
+-- 델타 분석용 고객 특성 지문 테이블 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 실행
+-- 비워 두면 매장마다 첫 분석에서 전체 고객을 전송하고 지문을 채움
+
+CREATE TABLE IF NOT EXISTS customer_analysis_fingerprint (
+    customer_id BIGINT NOT NULL,
+    store_id    BIGINT NOT NULL,
+    fingerprint BIGINT NOT NULL,
+    PRIMARY KEY (customer_id),
+    INDEX idx_analysis_fingerprint_store (store_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,6 @@
+-- 여러 인스턴스가 주간 분석을 나누어 실행하기 위한 매장별 임대 컬럼 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 실행 (analysis.shard.enabled=false여도 엔티티 매핑에 필요)
+
+ALTER TABLE store_analysis_progress
+    ADD COLUMN owner       VARCHAR(100),
+    ADD COLUMN lease_until DATETIME(6);
@@ -0,0 +1,27 @@
+-- 매장별 적응형 분석 일정 / 구간별 고객 예산 사용량 테이블과 매장별 기간 방문 수 집계용 인덱스 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 실행
+-- 일정 테이블은 비워 두면 첫 실행에서 모든 매장을 바로 분석 대상으로 등록함
+
+CREATE TABLE IF NOT EXISTS store_analysis_schedule (
+    store_id         BIGINT       NOT NULL,
+    next_due_at      DATETIME(6)  NOT NULL,
+    owner            VARCHAR(100),
+    lease_until      DATETIME(6),
+    cadence_hours    INT          NOT NULL,
+    priority         DOUBLE       NOT NULL,
+    recent_visits    INT          NOT NULL,
+    change_ratio     DOUBLE,
+    last_analyzed_at DATETIME(6),
+    PRIMARY KEY (store_id),
+    INDEX idx_store_analysis_schedule_next_due (next_due_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS analysis_budget_window (
+    window_start   DATETIME(6) NOT NULL,
+    used_customers BIGINT      NOT NULL,
+    PRIMARY KEY (window_start)
+) ENGINE = InnoDB;
+
+-- 적응형 분석의 매장별 최근 방문량 집계가 daily_visit 전체를 읽지 않도록 함
+ALTER TABLE daily_visit
+    ADD INDEX idx_daily_visit_store_date (store_id, visit_date);
@@ -0,0 +1,6 @@
+-- 가져오기 파일 내용의 SHA-256 (MySQL)
+-- 운영(ddl-auto=none) 배포 전에 실행
+-- 가져온 방문은 파일 해시와 줄 위치로 만든 체크인 id로 저장되어, 같은 파일을 다시 올려도 중복 저장되지 않음
+-- 이전에 등록된 작업은 비워 두면 실행 시 파일에서 계산함
+
+ALTER TABLE visit_import ADD COLUMN file_hash VARCHAR(64);
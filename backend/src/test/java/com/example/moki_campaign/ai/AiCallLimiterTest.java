@@ -0,0 +1,47 @@
+package com.example.moki_campaign.ai;
+
+import com.example.moki_campaign.infra.ai.client.AiCallLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiCallLimiterTest {
+
+    private final AiCallLimiter limiter = new AiCallLimiter(1);
+
+    @Test
+    void 대기를_포기하면_대기열에서_제거되고_허가가_다음_요청으로_넘어감() {
+        // Given
+        limiter.acquire(Duration.ofMinutes(1)).join();
+        CompletableFuture<Void> abandoned = limiter.acquire(Duration.ofMinutes(1));
+        CompletableFuture<Void> next = limiter.acquire(Duration.ofMinutes(1));
+
+        // When
+        limiter.abandon(abandoned);
+        limiter.release();
+
+        // Then
+        assertThat(abandoned).isCancelled();
+        assertThat(next).isCompleted();
+        assertThat(limiter.waiting()).isZero();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void 포기하기_전에_허가가_넘어왔으면_허가를_반환() {
+        // Given
+        limiter.acquire(Duration.ofMinutes(1)).join();
+        CompletableFuture<Void> permit = limiter.acquire(Duration.ofMinutes(1));
+        limiter.release();
+
+        // When
+        limiter.abandon(permit);
+
+        // Then
+        assertThat(permit).isCompleted();
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
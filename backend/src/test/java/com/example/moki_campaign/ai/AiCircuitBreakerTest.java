@@ -0,0 +1,104 @@
+package com.example.moki_campaign.ai;
+
+import com.example.moki_campaign.infra.ai.client.AiCircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AiCircuitBreaker circuitBreaker =
+            new AiCircuitBreaker(10, 4, 0.5, Duration.ofSeconds(30), 2, clock::get);
+
+    @Test
+    void 실패율이_기준을_넘으면_열리고_기간_동안_호출을_거절() {
+        // Given
+        succeed();
+        succeed();
+        fail();
+
+        // When
+        fail();
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isEqualTo(AiCircuitBreaker.REJECTED);
+        assertThat(circuitBreaker.openedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 열린_기간이_지나면_시험_호출이_모두_성공해야_닫힘() {
+        // Given
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // When
+        long firstTrial = circuitBreaker.tryAcquire();
+        long secondTrial = circuitBreaker.tryAcquire();
+        long thirdTrial = circuitBreaker.tryAcquire();
+
+        // Then: 시험 호출은 half-open-trials(2)건까지만 허용
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.HALF_OPEN);
+        assertThat(thirdTrial).isEqualTo(AiCircuitBreaker.REJECTED);
+
+        circuitBreaker.onSuccess(firstTrial);
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onSuccess(secondTrial);
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.failureRate()).isZero();
+    }
+
+    @Test
+    void 시험_호출이_실패하면_다시_열림() {
+        // Given
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        long trial = circuitBreaker.tryAcquire();
+
+        // When
+        circuitBreaker.onFailure(trial);
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isEqualTo(AiCircuitBreaker.REJECTED);
+        assertThat(circuitBreaker.openedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void 이전_상태에서_허가된_호출의_결과는_반영하지_않음() {
+        // Given
+        long staleCall = circuitBreaker.tryAcquire();
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        long trial = circuitBreaker.tryAcquire();
+
+        // When: 열리기 전에 시작된 호출이 늦게 실패
+        circuitBreaker.onFailure(staleCall);
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onSuccess(trial);
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+    }
+
+    private void succeed() {
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    }
+
+    private void fail() {
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    }
+}
@@ -0,0 +1,506 @@
+package com.example.moki_campaign.ai;
+
+import com.example.moki_campaign.global.config.AiClientProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import com.example.moki_campaign.infra.ai.client.AiCircuitBreaker;
+import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.client.AiCustomerDataWriter;
+import com.example.moki_campaign.infra.ai.client.AiRequestBodyWriter;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger receivedCustomers = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicLong requestWireBytes = new AtomicLong();
+    private final AtomicLong responseWireBytes = new AtomicLong();
+    private final List<String> requestContentTypes = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+    // 0이 아니면 compact 요청을 이 상태 코드로 거부
+    private volatile int compactRejectStatus = 0;
+    private volatile long responseDelayMillis = 0;
+    private volatile int failureStatus = 0;
+    // 응답 본문 절반을 보낸 뒤 멈추는 시간
+    private volatile long responseStallMillis = 0;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 요청의 data 배열 고객마다 결과 1건을 돌려주는 AI 서버 대역
+        // Content-Type으로 JSON/compact를, Content-Encoding/Accept-Encoding으로 gzip 여부를 판단
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/ai/customers", this::handleAnalysis);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void 스트리밍_요청과_응답을_묶음_단위로_처리() {
+        // Given
+        AiClient aiClient = createClient(AiClientProps.WireFormat.JSON, false);
+        int customerCount = 2_500;
+        List<Integer> batchSizes = new ArrayList<>();
+        List<String> resultIds = new ArrayList<>();
+
+        // When
+        int resultCount = aiClient.analyzeCustomersStreaming(
+                writer -> writeCustomers(writer, customerCount),
+                batch -> {
+                    batchSizes.add(batch.size());
+                    batch.stream().map(AiCustomerDataOutputDto::customerId).forEach(resultIds::add);
+                },
+                1_000);
+
+        // Then
+        assertThat(receivedCustomers.get()).isEqualTo(customerCount);
+        assertThat(resultCount).isEqualTo(customerCount);
+        assertThat(batchSizes).containsExactly(1_000, 1_000, 500);
+        assertThat(resultIds).first().isEqualTo("1");
+        assertThat(resultIds).last().isEqualTo(String.valueOf(customerCount));
+    }
+
+    @Test
+    void 요청_본문_작성_중_예외는_그대로_전파() {
+        // Given
+        AiClient aiClient = createClient(AiClientProps.WireFormat.JSON, false);
+
+        // When & Then
+        assertThatThrownBy(() -> aiClient.analyzeCustomersStreaming(
+                writer -> {
+                    writeCustomers(writer, 10);
+                    throw new IllegalStateException("DB 조회 실패");
+                },
+                batch -> {
+                },
+                1_000))
+                .isInstanceOf(IllegalStateException.class)
+                .isNotInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void compact_gzip_형식으로_요청하고_columns_헤더로_응답을_해석() {
+        // Given
+        AiClient aiClient = createClient(AiClientProps.WireFormat.COMPACT, true);
+        List<AiCustomerDataOutputDto> results = new ArrayList<>();
+
+        // When
+        int resultCount = aiClient.analyzeCustomersStreaming(
+                writer -> writeCustomers(writer, 3),
+                results::addAll,
+                1_000);
+
+        // Then: 형식 확인 요청(고객 0명) 후 본 요청
+        assertThat(requestContentTypes).containsExactly(AiClient.COMPACT_JSON_VALUE, AiClient.COMPACT_JSON_VALUE);
+        assertThat(resultCount).isEqualTo(3);
+        assertThat(results).extracting(AiCustomerDataOutputDto::customerId).containsExactly("1", "2", "3");
+        assertThat(results).extracting(AiCustomerDataOutputDto::customerSegment).containsOnly("LOYAL");
+        assertThat(results).extracting(AiCustomerDataOutputDto::predictedLoyaltyScore).containsOnly(0.5);
+    }
+
+    @Test
+    void 서버가_compact_형식을_415로_거부하면_본문을_보내기_전에_JSON으로_전환() {
+        assertFallsBackToJsonBeforeStreaming(415);
+    }
+
+    @Test
+    void 서버가_compact_형식을_422로_거부하면_본문을_보내기_전에_JSON으로_전환() {
+        assertFallsBackToJsonBeforeStreaming(422);
+    }
+
+    @Test
+    void 형식_확인_뒤_compact_형식을_거부하면_JSON으로_다시_보내고_서킷_브레이커_실패로_세지_않음() {
+        // Given: 형식 확인과 첫 요청은 compact로 처리한 뒤 서버가 compact 형식을 지원하지 않게 바뀜
+        AiClientProps props = clientProps(AiClientProps.WireFormat.COMPACT, false);
+        props.getCircuitBreaker().setMinimumCalls(1);
+        AiClient aiClient = new AiClient(serverUrl(), objectMapper, props, new SimpleMeterRegistry());
+        AtomicInteger bodyWrites = new AtomicInteger();
+        AiRequestBodyWriter bodyWriter = writer -> {
+            bodyWrites.incrementAndGet();
+            return writeCustomers(writer, 5);
+        };
+        aiClient.analyzeCustomersStreaming(bodyWriter, batch -> {
+        }, 1_000);
+        compactRejectStatus = 415;
+
+        // When
+        List<AiCustomerDataOutputDto> results = new ArrayList<>();
+        int resultCount = aiClient.analyzeCustomersStreaming(bodyWriter, results::addAll, 1_000);
+
+        // Then: 같은 호출 안에서 JSON으로 다시 보내 성공
+        assertThat(resultCount).isEqualTo(5);
+        assertThat(results).hasSize(5);
+        assertThat(bodyWrites.get()).isEqualTo(3);
+        assertThat(requestContentTypes).containsExactly(
+                AiClient.COMPACT_JSON_VALUE, AiClient.COMPACT_JSON_VALUE, AiClient.COMPACT_JSON_VALUE, "application/json");
+        assertThat(aiClient.circuitState()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+
+        // 다음 요청은 바로 JSON
+        aiClient.analyzeCustomersStreaming(bodyWriter, batch -> {
+        }, 1_000);
+        assertThat(requestContentTypes).last().isEqualTo("application/json");
+        assertThat(requestCount.get()).isEqualTo(5);
+    }
+
+    @Test
+    void 대형_매장은_compact_gzip_형식이_전송량을_줄임() {
+        // Given
+        int customerCount = 20_000;
+
+        // When
+        Exchange json = measure(createClient(AiClientProps.WireFormat.JSON, false), customerCount);
+        Exchange compactGzip = measure(createClient(AiClientProps.WireFormat.COMPACT, true), customerCount);
+
+        // Then
+        assertThat(json.resultCount()).isEqualTo(customerCount);
+        assertThat(compactGzip.resultCount()).isEqualTo(customerCount);
+        assertThat(compactGzip.requestBytes() * 5).isLessThan(json.requestBytes());
+        assertThat(compactGzip.responseBytes() * 5).isLessThan(json.responseBytes());
+    }
+
+    @Test
+    void 응답_본문_수신이_호출_기한을_넘기면_읽기를_중단하고_실패() {
+        // Given
+        responseStallMillis = 5_000;
+        AiClientProps props = clientProps(AiClientProps.WireFormat.JSON, false);
+        props.setCallTimeout(Duration.ofMillis(500));
+        AiClient aiClient = new AiClient(serverUrl(), objectMapper, props, new SimpleMeterRegistry());
+
+        // When & Then: 기한이 없으면 멈춤이 끝난 뒤 정상 응답을 받음
+        assertThatThrownBy(() -> aiClient.analyzeCustomersStreaming(
+                writer -> writeCustomers(writer, 100), batch -> {
+                }, 1_000))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.AI_SERVER_CONNECT_ERROR);
+        assertThat(aiClient.inFlightCalls()).isZero();
+    }
+
+    @Test
+    void 비동기_요청은_응답을_받는_대로_결과를_완료() {
+        // Given
+        AiClient aiClient = createClient(AiClientProps.WireFormat.JSON, false);
+
+        // When
+        AiCustomerDataResponseDto response = aiClient.analyzeCustomersAsync(customers(3)).join();
+
+        // Then
+        assertThat(response.result()).extracting(AiCustomerDataOutputDto::customerId).containsExactly("1", "2", "3");
+        assertThat(aiClient.inFlightCalls()).isZero();
+    }
+
+    @Test
+    void 비동기_요청은_동시_호출_수를_제한하고_나머지는_대기() {
+        // Given
+        responseDelayMillis = 200;
+        AiClientProps props = clientProps(AiClientProps.WireFormat.JSON, false);
+        props.setMaxConcurrentCalls(2);
+        AiClient aiClient = new AiClient(serverUrl(), objectMapper, props, new SimpleMeterRegistry());
+
+        // When
+        List<CompletableFuture<AiCustomerDataResponseDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(aiClient.analyzeCustomersAsync(customers(10)));
+        }
+        assertThat(aiClient.inFlightCalls()).isEqualTo(2);
+        assertThat(aiClient.waitingCalls()).isEqualTo(4);
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // Then
+        assertThat(requestCount.get()).isEqualTo(6);
+        assertThat(maxActiveRequests.get()).isEqualTo(2);
+        assertThat(aiClient.inFlightCalls()).isZero();
+        assertThat(aiClient.waitingCalls()).isZero();
+    }
+
+    @Test
+    void 비동기_요청은_기한을_넘기면_취소하고_예외로_완료() {
+        // Given
+        responseDelayMillis = 2_000;
+        AiClient aiClient = createClient(AiClientProps.WireFormat.JSON, false);
+
+        // When
+        CompletableFuture<AiCustomerDataResponseDto> future =
+                aiClient.analyzeCustomersAsync(customers(10), Duration.ofMillis(200));
+
+        // Then
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BusinessException.class);
+        assertThat(aiClient.inFlightCalls()).isZero();
+    }
+
+    @Test
+    void 서버_실패가_이어지면_서킷_브레이커가_열려_호출하지_않고_즉시_실패() {
+        // Given
+        failureStatus = 500;
+        AiClientProps props = clientProps(AiClientProps.WireFormat.JSON, false);
+        props.getCircuitBreaker().setMinimumCalls(3);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AiClient aiClient = new AiClient(serverUrl(), objectMapper, props, meterRegistry);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> aiClient.analyzeCustomers(customers(1)))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.AI_SERVER_CONNECT_ERROR);
+        }
+
+        // Then
+        assertThat(aiClient.circuitState()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> aiClient.analyzeCustomers(customers(1)))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.AI_SERVER_UNAVAILABLE);
+        assertThat(requestCount.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("ai.client.circuit.state").tag("state", "open").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("ai.client.calls").tag("outcome", "rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 호출자_예외는_서킷_브레이커_실패율에_반영하지_않음() {
+        // Given
+        AiClientProps props = clientProps(AiClientProps.WireFormat.JSON, false);
+        props.getCircuitBreaker().setMinimumCalls(1);
+        AiClient aiClient = new AiClient(serverUrl(), objectMapper, props, new SimpleMeterRegistry());
+
+        // When
+        assertThatThrownBy(() -> aiClient.analyzeCustomersStreaming(
+                writer -> {
+                    throw new IllegalStateException("DB 조회 실패");
+                },
+                batch -> {
+                },
+                1_000))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(aiClient.circuitState()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+    }
+
+    private void assertFallsBackToJsonBeforeStreaming(int rejectStatus) {
+        // Given
+        compactRejectStatus = rejectStatus;
+        AiClient aiClient = createClient(AiClientProps.WireFormat.COMPACT, true);
+        AtomicInteger bodyWrites = new AtomicInteger();
+
+        // When
+        int firstCount = aiClient.analyzeCustomersStreaming(writer -> {
+            bodyWrites.incrementAndGet();
+            return writeCustomers(writer, 5);
+        }, batch -> {
+        }, 1_000);
+        int secondCount = aiClient.analyzeCustomersStreaming(writer -> {
+            bodyWrites.incrementAndGet();
+            return writeCustomers(writer, 5);
+        }, batch -> {
+        }, 1_000);
+
+        // Then: 형식 확인 요청만 거부되고, 요청 본문은 호출마다 한 번만 작성되며 이후에는 바로 JSON
+        assertThat(firstCount).isEqualTo(5);
+        assertThat(secondCount).isEqualTo(5);
+        assertThat(bodyWrites.get()).isEqualTo(2);
+        assertThat(requestCount.get()).isEqualTo(3);
+        assertThat(requestContentTypes).containsExactly(
+                AiClient.COMPACT_JSON_VALUE, "application/json", "application/json");
+    }
+
+    private Exchange measure(AiClient aiClient, int customerCount) {
+        requestWireBytes.set(0);
+        responseWireBytes.set(0);
+
+        int resultCount = aiClient.analyzeCustomersStreaming(
+                writer -> writeCustomers(writer, customerCount), batch -> {
+                }, 1_000);
+
+        return new Exchange(resultCount, requestWireBytes.get(), responseWireBytes.get());
+    }
+
+    private record Exchange(int resultCount, long requestBytes, long responseBytes) {
+    }
+
+    private AiClient createClient(AiClientProps.WireFormat wireFormat, boolean gzip) {
+        return new AiClient(serverUrl(), objectMapper, clientProps(wireFormat, gzip), new SimpleMeterRegistry());
+    }
+
+    private AiClientProps clientProps(AiClientProps.WireFormat wireFormat, boolean gzip) {
+        AiClientProps props = new AiClientProps();
+        props.setWireFormat(wireFormat);
+        props.setGzip(gzip);
+        return props;
+    }
+
+    private String serverUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handleAnalysis(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+
+        byte[] wire = exchange.getRequestBody().readAllBytes();
+        requestWireBytes.addAndGet(wire.length);
+
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        requestContentTypes.add(contentType);
+        boolean compact = AiClient.COMPACT_JSON_VALUE.equals(contentType);
+
+        if (failureStatus > 0) {
+            exchange.sendResponseHeaders(failureStatus, -1);
+            exchange.close();
+            return;
+        }
+
+        if (compact && compactRejectStatus > 0) {
+            exchange.sendResponseHeaders(compactRejectStatus, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] requestBody = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(new ByteArrayInputStream(wire)).readAllBytes()
+                : wire;
+
+        JsonNode data = objectMapper.readTree(requestBody).get("data");
+        receivedCustomers.set(data.size());
+
+        // 응답 지연 동안 동시에 처리 중인 요청 수 기록
+        if (responseDelayMillis > 0) {
+            maxActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                activeRequests.decrementAndGet();
+            }
+        }
+
+        StringBuilder body = new StringBuilder(compact
+                ? "{\"model\":\"v1\",\"columns\":[\"customer_id\",\"customer_segment\",\"predicted_loyalty_score\",\"churn_risk_score\"],\"result\":["
+                : "{\"model\":\"v1\",\"result\":[");
+        for (int i = 0; i < data.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            if (compact) {
+                body.append("[\"").append(data.get(i).get(0).asText()).append("\",\"LOYAL\",0.5,0.1]");
+            } else {
+                body.append("{\"customer_id\":\"").append(data.get(i).get("customer_id").asText())
+                        .append("\",\"customer_segment\":\"LOYAL\",\"predicted_loyalty_score\":0.5}");
+            }
+        }
+        body.append("]}");
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        responseWireBytes.addAndGet(bytes.length);
+
+        exchange.getResponseHeaders().add("Content-Type", compact ? AiClient.COMPACT_JSON_VALUE : "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            if (responseStallMillis > 0) {
+                responseBody.write(bytes, 0, bytes.length / 2);
+                responseBody.flush();
+                sleep(responseStallMillis);
+                responseBody.write(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+                return;
+            }
+            responseBody.write(bytes);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<AiCustomerDataInputDto> customers(int customerCount) {
+        List<AiCustomerDataInputDto> customers = new ArrayList<>(customerCount);
+        for (int i = 1; i <= customerCount; i++) {
+            customers.add(customer(i));
+        }
+        return customers;
+    }
+
+    private int writeCustomers(AiCustomerDataWriter writer, int customerCount) throws IOException {
+        for (int i = 1; i <= customerCount; i++) {
+            writer.write(customer(i));
+        }
+        return customerCount;
+    }
+
+    private AiCustomerDataInputDto customer(int i) {
+        return AiCustomerDataInputDto.builder()
+                .customerId(String.valueOf(i))
+                .amount(3900.0 * i)
+                .totalVisits(i % 20)
+                .daysSinceLastVisit(i % 30)
+                .visits8WeekAgo(0)
+                .visits7WeekAgo(1)
+                .visits6WeekAgo(0)
+                .visits5WeekAgo(2)
+                .visits4WeekAgo(0)
+                .visits3WeekAgo(1)
+                .visits2WeekAgo(0)
+                .visits1WeekAgo(1)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.moki_campaign.ai;
+
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.scorer.CustomerFeatureColumns;
+import com.example.moki_campaign.infra.ai.scorer.CustomerScoreColumns;
+import com.example.moki_campaign.infra.ai.scorer.LocalCustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.LoyaltyScoringEngine;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LoyaltyScoringEngineTest {
+
+    // 고객 id, 금액, 누적 방문, 경과일, 8주 전 ~ 1주 전 방문
+    private static final List<AiCustomerDataInputDto> CUSTOMERS = List.of(
+            customer("1", 120000, 12, 3, 1, 2, 1, 2, 2, 1, 2, 1),
+            customer("2", 45000, 3, 20, 0, 1, 0, 0, 1, 0, 0, 1),
+            customer("3", 300000, 25, 1, 3, 3, 4, 3, 3, 4, 3, 2),
+            customer("4", 8000, 1, 55, 1, 0, 0, 0, 0, 0, 0, 0),
+            customer("5", 60000, 6, 10, 2, 2, 1, 1, 0, 0, 0, 0),
+            customer("6", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0),
+            customer("7", 95000, 9, 7, 0, 0, 1, 1, 2, 2, 1, 2),
+            customer("8", 15000, 2, 40, 1, 1, 0, 0, 0, 0, 0, 0),
+            customer("9", 500000, 40, 90, 0, 0, 0, 0, 0, 0, 0, 0),
+            customer("10", 70000, 5, 60, 1, 1, 1, 1, 1, 0, 0, 0),
+            customer("11", 33000, 4, 61, 0, 0, 0, 0, 0, 0, 0, 0),
+            customer("12", 210000, 14, 2, 2, 1, 2, 1, 2, 1, 2, 3)
+    );
+
+    // ai/server/AI/app/main.py의 compute_initial_loyalty_score / compute_churn_risk_score / 세그먼트 규칙으로 계산한 기대값
+    // (세그먼트, 충성도 점수, 이탈 위험 점수)
+    private static final Object[][] EXPECTED = {
+            {"LOYAL", 0.7886, 0.0104},
+            {"GENERAL", 0.5314, 0.1773},
+            {"LOYAL", 0.9256, 0.2304},
+            {"CHURN_RISK", 0.3525, 0.9406},
+            {"AT_RISK_LOYAL", 0.6332, 0.7756},
+            {"CHURN_RISK", 0.4, 0.4892},
+            {"LOYAL", 0.6987, 0.0447},
+            {"CHURN_RISK", 0.4182, 0.8263},
+            {"CHURN_RISK", 0.0, 1.0},
+            {"CHURN_RISK", 0.4628, 1.0},
+            {"CHURN_RISK", 0.0, 1.0},
+            {"LOYAL", 0.8425, 0.0}
+    };
+
+    @Test
+    void AI_서버_규칙_기반_점수와_같은_값을_계산() {
+        // When
+        CustomerScoreColumns scores = LoyaltyScoringEngine.score(CustomerFeatureColumns.from(CUSTOMERS));
+
+        // Then
+        for (int i = 0; i < EXPECTED.length; i++) {
+            assertThat(scores.segments()[i]).as("고객 %d 세그먼트", i + 1).isEqualTo(EXPECTED[i][0]);
+            assertThat(scores.loyaltyScores()[i]).as("고객 %d 충성도", i + 1)
+                    .isCloseTo((double) EXPECTED[i][1], within(1e-9));
+            assertThat(scores.churnRiskScores()[i]).as("고객 %d 이탈 위험", i + 1)
+                    .isCloseTo((double) EXPECTED[i][2], within(1e-9));
+        }
+    }
+
+    @Test
+    void 모든_값이_같으면_정규화_값은_절반() {
+        // Given
+        List<AiCustomerDataInputDto> sameCustomers = List.of(
+                customer("1", 10000, 2, 5, 0, 0, 0, 0, 0, 0, 1, 1),
+                customer("2", 10000, 2, 5, 0, 0, 0, 0, 0, 0, 1, 1));
+
+        // When
+        CustomerScoreColumns scores = LoyaltyScoringEngine.score(CustomerFeatureColumns.from(sameCustomers));
+
+        // Then
+        assertThat(scores.loyaltyScores()).containsExactly(0.5, 0.5);
+        assertThat(scores.churnRiskScores()).containsExactly(0.5, 0.5);
+        assertThat(scores.segments()).containsExactly("CHURN_RISK", "CHURN_RISK");
+    }
+
+    @Test
+    void 매장_전체_범위로_청크를_나누어_계산하면_한_번에_계산한_점수와_같음() {
+        // Given
+        ScoreBounds bounds = ScoreBounds.of(CUSTOMERS);
+        List<List<AiCustomerDataInputDto>> chunks = List.of(
+                CUSTOMERS.subList(0, 5), CUSTOMERS.subList(5, 9), CUSTOMERS.subList(9, CUSTOMERS.size()));
+
+        // When
+        List<AiCustomerDataOutputDto> result = chunks.stream()
+                .flatMap(chunk -> new LocalCustomerScorer().score(chunk, bounds).result().stream())
+                .toList();
+
+        // Then
+        assertThat(result).hasSize(CUSTOMERS.size());
+        for (int i = 0; i < EXPECTED.length; i++) {
+            assertThat(result.get(i).customerSegment()).as("고객 %d 세그먼트", i + 1).isEqualTo(EXPECTED[i][0]);
+            assertThat(result.get(i).predictedLoyaltyScore()).as("고객 %d 충성도", i + 1)
+                    .isCloseTo((double) EXPECTED[i][1], within(1e-9));
+        }
+    }
+
+    @Test
+    void 매장_범위를_벗어난_값은_0과_1_사이로_자름() {
+        // Given
+        ScoreBounds bounds = ScoreBounds.of(CUSTOMERS.subList(0, 2));
+
+        // When
+        CustomerScoreColumns scores = LoyaltyScoringEngine.score(CustomerFeatureColumns.from(CUSTOMERS), bounds);
+
+        // Then
+        for (int i = 0; i < CUSTOMERS.size(); i++) {
+            assertThat(scores.loyaltyScores()[i]).as("고객 %d 충성도", i + 1).isBetween(0.0, 1.0);
+            assertThat(scores.churnRiskScores()[i]).as("고객 %d 이탈 위험", i + 1).isBetween(0.0, 1.0);
+        }
+    }
+
+    @Test
+    void 로컬_스코어러는_입력_순서대로_결과를_반환하고_여러_매장에서_동시에_사용_가능() {
+        // Given
+        LocalCustomerScorer scorer = new LocalCustomerScorer();
+
+        // When
+        List<List<AiCustomerDataOutputDto>> results = IntStream.range(0, 8)
+                .mapToObj(store -> CompletableFuture.supplyAsync(() -> scorer.score(CUSTOMERS).result()))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        // Then
+        for (List<AiCustomerDataOutputDto> result : results) {
+            assertThat(result).hasSize(CUSTOMERS.size());
+            for (int i = 0; i < EXPECTED.length; i++) {
+                assertThat(result.get(i).customerId()).isEqualTo(CUSTOMERS.get(i).customerId());
+                assertThat(result.get(i).customerSegment()).isEqualTo(EXPECTED[i][0]);
+                assertThat(result.get(i).predictedLoyaltyScore()).isCloseTo((double) EXPECTED[i][1], within(1e-9));
+            }
+        }
+    }
+
+    private static AiCustomerDataInputDto customer(String customerId, double amount, int totalVisits, int days,
+                                                   int w8, int w7, int w6, int w5, int w4, int w3, int w2, int w1) {
+        return AiCustomerDataInputDto.builder()
+                .customerId(customerId)
+                .amount(amount)
+                .totalVisits(totalVisits)
+                .daysSinceLastVisit(days)
+                .visits8WeekAgo(w8).visits7WeekAgo(w7).visits6WeekAgo(w6).visits5WeekAgo(w5)
+                .visits4WeekAgo(w4).visits3WeekAgo(w3).visits2WeekAgo(w2).visits1WeekAgo(w1)
+                .build();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisSchedule;
+import com.example.moki_campaign.domain.customer.repository.AnalysisBudgetWindowRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.StoreAnalysisScheduleRepository;
+import com.example.moki_campaign.domain.customer.service.AdaptiveAnalysisService;
+import com.example.moki_campaign.domain.customer.service.AnalysisApplyResult;
+import com.example.moki_campaign.domain.customer.service.AnalysisCheckpoint;
+import com.example.moki_campaign.domain.customer.service.CustomerService;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.domain.visit.repository.StoreVisitCount;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveAnalysisServiceTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private DailyVisitRepository dailyVisitRepository;
+    @Mock
+    private StoreAnalysisScheduleRepository scheduleRepository;
+    @Mock
+    private AnalysisBudgetWindowRepository budgetWindowRepository;
+    @Mock
+    private CustomerService customerService;
+
+    // 모든 인스턴스가 함께 쓰는 구간 예산 사용량 (DB 행 대신)
+    private final AtomicLong windowUsed = new AtomicLong();
+
+    private AdaptiveAnalysisService adaptiveAnalysisService;
+    private AnalysisProps analysisProps;
+
+    private final Store busyStore = mock(Store.class);
+    private final Store idleStore = mock(Store.class);
+    private final Store normalStore = mock(Store.class);
+
+    @BeforeEach
+    void setUp() {
+        analysisProps = new AnalysisProps();
+        analysisProps.getAdaptive().setCustomerBudget(1000);
+        adaptiveAnalysisService = new AdaptiveAnalysisService(storeRepository, customerRepository, dailyVisitRepository,
+                scheduleRepository, budgetWindowRepository, customerService, analysisProps, Runnable::run);
+
+        when(busyStore.getId()).thenReturn(1L);
+        when(idleStore.getId()).thenReturn(2L);
+        when(normalStore.getId()).thenReturn(3L);
+        when(storeRepository.findAll()).thenReturn(List.of(busyStore, idleStore, normalStore));
+        when(scheduleRepository.findAllStoreIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        LocalDateTime now = LocalDateTime.now();
+        when(scheduleRepository.findDue(any(LocalDateTime.class))).thenReturn(List.of(
+                StoreAnalysisSchedule.dueNow(2L, now),
+                StoreAnalysisSchedule.dueNow(3L, now),
+                StoreAnalysisSchedule.dueNow(1L, now)));
+        when(dailyVisitRepository.countVisitsByStore(any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of(
+                new StoreVisitCount(1L, 400L),
+                new StoreVisitCount(3L, 50L)));
+        when(customerRepository.countByStoreId(1L)).thenReturn(600L);
+        when(customerRepository.countByStoreId(2L)).thenReturn(200L);
+        when(customerRepository.countByStoreId(3L)).thenReturn(300L);
+
+        when(budgetWindowRepository.reserve(any(LocalDateTime.class), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long customers = invocation.getArgument(1);
+            long budget = invocation.getArgument(2);
+            long used = windowUsed.get();
+            if (used != 0 && used + customers > budget) {
+                return 0;
+            }
+            windowUsed.addAndGet(customers);
+            return 1;
+        });
+    }
+
+    @Test
+    void 방문이_많은_매장부터_고객_예산만큼만_분석하고_나머지는_미룸() {
+        // Given
+        when(scheduleRepository.claim(anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(customerService.analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class)))
+                .thenReturn(new AnalysisApplyResult(30, 70, 0, 0));
+
+        // When
+        adaptiveAnalysisService.analyzeDueStores().join();
+
+        // Then: 600 + 300명으로 예산 1000명 중 900명 사용, 한산한 매장(200명)은 다음 실행으로 미룸
+        InOrder inOrder = inOrder(customerService);
+        inOrder.verify(customerService).analyzeStore(eq(busyStore), any(LocalDate.class), eq(AnalysisCheckpoint.NONE));
+        inOrder.verify(customerService).analyzeStore(eq(normalStore), any(LocalDate.class), eq(AnalysisCheckpoint.NONE));
+        verify(customerService, never()).analyzeStore(eq(idleStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        verify(scheduleRepository, never()).claim(eq(2L), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+        assertThat(windowUsed).hasValue(900);
+
+        // 완료는 선점한 인스턴스로 기록
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(scheduleRepository).claim(eq(1L), owner.capture(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(scheduleRepository).complete(eq(1L), eq(owner.getValue()), any(LocalDateTime.class), anyInt(),
+                anyDouble(), eq(400), eq(0.3), any(LocalDateTime.class));
+        verify(scheduleRepository).complete(eq(3L), eq(owner.getValue()), any(LocalDateTime.class), anyInt(),
+                anyDouble(), eq(50), eq(0.3), any(LocalDateTime.class));
+    }
+
+    @Test
+    void 다른_인스턴스가_선점한_매장은_건너뛰고_예산을_다음_매장에_사용() {
+        // Given
+        when(scheduleRepository.claim(eq(1L), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(scheduleRepository.claim(eq(3L), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(scheduleRepository.claim(eq(2L), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(budgetWindowRepository.refund(any(LocalDateTime.class), eq(600L))).thenAnswer(invocation -> {
+            windowUsed.addAndGet(-600);
+            return 1;
+        });
+        when(customerService.analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class)))
+                .thenThrow(new RuntimeException("AI 서버 오류"))
+                .thenReturn(AnalysisApplyResult.empty());
+
+        // When
+        adaptiveAnalysisService.analyzeDueStores().join();
+
+        // Then: 선점하지 못한 매장의 예산 예약은 되돌림
+        verify(customerService, never()).analyzeStore(eq(busyStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        verify(scheduleRepository).release(eq(3L), anyString());
+        verify(scheduleRepository).complete(eq(2L), anyString(), any(LocalDateTime.class), anyInt(), anyDouble(),
+                eq(0), eq(0.0), any(LocalDateTime.class));
+        assertThat(windowUsed).hasValue(500);
+    }
+
+    @Test
+    void 분석은_실행기에서_진행하고_이전_실행이_끝나기_전의_실행은_건너뜀() {
+        // Given: 제출된 분석을 바로 실행하지 않는 실행기
+        List<Runnable> submitted = new ArrayList<>();
+        AdaptiveAnalysisService service = new AdaptiveAnalysisService(storeRepository, customerRepository,
+                dailyVisitRepository, scheduleRepository, budgetWindowRepository, customerService, analysisProps,
+                submitted::add);
+        when(scheduleRepository.claim(anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(customerService.analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class)))
+                .thenReturn(AnalysisApplyResult.empty());
+
+        // When: 분석이 끝나기 전에 다음 실행
+        CompletableFuture<Void> first = service.analyzeDueStores();
+        CompletableFuture<Void> second = service.analyzeDueStores();
+
+        // Then: 호출 스레드는 선점까지만 하고 반환, 겹친 실행은 선점 없이 건너뜀
+        assertThat(first).isNotDone();
+        assertThat(second).isDone();
+        assertThat(submitted).hasSize(2);
+        verify(scheduleRepository, times(1)).findDue(any(LocalDateTime.class));
+
+        // When: 제출된 분석 완료
+        submitted.forEach(Runnable::run);
+
+        // Then
+        assertThat(first).isCompleted();
+        verify(customerService, times(2)).analyzeStore(any(Store.class), any(LocalDate.class), eq(AnalysisCheckpoint.NONE));
+    }
+
+    @Test
+    void 다른_인스턴스가_쓴_구간_예산은_이번_실행에서_쓰지_않음() {
+        // Given: 다른 인스턴스가 이번 구간 예산 1000명 중 950명을 이미 사용
+        windowUsed.set(950);
+
+        // When
+        adaptiveAnalysisService.analyzeDueStores().join();
+
+        // Then: 남은 50명에 들어가는 매장이 없어 모두 다음 구간으로 미룸
+        verify(scheduleRepository, never()).claim(anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(customerService, never()).analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        assertThat(windowUsed).hasValue(950);
+    }
+
+    @Test
+    void 분석하는_동안_임대를_연장하고_끝나면_연장하지_않음() {
+        // Given
+        analysisProps.getAdaptive().setEnabled(true);
+        analysisProps.getAdaptive().setHeartbeatInterval(Duration.ofMillis(20));
+        List<Runnable> submitted = new ArrayList<>();
+        AdaptiveAnalysisService service = new AdaptiveAnalysisService(storeRepository, customerRepository,
+                dailyVisitRepository, scheduleRepository, budgetWindowRepository, customerService, analysisProps,
+                submitted::add);
+        when(scheduleRepository.claim(anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(scheduleRepository.renewLease(anyLong(), anyString(), any(LocalDateTime.class))).thenReturn(1);
+        when(customerService.analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class)))
+                .thenReturn(AnalysisApplyResult.empty());
+
+        try {
+            // When: 선점한 매장의 분석이 아직 끝나지 않음
+            CompletableFuture<Void> run = service.analyzeDueStores();
+
+            // Then
+            verify(scheduleRepository, timeout(2000).atLeast(2)).renewLease(eq(1L), anyString(), any(LocalDateTime.class));
+            verify(scheduleRepository, timeout(2000).atLeast(2)).renewLease(eq(3L), anyString(), any(LocalDateTime.class));
+
+            // When: 분석 완료
+            submitted.forEach(Runnable::run);
+
+            // Then
+            assertThat(run).isCompleted();
+            clearInvocations(scheduleRepository);
+            verify(scheduleRepository, after(200).never()).renewLease(anyLong(), anyString(), any(LocalDateTime.class));
+        } finally {
+            service.destroy();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.service.AnalysisCadencePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisCadencePolicyTest {
+
+    @Test
+    void 방문과_결과_변화가_많을수록_분석_주기가_짧음() {
+        // Given
+        Duration minCadence = Duration.ofDays(1);
+        Duration maxCadence = Duration.ofDays(7);
+
+        // When
+        double busyPriority = AnalysisCadencePolicy.priorityOf(500, 0.8, 500);
+        double idlePriority = AnalysisCadencePolicy.priorityOf(0, 0.0, 500);
+
+        // Then
+        assertThat(busyPriority).isEqualTo(0.9);
+        assertThat(idlePriority).isZero();
+        assertThat(AnalysisCadencePolicy.cadenceOf(busyPriority, minCadence, maxCadence)).isEqualTo(Duration.ofHours(38));
+        assertThat(AnalysisCadencePolicy.cadenceOf(idlePriority, minCadence, maxCadence)).isEqualTo(maxCadence);
+        assertThat(AnalysisCadencePolicy.cadenceOf(1.0, minCadence, maxCadence)).isEqualTo(minCadence);
+    }
+
+    @Test
+    void 기한을_오래_넘긴_매장은_우선순위가_올라감() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        double onTime = AnalysisCadencePolicy.effectivePriority(0.5, now, 24, now);
+        double overdue = AnalysisCadencePolicy.effectivePriority(0.0, now.minusHours(48), 24, now);
+
+        // Then: 변화가 없는 매장도 주기의 2배를 넘기면 제때 온 중간 우선순위 매장보다 먼저 분석
+        assertThat(overdue).isGreaterThan(onTime);
+    }
+
+    @Test
+    void 주기의_2배를_넘게_밀린_매장은_제때_온_최고_우선순위_매장보다_먼저_분석() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When: 최대 주기(7일) 매장이 2주 + 1시간 밀린 상황과, 막 기한이 된 우선순위 1 매장
+        double starved = AnalysisCadencePolicy.effectivePriority(0.0, now.minusHours(2 * 168 + 1), 168, now);
+        double busiest = AnalysisCadencePolicy.effectivePriority(1.0, now, 24, now);
+
+        // Then
+        assertThat(starved).isGreaterThan(busiest);
+    }
+}
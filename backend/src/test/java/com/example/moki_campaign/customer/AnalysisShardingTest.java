@@ -0,0 +1,271 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.MokiCampaignApplication;
+import com.example.moki_campaign.domain.customer.entity.AnalysisRun;
+import com.example.moki_campaign.domain.customer.entity.AnalysisRunStatus;
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisProgress;
+import com.example.moki_campaign.domain.customer.entity.StoreAnalysisStatus;
+import com.example.moki_campaign.domain.customer.repository.AnalysisRunRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.StoreAnalysisProgressRepository;
+import com.example.moki_campaign.domain.customer.service.AnalysisRunService;
+import com.example.moki_campaign.domain.customer.service.CustomerService;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 하나의 H2 데이터베이스를 공유하는 애플리케이션 컨텍스트 여러 개로 인스턴스 간 주간 분석 분할 검증
+ * 임대 만료는 모든 인스턴스가 공유하는 시계를 앞으로 돌려 재현 (실제 시간 경과에 의존하지 않음)
+ */
+class AnalysisShardingTest {
+
+    private static final int STORE_COUNT = 12;
+    private static final String DB_URL = "jdbc:h2:mem:analysis-shard;MODE=MYSQL;DB_CLOSE_DELAY=-1";
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static final List<Store> stores = new ArrayList<>();
+    private static final MutableClock clock = new MutableClock();
+
+    @BeforeAll
+    static void startNodes() {
+        // 스키마는 첫 번째 인스턴스만 생성
+        nodes.add(startNode("node-1", "create"));
+        nodes.add(startNode("node-2", "none"));
+        nodes.add(startNode("node-3", "none"));
+
+        StoreRepository storeRepository = nodes.get(0).getBean(StoreRepository.class);
+        CustomerRepository customerRepository = nodes.get(0).getBean(CustomerRepository.class);
+        for (int i = 1; i <= STORE_COUNT; i++) {
+            Store store = storeRepository.save(Store.builder()
+                    .businessNumber("000-00-%05d".formatted(i))
+                    .password("password")
+                    .name("매장" + i)
+                    .phoneNumber("010-0000-0000")
+                    .build());
+            stores.add(store);
+
+            for (int j = 1; j <= 3; j++) {
+                customerRepository.save(Customer.builder()
+                        .store(store)
+                        .name("고객" + j)
+                        .phoneNumber("010-%04d-%04d".formatted(i, j))
+                        .totalAmount(10000 * j)
+                        .points(0)
+                        .loyaltyScore(0)
+                        .totalVisitCount(j)
+                        .lastVisitDate(LocalDate.now().minusDays(j * 10L))
+                        .build());
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @BeforeEach
+    void clearRuns() {
+        JdbcTemplate jdbcTemplate = nodes.get(0).getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM store_analysis_progress");
+        jdbcTemplate.update("DELETE FROM analysis_run");
+    }
+
+    @Test
+    void 여러_인스턴스가_매장을_나누어_한번씩만_분석() {
+        // When: 모든 인스턴스의 스케줄러가 동시에 실행된 상황
+        nodes.forEach(node -> node.getBean(CustomerService.class).analyzeAllStores());
+
+        // Then
+        AnalysisRunRepository runRepository = nodes.get(0).getBean(AnalysisRunRepository.class);
+        awaitTrue(() -> runRepository.findByWeekStart(AnalysisRun.weekStartOf(LocalDate.now()))
+                .filter(run -> run.getStatus() == AnalysisRunStatus.COMPLETED)
+                .isPresent());
+
+        List<StoreAnalysisProgress> progresses = progresses();
+        assertThat(progresses).hasSize(STORE_COUNT);
+        assertThat(progresses).allSatisfy(progress -> {
+            assertThat(progress.getStatus()).isEqualTo(StoreAnalysisStatus.COMPLETED);
+            assertThat(progress.getAttempts()).isEqualTo(1);
+            assertThat(progress.getOwner()).isNull();
+        });
+    }
+
+    @Test
+    void 임대가_만료된_매장은_다른_인스턴스가_가져가고_임대_중인_매장은_만료될_때까지_기다림() {
+        // Given
+        AnalysisRun run = nodes.get(0).getBean(AnalysisRunService.class).join(stores, LocalDate.now());
+        Long crashedStoreId = stores.get(0).getId();
+        Long busyStoreId = stores.get(1).getId();
+
+        JdbcTemplate jdbcTemplate = nodes.get(0).getBean(JdbcTemplate.class);
+        String leaseSql = "UPDATE store_analysis_progress SET status = 'IN_PROGRESS', attempts = 1, owner = ?, lease_until = ? "
+                + "WHERE run_id = ? AND store_id = ?";
+        jdbcTemplate.update(leaseSql, "crashed-node", now().minusMinutes(1), run.getId(), crashedStoreId);
+        jdbcTemplate.update(leaseSql, "busy-node", now().plusMinutes(10), run.getId(), busyStoreId);
+
+        // When
+        nodes.get(1).getBean(CustomerService.class).analyzeAllStores();
+
+        // Then
+        awaitTrue(() -> progresses().stream()
+                .filter(progress -> progress.getStatus() == StoreAnalysisStatus.COMPLETED)
+                .count() == STORE_COUNT - 1);
+
+        for (StoreAnalysisProgress progress : progresses()) {
+            if (progress.getStoreId().equals(busyStoreId)) {
+                assertThat(progress.getStatus()).isEqualTo(StoreAnalysisStatus.IN_PROGRESS);
+                assertThat(progress.getOwner()).isEqualTo("busy-node");
+            } else if (progress.getStoreId().equals(crashedStoreId)) {
+                assertThat(progress.getStatus()).isEqualTo(StoreAnalysisStatus.COMPLETED);
+                assertThat(progress.getAttempts()).isEqualTo(2);
+            }
+        }
+
+        // 다른 인스턴스가 임대 중인 매장이 남아 있으므로 실행은 종료되지 않음
+        AnalysisRunRepository runRepository = nodes.get(0).getBean(AnalysisRunRepository.class);
+        assertThat(runRepository.findById(run.getId()).orElseThrow().getStatus()).isEqualTo(AnalysisRunStatus.RUNNING);
+
+        // When: 임대 중이던 인스턴스가 종료되어 임대가 만료됨
+        clock.advance(Duration.ofMinutes(11));
+
+        // Then: 기다리던 인스턴스가 회수해 분석하고 실행 종료
+        awaitTrue(() -> runRepository.findById(run.getId())
+                .filter(finished -> finished.getStatus() == AnalysisRunStatus.COMPLETED)
+                .isPresent());
+        assertThat(progresses()).allSatisfy(progress ->
+                assertThat(progress.getStatus()).isEqualTo(StoreAnalysisStatus.COMPLETED));
+    }
+
+    @Test
+    void 임대가_만료되었지만_아직_회수되지_않은_매장이_있으면_실행을_종료하지_않음() {
+        // Given: 다른 매장은 모두 끝났고, 분석하던 인스턴스가 종료되어 임대만 만료된 매장이 하나 남은 상황
+        AnalysisRunService runService = nodes.get(0).getBean(AnalysisRunService.class);
+        AnalysisRun run = runService.join(stores, LocalDate.now());
+        Long crashedStoreId = stores.get(0).getId();
+
+        JdbcTemplate jdbcTemplate = nodes.get(0).getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE store_analysis_progress SET status = 'COMPLETED' WHERE run_id = ? AND store_id <> ?",
+                run.getId(), crashedStoreId);
+        jdbcTemplate.update("UPDATE store_analysis_progress SET status = 'IN_PROGRESS', attempts = 1, owner = ?, lease_until = ? "
+                + "WHERE run_id = ? AND store_id = ?", "crashed-node", now().minusMinutes(1), run.getId(), crashedStoreId);
+
+        // When
+        boolean finished = runService.finishIfIdle(run.getId());
+
+        // Then: 다시 선점할 수 있는 매장이 남아 있으므로 종료하지 않음
+        assertThat(finished).isFalse();
+        AnalysisRunRepository runRepository = nodes.get(0).getBean(AnalysisRunRepository.class);
+        assertThat(runRepository.findById(run.getId()).orElseThrow().getStatus()).isEqualTo(AnalysisRunStatus.RUNNING);
+    }
+
+    @Test
+    void 선점한_매장의_임대는_청크와_무관하게_연장되고_임대를_잃으면_완료를_기록하지_않음() {
+        // Given: node-1이 매장 하나를 선점했지만 아직 반영된 청크가 없는 상황
+        AnalysisRunService runService = nodes.get(0).getBean(AnalysisRunService.class);
+        AnalysisRun run = runService.join(stores, LocalDate.now());
+        Long storeId = runService.claimStores(run.getId(), 1).get(0);
+
+        JdbcTemplate jdbcTemplate = nodes.get(0).getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE store_analysis_progress SET lease_until = ? WHERE run_id = ? AND store_id = ?",
+                now().minusMinutes(1), run.getId(), storeId);
+
+        // Then: 주기적인 연장으로 임대가 다시 유효해짐
+        awaitTrue(() -> progressOf(run.getId(), storeId).getLeaseUntil().isAfter(now()));
+        assertThat(progressOf(run.getId(), storeId).getOwner()).isEqualTo("node-1");
+
+        // When: 다른 인스턴스가 임대를 회수한 뒤 node-1이 분석을 마침
+        jdbcTemplate.update("UPDATE store_analysis_progress SET owner = ? WHERE run_id = ? AND store_id = ?",
+                "other-node", run.getId(), storeId);
+        runService.markCompleted(run.getId(), storeId);
+
+        // Then: 회수한 인스턴스의 임대와 상태를 유지
+        StoreAnalysisProgress progress = progressOf(run.getId(), storeId);
+        assertThat(progress.getStatus()).isEqualTo(StoreAnalysisStatus.PENDING);
+        assertThat(progress.getOwner()).isEqualTo("other-node");
+    }
+
+    private static StoreAnalysisProgress progressOf(Long runId, Long storeId) {
+        return nodes.get(0).getBean(StoreAnalysisProgressRepository.class)
+                .findByRunIdAndStoreId(runId, storeId).orElseThrow();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String ddlAuto) {
+        return new SpringApplicationBuilder(MokiCampaignApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().registerSingleton("clock", clock))
+                .run("--spring.datasource.url=" + DB_URL,
+                        "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "--spring.h2.console.enabled=false",
+                        "--analysis.scorer=local",
+                        "--analysis.chunk-size=2",
+                        "--analysis.resume-on-startup=false",
+                        "--analysis.shard.enabled=true",
+                        "--analysis.shard.node-id=" + nodeId,
+                        "--analysis.shard.claim-batch-size=1",
+                        "--analysis.shard.lease-check-interval=100ms",
+                        "--analysis.shard.heartbeat-interval=100ms");
+    }
+
+    private static List<StoreAnalysisProgress> progresses() {
+        return nodes.get(0).getBean(StoreAnalysisProgressRepository.class).findAll();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    // analyzeAllStores는 비동기로 실행되므로 결과가 기록될 때까지 대기
+    private static void awaitTrue(Callable<Boolean> condition) {
+        await().atMost(Duration.ofSeconds(30))
+                .pollInterval(Duration.ofMillis(50))
+                .until(condition);
+    }
+
+    // 모든 인스턴스가 공유하는 시계, 직접 앞으로 돌리기 전에는 멈춰 있음
+    private static class MutableClock extends Clock {
+
+        private volatile Instant instant = Instant.now();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
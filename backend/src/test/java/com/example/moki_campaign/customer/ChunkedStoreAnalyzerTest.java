@@ -0,0 +1,234 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerFingerprintJdbcRepository;
+import com.example.moki_campaign.domain.customer.service.AnalysisApplyResult;
+import com.example.moki_campaign.domain.customer.service.AnalysisCheckpoint;
+import com.example.moki_campaign.domain.customer.service.AnalysisChunk;
+import com.example.moki_campaign.domain.customer.service.ChunkedStoreAnalyzer;
+import com.example.moki_campaign.domain.customer.service.CustomerAnalysisDataService;
+import com.example.moki_campaign.domain.customer.service.DeltaAnalysisFilter;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.global.config.AnalysisRetryConfig;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.scorer.RemoteCustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedStoreAnalyzerTest {
+
+    @Mock
+    private CustomerAnalysisDataService dataService;
+    @Mock
+    private AiClient aiClient;
+
+    private ChunkedStoreAnalyzer analyzer;
+    private MeterRegistry meterRegistry;
+
+    private final Store store = mock(Store.class);
+    private final LocalDate analysisDate = LocalDate.of(2025, 11, 10);
+
+    // 모든 청크에 같은 매장 전체 정규화 범위가 전달되는지 확인하는 값
+    private static final ScoreBounds BOUNDS = new ScoreBounds(
+            range(0, 3), range(0, 10), range(0, 4), range(0, 60), range(0, 1), range(0, 2), range(0, 1));
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        analyzer = createAnalyzer(dataService, aiClient, meterRegistry);
+    }
+
+    // 재시도 대기 시간을 1ms로 줄인 분석기 (CustomerServiceImplTest에서도 사용)
+    static ChunkedStoreAnalyzer createAnalyzer(
+            CustomerAnalysisDataService dataService, AiClient aiClient, MeterRegistry meterRegistry) {
+        AnalysisProps.Retry retry = new AnalysisProps.Retry();
+        retry.setInitialInterval(Duration.ofMillis(1));
+        retry.setMaxInterval(Duration.ofMillis(1));
+        DeltaAnalysisFilter deltaAnalysisFilter = new DeltaAnalysisFilter(
+                mock(CustomerFingerprintJdbcRepository.class), new AnalysisProps(), meterRegistry);
+        return new ChunkedStoreAnalyzer(dataService, new RemoteCustomerScorer(aiClient), Runnable::run,
+                AnalysisRetryConfig.createAiChunkRetryTemplate(retry), deltaAnalysisFilter, meterRegistry);
+    }
+
+    @Test
+    void 청크별로_요청하고_결과를_합산() {
+        // Given
+        AnalysisChunk chunk1 = new AnalysisChunk(List.of(input("1"), input("2")), 2L);
+        AnalysisChunk chunk2 = new AnalysisChunk(List.of(input("5")), 5L);
+
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 0L, 2)).thenReturn(chunk1);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 2L, 2)).thenReturn(chunk2);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 5L, 2)).thenReturn(AnalysisChunk.empty(5L));
+        when(dataService.collectScoreBounds(store, analysisDate)).thenReturn(BOUNDS);
+
+        AiCustomerDataResponseDto response1 = response("1", "2");
+        AiCustomerDataResponseDto response2 = response("5");
+        when(aiClient.analyzeCustomers(chunk1.data(), BOUNDS)).thenReturn(response1);
+        when(aiClient.analyzeCustomers(chunk2.data(), BOUNDS)).thenReturn(response2);
+
+        when(dataService.applyAnalysisResults(store, chunk1.data(), response1.result()))
+                .thenReturn(new AnalysisApplyResult(2, 0, 0, 0));
+        when(dataService.applyAnalysisResults(store, chunk2.data(), response2.result()))
+                .thenReturn(new AnalysisApplyResult(0, 0, 1, 0));
+
+        // When
+        AnalysisApplyResult result = analyzer.analyze(store, analysisDate, 2);
+
+        // Then
+        assertThat(result).isEqualTo(new AnalysisApplyResult(2, 0, 1, 0));
+        verify(aiClient, times(2)).analyzeCustomers(anyList(), eq(BOUNDS));
+        verify(dataService, times(1)).collectScoreBounds(store, analysisDate);
+    }
+
+    @Test
+    void 체크포인트_이후_청크부터_분석하고_반영된_청크마다_기록() {
+        // Given
+        AnalysisChunk chunk2 = new AnalysisChunk(List.of(input("3"), input("4")), 4L);
+        AnalysisChunk chunk3 = new AnalysisChunk(List.of(input("7")), 7L);
+
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 2L, 2)).thenReturn(chunk2);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 4L, 2)).thenReturn(chunk3);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 7L, 2)).thenReturn(AnalysisChunk.empty(7L));
+
+        AiCustomerDataResponseDto response2 = response("3", "4");
+        AiCustomerDataResponseDto response3 = response("7");
+        when(aiClient.analyzeCustomers(chunk2.data(), null)).thenReturn(response2);
+        when(aiClient.analyzeCustomers(chunk3.data(), null)).thenReturn(response3);
+        when(dataService.applyAnalysisResults(store, chunk2.data(), response2.result()))
+                .thenReturn(new AnalysisApplyResult(2, 0, 0, 0));
+        when(dataService.applyAnalysisResults(store, chunk3.data(), response3.result()))
+                .thenReturn(new AnalysisApplyResult(1, 0, 0, 0));
+
+        List<Long> recorded = new ArrayList<>();
+
+        // When
+        AnalysisApplyResult result = analyzer.analyze(store, analysisDate, 2,
+                new AnalysisCheckpoint(2L, recorded::add));
+
+        // Then
+        assertThat(result).isEqualTo(new AnalysisApplyResult(3, 0, 0, 0));
+        assertThat(recorded).containsExactly(4L, 7L);
+        verify(dataService, never()).prepareChunkForAnalysis(store, analysisDate, 0L, 2);
+    }
+
+    @Test
+    void 청크_AI_호출_실패시_이전_청크_반영_후_예외_전파() {
+        // Given
+        AnalysisChunk chunk1 = new AnalysisChunk(List.of(input("1")), 1L);
+        AnalysisChunk chunk2 = new AnalysisChunk(List.of(input("2")), 2L);
+
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 0L, 1)).thenReturn(chunk1);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 1L, 1)).thenReturn(chunk2);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 2L, 1)).thenReturn(AnalysisChunk.empty(2L));
+
+        AiCustomerDataResponseDto response1 = response("1");
+        when(aiClient.analyzeCustomers(chunk1.data(), null)).thenReturn(response1);
+        when(aiClient.analyzeCustomers(chunk2.data(), null))
+                .thenThrow(new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR));
+        when(dataService.applyAnalysisResults(store, chunk1.data(), response1.result()))
+                .thenReturn(new AnalysisApplyResult(1, 0, 0, 0));
+
+        // When & Then
+        assertThatThrownBy(() -> analyzer.analyze(store, analysisDate, 1))
+                .isInstanceOf(BusinessException.class);
+
+        verify(dataService, times(1)).applyAnalysisResults(eq(store), eq(chunk1.data()), any());
+        verify(dataService, never()).applyAnalysisResults(eq(store), eq(chunk2.data()), any());
+        verify(aiClient, times(3)).analyzeCustomers(chunk2.data(), null);
+    }
+
+    @Test
+    void 일시적_실패는_해당_청크만_같은_데이터로_재시도() {
+        // Given
+        AnalysisChunk chunk1 = new AnalysisChunk(List.of(input("1")), 1L);
+        AnalysisChunk chunk2 = new AnalysisChunk(List.of(input("2")), 2L);
+
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 0L, 1)).thenReturn(chunk1);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 1L, 1)).thenReturn(chunk2);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 2L, 1)).thenReturn(AnalysisChunk.empty(2L));
+
+        AiCustomerDataResponseDto response1 = response("1");
+        AiCustomerDataResponseDto response2 = response("2");
+        when(aiClient.analyzeCustomers(chunk1.data(), null)).thenReturn(response1);
+        when(aiClient.analyzeCustomers(chunk2.data(), null))
+                .thenThrow(new BusinessException(ErrorCode.INVAILD_AI_SERVER_RESPONSE))
+                .thenReturn(response2);
+        when(dataService.applyAnalysisResults(store, chunk1.data(), response1.result()))
+                .thenReturn(new AnalysisApplyResult(1, 0, 0, 0));
+        when(dataService.applyAnalysisResults(store, chunk2.data(), response2.result()))
+                .thenReturn(new AnalysisApplyResult(1, 0, 0, 0));
+
+        // When
+        AnalysisApplyResult result = analyzer.analyze(store, analysisDate, 1);
+
+        // Then
+        assertThat(result).isEqualTo(new AnalysisApplyResult(2, 0, 0, 0));
+        verify(aiClient, times(1)).analyzeCustomers(chunk1.data(), null);
+        verify(aiClient, times(2)).analyzeCustomers(chunk2.data(), null);
+        verify(dataService, times(1)).prepareChunkForAnalysis(store, analysisDate, 1L, 1);
+        assertThat(meterRegistry.counter("analysis.chunk.retries").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void AI_서버_사용_불가는_재시도하지_않음() {
+        // Given
+        AnalysisChunk chunk1 = new AnalysisChunk(List.of(input("1")), 1L);
+
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 0L, 1)).thenReturn(chunk1);
+        when(dataService.prepareChunkForAnalysis(store, analysisDate, 1L, 1)).thenReturn(AnalysisChunk.empty(1L));
+        when(aiClient.analyzeCustomers(chunk1.data(), null))
+                .thenThrow(new BusinessException(ErrorCode.AI_SERVER_UNAVAILABLE));
+
+        // When & Then
+        assertThatThrownBy(() -> analyzer.analyze(store, analysisDate, 1))
+                .isInstanceOf(BusinessException.class);
+
+        verify(aiClient, times(1)).analyzeCustomers(chunk1.data(), null);
+        assertThat(meterRegistry.counter("analysis.chunk.retries").count()).isZero();
+    }
+
+    private AiCustomerDataInputDto input(String customerId) {
+        return AiCustomerDataInputDto.builder()
+                .customerId(customerId)
+                .amount(10000.0)
+                .totalVisits(1)
+                .daysSinceLastVisit(1)
+                .visits8WeekAgo(0).visits7WeekAgo(0).visits6WeekAgo(0).visits5WeekAgo(0)
+                .visits4WeekAgo(0).visits3WeekAgo(0).visits2WeekAgo(0).visits1WeekAgo(1)
+                .build();
+    }
+
+    private AiCustomerDataResponseDto response(String... customerIds) {
+        return new AiCustomerDataResponseDto(List.of(customerIds).stream()
+                .map(id -> new AiCustomerDataOutputDto(id, "GENERAL", 0.5))
+                .toList());
+    }
+
+    private static ScoreBounds.Range range(double min, double max) {
+        return new ScoreBounds.Range(min, max);
+    }
+}
@@ -5,20 +5,42 @@ import com.example.moki_campaign.domain.customer.dto.response.CustomerListRespon
 import com.example.moki_campaign.domain.customer.dto.response.DeclinedLoyalSummaryResponseDto;
 import com.example.moki_campaign.domain.customer.dto.response.VisitGraphItemDto;
 import com.example.moki_campaign.domain.customer.dto.response.VisitGraphResponseDto;
+import com.example.moki_campaign.domain.customer.entity.AnalysisRun;
 import com.example.moki_campaign.domain.customer.entity.Customer;
 import com.example.moki_campaign.domain.customer.entity.CustomerSegment;
+import com.example.moki_campaign.domain.customer.repository.CustomerAnalysisState;
+import com.example.moki_campaign.domain.customer.repository.CustomerFingerprintJdbcRepository;
 import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerScoreJdbcRepository;
+import com.example.moki_campaign.domain.customer.repository.CustomerScoreUpdate;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitFeature;
+import com.example.moki_campaign.domain.customer.service.AnalysisApplyResult;
+import com.example.moki_campaign.domain.customer.service.AnalysisCheckpoint;
+import com.example.moki_campaign.domain.customer.service.AnalysisRunService;
+import com.example.moki_campaign.domain.customer.service.ChunkedStoreAnalyzer;
+import com.example.moki_campaign.domain.customer.service.CustomerAnalysisDataService;
 import com.example.moki_campaign.domain.customer.service.CustomerServiceImpl;
+import com.example.moki_campaign.domain.customer.service.DeltaAnalysisFilter;
+import com.example.moki_campaign.domain.customer.service.PipelinedStoreAnalyzer;
+import com.example.moki_campaign.domain.customer.service.StreamingStoreAnalyzer;
 import com.example.moki_campaign.domain.store.entity.Store;
 import com.example.moki_campaign.domain.store.repository.StoreRepository;
 import com.example.moki_campaign.domain.visit.entity.DailyVisit;
 import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.global.config.AnalysisProps;
 import com.example.moki_campaign.global.exception.common.BusinessException;
 import com.example.moki_campaign.global.exception.common.ErrorCode;
 import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.client.AiRequestBodyWriter;
+import com.example.moki_campaign.infra.ai.client.AiResultBatchHandler;
 import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
 import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
 import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.scorer.RemoteCustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -29,13 +51,24 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
+import java.io.StringWriter;
 import java.lang.reflect.Field;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -59,17 +92,37 @@ public class CustomerServiceImplTest {
     @Mock
     private DailyVisitRepository dailyVisitRepository;
     @Mock
+    private CustomerScoreJdbcRepository customerScoreJdbcRepository;
+    @Mock
     private AiClient aiClient;
+    @Mock
+    private AnalysisRunService analysisRunService;
+    @Mock
+    private CustomerFingerprintJdbcRepository fingerprintRepository;
 
     private CustomerServiceImpl customerService;
+    private CustomerAnalysisDataService dataService;
+    private AnalysisProps analysisProps;
 
     @BeforeEach
     void setUp() throws Exception {
+        analysisProps = new AnalysisProps();
+        dataService =
+                new CustomerAnalysisDataService(customerRepository, dailyVisitRepository, customerScoreJdbcRepository, analysisProps);
         CustomerServiceImpl realService = new CustomerServiceImpl(
                 storeRepository,
                 customerRepository,
                 dailyVisitRepository,
+                dataService,
+                ChunkedStoreAnalyzerTest.createAnalyzer(dataService, aiClient, new SimpleMeterRegistry()),
+                mock(PipelinedStoreAnalyzer.class),
+                new StreamingStoreAnalyzer(dataService, aiClient, ForkJoinPool.commonPool()),
                 aiClient,
+                new RemoteCustomerScorer(aiClient),
+                analysisRunService,
+                new DeltaAnalysisFilter(fingerprintRepository, analysisProps, new SimpleMeterRegistry()),
+                analysisProps,
+                Runnable::run,
                 null
         );
 
@@ -78,6 +131,9 @@ public class CustomerServiceImplTest {
         Field selfField = CustomerServiceImpl.class.getDeclaredField("self");
         selfField.setAccessible(true);
         selfField.set(customerService, customerService);
+
+        lenient().when(analysisRunService.startOrResume(anyList(), any(LocalDate.class)))
+                .thenReturn(AnalysisRun.start(LocalDate.now()));
     }
 
     @Test
@@ -87,15 +143,15 @@ public class CustomerServiceImplTest {
         Store store2 = mock(Store.class);
         when(storeRepository.findAll()).thenReturn(List.of(store1, store2));
 
-        doNothing().when(customerService).analyzeStore(any(Store.class));
+        doReturn(AnalysisApplyResult.empty()).when(customerService).analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class));
 
         // When
         customerService.analyzeAllStores();
 
         // Then
         verify(storeRepository, times(1)).findAll();
-        verify(customerService, times(1)).analyzeStore(store1); // store1 호출 검증
-        verify(customerService, times(1)).analyzeStore(store2); // store2 호출 검증
+        verify(customerService, times(1)).analyzeStore(eq(store1), any(LocalDate.class), any(AnalysisCheckpoint.class)); // store1 호출 검증
+        verify(customerService, times(1)).analyzeStore(eq(store2), any(LocalDate.class), any(AnalysisCheckpoint.class)); // store2 호출 검증
     }
 
     @Test
@@ -105,16 +161,64 @@ public class CustomerServiceImplTest {
         Store store2 = mock(Store.class);
         when(storeRepository.findAll()).thenReturn(List.of(store1, store2));
 
-        doNothing().when(customerService).analyzeStore(store1);
+        doReturn(AnalysisApplyResult.empty()).when(customerService).analyzeStore(eq(store1), any(LocalDate.class), any(AnalysisCheckpoint.class));
         doThrow(new RuntimeException("DB Connection Error"))
-                .when(customerService).analyzeStore(store2);
+                .when(customerService).analyzeStore(eq(store2), any(LocalDate.class), any(AnalysisCheckpoint.class));
 
         // When
         customerService.analyzeAllStores();
 
         // Then
-        verify(customerService, times(1)).analyzeStore(store1);
-        verify(customerService, times(1)).analyzeStore(store2);
+        verify(customerService, times(1)).analyzeStore(eq(store1), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        verify(customerService, times(1)).analyzeStore(eq(store2), any(LocalDate.class), any(AnalysisCheckpoint.class));
+    }
+
+    @Test
+    void 느린_매장이_다른_매장_분석을_막지_않음() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CustomerAnalysisDataService dataService =
+                new CustomerAnalysisDataService(customerRepository, dailyVisitRepository, customerScoreJdbcRepository, analysisProps);
+        CustomerServiceImpl parallelService = spy(new CustomerServiceImpl(
+                storeRepository, customerRepository, dailyVisitRepository,
+                dataService, ChunkedStoreAnalyzerTest.createAnalyzer(dataService, aiClient, new SimpleMeterRegistry()),
+                mock(PipelinedStoreAnalyzer.class),
+                new StreamingStoreAnalyzer(dataService, aiClient, ForkJoinPool.commonPool()), aiClient,
+                new RemoteCustomerScorer(aiClient), analysisRunService,
+                new DeltaAnalysisFilter(mock(CustomerFingerprintJdbcRepository.class), analysisProps, new SimpleMeterRegistry()),
+                new AnalysisProps(), executor, null));
+        Field selfField = CustomerServiceImpl.class.getDeclaredField("self");
+        selfField.setAccessible(true);
+        selfField.set(parallelService, parallelService);
+
+        Store slowStore = mock(Store.class);
+        Store fastStore = mock(Store.class);
+        when(storeRepository.findAll()).thenReturn(List.of(slowStore, fastStore));
+
+        // 느린 매장은 빠른 매장의 분석이 끝나야만 종료됨 (순차 실행이면 교착)
+        CountDownLatch fastDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (!fastDone.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("빠른 매장 분석이 진행되지 않음");
+            }
+            return AnalysisApplyResult.empty();
+        }).when(parallelService).analyzeStore(eq(slowStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        doAnswer(invocation -> {
+            fastDone.countDown();
+            return AnalysisApplyResult.empty();
+        }).when(parallelService).analyzeStore(eq(fastStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+
+        try {
+            // When
+            parallelService.analyzeAllStores();
+
+            // Then
+            assertThat(fastDone.getCount()).isZero();
+            verify(parallelService, times(1)).analyzeStore(eq(slowStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+            verify(parallelService, times(1)).analyzeStore(eq(fastStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     @Test
@@ -126,127 +230,358 @@ public class CustomerServiceImplTest {
         customerService.analyzeAllStores();
 
         // Then
-        verify(customerService, never()).analyzeStore(any(Store.class));
+        verify(customerService, never()).analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class));
+    }
+
+    @Test
+    void 이번주_완료된_매장은_건너뛰고_나머지만_이어서_분석() {
+        // Given
+        Store doneStore = mock(Store.class);
+        Store pendingStore = mock(Store.class);
+        when(doneStore.getId()).thenReturn(1L);
+        when(pendingStore.getId()).thenReturn(2L);
+        when(storeRepository.findAll()).thenReturn(List.of(doneStore, pendingStore));
+
+        LocalDate runDate = LocalDate.now().with(DayOfWeek.MONDAY);
+        when(analysisRunService.startOrResume(anyList(), any(LocalDate.class))).thenReturn(AnalysisRun.start(runDate));
+        when(analysisRunService.findCompletedStoreIds(any())).thenReturn(Set.of(1L));
+        when(analysisRunService.markStarted(any(), eq(2L))).thenReturn(100L);
+
+        doReturn(AnalysisApplyResult.empty()).when(customerService).analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class));
+
+        // When
+        customerService.analyzeAllStores();
+
+        // Then
+        ArgumentCaptor<AnalysisCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(AnalysisCheckpoint.class);
+        verify(customerService, never()).analyzeStore(eq(doneStore), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        verify(customerService, times(1)).analyzeStore(eq(pendingStore), eq(runDate), checkpointCaptor.capture());
+        assertThat(checkpointCaptor.getValue().resumeAfterCustomerId()).isEqualTo(100L);
+
+        verify(analysisRunService, times(1)).markCompleted(any(), eq(2L));
+        verify(analysisRunService, never()).markStarted(any(), eq(1L));
+        verify(analysisRunService, times(1)).finish(any());
+    }
+
+    @Test
+    void 비동기_모드는_AI_응답을_기다리지_않고_매장별로_반영하며_실패를_격리() {
+        // Given
+        analysisProps.setNonBlocking(true);
+
+        Store store1 = mock(Store.class);
+        Store store2 = mock(Store.class);
+        when(storeRepository.findAll()).thenReturn(List.of(store1, store2));
+
+        CustomerVisitFeature feature = createFeature(1L, 50000, 1, LocalDate.now().minusWeeks(1), 0, 0, 0, 0, 0, 0, 1, 0);
+        CustomerVisitFeature otherFeature = createFeature(2L, 30000, 1, LocalDate.now().minusWeeks(1), 0, 0, 0, 0, 0, 0, 1, 0);
+        when(customerRepository.findVisitFeatures(eq(store1), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(feature));
+        when(customerRepository.findVisitFeatures(eq(store2), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(otherFeature));
+
+        when(aiClient.analyzeCustomersAsync(anyList(), nullable(ScoreBounds.class))).thenAnswer(invocation -> {
+            List<AiCustomerDataInputDto> input = invocation.getArgument(0);
+            if (input.get(0).customerId().equals("2")) {
+                return CompletableFuture.failedFuture(new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR));
+            }
+            return CompletableFuture.completedFuture(
+                    new AiCustomerDataResponseDto(List.of(new AiCustomerDataOutputDto("1", "LOYAL", 0.9))));
+        });
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new CustomerAnalysisState(1L, CustomerSegment.GENERAL, 0, 1)));
+        when(customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(anyList())).thenReturn(new int[]{1});
+
+        // When
+        customerService.analyzeAllStores();
+
+        // Then
+        verify(aiClient, times(2)).analyzeCustomersAsync(anyList(), nullable(ScoreBounds.class));
+        verify(aiClient, never()).analyzeCustomers(anyList(), any());
+        verify(customerService, never()).analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class));
+        verify(customerScoreJdbcRepository, times(1)).updateSegmentAndLoyaltyScores(
+                List.of(new CustomerScoreUpdate(1L, CustomerSegment.LOYAL, 90, 1)));
     }
 
     @Test
     void 고객분석_정상적으로_완료() {
         // Given
         Store store = mock(Store.class);
-        Customer customer = mock(Customer.class);
-        when(customer.getId()).thenReturn(1L);
-        when(customer.getTotalAmount()).thenReturn(50000);
-        when(customer.getTotalVisitCount()).thenReturn(1);
-        when(customer.getLastVisitDate()).thenReturn(LocalDate.now().minusWeeks(1));
-
-        DailyVisit visit = mock(DailyVisit.class);
-        when(visit.getCustomer()).thenReturn(customer);
-        when(visit.getVisitDate()).thenReturn(LocalDate.now().minusWeeks(1));
+        CustomerVisitFeature feature = createFeature(1L, 50000, 1, LocalDate.now().minusWeeks(1), 0, 0, 0, 0, 0, 0, 1, 0);
 
         AiCustomerDataOutputDto aiOutput = new AiCustomerDataOutputDto("1", "LOYAL", 0.958);
         AiCustomerDataResponseDto aiResponse = new AiCustomerDataResponseDto(List.of(aiOutput));
 
-        when(customerRepository.findAllByStore(store)).thenReturn(List.of(customer));
-        when(dailyVisitRepository.findByStoreAndDateRangeWithCustomer(eq(store), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(visit));
-        when(aiClient.analyzeCustomers(anyList())).thenReturn(aiResponse);
+        when(customerRepository.findVisitFeatures(eq(store), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(feature));
+        when(aiClient.analyzeCustomers(anyList(), any())).thenReturn(aiResponse);
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new CustomerAnalysisState(1L, CustomerSegment.GENERAL, 0, 1)));
+        when(customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(anyList())).thenReturn(new int[]{1});
 
         // When
         customerService.analyzeStore(store);
 
         // Then
         ArgumentCaptor<List<AiCustomerDataInputDto>> inputCaptor = ArgumentCaptor.forClass(List.class);
-        verify(aiClient).analyzeCustomers(inputCaptor.capture());
+        ArgumentCaptor<ScoreBounds> boundsCaptor = ArgumentCaptor.forClass(ScoreBounds.class);
+        verify(aiClient).analyzeCustomers(inputCaptor.capture(), boundsCaptor.capture());
 
         List<AiCustomerDataInputDto> capturedInput = inputCaptor.getValue();
         assertEquals(1, capturedInput.size());
+        // 전체 고객을 보내도 델타 요청과 같은 매장 전체 정규화 범위를 함께 전송
+        assertEquals(ScoreBounds.of(capturedInput), boundsCaptor.getValue());
         AiCustomerDataInputDto inputDto = capturedInput.get(0);
         assertEquals("1", inputDto.customerId());
         assertEquals(50000.0, inputDto.amount());
         assertEquals(1, inputDto.totalVisits());
+        assertEquals(7, inputDto.daysSinceLastVisit());
+        assertEquals(1, inputDto.visits2WeekAgo());
+
+        // 방문 엔티티는 조회하지 않음
+        verifyNoInteractions(dailyVisitRepository);
+
+        ArgumentCaptor<List<CustomerScoreUpdate>> updateCaptor = ArgumentCaptor.forClass(List.class);
+        verify(customerScoreJdbcRepository, times(1)).updateSegmentAndLoyaltyScores(updateCaptor.capture());
+
+        assertThat(updateCaptor.getValue())
+                .containsExactly(new CustomerScoreUpdate(1L, CustomerSegment.LOYAL, 96, 1));
+    }
+
+    @Test
+    void 방문_엔티티_집계_방식도_DB_집계와_같은_요청_데이터_생성() {
+        // Given
+        analysisProps.setFeatureSource(AnalysisProps.FeatureSource.ENTITY);
 
-        // 주별 데이터 검증 - 최소한 하나의 주에 방문 기록이 있어야 함
+        Store store = mock(Store.class);
+        LocalDate lastVisitDate = LocalDate.now().minusWeeks(1);
+        Customer customer = mock(Customer.class);
+        when(customer.getId()).thenReturn(1L);
+        when(customer.getTotalAmount()).thenReturn(50000);
+        when(customer.getTotalVisitCount()).thenReturn(1);
+        when(customer.getLastVisitDate()).thenReturn(lastVisitDate);
+
+        DailyVisit visit = mock(DailyVisit.class);
+        when(visit.getCustomer()).thenReturn(customer);
+        when(visit.getVisitDate()).thenReturn(lastVisitDate);
+
+        when(customerRepository.findByStoreAndIdGreaterThanOrderByIdAsc(eq(store), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(customer));
+        when(dailyVisitRepository.findByStoreAndCustomerIdRangeAndDateRange(
+                eq(store), eq(1L), eq(1L), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of(visit));
+        when(aiClient.analyzeCustomers(anyList(), any()))
+                .thenReturn(new AiCustomerDataResponseDto(List.of(new AiCustomerDataOutputDto("1", "LOYAL", 0.958))));
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new CustomerAnalysisState(1L, CustomerSegment.GENERAL, 0, 1)));
+        when(customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(anyList())).thenReturn(new int[]{1});
+
+        // When
+        customerService.analyzeStore(store);
+
+        // Then
+        ArgumentCaptor<List<AiCustomerDataInputDto>> inputCaptor = ArgumentCaptor.forClass(List.class);
+        verify(aiClient).analyzeCustomers(inputCaptor.capture(), any());
+
+        AiCustomerDataInputDto inputDto = inputCaptor.getValue().get(0);
+        assertEquals(7, inputDto.daysSinceLastVisit());
+        assertEquals(1, inputDto.visits2WeekAgo());
         int totalVisitsInWeeks = inputDto.visits1WeekAgo() + inputDto.visits2WeekAgo() +
                                   inputDto.visits3WeekAgo() + inputDto.visits4WeekAgo() +
                                   inputDto.visits5WeekAgo() + inputDto.visits6WeekAgo() +
                                   inputDto.visits7WeekAgo() + inputDto.visits8WeekAgo();
-        assertThat(totalVisitsInWeeks).isGreaterThanOrEqualTo(1);
+        assertEquals(1, totalVisitsInWeeks);
+    }
 
-        ArgumentCaptor<Long> idCaptor = ArgumentCaptor.forClass(Long.class);
-        ArgumentCaptor<CustomerSegment> segmentCaptor = ArgumentCaptor.forClass(CustomerSegment.class);
-        ArgumentCaptor<Integer> scoreCaptor = ArgumentCaptor.forClass(Integer.class);
+    @Test
+    void 스트리밍_모드는_커서로_읽은_고객을_요청_본문에_바로_기록() throws Exception {
+        // Given
+        analysisProps.setStreaming(true);
 
-        verify(customerRepository, times(1)).updateSegmentAndLoyaltyScore(
-                idCaptor.capture(),
-                segmentCaptor.capture(),
-                scoreCaptor.capture()
-        );
+        Store store = mock(Store.class);
+        CustomerVisitFeature feature = createFeature(1L, 50000, 2, LocalDate.now().minusWeeks(1), 0, 0, 0, 0, 0, 0, 1, 1);
+
+        when(customerRepository.existsByStore(store)).thenReturn(true);
+        when(customerRepository.streamVisitFeatures(eq(store), any(LocalDate.class))).thenReturn(Stream.of(feature));
+
+        StringWriter requestBody = new StringWriter();
+        when(aiClient.analyzeCustomersStreaming(any(), any(), anyInt())).thenAnswer(invocation -> {
+            AiRequestBodyWriter bodyWriter = invocation.getArgument(0);
+            AiResultBatchHandler resultHandler = invocation.getArgument(1);
+            try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(requestBody)) {
+                generator.writeStartArray();
+                assertEquals(1, bodyWriter.writeCustomers(generator::writeObject));
+                generator.writeEndArray();
+            }
+            resultHandler.handle(List.of(new AiCustomerDataOutputDto("1", "LOYAL", 0.9)));
+            return 1;
+        });
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new CustomerAnalysisState(1L, CustomerSegment.GENERAL, 0, 2)));
+        when(customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(anyList())).thenReturn(new int[]{1});
+
+        // When
+        customerService.analyzeStore(store);
+
+        // Then
+        assertThat(requestBody.toString())
+                .contains("\"customer_id\":\"1\"")
+                .contains("\"total_visits\":2")
+                .contains("\"visits_1_week_ago\":1");
+        verify(aiClient, never()).analyzeCustomers(anyList(), any());
+
+        ArgumentCaptor<List<CustomerScoreUpdate>> updateCaptor = ArgumentCaptor.forClass(List.class);
+        verify(customerScoreJdbcRepository).updateSegmentAndLoyaltyScores(updateCaptor.capture());
+        assertThat(updateCaptor.getValue())
+                .containsExactly(new CustomerScoreUpdate(1L, CustomerSegment.LOYAL, 90, 2));
+    }
+
+    @Test
+    void 델타_분석으로_일부_고객만_보내면_매장_전체_정규화_범위를_함께_전송() {
+        // Given: 2025-11-10(월)은 매장 1의 델타 전송 주차
+        analysisProps.getDelta().setEnabled(true);
+        LocalDate analysisDate = LocalDate.of(2025, 11, 10);
+        Store store = mock(Store.class);
+        when(store.getId()).thenReturn(1L);
+
+        CustomerVisitFeature unchanged = createFeature(1L, 50000, 1, analysisDate.minusWeeks(1), 0, 0, 0, 0, 0, 0, 1, 0);
+        CustomerVisitFeature changed = createFeature(2L, 90000, 3, analysisDate.minusDays(2), 0, 0, 0, 0, 0, 1, 1, 1);
+        when(customerRepository.findVisitFeatures(eq(store), eq(analysisDate), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(unchanged, changed));
+
+        AiCustomerDataInputDto unchangedInput = AiCustomerDataInputDto.builder()
+                .customerId("1").amount(50000.0).totalVisits(1).daysSinceLastVisit(7)
+                .visits8WeekAgo(0).visits7WeekAgo(0).visits6WeekAgo(0).visits5WeekAgo(0)
+                .visits4WeekAgo(0).visits3WeekAgo(0).visits2WeekAgo(1).visits1WeekAgo(0)
+                .build();
+        when(fingerprintRepository.findFingerprints(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, DeltaAnalysisFilter.fingerprintOf(unchangedInput)));
+        when(aiClient.analyzeCustomers(anyList(), any())).thenReturn(
+                new AiCustomerDataResponseDto(List.of(new AiCustomerDataOutputDto("2", "LOYAL", 0.9))));
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(2L)))
+                .thenReturn(List.of(new CustomerAnalysisState(2L, CustomerSegment.GENERAL, 0, 3)));
+        when(customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(anyList())).thenReturn(new int[]{1});
+
+        // When
+        customerService.analyzeStore(store, analysisDate, AnalysisCheckpoint.NONE);
+
+        // Then: 바뀐 고객만 보내고, 범위는 건너뛴 고객까지 포함한 매장 전체 기준
+        ArgumentCaptor<List<AiCustomerDataInputDto>> inputCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<ScoreBounds> boundsCaptor = ArgumentCaptor.forClass(ScoreBounds.class);
+        verify(aiClient).analyzeCustomers(inputCaptor.capture(), boundsCaptor.capture());
 
-        assertEquals(1L, idCaptor.getValue());
-        assertEquals(CustomerSegment.LOYAL, segmentCaptor.getValue());
-        assertEquals(96, scoreCaptor.getValue());
+        assertThat(inputCaptor.getValue()).extracting(AiCustomerDataInputDto::customerId).containsExactly("2");
+        assertThat(boundsCaptor.getValue()).isNotNull();
+        assertThat(boundsCaptor.getValue().totalVisits())
+                .isEqualTo(new ScoreBounds.Range(Math.log1p(1), Math.log1p(3)));
+    }
+
+    @Test
+    void 분석_중_방문이_기록된_고객은_업데이트_건너뜀() {
+        // Given
+        Store store = mock(Store.class);
+        CustomerVisitFeature feature = createFeature(1L, 50000, 3, LocalDate.now().minusDays(3), 0, 0, 0, 0, 0, 0, 0, 3);
+
+        when(customerRepository.findVisitFeatures(eq(store), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(feature));
+        when(aiClient.analyzeCustomers(anyList(), any())).thenReturn(
+                new AiCustomerDataResponseDto(List.of(new AiCustomerDataOutputDto("1", "LOYAL", 0.9))));
+
+        // 읽기 단계 이후 방문이 기록되어 total_visit_count가 달라진 상황
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new CustomerAnalysisState(1L, CustomerSegment.GENERAL, 0, 4)));
+
+        // When
+        customerService.analyzeStore(store);
+
+        // Then
+        verify(customerScoreJdbcRepository, never()).updateSegmentAndLoyaltyScores(anyList());
+        verify(customerRepository, never()).findAllByStore(store);
+    }
+
+    @Test
+    void 결과가_바뀐_고객만_배치로_갱신하고_건수_집계() {
+        // Given
+        Store store = mock(Store.class);
+        LocalDate lastVisitDate = LocalDate.now().minusDays(3);
+        when(customerRepository.findVisitFeatures(eq(store), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        createFeature(1L, 50000, 3, lastVisitDate, 0, 0, 0, 0, 0, 0, 0, 3),
+                        createFeature(2L, 30000, 2, lastVisitDate, 0, 0, 0, 0, 0, 0, 0, 2),
+                        createFeature(3L, 10000, 1, lastVisitDate, 0, 0, 0, 0, 0, 0, 0, 1)));
+        List<AiCustomerDataOutputDto> aiResults = List.of(
+                new AiCustomerDataOutputDto("1", "LOYAL", 0.9),
+                new AiCustomerDataOutputDto("2", "GENERAL", 0.5),
+                new AiCustomerDataOutputDto("3", "CHURN_RISK", 0.1));
+
+        // 2번은 기존과 같은 결과, 3번은 상태 조회 이후 방문이 기록되어 UPDATE 조건에서 걸러짐
+        when(customerRepository.findAnalysisStatesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new CustomerAnalysisState(1L, CustomerSegment.GENERAL, 40, 3),
+                new CustomerAnalysisState(2L, CustomerSegment.GENERAL, 50, 2),
+                new CustomerAnalysisState(3L, CustomerSegment.GENERAL, 30, 1)));
+        when(customerScoreJdbcRepository.updateSegmentAndLoyaltyScores(anyList())).thenReturn(new int[]{1, 0});
+
+        // When
+        List<AiCustomerDataInputDto> inputData = dataService.prepareDataForAnalysis(store, LocalDate.now());
+        AnalysisApplyResult result = dataService.applyAnalysisResults(store, inputData, aiResults);
+
+        // Then
+        ArgumentCaptor<List<CustomerScoreUpdate>> updateCaptor = ArgumentCaptor.forClass(List.class);
+        verify(customerScoreJdbcRepository, times(1)).updateSegmentAndLoyaltyScores(updateCaptor.capture());
+        assertThat(updateCaptor.getValue()).containsExactly(
+                new CustomerScoreUpdate(1L, CustomerSegment.LOYAL, 90, 3),
+                new CustomerScoreUpdate(3L, CustomerSegment.CHURN_RISK, 10, 1));
+        assertThat(result).isEqualTo(new AnalysisApplyResult(1, 1, 1, 0));
     }
 
     @Test
     void 분석할_고객이_없는_경우() {
         // Given
         Store store = mock(Store.class);
-        when(customerRepository.findAllByStore(store)).thenReturn(List.of());
+        when(customerRepository.findVisitFeatures(eq(store), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
 
         // When
         customerService.analyzeStore(store);
 
         // Then
-        verify(aiClient, never()).analyzeCustomers(anyList());
-        verify(dailyVisitRepository, never()).findByStoreAndDateRangeWithCustomer(any(), any(), any());
-        verify(customerRepository, never()).updateSegmentAndLoyaltyScore(anyLong(), any(), anyInt());
+        verify(aiClient, never()).analyzeCustomers(anyList(), any());
+        verifyNoInteractions(dailyVisitRepository);
+        verify(customerScoreJdbcRepository, never()).updateSegmentAndLoyaltyScores(anyList());
     }
 
     @Test
     void AI분석결과가_비었으면_DB_업데이트_안함() {
         // Given
         Store store = mock(Store.class);
-        Customer customer = mock(Customer.class);
-        when(customer.getId()).thenReturn(1L);
-        when(customer.getTotalAmount()).thenReturn(50000);
-        when(customer.getTotalVisitCount()).thenReturn(1);
-        when(customer.getLastVisitDate()).thenReturn(LocalDate.now().minusWeeks(1));
-
-        when(customerRepository.findAllByStore(store)).thenReturn(List.of(customer));
-        when(dailyVisitRepository.findByStoreAndDateRangeWithCustomer(any(), any(), any())).thenReturn(List.of());
+        when(customerRepository.findVisitFeatures(eq(store), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(createFeature(1L, 50000, 1, LocalDate.now().minusWeeks(1), 0, 0, 0, 0, 0, 0, 0, 0)));
 
         AiCustomerDataResponseDto aiResponse = new AiCustomerDataResponseDto(List.of());
-        when(aiClient.analyzeCustomers(anyList())).thenReturn(aiResponse);
+        when(aiClient.analyzeCustomers(anyList(), any())).thenReturn(aiResponse);
 
         // When
         customerService.analyzeStore(store);
 
         // Then
-        verify(aiClient, times(1)).analyzeCustomers(anyList());
-        verify(customerRepository, never()).updateSegmentAndLoyaltyScore(anyLong(), any(), anyInt());
+        verify(aiClient, times(1)).analyzeCustomers(anyList(), any());
+        verify(customerScoreJdbcRepository, never()).updateSegmentAndLoyaltyScores(anyList());
     }
 
     @Test
     void AI서버_호출_실패() {
         // Given
         Store store = mock(Store.class);
-        Customer customer = mock(Customer.class);
-        when(customer.getId()).thenReturn(1L);
-        when(customer.getTotalAmount()).thenReturn(50000);
-        when(customer.getTotalVisitCount()).thenReturn(1);
-        when(customer.getLastVisitDate()).thenReturn(LocalDate.now().minusWeeks(1));
-
-        when(customerRepository.findAllByStore(store)).thenReturn(List.of(customer));
-        when(dailyVisitRepository.findByStoreAndDateRangeWithCustomer(any(), any(), any())).thenReturn(List.of());
+        when(customerRepository.findVisitFeatures(eq(store), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(createFeature(1L, 50000, 1, LocalDate.now().minusWeeks(1), 0, 0, 0, 0, 0, 0, 0, 0)));
 
-        when(aiClient.analyzeCustomers(anyList())).thenThrow(new RuntimeException("AI Server 500 Error"));
+        when(aiClient.analyzeCustomers(anyList(), any())).thenThrow(new RuntimeException("AI Server 500 Error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> {
             customerService.analyzeStore(store);
         });
 
-        verify(customerRepository, never()).updateSegmentAndLoyaltyScore(anyLong(), any(), anyInt());
+        verify(customerScoreJdbcRepository, never()).updateSegmentAndLoyaltyScores(anyList());
     }
 
     @Nested
@@ -771,6 +1106,11 @@ public class CustomerServiceImplTest {
                 .build();
     }
 
+    private CustomerVisitFeature createFeature(Long id, Integer totalAmount, Integer totalVisitCount, LocalDate lastVisitDate,
+                                               long w8, long w7, long w6, long w5, long w4, long w3, long w2, long w1) {
+        return new CustomerVisitFeature(id, totalAmount, totalVisitCount, lastVisitDate, w8, w7, w6, w5, w4, w3, w2, w1);
+    }
+
     private List<DailyVisit> createMonthlyVisits(Long customerId, Store store, LocalDate referenceDate) {
         List<DailyVisit> visits = new ArrayList<>();
         YearMonth currentMonth = YearMonth.from(referenceDate);
@@ -0,0 +1,106 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsAccumulator;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsDelta;
+import com.example.moki_campaign.domain.customer.repository.CustomerVisitStatsJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerVisitStatsJdbcRepositoryTest {
+
+    private static final int VISIT_COUNT = 100_000;
+    private static final int CUSTOMER_COUNT = 25_000;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CustomerVisitStatsJdbcRepository customerVisitStatsJdbcRepository;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgsCaptor;
+
+    @Test
+    void 방문_10만건을_고객별_변화량으로_합산해_1000명씩_배치_UPDATE() {
+        // Given: 고객마다 금액과 방문일이 다른 방문 10만 건 (고객당 평균 4건, 순서 무작위)
+        Random random = new Random(42);
+        LocalDate baseDate = LocalDate.of(2025, 11, 10);
+        CustomerVisitStatsAccumulator accumulator = new CustomerVisitStatsAccumulator(CUSTOMER_COUNT);
+        Map<Long, int[]> expected = new HashMap<>();
+        Map<Long, LocalDate> expectedLastVisit = new HashMap<>();
+
+        for (int i = 0; i < VISIT_COUNT; i++) {
+            long customerId = 1 + random.nextInt(CUSTOMER_COUNT);
+            int amount = 1000 + random.nextInt(9000);
+            LocalDate visitDate = baseDate.minusDays(random.nextInt(30));
+
+            accumulator.add(customerId, amount, visitDate);
+
+            int[] sums = expected.computeIfAbsent(customerId, id -> new int[2]);
+            sums[0]++;
+            sums[1] += amount;
+            expectedLastVisit.merge(customerId, visitDate, (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        // When
+        int batchCount = customerVisitStatsJdbcRepository.addVisitStats(accumulator);
+
+        // Then: 고객 수 / 1000 만큼의 배치 (방문 수와 무관)
+        int customerCount = expected.size();
+        assertThat(accumulator.visitCount()).isEqualTo(VISIT_COUNT);
+        assertThat(batchCount).isEqualTo((customerCount + 999) / 1000);
+        verify(jdbcTemplate, times(batchCount)).batchUpdate(anyString(), batchArgsCaptor.capture());
+
+        long previousCustomerId = 0;
+        int updatedCustomers = 0;
+        for (List<Object[]> batch : batchArgsCaptor.getAllValues()) {
+            assertThat(batch).hasSizeLessThanOrEqualTo(1000);
+            for (Object[] args : batch) {
+                long customerId = (Long) args[3];
+                assertThat(customerId).isGreaterThan(previousCustomerId);
+                previousCustomerId = customerId;
+
+                assertThat(args[0]).isEqualTo(expected.get(customerId)[0]);
+                assertThat(args[1]).isEqualTo(expected.get(customerId)[1]);
+                assertThat(args[2]).isEqualTo(Date.valueOf(expectedLastVisit.get(customerId)));
+                updatedCustomers++;
+            }
+        }
+        assertThat(updatedCustomers).isEqualTo(customerCount);
+    }
+
+    @Test
+    void 이미_합산된_변화량도_같은_고객이면_하나로_합침() {
+        // Given
+        CustomerVisitStatsAccumulator accumulator = new CustomerVisitStatsAccumulator(2);
+        accumulator.add(7L, 3, 9000, LocalDate.of(2025, 11, 3));
+        accumulator.add(7L, 4000, LocalDate.of(2025, 11, 1));
+        accumulator.add(3L, 1000, LocalDate.of(2025, 11, 2));
+
+        // When
+        List<CustomerVisitStatsDelta> deltas = accumulator.toDeltas();
+
+        // Then
+        assertThat(deltas).containsExactly(
+                new CustomerVisitStatsDelta(3L, 1, 1000, LocalDate.of(2025, 11, 2)),
+                new CustomerVisitStatsDelta(7L, 4, 13000, LocalDate.of(2025, 11, 3)));
+    }
+}
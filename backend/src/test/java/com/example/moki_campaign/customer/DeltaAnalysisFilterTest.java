@@ -0,0 +1,111 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerFingerprintJdbcRepository;
+import com.example.moki_campaign.domain.customer.service.DeltaAnalysisFilter;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeltaAnalysisFilterTest {
+
+    // 2025-11-10(월)은 4주 주기 기준 2번째 주차
+    private static final LocalDate ANALYSIS_DATE = LocalDate.of(2025, 11, 10);
+    private static final long DELTA_STORE_ID = 1L;
+    private static final long FULL_REFRESH_STORE_ID = 2L;
+
+    @Mock
+    private CustomerFingerprintJdbcRepository fingerprintRepository;
+
+    private DeltaAnalysisFilter filter;
+
+    private final Store store = mock(Store.class);
+
+    @BeforeEach
+    void setUp() {
+        AnalysisProps analysisProps = new AnalysisProps();
+        analysisProps.getDelta().setEnabled(true);
+        analysisProps.getDelta().setFullRefreshWeeks(4);
+        filter = new DeltaAnalysisFilter(fingerprintRepository, analysisProps, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void 특성이_바뀌지_않은_고객은_전송에서_제외() {
+        // Given
+        when(store.getId()).thenReturn(DELTA_STORE_ID);
+
+        AiCustomerDataInputDto unchanged = input("1", 30, 1);
+        AiCustomerDataInputDto changed = input("2", 30, 2);
+        AiCustomerDataInputDto neverSent = input("3", 30, 1);
+
+        when(fingerprintRepository.findFingerprints(List.of(1L, 2L, 3L))).thenReturn(Map.of(
+                1L, DeltaAnalysisFilter.fingerprintOf(unchanged),
+                2L, DeltaAnalysisFilter.fingerprintOf(input("2", 30, 1))));
+
+        // When
+        List<AiCustomerDataInputDto> result =
+                filter.selectChanged(store, ANALYSIS_DATE, List.of(unchanged, changed, neverSent));
+
+        // Then
+        assertThat(result).containsExactly(changed, neverSent);
+        assertThat(filter.totals()).isEqualTo(new DeltaAnalysisFilter.Totals(2, 1));
+    }
+
+    @Test
+    void 경과일은_같은_구간이면_같은_지문이고_비활성_경계를_넘으면_다른_지문() {
+        // When & Then
+        assertThat(DeltaAnalysisFilter.fingerprintOf(input("1", 35, 1)))
+                .isEqualTo(DeltaAnalysisFilter.fingerprintOf(input("1", 42, 1)));
+        assertThat(DeltaAnalysisFilter.fingerprintOf(input("1", 60, 1)))
+                .isNotEqualTo(DeltaAnalysisFilter.fingerprintOf(input("1", 61, 1)));
+        assertThat(DeltaAnalysisFilter.fingerprintOf(input("1", 61, 1)))
+                .isEqualTo(DeltaAnalysisFilter.fingerprintOf(input("1", 200, 1)));
+    }
+
+    @Test
+    void 전체_전송_주차에는_모든_고객을_보내고_응답받은_고객의_지문만_저장() {
+        // Given
+        when(store.getId()).thenReturn(FULL_REFRESH_STORE_ID);
+        List<AiCustomerDataInputDto> inputData = List.of(input("1", 3, 1), input("2", 3, 1));
+
+        // When
+        List<AiCustomerDataInputDto> result = filter.selectChanged(store, ANALYSIS_DATE, inputData);
+        filter.remember(store, result, List.of(new AiCustomerDataOutputDto("1", "GENERAL", 0.5)));
+
+        // Then
+        assertThat(result).isEqualTo(inputData);
+        verify(fingerprintRepository, never()).findFingerprints(anyList());
+
+        ArgumentCaptor<long[]> fingerprints = ArgumentCaptor.forClass(long[].class);
+        verify(fingerprintRepository).saveFingerprints(eq(FULL_REFRESH_STORE_ID), eq(List.of(1L)), fingerprints.capture());
+        assertThat(fingerprints.getValue()[0]).isEqualTo(DeltaAnalysisFilter.fingerprintOf(inputData.get(0)));
+    }
+
+    private AiCustomerDataInputDto input(String customerId, int daysSinceLastVisit, int recentVisits) {
+        return AiCustomerDataInputDto.builder()
+                .customerId(customerId)
+                .amount(10000.0)
+                .totalVisits(5)
+                .daysSinceLastVisit(daysSinceLastVisit)
+                .visits8WeekAgo(1).visits7WeekAgo(0).visits6WeekAgo(1).visits5WeekAgo(0)
+                .visits4WeekAgo(1).visits3WeekAgo(0).visits2WeekAgo(0).visits1WeekAgo(recentVisits)
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.repository.CustomerFingerprintJdbcRepository;
+import com.example.moki_campaign.domain.customer.service.AnalysisApplyResult;
+import com.example.moki_campaign.domain.customer.service.AnalysisCheckpoint;
+import com.example.moki_campaign.domain.customer.service.AnalysisChunk;
+import com.example.moki_campaign.domain.customer.service.CustomerAnalysisDataService;
+import com.example.moki_campaign.domain.customer.service.DeltaAnalysisFilter;
+import com.example.moki_campaign.domain.customer.service.PipelinedStoreAnalyzer;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.global.config.AnalysisRetryConfig;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import com.example.moki_campaign.infra.ai.client.AiClient;
+import com.example.moki_campaign.infra.ai.dto.request.AiCustomerDataInputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataOutputDto;
+import com.example.moki_campaign.infra.ai.dto.response.AiCustomerDataResponseDto;
+import com.example.moki_campaign.infra.ai.scorer.RemoteCustomerScorer;
+import com.example.moki_campaign.infra.ai.scorer.ScoreBounds;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PipelinedStoreAnalyzerTest {
+
+    @Mock
+    private CustomerAnalysisDataService dataService;
+    @Mock
+    private AiClient aiClient;
+
+    private PipelinedStoreAnalyzer analyzer;
+    private AnalysisProps analysisProps;
+    private MeterRegistry meterRegistry;
+
+    private final Store store = mock(Store.class);
+    private final LocalDate analysisDate = LocalDate.of(2025, 11, 10);
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        analysisProps = new AnalysisProps();
+        meterRegistry = new SimpleMeterRegistry();
+
+        AnalysisProps.Retry retry = new AnalysisProps.Retry();
+        retry.setInitialInterval(Duration.ofMillis(1));
+        retry.setMaxInterval(Duration.ofMillis(1));
+        DeltaAnalysisFilter deltaAnalysisFilter = new DeltaAnalysisFilter(
+                mock(CustomerFingerprintJdbcRepository.class), analysisProps, meterRegistry);
+        analyzer = new PipelinedStoreAnalyzer(dataService, new RemoteCustomerScorer(aiClient),
+                task -> new Thread(task).start(), AnalysisRetryConfig.createAiChunkRetryTemplate(retry),
+                deltaAnalysisFilter, analysisProps, meterRegistry);
+    }
+
+    @Test
+    void 청크_반영_순서가_바뀌어도_체크포인트는_앞_청크가_모두_반영된_지점까지만_기록() {
+        // Given: 첫 청크의 AI 응답은 두 번째 청크 반영이 끝난 뒤에 돌아옴
+        analysisProps.getPipeline().setAiWorkers(2);
+        analysisProps.getPipeline().setWriterWorkers(2);
+        stubCustomers(3);
+
+        CountDownLatch secondApplied = new CountDownLatch(1);
+        when(aiClient.analyzeCustomers(anyList(), any())).thenAnswer(invocation -> {
+            List<AiCustomerDataInputDto> data = invocation.getArgument(0);
+            if (data.get(0).customerId().equals("1")) {
+                secondApplied.await(5, TimeUnit.SECONDS);
+            }
+            return response(data);
+        });
+        List<String> events = new CopyOnWriteArrayList<>();
+        when(dataService.applyAnalysisResults(eq(store), anyList(), anyList())).thenAnswer(invocation -> {
+            List<AiCustomerDataInputDto> data = invocation.getArgument(1);
+            events.add("apply:" + data.get(0).customerId());
+            if (data.get(0).customerId().equals("2")) {
+                secondApplied.countDown();
+            }
+            return new AnalysisApplyResult(1, 0, 0, 0);
+        });
+
+        List<Long> checkpoints = new CopyOnWriteArrayList<>();
+
+        // When
+        AnalysisApplyResult result = analyzer.analyze(store, analysisDate, 1,
+                new AnalysisCheckpoint(0L, lastCustomerId -> {
+                    events.add("checkpoint:" + lastCustomerId);
+                    checkpoints.add(lastCustomerId);
+                }));
+
+        // Then: 첫 청크 반영 전에는 체크포인트를 기록하지 않고, 각 체크포인트는 그 id까지의 청크가 모두 반영된 뒤에 기록
+        // (두 번째 청크의 반영 기록보다 첫 청크가 먼저 기록되면 체크포인트 1이 남을 수 있음)
+        assertThat(result).isEqualTo(new AnalysisApplyResult(3, 0, 0, 0));
+        assertThat(events.indexOf("apply:2")).isLessThan(events.indexOf("apply:1"));
+        assertThat(events.subList(0, events.indexOf("apply:1"))).noneMatch(event -> event.startsWith("checkpoint:"));
+        for (long checkpointId : checkpoints) {
+            List<String> before = events.subList(0, events.indexOf("checkpoint:" + checkpointId));
+            for (long customerId = 1; customerId <= checkpointId; customerId++) {
+                assertThat(before).contains("apply:" + customerId);
+            }
+        }
+        assertThat(checkpoints).isSorted().last().isEqualTo(3L);
+    }
+
+    @Test
+    void 모든_청크를_매장_전체_정규화_범위로_요청() {
+        // Given
+        analysisProps.getPipeline().setAiWorkers(2);
+        stubCustomers(4);
+        ScoreBounds bounds = new ScoreBounds(range(0, 3), range(0, 10), range(0, 4), range(0, 60),
+                range(0, 1), range(0, 2), range(0, 1));
+        when(dataService.collectScoreBounds(store, analysisDate)).thenReturn(bounds);
+        when(aiClient.analyzeCustomers(anyList(), eq(bounds)))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+        when(dataService.applyAnalysisResults(eq(store), anyList(), anyList()))
+                .thenReturn(new AnalysisApplyResult(1, 0, 0, 0));
+
+        // When
+        AnalysisApplyResult result = analyzer.analyze(store, analysisDate, 1, AnalysisCheckpoint.NONE);
+
+        // Then: 범위는 분석 시작 전에 한 번만 계산
+        assertThat(result).isEqualTo(new AnalysisApplyResult(4, 0, 0, 0));
+        verify(aiClient, times(4)).analyzeCustomers(anyList(), eq(bounds));
+        verify(dataService, times(1)).collectScoreBounds(store, analysisDate);
+    }
+
+    @Test
+    void AI_호출_실패시_모든_단계를_멈추고_예외_전파() {
+        // Given
+        analysisProps.getPipeline().setAiWorkers(1);
+        stubCustomers(5);
+        when(aiClient.analyzeCustomers(anyList(), any()))
+                .thenThrow(new BusinessException(ErrorCode.AI_SERVER_UNAVAILABLE));
+
+        // When & Then
+        assertThatThrownBy(() -> analyzer.analyze(store, analysisDate, 1, AnalysisCheckpoint.NONE))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.AI_SERVER_UNAVAILABLE);
+
+        verify(aiClient, times(1)).analyzeCustomers(anyList(), any());
+        verify(dataService, never()).applyAnalysisResults(any(Store.class), anyList(), anyList());
+    }
+
+    @Test
+    void AI_호출이_밀리면_큐가_찬_만큼만_앞서_읽고_대기() throws Exception {
+        // Given
+        analysisProps.getPipeline().setQueueCapacity(1);
+        analysisProps.getPipeline().setAiWorkers(1);
+        stubCustomers(10);
+
+        CountDownLatch aiReleased = new CountDownLatch(1);
+        when(aiClient.analyzeCustomers(anyList(), any())).thenAnswer(invocation -> {
+            aiReleased.await(5, TimeUnit.SECONDS);
+            return response(invocation.getArgument(0));
+        });
+        when(dataService.applyAnalysisResults(eq(store), anyList(), anyList()))
+                .thenReturn(new AnalysisApplyResult(1, 0, 0, 0));
+
+        // When
+        CompletableFuture<AnalysisApplyResult> analysis = CompletableFuture.supplyAsync(
+                () -> analyzer.analyze(store, analysisDate, 1, AnalysisCheckpoint.NONE));
+        Thread.sleep(500);
+
+        // Then: AI 호출 중 1개 + 선별 단계 큐 1개 + 선별 워커 1개 + 읽기 큐 1개 + 읽기 워커 1개
+        assertThat(reads.get()).isLessThanOrEqualTo(5);
+        assertThat(meterRegistry.get("analysis.pipeline.queue.depth").tag("stage", "read").gauge().value())
+                .isEqualTo(1.0);
+
+        aiReleased.countDown();
+        assertThat(analysis.get(5, TimeUnit.SECONDS)).isEqualTo(new AnalysisApplyResult(10, 0, 0, 0));
+        assertThat(reads.get()).isEqualTo(11);
+        assertThat(meterRegistry.get("analysis.pipeline.stage.customers").tag("stage", "apply").counter().count())
+                .isEqualTo(10.0);
+        assertThat(meterRegistry.get("analysis.pipeline.queue.depth").tag("stage", "read").gauge().value())
+                .isZero();
+    }
+
+    // 고객 id 1 ~ count를 1명씩 청크로 조회
+    private void stubCustomers(int count) {
+        lenient().when(dataService.prepareChunkForAnalysis(eq(store), eq(analysisDate), anyLong(), eq(1)))
+                .thenAnswer(invocation -> {
+                    reads.incrementAndGet();
+                    long afterCustomerId = invocation.getArgument(2);
+                    if (afterCustomerId >= count) {
+                        return AnalysisChunk.empty(afterCustomerId);
+                    }
+                    long customerId = afterCustomerId + 1;
+                    return new AnalysisChunk(List.of(input(String.valueOf(customerId))), customerId);
+                });
+    }
+
+    private AiCustomerDataInputDto input(String customerId) {
+        return AiCustomerDataInputDto.builder()
+                .customerId(customerId)
+                .amount(10000.0)
+                .totalVisits(1)
+                .daysSinceLastVisit(1)
+                .visits8WeekAgo(0).visits7WeekAgo(0).visits6WeekAgo(0).visits5WeekAgo(0)
+                .visits4WeekAgo(0).visits3WeekAgo(0).visits2WeekAgo(0).visits1WeekAgo(1)
+                .build();
+    }
+
+    private AiCustomerDataResponseDto response(List<AiCustomerDataInputDto> data) {
+        return new AiCustomerDataResponseDto(data.stream()
+                .map(input -> new AiCustomerDataOutputDto(input.customerId(), "GENERAL", 0.5))
+                .toList());
+    }
+
+    private static ScoreBounds.Range range(double min, double max) {
+        return new ScoreBounds.Range(min, max);
+    }
+}
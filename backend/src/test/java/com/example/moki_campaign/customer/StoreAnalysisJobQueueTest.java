@@ -0,0 +1,127 @@
+package com.example.moki_campaign.customer;
+
+import com.example.moki_campaign.domain.customer.service.AnalysisApplyResult;
+import com.example.moki_campaign.domain.customer.service.AnalysisCheckpoint;
+import com.example.moki_campaign.domain.customer.service.AnalysisJob;
+import com.example.moki_campaign.domain.customer.service.AnalysisJobStatus;
+import com.example.moki_campaign.domain.customer.service.CustomerService;
+import com.example.moki_campaign.domain.customer.service.StoreAnalysisJobQueue;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.global.config.AnalysisProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreAnalysisJobQueueTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    // 등록된 작업을 테스트에서 직접 실행하는 워커 풀 (capacity를 넘으면 거절)
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private int capacity = 10;
+    private final Executor executor = task -> {
+        if (pending.size() >= capacity) {
+            throw new RejectedExecutionException("full");
+        }
+        pending.add(task);
+    };
+
+    private StoreAnalysisJobQueue jobQueue;
+
+    private final Store store = mock(Store.class);
+    private final Store otherStore = mock(Store.class);
+
+    @BeforeEach
+    void setUp() {
+        jobQueue = new StoreAnalysisJobQueue(customerService, new AnalysisProps(), executor);
+        when(store.getId()).thenReturn(1L);
+        lenient().when(otherStore.getId()).thenReturn(2L);
+    }
+
+    @Test
+    void 대기_또는_실행_중인_매장의_중복_요청은_같은_작업으로_합침() {
+        // Given
+        when(customerService.analyzeStore(eq(store), any(LocalDate.class), eq(AnalysisCheckpoint.NONE)))
+                .thenReturn(new AnalysisApplyResult(5, 10, 0, 0));
+
+        // When
+        AnalysisJob first = jobQueue.submit(store);
+        AnalysisJob duplicate = jobQueue.submit(store);
+        AnalysisJob other = jobQueue.submit(otherStore);
+
+        // Then
+        assertThat(duplicate.id()).isEqualTo(first.id());
+        assertThat(other.id()).isNotEqualTo(first.id());
+        assertThat(pending).hasSize(2);
+
+        // When: 대기 중이던 작업 실행
+        pending.poll().run();
+
+        // Then
+        AnalysisJob finished = jobQueue.findJob(store, first.id());
+        assertThat(finished.status()).isEqualTo(AnalysisJobStatus.COMPLETED);
+        assertThat(finished.result().updated()).isEqualTo(5);
+        verify(customerService, times(1)).analyzeStore(eq(store), any(LocalDate.class), eq(AnalysisCheckpoint.NONE));
+
+        // 끝난 뒤의 요청은 새 작업으로 등록
+        assertThat(jobQueue.submit(store).id()).isNotEqualTo(first.id());
+    }
+
+    @Test
+    void 분석_실패는_작업_상태에_기록() {
+        // Given
+        when(customerService.analyzeStore(eq(store), any(LocalDate.class), eq(AnalysisCheckpoint.NONE)))
+                .thenThrow(new BusinessException(ErrorCode.AI_SERVER_CONNECT_ERROR));
+
+        // When
+        AnalysisJob job = jobQueue.submit(store);
+        pending.poll().run();
+
+        // Then
+        AnalysisJob failed = jobQueue.findJob(store, job.id());
+        assertThat(failed.status()).isEqualTo(AnalysisJobStatus.FAILED);
+        assertThat(failed.error()).isEqualTo(ErrorCode.AI_SERVER_CONNECT_ERROR.message);
+    }
+
+    @Test
+    void 대기열이_가득_차면_요청_거절() {
+        // Given
+        capacity = 1;
+        jobQueue.submit(otherStore);
+
+        // When & Then
+        assertThatThrownBy(() -> jobQueue.submit(store))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ANALYSIS_QUEUE_FULL);
+        verify(customerService, never()).analyzeStore(any(Store.class), any(LocalDate.class), any(AnalysisCheckpoint.class));
+    }
+
+    @Test
+    void 다른_매장의_작업은_조회할_수_없음() {
+        // Given
+        AnalysisJob job = jobQueue.submit(store);
+
+        // When & Then
+        assertThatThrownBy(() -> jobQueue.findJob(otherStore, job.id()))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ANALYSIS_JOB_NOT_FOUND);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.moki_campaign.util;
+
+import com.example.moki_campaign.global.util.MpscRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void 가득_차면_거절하고_비운_만큼_다시_수락() {
+        // given: 요청 크기 3 → 4로 올림
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+
+        // when & then
+        assertThat(ring.capacity()).isEqualTo(4);
+        assertThat(ring.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drain(drained::add, 2)).isEqualTo(2);
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isTrue();
+        assertThat(ring.offer(6)).isFalse();
+
+        ring.drain(drained::add, Integer.MAX_VALUE);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+
+    @Test
+    void 여러_생산자의_값을_하나도_빠짐없이_생산자별_순서대로_소비() throws Exception {
+        // given
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch ready = new CountDownLatch(producers);
+
+        // when: 작은 버퍼에 동시에 넣고 가득 차면 다시 시도
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                ready.countDown();
+                for (long i = 0; i < perProducer; i++) {
+                    long[] value = {producer, i};
+                    while (!ring.offer(value)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        ready.await();
+
+        long[] nextExpected = new long[producers];
+        int received = 0;
+        boolean inOrder = true;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            int[] count = {0};
+            boolean[] ordered = {true};
+            ring.drain(value -> {
+                int producer = (int) value[0];
+                ordered[0] &= value[1] == nextExpected[producer];
+                nextExpected[producer] = value[1] + 1;
+                count[0]++;
+            }, 256);
+            received += count[0];
+            inOrder &= ordered[0];
+            if (count[0] == 0) {
+                Thread.yield();
+            }
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(received).isEqualTo(producers * perProducer);
+        assertThat(inOrder).isTrue();
+        assertThat(nextExpected).containsOnly(perProducer);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+}
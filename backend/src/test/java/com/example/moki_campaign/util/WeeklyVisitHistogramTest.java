@@ -0,0 +1,94 @@
+package com.example.moki_campaign.util;
+
+import com.example.moki_campaign.global.util.WeeklyVisitHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklyVisitHistogramTest {
+
+    private record Visit(long customerId, LocalDate visitDate) {
+    }
+
+    @Test
+    void 주_경계_방문_집계() {
+        // given: 2025-11-12(수) 기준 → 현재 주 월요일 2025-11-10, 8주 전 월요일 2025-09-22
+        LocalDate analysisDate = LocalDate.of(2025, 11, 12);
+        WeeklyVisitHistogram histogram = new WeeklyVisitHistogram(analysisDate, 1);
+        int index = histogram.register(1L);
+
+        // when
+        histogram.add(1L, LocalDate.of(2025, 9, 21));  // 범위 이전 (일요일)
+        histogram.add(1L, LocalDate.of(2025, 9, 22));  // 8주 전 월요일
+        histogram.add(1L, LocalDate.of(2025, 9, 28));  // 8주 전 일요일
+        histogram.add(1L, LocalDate.of(2025, 11, 10)); // 현재 주 월요일
+        histogram.add(1L, LocalDate.of(2025, 11, 16)); // 현재 주 일요일
+        histogram.add(1L, LocalDate.of(2025, 11, 17)); // 범위 이후
+        histogram.add(2L, LocalDate.of(2025, 11, 10)); // 등록되지 않은 고객
+
+        // then
+        assertThat(histogram.count(index, 0)).isEqualTo(2);
+        assertThat(histogram.count(index, 7)).isEqualTo(2);
+        for (int week = 1; week < 7; week++) {
+            assertThat(histogram.count(index, week)).isZero();
+        }
+    }
+
+    @Test
+    void 기존_주별_집계_방식과_결과_일치() {
+        // given
+        Random random = new Random(42);
+        LocalDate analysisDate = LocalDate.of(2026, 1, 1);
+        LocalDate currentWeekStart = analysisDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate rangeStart = currentWeekStart.minusWeeks(8);
+
+        int customerCount = 5_000;
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            long customerId = 1 + random.nextInt(customerCount);
+            visits.add(new Visit(customerId, rangeStart.plusDays(random.nextInt(7 * 10))));
+        }
+
+        // when
+        WeeklyVisitHistogram histogram = new WeeklyVisitHistogram(analysisDate, 16);
+        int[] indexes = new int[customerCount + 1];
+        for (long customerId = 1; customerId <= customerCount; customerId++) {
+            indexes[(int) customerId] = histogram.register(customerId);
+        }
+        for (Visit visit : visits) {
+            histogram.add(visit.customerId(), visit.visitDate());
+        }
+
+        // then
+        int[][] expected = countWithDateRanges(visits, customerCount, currentWeekStart);
+        for (int customerId = 1; customerId <= customerCount; customerId++) {
+            for (int week = 0; week < WeeklyVisitHistogram.WEEKS; week++) {
+                assertThat(histogram.count(indexes[customerId], week))
+                        .as("customer %d, week %d", customerId, week)
+                        .isEqualTo(expected[customerId][week]);
+            }
+        }
+    }
+
+    // 기존 countVisitsInWeek 방식 (주별 날짜 범위 필터링)
+    private int[][] countWithDateRanges(List<Visit> visits, int customerCount, LocalDate currentWeekStart) {
+        int[][] expected = new int[customerCount + 1][WeeklyVisitHistogram.WEEKS];
+        for (int week = 0; week < WeeklyVisitHistogram.WEEKS; week++) {
+            LocalDate weekStart = currentWeekStart.minusWeeks(7 - week);
+            LocalDate weekEnd = weekStart.plusDays(6);
+            for (Visit visit : visits) {
+                if (!visit.visitDate().isBefore(weekStart) && !visit.visitDate().isAfter(weekEnd)) {
+                    expected[(int) visit.customerId()][week]++;
+                }
+            }
+        }
+        return expected;
+    }
+}
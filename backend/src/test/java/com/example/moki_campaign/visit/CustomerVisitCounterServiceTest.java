@@ -0,0 +1,116 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.entity.CustomerVisitCounter;
+import com.example.moki_campaign.domain.visit.entity.DailyVisit;
+import com.example.moki_campaign.domain.visit.repository.CustomerVisitCounterRepository;
+import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.domain.visit.service.CustomerVisitCounterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2(MySQL 모드)에서 주간 방문 카운터의 동시 갱신과 재구성 검증
+ */
+@SpringBootTest
+class CustomerVisitCounterServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private CustomerVisitCounterService customerVisitCounterService;
+    @Autowired
+    private CustomerVisitCounterRepository customerVisitCounterRepository;
+    @Autowired
+    private DailyVisitRepository dailyVisitRepository;
+    @Autowired
+    private StoreRepository storeRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Store store;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        store = VisitTestFixtures.saveStore(storeRepository, "카운터매장");
+        customer = VisitTestFixtures.saveCustomer(customerRepository, store, "고객", "010-1234-0001",
+                0, 0, LocalDate.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        VisitTestFixtures.deleteStoreData(jdbcTemplate, store.getId());
+    }
+
+    @Test
+    void 같은_고객의_방문이_동시에_기록되어도_증가분이_유실되지_않음() throws Exception {
+        // Given: 카운터가 아직 없는 고객
+        LocalDate today = LocalDate.now();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When: 여러 요청이 동시에 같은 고객의 방문을 기록
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                customerVisitCounterService.recordVisits(List.of(visit(today)));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        CustomerVisitCounter counter = customerVisitCounterRepository.findById(customer.getId()).orElseThrow();
+        assertThat(counter.countsAsOf(today)).containsExactly(0, 0, 0, 0, 0, 0, 0, THREADS);
+    }
+
+    @Test
+    void 재구성하면_방문_기록_기준으로_카운터를_덮어씀() {
+        // Given: 방문 기록과 어긋난 카운터
+        LocalDate today = LocalDate.now();
+        dailyVisitRepository.saveAll(List.of(visit(today), visit(today), visit(today.minusWeeks(1))));
+        customerVisitCounterService.recordVisits(List.of(visit(today)));
+
+        // When
+        customerVisitCounterService.rebuild(store);
+
+        // Then
+        CustomerVisitCounter counter = customerVisitCounterRepository.findById(customer.getId()).orElseThrow();
+        assertThat(counter.countsAsOf(today)).containsExactly(0, 0, 0, 0, 0, 0, 1, 2);
+        assertThat(customerVisitCounterService.verify(store).mismatchedCount()).isZero();
+    }
+
+    private DailyVisit visit(LocalDate visitDate) {
+        return DailyVisit.builder()
+                .store(store)
+                .customer(customer)
+                .visitDate(visitDate)
+                .amount(1000)
+                .build();
+    }
+}
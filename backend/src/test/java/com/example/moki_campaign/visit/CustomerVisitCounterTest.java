@@ -0,0 +1,103 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.visit.entity.CustomerVisitCounter;
+import com.example.moki_campaign.global.util.WeeklyVisitHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerVisitCounterTest {
+
+    @Test
+    void 같은_주_방문은_현재_주에_누적() {
+        // given: 2025-11-10(월) ~ 2025-11-16(일)
+        CustomerVisitCounter counter = CustomerVisitCounter.create(1L, 1L, LocalDate.of(2025, 11, 10));
+
+        // when
+        counter.record(LocalDate.of(2025, 11, 10), 1);
+        counter.record(LocalDate.of(2025, 11, 16), 1);
+
+        // then
+        assertThat(counter.countsAsOf(LocalDate.of(2025, 11, 12)))
+                .containsExactly(0, 0, 0, 0, 0, 0, 0, 2);
+    }
+
+    @Test
+    void 새로운_주_방문이_기록되면_카운터가_밀림() {
+        // given
+        CustomerVisitCounter counter = CustomerVisitCounter.create(1L, 1L, LocalDate.of(2025, 11, 10));
+        counter.record(LocalDate.of(2025, 11, 10), 3);
+
+        // when: 2주 뒤 방문
+        counter.record(LocalDate.of(2025, 11, 26), 1);
+
+        // then
+        assertThat(counter.getWeekStart()).isEqualTo(LocalDate.of(2025, 11, 24));
+        assertThat(counter.countsAsOf(LocalDate.of(2025, 11, 26)))
+                .containsExactly(0, 0, 0, 0, 0, 3, 0, 1);
+    }
+
+    @Test
+    void 방문이_없는_주가_지나도_분석_기준_주에_맞춰_해석() {
+        // given
+        CustomerVisitCounter counter = CustomerVisitCounter.create(1L, 1L, LocalDate.of(2025, 11, 10));
+        counter.record(LocalDate.of(2025, 11, 10), 2);
+
+        // when & then: 1주 뒤 분석 → 2주 전 칸
+        assertThat(counter.countsAsOf(LocalDate.of(2025, 11, 17)))
+                .containsExactly(0, 0, 0, 0, 0, 0, 2, 0);
+
+        // 8주 이상 지나면 범위 밖
+        assertThat(counter.countsAsOf(LocalDate.of(2026, 1, 5)))
+                .containsExactly(0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void 범위보다_오래된_방문은_무시() {
+        // given
+        CustomerVisitCounter counter = CustomerVisitCounter.create(1L, 1L, LocalDate.of(2025, 11, 10));
+
+        // when
+        counter.record(LocalDate.of(2025, 9, 21), 1);  // 8주 범위 이전 (일요일)
+        counter.record(LocalDate.of(2025, 9, 22), 1);  // 8주 전 월요일
+
+        // then
+        assertThat(counter.countsAsOf(LocalDate.of(2025, 11, 10)))
+                .containsExactly(1, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void 방문_기록_순서대로_갱신한_결과가_일괄_집계와_일치() {
+        // given
+        Random random = new Random(7);
+        LocalDate firstDay = LocalDate.of(2025, 9, 1);
+        LocalDate analysisDate = LocalDate.of(2025, 12, 3);
+
+        List<LocalDate> visitDates = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            visitDates.add(firstDay.plusDays(random.nextInt(94)));
+        }
+        visitDates.sort(Comparator.naturalOrder());
+
+        // when
+        CustomerVisitCounter counter = CustomerVisitCounter.create(1L, 1L, firstDay);
+        WeeklyVisitHistogram histogram = new WeeklyVisitHistogram(analysisDate, 1);
+        int index = histogram.register(1L);
+        for (LocalDate visitDate : visitDates) {
+            counter.record(visitDate, 1);
+            histogram.add(1L, visitDate);
+        }
+
+        // then
+        int[] counts = counter.countsAsOf(analysisDate);
+        for (int week = 0; week < WeeklyVisitHistogram.WEEKS; week++) {
+            assertThat(counts[week]).isEqualTo(histogram.count(index, week));
+        }
+    }
+}
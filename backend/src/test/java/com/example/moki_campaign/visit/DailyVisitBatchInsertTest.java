@@ -0,0 +1,154 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.entity.DailyVisit;
+import com.example.moki_campaign.domain.visit.repository.DailyVisitRepository;
+import com.example.moki_campaign.global.util.TableIdAllocator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * id_sequence 기반 id 할당으로 saveAll이 JDBC 배치로 전송되는지 Hibernate 통계로 검증
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class DailyVisitBatchInsertTest {
+
+    private static final int VISIT_COUNT = 10_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private StoreRepository storeRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private DailyVisitRepository dailyVisitRepository;
+    @Autowired
+    private TableIdAllocator tableIdAllocator;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Store store;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        store = VisitTestFixtures.saveStore(storeRepository, "배치매장");
+        customer = VisitTestFixtures.saveCustomer(customerRepository, store, "고객", "010-0000-0001",
+                0, 0, LocalDate.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        VisitTestFixtures.deleteStoreData(jdbcTemplate, store.getId());
+    }
+
+    @Test
+    void 방문_1만건_saveAll은_배치_단위로_전송() {
+        // Given
+        List<DailyVisit> visits = visits(VISIT_COUNT);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        dailyVisitRepository.saveAll(visits);
+
+        // Then: INSERT 배치 100회 + id 구간 조회/갱신 100회 (IDENTITY였다면 INSERT만 1만 회)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(VISIT_COUNT);
+        assertThat(statistics.getPrepareStatementCount())
+                .isLessThanOrEqualTo(VISIT_COUNT / BATCH_SIZE * 3 + 10);
+    }
+
+    @Test
+    void JDBC로_할당한_방문_id는_Hibernate가_할당하는_id와_겹치지_않음() {
+        // Given: Hibernate가 id 구간 하나를 가져간 상태
+        DailyVisit before = dailyVisitRepository.save(visits(1).get(0));
+
+        // When
+        long first = tableIdAllocator.allocate(TableIdAllocator.DAILY_VISIT, 10);
+        List<DailyVisit> after = dailyVisitRepository.saveAll(visits(TableIdAllocator.ALLOCATION_SIZE + 50));
+
+        // Then: 할당 전후에 JPA로 저장한 id 모두 JDBC 할당 구간 밖
+        List<Long> jpaIds = new ArrayList<>(List.of(before.getId()));
+        after.forEach(visit -> jpaIds.add(visit.getId()));
+        assertThat(jpaIds).noneMatch(id -> id >= first && id <= first + 9);
+    }
+
+    @Test
+    void JDBC로_할당한_고객_id는_Hibernate가_할당하는_id와_겹치지_않음() {
+        // Given: Hibernate가 id 구간 하나를 가져간 상태 (setUp에서 저장한 고객)
+
+        // When
+        long first = tableIdAllocator.allocate(TableIdAllocator.CUSTOMER, 10);
+        List<Customer> after = new ArrayList<>();
+        for (int i = 0; i < TableIdAllocator.ALLOCATION_SIZE + 50; i++) {
+            after.add(VisitTestFixtures.saveCustomer(customerRepository, store, "고객" + i,
+                    String.format("010-1000-%04d", i), 0, 0, LocalDate.now()));
+        }
+
+        // Then
+        List<Long> jpaIds = new ArrayList<>(List.of(customer.getId()));
+        after.forEach(saved -> jpaIds.add(saved.getId()));
+        assertThat(jpaIds).noneMatch(id -> id >= first && id <= first + 9);
+    }
+
+    @Test
+    void 트랜잭션_안에서_할당해도_애플리케이션_풀의_커넥션을_더_쓰지_않음() {
+        // Given
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When: 커넥션을 잡은 트랜잭션 안에서 할당
+        int activeDuringAllocation = transaction.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM store", Integer.class);
+            tableIdAllocator.allocate(TableIdAllocator.DAILY_VISIT, 10);
+            return pool.getActiveConnections();
+        });
+
+        // Then: 할당은 전용 풀에서 실행되어 바깥 트랜잭션의 커넥션 하나만 사용
+        assertThat(activeDuringAllocation).isEqualTo(1);
+    }
+
+    private List<DailyVisit> visits(int count) {
+        LocalDate today = LocalDate.now();
+        List<DailyVisit> visits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            visits.add(DailyVisit.builder()
+                    .store(store)
+                    .customer(customer)
+                    .visitDate(today.minusDays(i % 56))
+                    .amount(3900)
+                    .build());
+        }
+        return visits;
+    }
+}
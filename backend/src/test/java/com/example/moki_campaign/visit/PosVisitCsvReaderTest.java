@@ -0,0 +1,94 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.visit.service.PosVisitCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PosVisitCsvReaderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private record Row(String phoneNumber, LocalDate visitDate, int amount) {
+    }
+
+    @Test
+    void 열_이름과_따옴표_CRLF를_처리하고_형식이_맞지_않는_줄은_건너뜀() throws Exception {
+        // given
+        Path file = write("﻿\"전화번호\",\"방문일\",\"금액\"\r\n"
+                + "010-0000-0001,2024-01-05,3900\r\n"
+                + "\"010-0000-0002\", 2024/01/06 ,\"4500.00\",카드\n"
+                + "\n"
+                + "010-0000-0003,2024-02-30,1000\n"
+                + "010-0000-0004,2024-01-07,-500\n"
+                + "010-0000-0005,20240108,700");
+
+        // when
+        List<Row> rows = new ArrayList<>();
+        long skipped;
+        try (PosVisitCsvReader reader = new PosVisitCsvReader(file, 0, 1024)) {
+            while (reader.next()) {
+                rows.add(new Row(reader.phoneNumber(), reader.visitDate(), reader.amount()));
+            }
+            skipped = reader.skippedLines();
+            assertThat(reader.offset()).isEqualTo(Files.size(file));
+        }
+
+        // then: 없는 날짜(2월 30일)와 음수 금액은 건너뜀
+        assertThat(rows).containsExactly(
+                new Row("010-0000-0001", LocalDate.of(2024, 1, 5), 3900),
+                new Row("010-0000-0002", LocalDate.of(2024, 1, 6), 4500),
+                new Row("010-0000-0005", LocalDate.of(2024, 1, 8), 700));
+        assertThat(skipped).isEqualTo(2);
+    }
+
+    @Test
+    void 매핑_구간_경계에_걸친_줄도_읽고_기록한_위치부터_이어서_읽음() throws Exception {
+        // given: 매핑 구간(1KB)보다 훨씬 큰 파일
+        StringBuilder csv = new StringBuilder("phone_number,visit_date,amount\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("010-1234-").append(String.format("%04d", i % 700)).append(',')
+                    .append(LocalDate.of(2023, 1, 1).plusDays(i % 365)).append(',')
+                    .append(i).append('\n');
+        }
+        Path file = write(csv.toString());
+
+        // when: 2000줄 읽은 위치를 기록하고 새 reader로 이어서 읽음
+        long checkpoint;
+        long sum = 0;
+        int count = 0;
+        try (PosVisitCsvReader reader = new PosVisitCsvReader(file, 0, 1024)) {
+            while (count < 2000 && reader.next()) {
+                sum += reader.amount();
+                count++;
+            }
+            checkpoint = reader.offset();
+        }
+        try (PosVisitCsvReader reader = new PosVisitCsvReader(file, checkpoint, 1024)) {
+            while (reader.next()) {
+                sum += reader.amount();
+                count++;
+            }
+            assertThat(reader.skippedLines()).isZero();
+        }
+
+        // then: 빠지거나 두 번 읽은 줄 없음
+        assertThat(count).isEqualTo(5000);
+        assertThat(sum).isEqualTo(4999L * 5000 / 2);
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = tempDir.resolve("visits.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.entity.VisitImport;
+import com.example.moki_campaign.domain.visit.entity.VisitImportStatus;
+import com.example.moki_campaign.domain.visit.repository.VisitImportRepository;
+import com.example.moki_campaign.domain.visit.service.VisitImportService;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * H2(MySQL 모드)에서 POS 방문 파일 가져오기와 파일 위치 기준 재개 검증
+ */
+@SpringBootTest(properties = {
+        "visit.ingest.bulk-import.chunk-rows=2",
+        "visit.ingest.bulk-import.directory=build/test-visit-imports",
+        "visit.ingest.bulk-import.max-file-size=1KB"
+})
+class VisitImportServiceTest {
+
+    private static final String CSV = """
+            phone_number,visit_date,amount
+            010-0000-0001,2024-03-01,1000
+            010-0000-0002,2024-03-02,2000
+            010-0000-0001,2024-03-05,3000
+            잘못된 줄
+            010-0000-0003,2024-03-03,4000
+            010-0000-0002,2024-02-01,500
+            """;
+
+    @Autowired
+    private VisitImportService visitImportService;
+    @Autowired
+    private VisitImportRepository visitImportRepository;
+    @Autowired
+    private StoreRepository storeRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Store store;
+    private Customer regular;
+
+    @BeforeEach
+    void setUp() {
+        store = VisitTestFixtures.saveStore(storeRepository, "가져오기매장");
+        regular = VisitTestFixtures.saveCustomer(customerRepository, store, "단골", "010-0000-0001",
+                5000, 2, LocalDate.of(2024, 3, 4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VisitTestFixtures.deleteStoreData(jdbcTemplate, store.getId());
+    }
+
+    @Test
+    void 파일의_방문을_저장하고_고객_통계에_더함() throws Exception {
+        // When
+        VisitImport queued = visitImportService.upload(store,
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        VisitImport finished = awaitFinished(queued.getId());
+
+        // Then
+        assertThat(finished.getStatus()).isEqualTo(VisitImportStatus.COMPLETED);
+        assertThat(finished.getCommittedOffset()).isEqualTo(finished.getFileSize());
+        assertThat(finished.getImportedRows()).isEqualTo(5);
+        assertThat(finished.getSkippedRows()).isEqualTo(1);
+        assertThat(finished.getNewCustomers()).isEqualTo(2);
+        assertThat(Files.exists(Path.of(finished.getFilePath()))).isFalse();
+        assertThat(countVisits()).isEqualTo(5);
+
+        // 기존 고객: 2회 방문 추가, 마지막 방문일은 더 늦은 날짜로
+        Customer updated = customerRepository.findById(regular.getId()).orElseThrow();
+        assertThat(updated.getTotalVisitCount()).isEqualTo(4);
+        assertThat(updated.getTotalAmount()).isEqualTo(9000);
+        assertThat(updated.getLastVisitDate()).isEqualTo(LocalDate.of(2024, 3, 5));
+
+        Customer registered = findCustomer("010-0000-0002");
+        assertThat(registered.getTotalVisitCount()).isEqualTo(2);
+        assertThat(registered.getTotalAmount()).isEqualTo(2500);
+        assertThat(registered.getLastVisitDate()).isEqualTo(LocalDate.of(2024, 3, 2));
+
+        // 끝난 작업은 다시 시작할 수 없음
+        assertThatThrownBy(() -> visitImportService.resume(store, finished.getId()))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.VISIT_IMPORT_NOT_RESUMABLE);
+    }
+
+    @Test
+    void 같은_파일을_다시_올리면_이미_저장된_방문은_건너뜀() throws Exception {
+        // Given
+        VisitImport first = visitImportService.upload(store,
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(first.getId());
+
+        // When
+        VisitImport second = visitImportService.upload(store,
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        VisitImport finished = awaitFinished(second.getId());
+
+        // Then: 방문과 고객 통계가 두 번 반영되지 않음
+        assertThat(finished.getStatus()).isEqualTo(VisitImportStatus.COMPLETED);
+        assertThat(finished.getFileHash()).isEqualTo(first.getFileHash());
+        assertThat(finished.getImportedRows()).isZero();
+        assertThat(countVisits()).isEqualTo(5);
+        assertThat(customerRepository.findById(regular.getId()).orElseThrow().getTotalVisitCount()).isEqualTo(4);
+        assertThat(findCustomer("010-0000-0002").getTotalVisitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void 진행_위치를_기록하기_전에_저장된_방문은_다시_가져와도_건너뜀() throws Exception {
+        // Given: 첫 실행이 끝까지 저장했지만 진행 위치는 처음으로 남은 작업 (해시 없이 등록된 이전 버전 작업)
+        Path directory = Files.createDirectories(Path.of("build/test-visit-imports"));
+        VisitImport first = visitImportService.upload(store,
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(first.getId());
+        Path file = Files.writeString(directory.resolve(UUID.randomUUID() + ".csv"), CSV);
+        VisitImport retried = visitImportRepository.save(
+                VisitImport.queued(store.getId(), file.toString(), Files.size(file), null));
+
+        // When
+        jdbcTemplate.update("UPDATE visit_import SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusHours(1), retried.getId());
+        visitImportService.recoverInterrupted();
+        VisitImport finished = awaitFinished(retried.getId());
+
+        // Then
+        assertThat(finished.getStatus()).isEqualTo(VisitImportStatus.COMPLETED);
+        assertThat(finished.getImportedRows()).isZero();
+        assertThat(countVisits()).isEqualTo(5);
+        assertThat(customerRepository.findById(regular.getId()).orElseThrow().getTotalVisitCount()).isEqualTo(4);
+    }
+
+    @Test
+    void 실패한_작업은_커밋된_파일_위치부터_이어서_가져옴() throws Exception {
+        // Given: 앞의 두 줄까지 커밋된 뒤 실패한 작업
+        Path directory = Files.createDirectories(Path.of("build/test-visit-imports"));
+        Path file = Files.writeString(directory.resolve(UUID.randomUUID() + ".csv"), CSV);
+        long committedOffset = CSV.indexOf("010-0000-0001,2024-03-05");
+
+        VisitImport visitImport = visitImportRepository.save(
+                VisitImport.queued(store.getId(), file.toString(), Files.size(file), null));
+        LocalDateTime now = LocalDateTime.now();
+        visitImportRepository.claim(visitImport.getId(), VisitImportStatus.QUEUED, VisitImportStatus.RUNNING, now);
+        jdbcTemplate.update("UPDATE visit_import SET committed_offset = ?, imported_rows = 2 WHERE id = ?",
+                committedOffset, visitImport.getId());
+        visitImportRepository.finish(visitImport.getId(), VisitImportStatus.RUNNING, VisitImportStatus.FAILED,
+                "DB 연결 실패", null, now);
+
+        // When
+        visitImportService.resume(store, visitImport.getId());
+        VisitImport finished = awaitFinished(visitImport.getId());
+
+        // Then: 커밋된 위치 이후의 3줄만 저장
+        assertThat(finished.getStatus()).isEqualTo(VisitImportStatus.COMPLETED);
+        assertThat(finished.getImportedRows()).isEqualTo(5);
+        assertThat(finished.getAttempts()).isEqualTo(2);
+        assertThat(finished.getLastError()).isNull();
+        assertThat(countVisits()).isEqualTo(3);
+        assertThat(customerRepository.findById(regular.getId()).orElseThrow().getTotalVisitCount()).isEqualTo(3);
+    }
+
+    @Test
+    void 최대_크기를_넘는_파일은_저장하지_않고_거절() throws Exception {
+        // Given: max-file-size(1KB)보다 큰 본문
+        byte[] body = CSV.repeat(20).getBytes(StandardCharsets.UTF_8);
+
+        // When & Then
+        assertThatThrownBy(() -> visitImportService.upload(store, new ByteArrayInputStream(body)))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.VISIT_IMPORT_TOO_LARGE);
+        assertThat(countImports()).isZero();
+        try (Stream<Path> files = Files.list(Path.of("build/test-visit-imports"))) {
+            assertThat(files.filter(file -> file.getFileName().toString().startsWith("store-" + store.getId() + "-")))
+                    .isEmpty();
+        }
+    }
+
+    @Test
+    void 종료된_인스턴스가_실행_중으로_남긴_작업은_다시_실행() throws Exception {
+        // Given: 실행 중 상태로 stale-after(10분) 넘게 진행이 없는 작업
+        Path directory = Files.createDirectories(Path.of("build/test-visit-imports"));
+        Path file = Files.writeString(directory.resolve(UUID.randomUUID() + ".csv"), CSV);
+
+        VisitImport visitImport = visitImportRepository.save(
+                VisitImport.queued(store.getId(), file.toString(), Files.size(file), null));
+        visitImportRepository.claim(visitImport.getId(), VisitImportStatus.QUEUED, VisitImportStatus.RUNNING,
+                LocalDateTime.now());
+        jdbcTemplate.update("UPDATE visit_import SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusHours(1), visitImport.getId());
+
+        // When
+        int recovered = visitImportService.recoverInterrupted();
+
+        // Then
+        assertThat(recovered).isEqualTo(1);
+        VisitImport finished = awaitFinished(visitImport.getId());
+        assertThat(finished.getStatus()).isEqualTo(VisitImportStatus.COMPLETED);
+        assertThat(finished.getAttempts()).isEqualTo(2);
+        assertThat(countVisits()).isEqualTo(5);
+    }
+
+    private VisitImport awaitFinished(Long importId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            VisitImport visitImport = visitImportRepository.findById(importId).orElseThrow();
+            if (visitImport.getStatus() == VisitImportStatus.COMPLETED || visitImport.getStatus() == VisitImportStatus.FAILED) {
+                return visitImport;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("가져오기가 끝나지 않음");
+    }
+
+    private int countVisits() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM daily_visit WHERE store_id = ?", Integer.class, store.getId());
+    }
+
+    private int countImports() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM visit_import WHERE store_id = ?", Integer.class, store.getId());
+    }
+
+    private Customer findCustomer(String phoneNumber) {
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM customer WHERE store_id = ? AND phone_number = ?",
+                Long.class, store.getId(), phoneNumber);
+        return customerRepository.findById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import com.example.moki_campaign.domain.visit.dto.request.VisitCheckInRequestDto;
+import com.example.moki_campaign.domain.visit.dto.response.VisitBatchResponseDto;
+import com.example.moki_campaign.domain.visit.repository.CustomerVisitCounterRepository;
+import com.example.moki_campaign.domain.visit.repository.VisitIngestJdbcRepository;
+import com.example.moki_campaign.domain.visit.service.VisitIngestService;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import com.example.moki_campaign.global.util.TableIdAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * H2(MySQL 모드)에서 ON DUPLICATE KEY UPDATE 기반 방문 일괄 수집 검증
+ */
+@SpringBootTest
+class VisitIngestServiceTest {
+
+    @Autowired
+    private VisitIngestService visitIngestService;
+    @Autowired
+    private StoreRepository storeRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CustomerVisitCounterRepository customerVisitCounterRepository;
+    @Autowired
+    private VisitIngestJdbcRepository visitIngestJdbcRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    private Store store;
+    private Customer regular;
+
+    @BeforeEach
+    void setUp() {
+        store = VisitTestFixtures.saveStore(storeRepository, "수집매장");
+        regular = VisitTestFixtures.saveCustomer(customerRepository, store, "단골", "010-0000-0001",
+                5000, 2, today.minusDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VisitTestFixtures.deleteStoreData(jdbcTemplate, store.getId());
+    }
+
+    @Test
+    void 같은_체크인을_다시_보내도_방문과_고객_통계는_한번만_반영() {
+        // Given
+        List<VisitCheckInRequestDto> firstBatch = List.of(
+                checkIn("k1", "010-0000-0001", today.minusDays(3), 1000),
+                checkIn("k2", "010-0000-0001", today, 2000),
+                checkIn("k3", "010-0000-0002", today.minusDays(1), 3000),
+                checkIn("k3", "010-0000-0002", today.minusDays(1), 3000));
+
+        // When
+        VisitBatchResponseDto first = visitIngestService.ingest(store, firstBatch);
+
+        // Then: 요청 안의 중복은 한 번만 저장, 처음 보는 번호는 고객으로 등록
+        assertThat(first).isEqualTo(new VisitBatchResponseDto(4, 3, 1, 1));
+
+        Customer updated = customerRepository.findById(regular.getId()).orElseThrow();
+        assertThat(updated.getTotalVisitCount()).isEqualTo(4);
+        assertThat(updated.getTotalAmount()).isEqualTo(8000);
+        assertThat(updated.getLastVisitDate()).isEqualTo(today);
+        assertThat(customerVisitCounterRepository.findById(regular.getId())).isPresent();
+
+        // When: 응답을 받지 못한 키오스크가 같은 체크인과 새 체크인을 함께 재전송
+        List<VisitCheckInRequestDto> retry = new ArrayList<>(firstBatch);
+        retry.add(checkIn("k4", "010-0000-0002", today, 500));
+        VisitBatchResponseDto second = visitIngestService.ingest(store, retry);
+
+        // Then
+        assertThat(second).isEqualTo(new VisitBatchResponseDto(5, 1, 4, 0));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM daily_visit WHERE store_id = ?", Integer.class, store.getId())).isEqualTo(4);
+        assertThat(customerRepository.findById(regular.getId()).orElseThrow().getTotalVisitCount()).isEqualTo(4);
+
+        Long registeredId = jdbcTemplate.queryForObject(
+                "SELECT id FROM customer WHERE store_id = ? AND phone_number = ?",
+                Long.class, store.getId(), "010-0000-0002");
+        Customer registered = customerRepository.findById(registeredId).orElseThrow();
+        assertThat(registered.getTotalVisitCount()).isEqualTo(2);
+        assertThat(registered.getTotalAmount()).isEqualTo(3500);
+        assertThat(registered.getLastVisitDate()).isEqualTo(today);
+    }
+
+    @Test
+    void 다른_요청이_먼저_등록한_전화번호는_기존_고객_id로_확인() {
+        // Given: 조회 이후 다른 요청이 같은 번호를 먼저 등록한 상황
+        Map<String, LocalDate> newPhones = Map.of(
+                "010-0000-0001", today,
+                "010-0000-0009", today);
+
+        // When
+        Map<String, Long> customerIds = visitIngestJdbcRepository.registerCustomers(store.getId(), newPhones);
+
+        // Then: 이미 있던 번호는 건너뛰고 기존 id를, 새 번호는 등록한 id를 반환
+        assertThat(customerIds).containsOnlyKeys("010-0000-0001", "010-0000-0009");
+        assertThat(customerIds.get("010-0000-0001")).isEqualTo(regular.getId());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer WHERE store_id = ?", Integer.class, store.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void 기본_키가_충돌한_방문과_고객은_중복으로_세지_않고_새_id로_저장() {
+        // Given: 다음에 할당될 id를 다른 행이 이미 사용 중 (id_sequence가 실제 id보다 뒤처진 상황)
+        long nextCustomerId = lastIssuedId(TableIdAllocator.CUSTOMER) + 1;
+        long nextVisitId = lastIssuedId(TableIdAllocator.DAILY_VISIT) + 1;
+        jdbcTemplate.update("INSERT INTO customer (id, store_id, name, phone_number, total_amount, points, segment, " +
+                        "loyalty_score, total_visit_count, last_visit_date, created_at, updated_at) " +
+                        "VALUES (?, ?, '다른고객', '010-9999-9999', 0, 0, 'GENERAL', 0, 0, ?, NOW(), NOW())",
+                nextCustomerId, store.getId(), today);
+        jdbcTemplate.update("INSERT INTO daily_visit (id, store_id, customer_id, visit_date, amount, idempotency_key, " +
+                        "created_at) VALUES (?, ?, ?, ?, 0, 'other', NOW())",
+                nextVisitId, store.getId(), regular.getId(), today);
+
+        // When
+        VisitBatchResponseDto response = visitIngestService.ingest(store, List.of(
+                checkIn("k1", "010-0000-0005", today, 1000)));
+
+        // Then
+        assertThat(response).isEqualTo(new VisitBatchResponseDto(1, 1, 0, 1));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM daily_visit WHERE store_id = ? AND idempotency_key = 'k1'",
+                Integer.class, store.getId())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer WHERE store_id = ? AND phone_number = '010-0000-0005'",
+                Integer.class, store.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void 최대_체크인_수를_넘으면_요청_거절() {
+        // Given
+        List<VisitCheckInRequestDto> checkIns = new ArrayList<>();
+        for (int i = 0; i <= 5000; i++) {
+            checkIns.add(checkIn("k" + i, "010-0000-0001", today, 1000));
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> visitIngestService.ingest(store, checkIns))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.VISIT_BATCH_TOO_LARGE);
+    }
+
+    private long lastIssuedId(String segment) {
+        List<Long> lastIssued = jdbcTemplate.queryForList(
+                "SELECT next_val FROM id_sequence WHERE sequence_name = ?", Long.class, segment);
+        return lastIssued.isEmpty() ? 0 : lastIssued.get(0);
+    }
+
+    private VisitCheckInRequestDto checkIn(String key, String phoneNumber, LocalDate visitDate, int amount) {
+        return new VisitCheckInRequestDto(key, phoneNumber, visitDate, amount);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.customer.entity.Customer;
+import com.example.moki_campaign.domain.customer.repository.CustomerRepository;
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.store.repository.StoreRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * 같은 H2 컨텍스트를 공유하는 @SpringBootTest 방문 테스트용 매장/고객 데이터
+ * 매장마다 고유한 사업자번호를 사용하고, 테스트가 끝나면 매장 단위로 데이터를 지워 다른 테스트의 집계에 섞이지 않게 함
+ */
+final class VisitTestFixtures {
+
+    private VisitTestFixtures() {
+    }
+
+    static Store saveStore(StoreRepository storeRepository, String name) {
+        return storeRepository.save(Store.builder()
+                .businessNumber(UUID.randomUUID().toString().substring(0, 12))
+                .password("password")
+                .name(name)
+                .phoneNumber("02-0000-0000")
+                .build());
+    }
+
+    static Customer saveCustomer(CustomerRepository customerRepository, Store store, String name, String phoneNumber,
+                                 int totalAmount, int totalVisitCount, LocalDate lastVisitDate) {
+        return customerRepository.save(Customer.builder()
+                .store(store)
+                .name(name)
+                .phoneNumber(phoneNumber)
+                .totalAmount(totalAmount)
+                .points(0)
+                .loyaltyScore(0)
+                .totalVisitCount(totalVisitCount)
+                .lastVisitDate(lastVisitDate)
+                .build());
+    }
+
+    // 매장과 매장에 속한 방문/고객/가져오기 작업 삭제 (외래 키 순서)
+    static void deleteStoreData(JdbcTemplate jdbcTemplate, Long storeId) {
+        jdbcTemplate.update("DELETE FROM daily_visit WHERE store_id = ?", storeId);
+        jdbcTemplate.update("DELETE FROM customer_visit_counter WHERE store_id = ?", storeId);
+        jdbcTemplate.update("DELETE FROM visit_import WHERE store_id = ?", storeId);
+        jdbcTemplate.update("DELETE FROM customer WHERE store_id = ?", storeId);
+        jdbcTemplate.update("DELETE FROM store WHERE id = ?", storeId);
+    }
+}
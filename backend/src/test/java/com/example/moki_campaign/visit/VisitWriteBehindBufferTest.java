@@ -0,0 +1,278 @@
+package com.example.moki_campaign.visit;
+
+import com.example.moki_campaign.domain.store.entity.Store;
+import com.example.moki_campaign.domain.visit.dto.request.VisitCheckInRequestDto;
+import com.example.moki_campaign.domain.visit.dto.response.VisitBatchResponseDto;
+import com.example.moki_campaign.domain.visit.service.VisitIngestService;
+import com.example.moki_campaign.domain.visit.service.VisitWriteBehindBuffer;
+import com.example.moki_campaign.global.config.VisitIngestProps;
+import com.example.moki_campaign.global.exception.common.BusinessException;
+import com.example.moki_campaign.global.exception.common.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VisitWriteBehindBufferTest {
+
+    @Mock
+    private VisitIngestService visitIngestService;
+
+    @TempDir
+    private Path tempDir;
+
+    private VisitIngestProps visitIngestProps;
+    private MeterRegistry meterRegistry;
+
+    private final Store store = mock(Store.class);
+    private final Store otherStore = mock(Store.class);
+    private final VisitBatchResponseDto saved = new VisitBatchResponseDto(1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        visitIngestProps = new VisitIngestProps();
+        VisitIngestProps.WriteBehind writeBehind = visitIngestProps.getWriteBehind();
+        writeBehind.setEnabled(true);
+        writeBehind.setCapacity(16);
+        writeBehind.setFlushSize(3);
+        writeBehind.setFlushInterval(Duration.ofSeconds(10));
+        writeBehind.setFlushRetryInitialInterval(Duration.ofMillis(1));
+        writeBehind.setFlushRetryMaxInterval(Duration.ofMillis(5));
+        writeBehind.setSpillFile(tempDir.resolve("visits.spill").toString());
+        meterRegistry = new SimpleMeterRegistry();
+
+        lenient().when(store.getId()).thenReturn(1L);
+        lenient().when(otherStore.getId()).thenReturn(2L);
+    }
+
+    @Test
+    void flush_size만큼_모이면_매장별로_묶어서_저장() {
+        // Given
+        when(visitIngestService.ingest(anyLong(), anyList())).thenReturn(saved);
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+
+        // When
+        assertThat(buffer.submit(store, checkIn("a", "010-0000-0001"))).isTrue();
+        assertThat(buffer.submit(otherStore, checkIn("b", "010-0000-0002"))).isTrue();
+        assertThat(buffer.submit(store, checkIn("c", "010-0000-0001"))).isTrue();
+
+        // Then: flush-interval(10초)을 기다리지 않고 저장
+        verify(visitIngestService, timeout(2000)).ingest(1L,
+                List.of(checkIn("a", "010-0000-0001"), checkIn("c", "010-0000-0001")));
+        verify(visitIngestService, timeout(2000)).ingest(2L, List.of(checkIn("b", "010-0000-0002")));
+        buffer.stop();
+
+        assertThat(meterRegistry.get("visit.buffer.persisted").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("visit.buffer.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void 저장_실패한_체크인은_파일에_남겼다가_다음_시작_시_다시_저장() throws Exception {
+        // Given: 종료 시 저장 실패 (재시도 없음)
+        visitIngestProps.getWriteBehind().setFlushMaxAttempts(1);
+        when(visitIngestService.ingest(anyLong(), anyList()))
+                .thenThrow(new IllegalStateException("DB 연결 실패"))
+                .thenReturn(saved);
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+        buffer.submit(store, checkIn("a\tb", "010-0000-0001"));
+        buffer.submit(store, checkIn("c", "010-0000-0002"));
+
+        // When
+        buffer.stop();
+
+        // Then
+        Path spillFile = Path.of(visitIngestProps.getWriteBehind().getSpillFile());
+        assertThat(Files.readAllLines(spillFile)).hasSize(2);
+        assertThat(meterRegistry.get("visit.buffer.spilled").counter().count()).isEqualTo(2.0);
+
+        // When: 다시 시작
+        VisitWriteBehindBuffer restarted = newBuffer();
+        restarted.start();
+        restarted.stop();
+
+        // Then: 종료 시 실패한 저장과 같은 체크인으로 다시 저장
+        verify(visitIngestService, times(2)).ingest(1L,
+                List.of(checkIn("a\tb", "010-0000-0001"), checkIn("c", "010-0000-0002")));
+        assertThat(spillFile).doesNotExist();
+        assertThat(spillFile.resolveSibling("visits.spill.replaying")).doesNotExist();
+    }
+
+    @Test
+    void 일시적인_저장_실패는_재시도하고_파일에_남기지_않음() {
+        // Given: 두 번 실패한 뒤 성공
+        when(visitIngestService.ingest(anyLong(), anyList()))
+                .thenThrow(new IllegalStateException("DB 연결 실패"))
+                .thenThrow(new IllegalStateException("DB 연결 실패"))
+                .thenReturn(saved);
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+
+        // When
+        buffer.submit(store, checkIn("a", "010-0000-0001"));
+        buffer.stop();
+
+        // Then
+        verify(visitIngestService, times(3)).ingest(1L, List.of(checkIn("a", "010-0000-0001")));
+        assertThat(Path.of(visitIngestProps.getWriteBehind().getSpillFile())).doesNotExist();
+        assertThat(meterRegistry.get("visit.buffer.persisted").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("visit.buffer.spilled").counter().count()).isZero();
+    }
+
+    @Test
+    void 저장할_수_없는_체크인은_재시도하지_않고_버림() {
+        // Given
+        when(visitIngestService.ingest(anyLong(), anyList()))
+                .thenThrow(new BusinessException(ErrorCode.STORE_NOT_FOUND));
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+
+        // When
+        buffer.submit(store, checkIn("a", "010-0000-0001"));
+        buffer.stop();
+
+        // Then
+        verify(visitIngestService, times(1)).ingest(anyLong(), anyList());
+        assertThat(meterRegistry.get("visit.buffer.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 저장할_수_없는_체크인이_섞이면_나누어_저장하고_해당_체크인만_버림() {
+        // Given: 체크인 id가 bad인 체크인이 포함된 묶음은 저장 불가
+        when(visitIngestService.ingest(anyLong(), anyList())).thenAnswer(invocation -> {
+            List<VisitCheckInRequestDto> checkIns = invocation.getArgument(1);
+            if (checkIns.stream().anyMatch(checkIn -> checkIn.idempotencyKey().equals("bad"))) {
+                throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE);
+            }
+            return saved;
+        });
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+
+        // When
+        buffer.submit(store, checkIn("a", "010-0000-0001"));
+        buffer.submit(store, checkIn("bad", "010-0000-0002"));
+        buffer.submit(store, checkIn("c", "010-0000-0003"));
+        buffer.stop();
+
+        // Then: 나머지 체크인은 저장
+        verify(visitIngestService).ingest(1L, List.of(checkIn("a", "010-0000-0001")));
+        verify(visitIngestService).ingest(1L, List.of(checkIn("c", "010-0000-0003")));
+        assertThat(meterRegistry.get("visit.buffer.persisted").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("visit.buffer.dropped").counter().count()).isEqualTo(1.0);
+        assertThat(Path.of(visitIngestProps.getWriteBehind().getSpillFile())).doesNotExist();
+    }
+
+    @Test
+    void 종료_대기_시간을_넘기면_재시도를_멈추고_파일에_남긴_뒤_종료() throws Exception {
+        // Given: 저장 실패 후 재시도 대기가 종료 대기 시간보다 긴 상황
+        VisitIngestProps.WriteBehind writeBehind = visitIngestProps.getWriteBehind();
+        writeBehind.setFlushMaxAttempts(5);
+        writeBehind.setFlushRetryInitialInterval(Duration.ofSeconds(10));
+        writeBehind.setFlushRetryMaxInterval(Duration.ofSeconds(10));
+        writeBehind.setShutdownTimeout(Duration.ofMillis(200));
+        when(visitIngestService.ingest(anyLong(), anyList())).thenThrow(new IllegalStateException("DB 연결 실패"));
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+        buffer.submit(store, checkIn("a", "010-0000-0001"));
+
+        // When
+        buffer.stop();
+
+        // Then: 쓰기 스레드가 spill 파일에 남긴 뒤에 반환
+        Path spillFile = Path.of(writeBehind.getSpillFile());
+        assertThat(Files.readAllLines(spillFile)).hasSize(1);
+        assertThat(meterRegistry.get("visit.buffer.spilled").counter().count()).isEqualTo(1.0);
+        verify(visitIngestService, times(1)).ingest(anyLong(), anyList());
+    }
+
+    @Test
+    void 실행_중에도_주기적으로_파일의_체크인을_다시_저장() throws Exception {
+        // Given: 재시도까지 모두 실패해 파일에 남음
+        visitIngestProps.getWriteBehind().setFlushMaxAttempts(2);
+        visitIngestProps.getWriteBehind().setFlushInterval(Duration.ofMillis(10));
+        visitIngestProps.getWriteBehind().setSpillReplayInterval(Duration.ofMillis(200));
+        when(visitIngestService.ingest(anyLong(), anyList()))
+                .thenThrow(new IllegalStateException("DB 연결 실패"))
+                .thenThrow(new IllegalStateException("DB 연결 실패"))
+                .thenReturn(saved);
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+
+        // When
+        buffer.submit(store, checkIn("a", "010-0000-0001"));
+
+        // Then: 재시작 없이 DB가 복구된 뒤 다시 저장되고 파일이 삭제됨
+        Path spillFile = Path.of(visitIngestProps.getWriteBehind().getSpillFile());
+        verify(visitIngestService, timeout(5000).times(3)).ingest(1L, List.of(checkIn("a", "010-0000-0001")));
+        buffer.stop();
+
+        assertThat(meterRegistry.get("visit.buffer.spilled").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("visit.buffer.persisted").counter().count()).isEqualTo(1.0);
+        assertThat(spillFile).doesNotExist();
+        assertThat(spillFile.resolveSibling("visits.spill.replaying")).doesNotExist();
+    }
+
+    @Test
+    void 버퍼가_가득_차면_기다린_뒤_거절() throws Exception {
+        // Given: 용량 2, 첫 저장이 끝나지 않음
+        visitIngestProps.getWriteBehind().setCapacity(2);
+        visitIngestProps.getWriteBehind().setOfferTimeout(Duration.ofMillis(20));
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(visitIngestService.ingest(anyLong(), anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            released.await(5, TimeUnit.SECONDS);
+            return saved;
+        });
+        VisitWriteBehindBuffer buffer = newBuffer();
+        buffer.start();
+
+        buffer.submit(store, checkIn("a", "010-0000-0001"));
+        buffer.submit(store, checkIn("b", "010-0000-0001"));
+        assertThat(flushing.await(2, TimeUnit.SECONDS)).isTrue();
+        buffer.submit(store, checkIn("c", "010-0000-0001"));
+        buffer.submit(store, checkIn("d", "010-0000-0001"));
+
+        // When & Then
+        assertThatThrownBy(() -> buffer.submit(store, checkIn("e", "010-0000-0001")))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.VISIT_BUFFER_FULL);
+        assertThat(meterRegistry.get("visit.buffer.rejected").counter().count()).isEqualTo(1.0);
+
+        // 저장이 끝나면 남은 체크인까지 모두 저장
+        released.countDown();
+        buffer.stop();
+        verify(visitIngestService).ingest(eq(1L), eq(List.of(checkIn("c", "010-0000-0001"), checkIn("d", "010-0000-0001"))));
+        assertThat(meterRegistry.get("visit.buffer.persisted").counter().count()).isEqualTo(4.0);
+    }
+
+    private VisitWriteBehindBuffer newBuffer() {
+        return new VisitWriteBehindBuffer(visitIngestService, visitIngestProps, meterRegistry);
+    }
+
+    private VisitCheckInRequestDto checkIn(String idempotencyKey, String phoneNumber) {
+        return new VisitCheckInRequestDto(idempotencyKey, phoneNumber, LocalDate.of(2025, 11, 10), 3900);
+    }
+}